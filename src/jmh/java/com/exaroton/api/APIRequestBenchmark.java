@@ -0,0 +1,59 @@
+package com.exaroton.api;
+
+import com.exaroton.api.request.server.GetPlayerListEntriesRequest;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building the request path from the parsed endpoint template against the previous approach of replacing
+ * each parameter in the endpoint string. Run with -prof gc to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class APIRequestBenchmark {
+    private APIRequest<List<String>> request;
+
+    @Setup
+    public void setUp() {
+        ExarotonClient client = new ExarotonClient("benchmark");
+        request = new GetPlayerListEntriesRequest(client, new Gson(), "tgkm731xO7GiHt76", "whitelist");
+    }
+
+    @Benchmark
+    public String templatePath() {
+        return request.getPath();
+    }
+
+    @Benchmark
+    public String replacePath() {
+        HashMap<String, String> data = new HashMap<>();
+        data.put("id", request.getParameter("id"));
+        data.put("list", request.getParameter("list"));
+
+        String path = request.getEndpoint();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            path = path.replace("{" + entry.getKey() + "}", entry.getValue());
+        }
+        return path;
+    }
+
+    @Benchmark
+    public TypeToken<APIResponse<List<String>>> cachedType() {
+        return request.getType();
+    }
+
+    @Benchmark
+    public TypeToken<APIResponse<List<String>>> newType() {
+        return new TypeToken<APIResponse<List<String>>>() {};
+    }
+}
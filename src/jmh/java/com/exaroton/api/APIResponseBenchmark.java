@@ -0,0 +1,67 @@
+package com.exaroton.api;
+
+import com.exaroton.api.server.Server;
+import com.exaroton.api.util.ConfigOptionTypeAdapterFactory;
+import com.exaroton.api.util.ModelTypeAdapterFactory;
+import com.exaroton.api.util.VoidTypeAdapter;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a server list with the streaming APIResponse body subscriber against buffering the body as a
+ * string and decoding it afterwards. Run with -prof gc to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class APIResponseBenchmark {
+    private static final TypeToken<APIResponse<List<Server>>> TYPE = new TypeToken<APIResponse<List<Server>>>() {};
+
+    @Param({"10", "1000", "10000"})
+    public int servers;
+
+    private ExarotonClient client;
+    private Gson gson;
+    private List<ByteBuffer> chunks;
+
+    @Setup
+    public void setUp() {
+        client = new ExarotonClient("benchmark");
+        gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new ConfigOptionTypeAdapterFactory())
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+                .registerTypeAdapter(Void.class, new VoidTypeAdapter())
+                .create();
+        chunks = BenchmarkBodies.chunks(BenchmarkBodies.serverList(servers));
+    }
+
+    @Benchmark
+    public List<Server> streaming() {
+        var subscriber = APIResponse.bodyHandler(client, gson, TYPE).apply(BenchmarkBodies.OK);
+        BenchmarkBodies.feed(subscriber, chunks);
+        return subscriber.getBody().toCompletableFuture().join().getData();
+    }
+
+    @Benchmark
+    public List<Server> bufferedString() {
+        var subscriber = HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        BenchmarkBodies.feed(subscriber, chunks);
+        String json = subscriber.getBody().toCompletableFuture().join();
+        APIResponse<List<Server>> response = gson.fromJson(json, TYPE);
+        for (Server server : response.getData()) {
+            server.initialize(client, gson);
+        }
+        return response.getData();
+    }
+}
@@ -0,0 +1,114 @@
+package com.exaroton.api;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+/**
+ * Helpers to feed response bodies into body subscribers without a network connection
+ */
+final class BenchmarkBodies {
+    /**
+     * Size of the chunks the HTTP client delivers
+     */
+    static final int CHUNK_SIZE = 16 * 1024;
+
+    static final HttpResponse.ResponseInfo OK = new HttpResponse.ResponseInfo() {
+        @Override
+        public int statusCode() {
+            return 200;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return HttpHeaders.of(Map.of("Content-Type", List.of("application/json")), (a, b) -> true);
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return HttpClient.Version.HTTP_1_1;
+        }
+    };
+
+    private BenchmarkBodies() {
+    }
+
+    /**
+     * Build a server list response with the given amount of servers
+     * @param count number of servers
+     * @return JSON response
+     */
+    static String serverList(int count) {
+        StringBuilder json = new StringBuilder("{\"success\":true,\"error\":null,\"data\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(server(String.format("%016d", i)));
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Build the JSON representation of a server
+     * @param id server id
+     * @return JSON object
+     */
+    static String server(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"server" + id + "\",\"address\":\"server" + id
+                + ".exaroton.me\",\"motd\":\"A Minecraft Server\",\"status\":1,\"host\":\"host.exaroton.me\","
+                + "\"port\":25565,\"players\":{\"max\":20,\"count\":2,\"list\":[\"Steve\",\"Alex\"]},"
+                + "\"software\":{\"id\":\"zBsBb8TfEm8oJBgJ\",\"name\":\"Vanilla\",\"version\":\"1.21.1\"},"
+                + "\"shared\":false}";
+    }
+
+    /**
+     * Split a body into chunks like the HTTP client would deliver them
+     * @param body response body
+     * @return body chunks
+     */
+    static List<ByteBuffer> chunks(String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<ByteBuffer> chunks = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += CHUNK_SIZE) {
+            chunks.add(ByteBuffer.wrap(bytes, offset, Math.min(CHUNK_SIZE, bytes.length - offset)).slice());
+        }
+        return chunks;
+    }
+
+    /**
+     * Subscribe a body subscriber to the chunks. Chunks are delivered synchronously whenever the subscriber signals
+     * demand.
+     * @param subscriber body subscriber
+     * @param chunks body chunks
+     */
+    static void feed(HttpResponse.BodySubscriber<?> subscriber, List<ByteBuffer> chunks) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            private int index = 0;
+            private boolean completed = false;
+
+            @Override
+            public synchronized void request(long n) {
+                for (long i = 0; i < n && !completed; i++) {
+                    if (index < chunks.size()) {
+                        subscriber.onNext(List.of(chunks.get(index++).duplicate()));
+                    } else {
+                        completed = true;
+                        subscriber.onComplete();
+                    }
+                }
+            }
+
+            @Override
+            public synchronized void cancel() {
+                completed = true;
+            }
+        });
+    }
+}
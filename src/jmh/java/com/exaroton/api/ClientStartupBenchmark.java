@@ -0,0 +1,134 @@
+package com.exaroton.api;
+
+import com.exaroton.api.server.Server;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Reference;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating clients: constructing a client and a server handle, the time from constructing a
+ * client to the response of its first request against a local stand-in, and the heap retained by idle clients. Run
+ * with -prof gc to see the allocations per constructed client.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+public class ClientStartupBenchmark {
+    private static final String SERVER_ID = "0000000000000000";
+    private static final int IDLE_CLIENTS = 10_000;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] body = ("{\"success\":true,\"error\":null,\"data\":" + BenchmarkBodies.server(SERVER_ID) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Create a client and a server handle without sending a request
+     *
+     * @return server handle
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Server construct() {
+        return new ExarotonClient("benchmark").getServer(SERVER_ID);
+    }
+
+    /**
+     * Create a client and fetch a server. This includes creating the HTTP client and opening a connection.
+     *
+     * @return fetched server
+     * @throws IOException if the request failed
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 100)
+    public Server constructToFirstRequest() throws IOException {
+        ExarotonClient client = ExarotonClient.builder()
+                .setAPIToken("benchmark")
+                .setSecure(false)
+                .setHost(server.getAddress().getHostString())
+                .setPort(server.getAddress().getPort())
+                .build();
+        return client.getServer(SERVER_ID).fetch().join();
+    }
+
+    /**
+     * Create idle clients with a server handle each and report the heap they retain
+     *
+     * @param counters receives the retained bytes per client
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void retainedHeap(HeapCounters counters) {
+        long before = usedHeap();
+        Server[] servers = new Server[IDLE_CLIENTS];
+        for (int i = 0; i < servers.length; i++) {
+            servers[i] = new ExarotonClient("benchmark").getServer(SERVER_ID);
+        }
+        long after = usedHeap();
+        Reference.reachabilityFence(servers);
+        counters.bytesPerClient = (after - before) / IDLE_CLIENTS;
+    }
+
+    /**
+     * @return used heap after a full collection
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Heap retained per idle client, reported next to the benchmark results
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+        public long bytesPerClient;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerClient = 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.exaroton.api;
+
+import com.exaroton.api.server.Server;
+import com.exaroton.api.util.ConfigOptionTypeAdapterFactory;
+import com.exaroton.api.util.ModelTypeAdapterFactory;
+import com.exaroton.api.util.VoidTypeAdapter;
+import com.exaroton.api.ws.data.StatsData;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written model type adapters against Gson's reflective binding. The websocket benchmarks decode
+ * the data of a parsed message like the streams do. Run with -prof gc to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeAdapterBenchmark {
+    private static final TypeToken<APIResponse<List<Server>>> TYPE = new TypeToken<APIResponse<List<Server>>>() {};
+
+    private Gson reflective;
+    private Gson streaming;
+    private String serverList;
+    private JsonObject statusMessage;
+    private JsonObject statsMessage;
+
+    @Setup
+    public void setUp() {
+        reflective = new GsonBuilder()
+                .registerTypeAdapterFactory(new ConfigOptionTypeAdapterFactory())
+                .registerTypeAdapter(Void.class, new VoidTypeAdapter())
+                .create();
+        streaming = new GsonBuilder()
+                .registerTypeAdapterFactory(new ConfigOptionTypeAdapterFactory())
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+                .registerTypeAdapter(Void.class, new VoidTypeAdapter())
+                .create();
+        serverList = BenchmarkBodies.serverList(1000);
+        statusMessage = reflective.fromJson("{\"type\":\"status\",\"stream\":\"status\",\"data\":"
+                + BenchmarkBodies.server("tgkm731xO7GiHt76") + "}", JsonObject.class);
+        statsMessage = reflective.fromJson("{\"type\":\"stats\",\"stream\":\"stats\","
+                + "\"data\":{\"memory\":{\"percent\":42.5,\"usage\":2147483648}}}", JsonObject.class);
+    }
+
+    @Benchmark
+    public List<Server> serverListReflective() {
+        return reflective.fromJson(serverList, TYPE).getData();
+    }
+
+    @Benchmark
+    public List<Server> serverListStreaming() {
+        return streaming.fromJson(serverList, TYPE).getData();
+    }
+
+    @Benchmark
+    public Server statusReflective() {
+        return reflective.fromJson(statusMessage.get("data"), Server.class);
+    }
+
+    @Benchmark
+    public Server statusStreaming() {
+        return streaming.fromJson(statusMessage.get("data"), Server.class);
+    }
+
+    @Benchmark
+    public StatsData statsReflective() {
+        return reflective.fromJson(statsMessage.get("data"), StatsData.class);
+    }
+
+    @Benchmark
+    public StatsData statsStreaming() {
+        return streaming.fromJson(statsMessage.get("data"), StatsData.class);
+    }
+}
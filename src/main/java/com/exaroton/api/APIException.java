@@ -1,10 +1,35 @@
 package com.exaroton.api;
 
+import org.jetbrains.annotations.ApiStatus;
+
 /**
  * Exception thrown by the exaroton API.
  */
 public class APIException extends Exception {
+    /**
+     * HTTP status code of the response or -1 if unknown
+     */
+    private final int statusCode;
+
     public APIException(String message) {
+        this(message, -1);
+    }
+
+    /**
+     * @param message    error message
+     * @param statusCode HTTP status code of the response
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public APIException(String message, int statusCode) {
         super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return HTTP status code of the response or -1 if unknown
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public int getStatusCode() {
+        return statusCode;
     }
 }
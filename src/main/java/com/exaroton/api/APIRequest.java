@@ -1,15 +1,38 @@
 package com.exaroton.api;
 
+import com.exaroton.api.http.RequestClass;
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.util.JsonBodyPublisher;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import org.jetbrains.annotations.ApiStatus;
 
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.http.HttpRequest;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class APIRequest<Response> {
+    /**
+     * methods that are idempotent by default. GET is not included, because some actions (e.g. stopping a server)
+     * use GET requests.
+     */
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("PUT", "DELETE");
+
+    /**
+     * parsed endpoint templates by request class
+     */
+    private static final Map<Class<?>, EndpointTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * gson instance passed to {@link #getBodyPublisher(Gson, HttpRequest.Builder)} if the codec is not backed by Gson
+     */
+    private static final Gson DEFAULT_GSON = new Gson();
+
     /**
      * Build the HttpRequest
      * @param gson gson instance
@@ -19,8 +42,21 @@ public abstract class APIRequest<Response> {
      * @throws URISyntaxException if the constructed URI is invalid
      */
     public HttpRequest build(Gson gson, HttpRequest.Builder builder, URL baseUrl) throws URISyntaxException {
+        return build(new GsonCodec(gson), builder, baseUrl);
+    }
+
+    /**
+     * Build the HttpRequest
+     * @param codec JSON codec used to encode the request body
+     * @param builder HttpRequest builder with preconfigured options
+     * @param baseUrl base URL
+     * @return HttpRequest
+     * @throws URISyntaxException if the constructed URI is invalid
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public HttpRequest build(JsonCodec codec, HttpRequest.Builder builder, URL baseUrl) throws URISyntaxException {
         builder.uri(baseUrl.toURI().resolve(getPath()))
-                .method(this.getMethod(), getBodyPublisher(gson, builder));
+                .method(this.getMethod(), getBodyPublisher(codec, builder));
 
         for (Map.Entry<String, String> header : this.getHeaders().entrySet()) {
             builder.header(header.getKey(), header.getValue());
@@ -30,7 +66,9 @@ public abstract class APIRequest<Response> {
     }
 
     /**
-     * get API endpoint
+     * get API endpoint. Parameters are written in curly braces (e.g. servers/{id}/) and replaced with the values
+     * returned by {@link #getParameter(String)}. The endpoint is parsed once per request class, so it should not
+     * depend on the state of the request.
      *
      * @return API endpoint
      */
@@ -45,25 +83,62 @@ public abstract class APIRequest<Response> {
         return "GET";
     }
 
+    /**
+     * Whether sending this request multiple times has the same effect as sending it once. Idempotent requests are
+     * retried after transient errors if a {@link com.exaroton.api.http.RetryPolicy} is configured. By default only
+     * PUT and DELETE requests are idempotent, other requests have to opt in by overriding this method.
+     *
+     * @return whether the request is idempotent
+     */
+    protected boolean isIdempotent() {
+        return IDEMPOTENT_METHODS.contains(this.getMethod());
+    }
+
+    /**
+     * Whether the request body can be sent again, e.g. after the API responded with 429 Too Many Requests. Requests
+     * with a body that can only be read once must return false.
+     *
+     * @return whether the request can be sent more than once
+     */
+    protected boolean isBodyReplayable() {
+        return true;
+    }
+
+    /**
+     * Scheduling class of this request. It is only used by clients with a
+     * {@link com.exaroton.api.http.RequestScheduler}, i.e. clients of an {@link ExarotonClientPool} or clients with a
+     * scheduler set on their builder. Other clients don't limit concurrent requests. By default idempotent GET
+     * requests are read requests and all other requests are control requests. Requests that transfer large bodies
+     * should return {@link RequestClass#BULK}.
+     *
+     * @return request class
+     */
+    protected RequestClass getRequestClass() {
+        return "GET".equals(this.getMethod()) && this.isIdempotent() ? RequestClass.READ : RequestClass.CONTROL;
+    }
+
     /**
      * @return request path with replaced parameters
      */
     protected String getPath() {
-        String path = this.getEndpoint();
-
-        for (Map.Entry<String, String> entry : this.getData().entrySet()) {
-            if (entry.getValue() == null) {
-                throw new IllegalStateException("Path variable " + entry.getKey() + " can't be null");
-            }
+        return getEndpointTemplate().expand(this);
+    }
 
-            path = path.replace("{" + entry.getKey() + "}", entry.getValue());
+    /**
+     * @return parsed endpoint of this request
+     */
+    EndpointTemplate getEndpointTemplate() {
+        String endpoint = this.getEndpoint();
+        EndpointTemplate template = TEMPLATES.get(this.getClass());
+        if (template == null || !template.matches(endpoint)) {
+            template = EndpointTemplate.parse(endpoint);
+            TEMPLATES.put(this.getClass(), template);
         }
-
-        return path;
+        return template;
     }
 
     /**
-     * @return request headers
+     * @return request headers. A new mutable map is returned for each call, so overrides can add headers to it.
      */
     protected HashMap<String, String> getHeaders() {
         HashMap<String, String> map = new HashMap<>();
@@ -72,13 +147,25 @@ public abstract class APIRequest<Response> {
     }
 
     /**
-     * get the type required for parsing the JSON response
+     * get the type required for parsing the JSON response. Implementations should return a constant instead of
+     * creating a new type token for each request.
      * @return response type
      */
     protected abstract TypeToken<APIResponse<Response>> getType();
 
     /**
-     * data that will be replaced in the endpoint
+     * get the value of a parameter in the endpoint
+     * @param name parameter name
+     * @return parameter value or null if the parameter is unknown
+     */
+    protected String getParameter(String name) {
+        return this.getData().get(name);
+    }
+
+    /**
+     * data that will be replaced in the endpoint. Overriding {@link #getParameter(String)} is preferred, because it
+     * doesn't require creating a map for each request. The request classes of this library still add their parameters
+     * to this map, so subclasses that override it should add their data to the map returned by the super method.
      * @return data
      */
     protected HashMap<String, String> getData() {
@@ -94,7 +181,36 @@ public abstract class APIRequest<Response> {
      */
     protected HttpRequest.BodyPublisher jsonBodyPublisher(Gson gson, HttpRequest.Builder builder, Object body) {
         builder.header("Content-Type", "application/json");
-        return HttpRequest.BodyPublishers.ofString(gson.toJson(body));
+        return JsonBodyPublisher.of(gson, body);
+    }
+
+    /**
+     * Get the body publisher for the request
+     * @param codec JSON codec
+     * @param builder request builder to set the Content-Type header
+     * @param body request body
+     * @return a body publisher
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    protected HttpRequest.BodyPublisher jsonBodyPublisher(JsonCodec codec, HttpRequest.Builder builder, Object body) {
+        builder.header("Content-Type", "application/json");
+        return JsonBodyPublisher.of(codec, body);
+    }
+
+    /**
+     * Get the body publisher for the request. This avoids creating an object that only exists to be serialized.
+     * @param gson gson instance
+     * @param builder request builder to set the Content-Type header
+     * @param body writes the request body
+     * @return a body publisher
+     */
+    protected HttpRequest.BodyPublisher jsonBodyPublisher(
+            Gson gson,
+            HttpRequest.Builder builder,
+            JsonBodyPublisher.BodyWriter body
+    ) {
+        builder.header("Content-Type", "application/json");
+        return JsonBodyPublisher.of(gson, body);
     }
 
     /**
@@ -106,4 +222,19 @@ public abstract class APIRequest<Response> {
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
         return HttpRequest.BodyPublishers.noBody();
     }
+
+    /**
+     * Get the body publisher for the request. Requests that serialize objects should override this method, so their
+     * body is encoded with the codec of the client. By default, this calls
+     * {@link #getBodyPublisher(Gson, HttpRequest.Builder)} with the Gson instance of a {@link GsonCodec} or a default
+     * Gson instance, which is sufficient for bodies that are written with a {@link JsonBodyPublisher.BodyWriter}.
+     * @param codec JSON codec
+     * @param builder request builder which can be used to set a Content-Type header
+     * @return a body publisher
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    protected HttpRequest.BodyPublisher getBodyPublisher(JsonCodec codec, HttpRequest.Builder builder) {
+        Gson gson = codec instanceof GsonCodec ? ((GsonCodec) codec).getGson() : DEFAULT_GSON;
+        return getBodyPublisher(gson, builder);
+    }
 }
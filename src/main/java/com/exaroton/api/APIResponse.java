@@ -1,10 +1,18 @@
 package com.exaroton.api;
 
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
 import com.exaroton.api.util.Initializable;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.http.HttpResponse;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -32,7 +40,8 @@ public class APIResponse<Datatype> {
     private final Datatype data;
 
     /**
-     * Create a BodyHandler for APIResponse
+     * Create a BodyHandler for APIResponse. The response is decoded while it is received, so the body is never
+     * buffered as a whole.
      *
      * @param client exaroton client
      * @param gson   gson instance
@@ -45,7 +54,28 @@ public class APIResponse<Datatype> {
             @NotNull Gson gson,
             @NotNull TypeToken<APIResponse<T>> token
     ) {
-        return responseInfo -> new BodySubscriber<>(client, gson, token);
+        return bodyHandler(client, gson, new GsonCodec(gson), token, null);
+    }
+
+    /**
+     * Create a BodyHandler for APIResponse that records the decode and initialize time in a trace
+     *
+     * @param client exaroton client
+     * @param gson   gson instance used to initialize the response data
+     * @param codec  JSON codec used to decode the response
+     * @param token  type token of the response data
+     * @param trace  trace of the request or null
+     * @param <T>    response data type
+     * @return BodyHandler
+     */
+    static <T> HttpResponse.BodyHandler<APIResponse<T>> bodyHandler(
+            @NotNull ExarotonClient client,
+            @NotNull Gson gson,
+            @NotNull JsonCodec codec,
+            @NotNull TypeToken<APIResponse<T>> token,
+            @Nullable RequestTrace trace
+    ) {
+        return responseInfo -> new BodySubscriber<>(client, gson, codec, token, responseInfo.statusCode(), trace);
     }
 
     /**
@@ -82,41 +112,81 @@ public class APIResponse<Datatype> {
         return data;
     }
 
+    /**
+     * Body subscriber that feeds the received chunks into the JSON codec. The blocking reads of the codec happen on
+     * the decode executor of the client, so decoding starts with the first chunk instead of after the last one.
+     *
+     * @param <T> response data type
+     */
     private static final class BodySubscriber<T> implements HttpResponse.BodySubscriber<APIResponse<T>> {
         private final ExarotonClient client;
         private final Gson gson;
+        private final JsonCodec codec;
         private final TypeToken<APIResponse<T>> token;
-        private final HttpResponse.BodySubscriber<String> parent;
+        private final int statusCode;
+        private final RequestTrace trace;
+        private final HttpResponse.BodySubscriber<InputStream> parent;
 
         private BodySubscriber(
                 @NotNull ExarotonClient client,
                 @NotNull Gson gson,
-                @NotNull TypeToken<APIResponse<T>> token
+                @NotNull JsonCodec codec,
+                @NotNull TypeToken<APIResponse<T>> token,
+                int statusCode,
+                @Nullable RequestTrace trace
         ) {
             this.client = Objects.requireNonNull(client);
             this.gson = Objects.requireNonNull(gson);
+            this.codec = Objects.requireNonNull(codec);
             this.token = Objects.requireNonNull(token);
-            this.parent = HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+            this.statusCode = statusCode;
+            this.trace = trace;
+            this.parent = HttpResponse.BodySubscribers.ofInputStream();
         }
 
         @Override
         public CompletionStage<APIResponse<T>> getBody() {
-            return parent.getBody().thenCompose(json -> {
-                APIResponse<T> response = gson.fromJson(json, token);
+            return parent.getBody().thenApplyAsync(this::decode, client.getDecodeExecutor()).thenCompose(response -> {
                 if (response == null) {
                     return CompletableFuture.completedFuture(null);
                 }
 
                 if (!response.isSuccess()) {
-                    return CompletableFuture.failedFuture(new APIException(response.getError()));
+                    return CompletableFuture.failedFuture(new APIException(response.getError(), statusCode));
                 }
 
-                initialize(response.getData());
+                if (trace == null) {
+                    initialize(response.getData());
+                } else {
+                    long start = System.nanoTime();
+                    initialize(response.getData());
+                    trace.addInitializeTime(System.nanoTime() - start);
+                }
 
                 return CompletableFuture.completedFuture(response);
             });
         }
 
+        /**
+         * Decode the response from the body stream. This blocks until the whole response has been read.
+         * @param stream body stream
+         * @return decoded response or null if the body is empty
+         */
+        private APIResponse<T> decode(InputStream stream) {
+            long start = trace == null ? 0 : System.nanoTime();
+            try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                APIResponse<T> response = codec.decode(reader, token.getType());
+                // consume trailing whitespace, so the exchange completes instead of being cancelled on close
+                stream.transferTo(OutputStream.nullOutputStream());
+                if (trace != null) {
+                    trace.addDecodeTime(System.nanoTime() - start);
+                }
+                return response;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
         /**
          * Initialize an object with the API client and gson instance. This will call initialize on object that
          * implements Initializable or initialize all objects in an Iterable.
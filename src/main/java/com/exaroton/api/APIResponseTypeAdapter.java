@@ -0,0 +1,79 @@
+package com.exaroton.api;
+
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Streaming type adapter for {@link APIResponse}. The data is read with the adapter of its type argument.
+ *
+ * @param <T> response data type
+ */
+@ApiStatus.Internal
+public final class APIResponseTypeAdapter<T> extends TypeAdapter<APIResponse<T>> {
+    private final TypeAdapter<T> data;
+
+    /**
+     * @param data adapter of the response data
+     */
+    public APIResponseTypeAdapter(@NotNull TypeAdapter<T> data) {
+        this.data = Objects.requireNonNull(data);
+    }
+
+    @Override
+    public void write(JsonWriter out, APIResponse<T> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("success").value(value.isSuccess());
+        out.name("error").value(value.getError());
+        out.name("data");
+        data.write(out, value.getData());
+        out.endObject();
+    }
+
+    @Override
+    public APIResponse<T> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        boolean success = false;
+        String error = null;
+        T value = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "success":
+                    success = JsonReaders.nextBoolean(in, success);
+                    break;
+                case "error":
+                    error = JsonReaders.nextString(in);
+                    break;
+                case "data":
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        value = null;
+                    } else {
+                        value = data.read(in);
+                    }
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new APIResponse<>(success, error, value);
+    }
+}
@@ -0,0 +1,70 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Future of a request. Cancelling or failing it (e.g. with {@link CompletableFuture#orTimeout(long, TimeUnit)}) aborts
+ * the request. Futures derived from it (e.g. with {@link CompletableFuture#thenApply(Function)}) behave the same way.
+ *
+ * @param <U> result type
+ */
+final class AbortableFuture<U> extends CompletableFuture<U> {
+    private final Consumer<Throwable> abort;
+
+    /**
+     * @param abort called with the abort reason when the future is cancelled or failed from the outside
+     */
+    AbortableFuture(@NotNull Consumer<Throwable> abort) {
+        this.abort = Objects.requireNonNull(abort);
+    }
+
+    @Override
+    public <V> CompletableFuture<V> newIncompleteFuture() {
+        return new AbortableFuture<>(abort);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            abort.accept(new CancellationException("Request was cancelled"));
+        }
+        return cancelled;
+    }
+
+    @Override
+    public boolean completeExceptionally(Throwable ex) {
+        boolean completed = super.completeExceptionally(ex);
+        if (completed) {
+            abort.accept(ex);
+        }
+        return completed;
+    }
+
+    /**
+     * Complete the future without aborting the request
+     *
+     * @param value result
+     * @return whether this call completed the future
+     */
+    boolean succeed(U value) {
+        return super.complete(value);
+    }
+
+    /**
+     * Fail the future without aborting the request
+     *
+     * @param error error
+     * @return whether this call completed the future
+     */
+    boolean fail(Throwable error) {
+        return super.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,163 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Runs an asynchronous call for each key with at most a fixed number of calls in flight. A new call is started
+ * whenever one completes. Starting calls is serialized through a work-in-progress counter, so calls that complete
+ * synchronously (e.g. because the item was already fetched) don't recurse.
+ *
+ * @param <K> key type
+ * @param <T> result type
+ */
+final class BulkOperation<K, T> {
+    private static final Logger logger = LoggerFactory.getLogger(BulkOperation.class);
+
+    private final List<K> keys;
+    private final Call<K, T> call;
+    private final Consumer<BulkResult<K, T>> listener;
+    private final AtomicReferenceArray<BulkResult<K, T>> results;
+    private final CompletableFuture<List<BulkResult<K, T>>> future = new CompletableFuture<>();
+    private final Set<CompletableFuture<T>> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of calls that may be started
+     */
+    private final AtomicInteger permits;
+    private final AtomicInteger remaining;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * Index of the next key. Only accessed by the thread that holds {@link #wip}.
+     */
+    private int next;
+
+    /**
+     * @param keys        keys of the items
+     * @param parallelism maximum number of calls in flight
+     * @param call        call for a single item
+     * @param listener    listener that receives each result as soon as it is available
+     */
+    BulkOperation(
+            @NotNull Collection<K> keys,
+            int parallelism,
+            @NotNull Call<K, T> call,
+            @Nullable Consumer<BulkResult<K, T>> listener
+    ) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+
+        this.keys = List.copyOf(keys);
+        this.call = call;
+        this.listener = listener;
+        this.results = new AtomicReferenceArray<>(this.keys.size());
+        this.permits = new AtomicInteger(parallelism);
+        this.remaining = new AtomicInteger(this.keys.size());
+    }
+
+    /**
+     * Start the calls
+     *
+     * @return future with the results in the order of the keys. Cancelling it cancels the calls in flight and doesn't
+     * start any more calls.
+     */
+    CompletableFuture<List<BulkResult<K, T>>> start() {
+        if (keys.isEmpty()) {
+            future.complete(List.of());
+            return future;
+        }
+
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                inFlight.forEach(pending -> pending.cancel(true));
+            }
+        });
+        drain();
+        return future;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            while (next < keys.size() && !future.isDone() && permits.get() > 0) {
+                permits.decrementAndGet();
+                launch(next++);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private void launch(int index) {
+        K key = keys.get(index);
+        CompletableFuture<T> result;
+        try {
+            result = call.call(key);
+        } catch (IOException | RuntimeException e) {
+            complete(index, null, e);
+            return;
+        }
+
+        inFlight.add(result);
+        result.whenComplete((value, error) -> {
+            inFlight.remove(result);
+            complete(index, value, error);
+        });
+    }
+
+    private void complete(int index, @Nullable T value, @Nullable Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+
+        BulkResult<K, T> result = new BulkResult<>(keys.get(index), error == null ? value : null, error);
+        results.set(index, result);
+        if (listener != null && !future.isDone()) {
+            try {
+                listener.accept(result);
+            } catch (RuntimeException e) {
+                logger.warn("Bulk operation listener failed", e);
+            }
+        }
+
+        if (remaining.decrementAndGet() == 0) {
+            List<BulkResult<K, T>> list = new ArrayList<>(results.length());
+            for (int i = 0; i < results.length(); i++) {
+                list.add(results.get(i));
+            }
+            future.complete(list);
+            return;
+        }
+
+        permits.incrementAndGet();
+        drain();
+    }
+
+    /**
+     * Asynchronous call for a single item
+     *
+     * @param <K> key type
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    interface Call<K, T> {
+        CompletableFuture<T> call(K key) throws IOException;
+    }
+}
@@ -0,0 +1,59 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of a single item of a bulk operation, e.g. {@link ExarotonClient#fetchServers(java.util.Collection, int)}.
+ * Each item either succeeded with a value or failed with an error. A failed item doesn't affect the other items.
+ *
+ * @param <K> type of the key that identifies the item (e.g. a server id)
+ * @param <T> type of the value
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class BulkResult<K, T> {
+    private final K key;
+    private final T value;
+    private final Throwable error;
+
+    BulkResult(@NotNull K key, @Nullable T value, @Nullable Throwable error) {
+        this.key = key;
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * @return key of the item
+     */
+    public @NotNull K getKey() {
+        return key;
+    }
+
+    /**
+     * @return value of the item or null if the item failed
+     */
+    public @Nullable T getValue() {
+        return value;
+    }
+
+    /**
+     * @return error of the item (e.g. an {@link APIException} or {@link java.io.IOException}) or null if the item
+     * succeeded
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return whether the item succeeded
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{key=" + key + (isSuccess() ? ", value=" + value : ", error=" + error) + "}";
+    }
+}
@@ -0,0 +1,96 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Result of {@link ExarotonClient#close(Duration)}. Everything that was still outstanding when the timeout elapsed
+ * has been aborted and is counted here.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class CloseResult {
+    private final Duration duration;
+    private final int abortedRequests;
+    private final int closedWebSockets;
+    private final int droppedMessages;
+    private final boolean terminated;
+
+    CloseResult(
+            @NotNull Duration duration,
+            int abortedRequests,
+            int closedWebSockets,
+            int droppedMessages,
+            boolean terminated
+    ) {
+        this.duration = duration;
+        this.abortedRequests = abortedRequests;
+        this.closedWebSockets = closedWebSockets;
+        this.droppedMessages = droppedMessages;
+        this.terminated = terminated;
+    }
+
+    /**
+     * Combine the results of closing several clients
+     *
+     * @param other result of another client
+     * @param duration time from the start of the first close until all clients were closed
+     * @return combined result
+     */
+    CloseResult combine(@NotNull CloseResult other, @NotNull Duration duration) {
+        return new CloseResult(duration, abortedRequests + other.abortedRequests,
+                closedWebSockets + other.closedWebSockets, droppedMessages + other.droppedMessages,
+                terminated && other.terminated);
+    }
+
+    /**
+     * @return time from the start of the close until all resources were released
+     */
+    public @NotNull Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return number of requests that were still in flight after the timeout and have been aborted
+     */
+    public int getAbortedRequests() {
+        return abortedRequests;
+    }
+
+    /**
+     * @return number of websocket connections that have been closed
+     */
+    public int getClosedWebSockets() {
+        return closedWebSockets;
+    }
+
+    /**
+     * @return number of websocket messages that were still waiting for their connection to become ready and have
+     * been dropped
+     */
+    public int getDroppedMessages() {
+        return droppedMessages;
+    }
+
+    /**
+     * @return whether all threads and HTTP clients created by the client have stopped. Executors, transports and HTTP
+     * clients passed to the builder are not stopped.
+     */
+    public boolean isTerminated() {
+        return terminated;
+    }
+
+    /**
+     * @return whether nothing had to be aborted and all threads stopped in time
+     */
+    public boolean isClean() {
+        return abortedRequests == 0 && droppedMessages == 0 && terminated;
+    }
+
+    @Override
+    public String toString() {
+        return "CloseResult{duration=" + duration + ", abortedRequests=" + abortedRequests + ", closedWebSockets="
+                + closedWebSockets + ", droppedMessages=" + droppedMessages + ", terminated=" + terminated + "}";
+    }
+}
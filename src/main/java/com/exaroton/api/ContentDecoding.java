@@ -0,0 +1,453 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Transparent decoding of compressed response bodies (Content-Encoding gzip or deflate). The body is inflated while it
+ * is received, so body handlers that stream the body (e.g. {@link HttpResponse.BodyHandlers#ofInputStream()}) never
+ * see the compressed data and don't have to wait for the whole body.
+ */
+final class ContentDecoding {
+    /**
+     * Value of the Accept-Encoding header of API requests
+     */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * Size of the buffers passed to the body subscriber
+     */
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private ContentDecoding() {
+    }
+
+    /**
+     * Create a body subscriber that decodes the body if it is compressed
+     *
+     * @param bodyHandler  body handler for the decoded body
+     * @param responseInfo response status and headers
+     * @param <T>          response body type
+     * @return body subscriber
+     */
+    static <T> HttpResponse.BodySubscriber<T> apply(
+            @NotNull HttpResponse.BodyHandler<T> bodyHandler,
+            @NotNull HttpResponse.ResponseInfo responseInfo
+    ) {
+        String encoding = responseInfo.headers().firstValue("Content-Encoding")
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .orElse("identity");
+
+        boolean gzip;
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                gzip = true;
+                break;
+            case "deflate":
+                gzip = false;
+                break;
+            default:
+                return bodyHandler.apply(responseInfo);
+        }
+
+        var decoded = bodyHandler.apply(new DecodedResponseInfo(responseInfo));
+        return new DecodingBodySubscriber<>(decoded, new Decoder(gzip));
+    }
+
+    /**
+     * @param headers headers of a response
+     * @return headers without Content-Encoding and Content-Length, which describe the compressed body
+     */
+    static HttpHeaders decodedHeaders(HttpHeaders headers) {
+        return HttpHeaders.of(headers.map(), (name, value) ->
+                !name.equalsIgnoreCase("Content-Encoding") && !name.equalsIgnoreCase("Content-Length"));
+    }
+
+    /**
+     * Response info of the decoded body. The Content-Encoding and Content-Length headers are removed because they
+     * describe the compressed body.
+     */
+    private static final class DecodedResponseInfo implements HttpResponse.ResponseInfo {
+        private final HttpResponse.ResponseInfo parent;
+        private final HttpHeaders headers;
+
+        private DecodedResponseInfo(HttpResponse.ResponseInfo parent) {
+            this.parent = parent;
+            this.headers = decodedHeaders(parent.headers());
+        }
+
+        @Override
+        public int statusCode() {
+            return parent.statusCode();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return parent.version();
+        }
+    }
+
+    /**
+     * Body subscriber that decodes the received buffers before passing them on. Each buffer list that is requested by
+     * the wrapped subscriber is decoded from one received buffer list. If a received list doesn't decode to any
+     * data (e.g. because it only contains a header), the next one is requested instead.
+     *
+     * @param <T> response body type
+     */
+    private static final class DecodingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> parent;
+        private final Decoder decoder;
+        private Flow.Subscription subscription;
+        private boolean terminated = false;
+
+        private DecodingBodySubscriber(HttpResponse.BodySubscriber<T> parent, Decoder decoder) {
+            this.parent = parent;
+            this.decoder = decoder;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return parent.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            parent.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    subscription.cancel();
+                    decoder.close();
+                }
+            });
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            List<ByteBuffer> decoded;
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+
+                try {
+                    decoded = decoder.decode(item);
+                } catch (ZipException e) {
+                    terminated = true;
+                    subscription.cancel();
+                    decoder.close();
+                    parent.onError(e);
+                    return;
+                }
+            }
+
+            if (decoded.isEmpty()) {
+                subscription.request(1);
+            } else {
+                parent.onNext(decoded);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+            }
+
+            decoder.close();
+            parent.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+            }
+
+            try {
+                decoder.finish();
+            } catch (EOFException e) {
+                parent.onError(e);
+                return;
+            } finally {
+                decoder.close();
+            }
+            parent.onComplete();
+        }
+    }
+
+    /**
+     * Incremental decoder for gzip (RFC 1952) and deflate (RFC 1950, or raw RFC 1951 as sent by some servers) data
+     */
+    static final class Decoder {
+        private static final int GZIP_MAGIC = 0x8b1f;
+        private static final int FHCRC = 2;
+        private static final int FEXTRA = 4;
+        private static final int FNAME = 8;
+        private static final int FCOMMENT = 16;
+
+        private enum State {
+            /**
+             * Collecting the gzip header or the first two bytes of a deflate stream
+             */
+            HEADER,
+            BODY,
+            TRAILER,
+            DONE,
+        }
+
+        private final boolean gzip;
+        private final CRC32 crc = new CRC32();
+        private Inflater inflater;
+        private State state = State.HEADER;
+
+        /**
+         * Collected header or trailer bytes
+         */
+        private byte[] pending = new byte[16];
+        private int pendingLength = 0;
+
+        /**
+         * Whether any data has been received
+         */
+        private boolean received = false;
+
+        Decoder(boolean gzip) {
+            this.gzip = gzip;
+        }
+
+        /**
+         * Decode received data
+         *
+         * @param buffers received buffers
+         * @return decoded buffers (may be empty)
+         * @throws ZipException if the data is invalid
+         */
+        synchronized List<ByteBuffer> decode(List<ByteBuffer> buffers) throws ZipException {
+            List<ByteBuffer> output = new ArrayList<>();
+            for (ByteBuffer buffer : buffers) {
+                received |= buffer.hasRemaining();
+                while (buffer.hasRemaining()) {
+                    step(buffer, output);
+                }
+            }
+            return output;
+        }
+
+        /**
+         * Check that the data ended at the end of a stream
+         *
+         * @throws EOFException if the data ended within a stream
+         */
+        synchronized void finish() throws EOFException {
+            boolean complete = state == State.DONE || !received
+                    // gzip data may consist of multiple members
+                    || (gzip && state == State.HEADER && pendingLength == 0 && inflater != null);
+            if (!complete) {
+                throw new EOFException("Unexpected end of compressed response body");
+            }
+        }
+
+        /**
+         * Release the native resources of the inflater
+         */
+        synchronized void close() {
+            if (inflater != null) {
+                inflater.end();
+            }
+            state = State.DONE;
+        }
+
+        private void step(ByteBuffer input, List<ByteBuffer> output) throws ZipException {
+            switch (state) {
+                case HEADER:
+                    collect(input.get());
+                    if (gzip) {
+                        int length = getGzipHeaderLength();
+                        if (length >= 0) {
+                            startMember();
+                        }
+                    } else if (pendingLength == 2) {
+                        startDeflate(output);
+                    }
+                    break;
+                case BODY:
+                    inflater.setInput(input);
+                    inflate(output);
+                    break;
+                case TRAILER:
+                    collect(input.get());
+                    if (pendingLength == 8) {
+                        checkTrailer();
+                    }
+                    break;
+                case DONE:
+                    // ignore data after the end of a deflate stream
+                    input.position(input.limit());
+                    break;
+            }
+        }
+
+        private void collect(byte value) {
+            if (pendingLength == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[pendingLength++] = value;
+        }
+
+        /**
+         * @return length of the collected gzip header or -1 if it is incomplete
+         * @throws ZipException if the header is invalid
+         */
+        private int getGzipHeaderLength() throws ZipException {
+            if (pendingLength == 2 && readShort(0) != GZIP_MAGIC) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (pendingLength < 10) {
+                return -1;
+            }
+            if (pending[2] != 8) {
+                throw new ZipException("Unsupported compression method");
+            }
+
+            int flags = pending[3];
+            int position = 10;
+            if ((flags & FEXTRA) != 0) {
+                if (pendingLength < position + 2) {
+                    return -1;
+                }
+                position += 2 + readShort(position);
+            }
+            if ((flags & FNAME) != 0) {
+                position = skipZeroTerminated(position);
+            }
+            if ((flags & FCOMMENT) != 0) {
+                position = skipZeroTerminated(position);
+            }
+            if ((flags & FHCRC) != 0 && position >= 0) {
+                position += 2;
+            }
+            return position >= 0 && pendingLength >= position ? position : -1;
+        }
+
+        private int skipZeroTerminated(int position) {
+            if (position < 0) {
+                return -1;
+            }
+            for (int i = position; i < pendingLength; i++) {
+                if (pending[i] == 0) {
+                    return i + 1;
+                }
+            }
+            return -1;
+        }
+
+        private int readShort(int position) {
+            return (pending[position] & 0xff) | ((pending[position + 1] & 0xff) << 8);
+        }
+
+        private long readInt(int position) {
+            return readShort(position) | ((long) readShort(position + 2) << 16);
+        }
+
+        private void startMember() {
+            if (inflater == null) {
+                inflater = new Inflater(true);
+            } else {
+                inflater.reset();
+            }
+            crc.reset();
+            pendingLength = 0;
+            state = State.BODY;
+        }
+
+        /**
+         * Start a deflate stream. Most servers send zlib streams as specified, but some send raw deflate data.
+         */
+        private void startDeflate(List<ByteBuffer> output) throws ZipException {
+            int header = ((pending[0] & 0xff) << 8) | (pending[1] & 0xff);
+            boolean zlib = (pending[0] & 0x0f) == 8 && header % 31 == 0;
+            inflater = new Inflater(!zlib);
+            state = State.BODY;
+            inflater.setInput(Arrays.copyOf(pending, pendingLength));
+            pendingLength = 0;
+            inflate(output);
+        }
+
+        private void inflate(List<ByteBuffer> output) throws ZipException {
+            try {
+                while (true) {
+                    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                    int length = inflater.inflate(buffer);
+                    if (length > 0) {
+                        buffer.flip();
+                        if (gzip) {
+                            crc.update(buffer.duplicate());
+                        }
+                        output.add(buffer);
+                    }
+
+                    if (inflater.finished()) {
+                        state = gzip ? State.TRAILER : State.DONE;
+                        return;
+                    }
+                    if (inflater.needsInput()) {
+                        return;
+                    }
+                    if (inflater.needsDictionary()) {
+                        throw new ZipException("Compressed response body requires a preset dictionary");
+                    }
+                }
+            } catch (DataFormatException e) {
+                ZipException exception = new ZipException("Invalid compressed response body: " + e.getMessage());
+                exception.initCause(e);
+                throw exception;
+            }
+        }
+
+        private void checkTrailer() throws ZipException {
+            if (readInt(0) != crc.getValue()) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+            if (readInt(4) != (inflater.getBytesWritten() & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+
+            // another member may follow
+            pendingLength = 0;
+            state = State.HEADER;
+        }
+    }
+}
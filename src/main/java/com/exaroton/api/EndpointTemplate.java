@@ -0,0 +1,128 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An API endpoint (e.g. servers/{id}/playerlists/{list}/) split into literal segments and parameter names, so the
+ * path can be built without searching the endpoint for placeholders on every request.
+ */
+final class EndpointTemplate {
+    /**
+     * the endpoint this template was parsed from
+     */
+    private final String endpoint;
+
+    /**
+     * literal segments. There is always one more literal than parameters, so parameter i is placed between literal
+     * i and literal i + 1.
+     */
+    private final String[] literals;
+
+    /**
+     * names of the parameters in order of their appearance
+     */
+    private final String[] parameters;
+
+    /**
+     * combined length of all literal segments
+     */
+    private final int literalLength;
+
+    private EndpointTemplate(String endpoint, String[] literals, String[] parameters) {
+        this.endpoint = endpoint;
+        this.literals = literals;
+        this.parameters = parameters;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse an endpoint
+     *
+     * @param endpoint endpoint with parameters in curly braces
+     * @return parsed template
+     * @throws IllegalArgumentException if a parameter is not closed
+     */
+    static EndpointTemplate parse(@NotNull String endpoint) {
+        Objects.requireNonNull(endpoint);
+
+        List<String> literals = new ArrayList<>();
+        List<String> parameters = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = endpoint.indexOf('{', position);
+            if (start == -1) {
+                break;
+            }
+
+            int end = endpoint.indexOf('}', start);
+            if (end == -1) {
+                throw new IllegalArgumentException("Unclosed parameter in endpoint " + endpoint);
+            }
+
+            literals.add(endpoint.substring(position, start));
+            parameters.add(endpoint.substring(start + 1, end));
+            position = end + 1;
+        }
+        literals.add(endpoint.substring(position));
+
+        return new EndpointTemplate(endpoint, literals.toArray(new String[0]), parameters.toArray(new String[0]));
+    }
+
+    /**
+     * @return the endpoint this template was parsed from
+     */
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Check if this template was parsed from the given endpoint
+     *
+     * @param endpoint endpoint
+     * @return true if the endpoint matches
+     */
+    boolean matches(String endpoint) {
+        // endpoints are usually constants, so this rarely has to compare the contents
+        //noinspection StringEquality
+        return this.endpoint == endpoint || this.endpoint.equals(endpoint);
+    }
+
+    /**
+     * Build the path for a request
+     *
+     * @param request request that provides the parameter values
+     * @return path with replaced parameters
+     * @throws IllegalStateException if a parameter value is null
+     */
+    String expand(APIRequest<?> request) {
+        if (parameters.length == 0) {
+            return literals[0];
+        }
+
+        String[] values = new String[parameters.length];
+        int length = literalLength;
+        for (int i = 0; i < parameters.length; i++) {
+            String value = request.getParameter(parameters[i]);
+            if (value == null) {
+                throw new IllegalStateException("Path variable " + parameters[i] + " can't be null");
+            }
+            values[i] = value;
+            length += value.length();
+        }
+
+        StringBuilder path = new StringBuilder(length).append(literals[0]);
+        for (int i = 0; i < values.length; i++) {
+            path.append(values[i]).append(literals[i + 1]);
+        }
+        return path.toString();
+    }
+}
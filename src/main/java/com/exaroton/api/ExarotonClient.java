@@ -2,17 +2,36 @@ package com.exaroton.api;
 
 import com.exaroton.api.account.Account;
 import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.billing.pools.CreditPoolMember;
+import com.exaroton.api.http.CircuitBreaker;
+import com.exaroton.api.http.HedgingPolicy;
+import com.exaroton.api.http.HttpClientTransport;
+import com.exaroton.api.http.HttpTransport;
+import com.exaroton.api.http.RateLimiter;
+import com.exaroton.api.http.RequestClass;
+import com.exaroton.api.http.RequestScheduler;
+import com.exaroton.api.http.RetryPolicy;
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.metrics.RequestMetrics;
 import com.exaroton.api.request.account.GetAccountRequest;
 import com.exaroton.api.request.billing.pools.GetCreditPoolsRequest;
 import com.exaroton.api.request.server.GetServersRequest;
 import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerFile;
 import com.exaroton.api.util.ConfigOptionTypeAdapterFactory;
+import com.exaroton.api.util.HttpClients;
+import com.exaroton.api.util.ModelTypeAdapterFactory;
+import com.exaroton.api.util.TaskExecutors;
 import com.exaroton.api.util.VoidTypeAdapter;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -22,25 +41,203 @@ import java.net.URL;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+public class ExarotonClient implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ExarotonClient.class);
+
+    /**
+     * Time {@link #close()} waits for requests in flight and pending websocket messages
+     */
+    private static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * Gson instance shared by all clients. Gson is immutable and thread-safe, so it is only configured once.
+     */
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapterFactory(new ConfigOptionTypeAdapterFactory())
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .registerTypeAdapter(Void.class, new VoidTypeAdapter())
+            .create();
+
+    /**
+     * Codec of clients that don't have a custom codec
+     */
+    private static final JsonCodec DEFAULT_JSON_CODEC = new GsonCodec(GSON);
+
+    /**
+     * Executor used by the HTTP client and for asynchronous tasks that don't block. Created on first use if no
+     * executor was configured.
+     */
+    private volatile Executor executor;
+
+    /**
+     * Executor for decoding response bodies while they are received. Decoding blocks until the HTTP client delivers
+     * more data, so it never runs on {@link #executor}. Created on first use.
+     */
+    private volatile ExecutorService decodeExecutor;
+
+    /**
+     * Whether the executors of this client have been shut down. Guarded by this client.
+     */
+    private boolean shutDown = false;
 
-public class ExarotonClient {
     /**
-     * HTTP client
+     * Transport used to send requests and open websocket connections. Created on first use if neither a transport
+     * nor an HTTP client was configured.
      */
-    private final HttpClient httpClient;
+    private volatile HttpTransport transport;
+
+    /**
+     * Whether the executor is created by this client, so it is shut down when the client is closed
+     */
+    private final boolean ownsExecutor;
+
+    /**
+     * Whether the HTTP client is created by this client, so it is shut down when the client is closed
+     */
+    private final boolean ownsTransport;
+
+    /**
+     * Requests that are in flight. Tracked so {@link #close(Duration)} can wait for them.
+     */
+    private final Set<CompletableFuture<?>> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Open websocket connections and their servers
+     */
+    private final Map<WebSocketConnection, Server> webSockets = new ConcurrentHashMap<>();
+
+    /**
+     * Whether {@link #close(Duration)} has been called
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * Connect timeout of the HTTP client that is created on first use or null
+     */
+    private final Duration connectTimeout;
+
+    /**
+     * HTTP version of the HTTP client that is created on first use or null
+     */
+    private final HttpClient.Version httpVersion;
+
+    /**
+     * Rate limiter for API requests or null if requests are not limited
+     */
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Creates the rate limiters of the clients of a pool or null if they are not limited
+     */
+    private final Supplier<RateLimiter> rateLimiterFactory;
+
+    /**
+     * Retry policy for API requests or null if requests are not retried
+     */
+    private final RetryPolicy retryPolicy;
+
+    /**
+     * Circuit breaker for API requests or null if requests always pass
+     */
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Hedging policy for read requests or null if requests are not hedged
+     */
+    private final HedgingPolicy hedgingPolicy;
+
+    /**
+     * Scheduler that limits concurrent requests per request class or null if requests are not limited
+     */
+    private final RequestScheduler requestScheduler;
+
+    /**
+     * Metrics that receive a sample for each request
+     */
+    private final RequestMetrics requestMetrics;
+
+    /**
+     * Whether compressed responses are requested
+     */
+    private final boolean compression;
+
+    /**
+     * Coalesces identical concurrent read requests or null if coalescing is disabled
+     */
+    private final RequestCoalescer coalescer;
+
+    /**
+     * Cache for read requests or null if responses are not cached
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * Timeout for receiving the response headers of each attempt or null
+     */
+    private final Duration requestTimeout;
+
+    /**
+     * Default deadline for completing a request including retries and the response body or null
+     */
+    private final Duration deadline;
+
+    /**
+     * Scheduler for timers like request deadlines. Created on first use.
+     */
+    private volatile ScheduledExecutorService scheduler;
+
+    /**
+     * Client whose timers are used by this client or null. Set for the clients of an {@link ExarotonClientPool}.
+     */
+    private final ExarotonClient shared;
 
     /**
      * Gson instance used for (de-)serialization
      */
     private final Gson gson;
 
+    /**
+     * Codec used to encode request bodies and decode responses and websocket messages
+     */
+    private final JsonCodec jsonCodec;
+
     /**
      * API host
      */
-    private String host = "api.exaroton.com";
+    private String host;
+
+    /**
+     * API port or -1 for the default port of the protocol
+     */
+    private final int port;
+
+    /**
+     * Use HTTPS and WSS
+     */
+    private final boolean secure;
 
     /**
      * API base path
@@ -50,7 +247,7 @@ public class ExarotonClient {
     /**
      * API user agent
      */
-    private String userAgent = "java-exaroton-api@1.2.1";
+    private String userAgent;
 
     /**
      * exaroton API token
@@ -59,14 +256,120 @@ public class ExarotonClient {
 
     /**
      * @param apiToken exaroton API token
+     * @see #builder()
      */
     public ExarotonClient(String apiToken) {
-        this.httpClient = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL).build();
+        this(new Builder().setAPIToken(apiToken));
+    }
+
+    /**
+     * Create a client from a builder
+     * @param builder configured builder
+     */
+    private ExarotonClient(Builder builder) {
+        this.shared = null;
+        this.apiToken = builder.apiToken;
+        this.userAgent = builder.userAgent;
+        this.host = builder.host;
+        this.port = builder.port;
+        this.secure = builder.secure;
+        this.rateLimiter = builder.rateLimiterFactory != null ? builder.rateLimiterFactory.get() : builder.rateLimiter;
+        this.rateLimiterFactory = builder.rateLimiterFactory;
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.requestScheduler = builder.requestScheduler;
+        this.requestMetrics = builder.requestMetrics;
+        this.compression = builder.compression;
+        this.coalescer = builder.coalesceRequests ? new RequestCoalescer() : null;
+        this.responseCache = builder.responseCache;
+        this.requestTimeout = builder.requestTimeout;
+        this.deadline = builder.deadline;
+
+        this.connectTimeout = builder.connectTimeout;
+        this.httpVersion = builder.httpVersion;
+
+        // the executor and the HTTP client are created on first use, so unused clients don't start any threads
+        Executor executor = builder.executor;
+        if (builder.transport != null) {
+            this.transport = builder.transport;
+        } else if (builder.httpClient != null) {
+            this.transport = new HttpClientTransport(builder.httpClient);
+            if (executor == null) {
+                executor = builder.httpClient.executor().orElse(null);
+            }
+        }
+        this.executor = executor;
+        this.ownsExecutor = executor == null;
+        this.ownsTransport = this.transport == null;
+
+        this.gson = GSON;
+        this.jsonCodec = builder.jsonCodec != null ? builder.jsonCodec : DEFAULT_JSON_CODEC;
+    }
+
+    /**
+     * Create a client for another API token that shares the transport, executor, Gson instance, timers and policies of
+     * a client. Requests are not coalesced across clients.
+     *
+     * @param shared   client to share resources with
+     * @param apiToken exaroton API token
+     */
+    ExarotonClient(@NotNull ExarotonClient shared, @NotNull String apiToken) {
+        this.shared = shared;
         this.apiToken = apiToken;
-        this.gson = new GsonBuilder()
-                .registerTypeAdapterFactory(new ConfigOptionTypeAdapterFactory())
-                .registerTypeAdapter(Void.class, new VoidTypeAdapter())
-                .create();
+        this.userAgent = shared.userAgent;
+        this.host = shared.host;
+        this.port = shared.port;
+        this.secure = shared.secure;
+        this.connectTimeout = shared.connectTimeout;
+        this.httpVersion = shared.httpVersion;
+        this.ownsExecutor = false;
+        this.ownsTransport = false;
+        // each API token has its own rate limit, so a tenant that is rate limited doesn't pause the others
+        this.rateLimiter = shared.rateLimiterFactory == null ? null : shared.rateLimiterFactory.get();
+        this.rateLimiterFactory = null;
+        this.retryPolicy = shared.retryPolicy;
+        this.circuitBreaker = shared.circuitBreaker;
+        this.hedgingPolicy = shared.hedgingPolicy;
+        this.requestScheduler = shared.requestScheduler;
+        this.requestMetrics = shared.requestMetrics;
+        this.compression = shared.compression;
+        this.coalescer = shared.coalescer == null ? null : new RequestCoalescer();
+        this.responseCache = shared.responseCache;
+        this.requestTimeout = shared.requestTimeout;
+        this.deadline = shared.deadline;
+        this.gson = shared.gson;
+        this.jsonCodec = shared.jsonCodec;
+    }
+
+    /**
+     * Shut down an executor and wait for its tasks until the deadline
+     *
+     * @param executor executor
+     * @param deadline deadline in nanoseconds
+     * @return whether the executor terminated before the deadline
+     */
+    private static boolean shutdown(ExecutorService executor, long deadline) {
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        return false;
+    }
+
+    /**
+     * Create a builder to configure a new client
+     *
+     * @return client builder
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public static Builder builder() {
+        return new Builder();
     }
 
     /**
@@ -84,6 +387,13 @@ public class ExarotonClient {
         return this;
     }
 
+    /**
+     * @return exaroton API token
+     */
+    String getAPIToken() {
+        return apiToken;
+    }
+
     /**
      * update the user agent
      *
@@ -115,6 +425,14 @@ public class ExarotonClient {
         return host;
     }
 
+    /**
+     * @return API port or -1 if the default port is used
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public int getPort() {
+        return port;
+    }
+
     /**
      * @return API base path
      */
@@ -122,12 +440,188 @@ public class ExarotonClient {
         return basePath;
     }
 
+    /**
+     * @return transport used to send requests and open websocket connections
+     * @throws IllegalStateException if the transport would have to be created after the client has been closed
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public HttpTransport getTransport() {
+        if (shared != null) {
+            return shared.getTransport();
+        }
+
+        HttpTransport transport = this.transport;
+        if (transport == null) {
+            synchronized (this) {
+                transport = this.transport;
+                if (transport == null) {
+                    ensureOpen();
+                    HttpClient.Builder httpClient = HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .executor(getExecutor());
+                    if (connectTimeout != null) {
+                        httpClient.connectTimeout(connectTimeout);
+                    }
+                    if (httpVersion != null) {
+                        httpClient.version(httpVersion);
+                    }
+                    this.transport = transport = new HttpClientTransport(httpClient.build());
+                }
+            }
+        }
+        return transport;
+    }
+
+    /**
+     * @return rate limiter for API requests or null if requests are not limited
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public @Nullable RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return retry policy for API requests or null if requests are not retried
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public @Nullable RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @return circuit breaker for API requests or null if requests always pass
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public @Nullable CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * @return hedging policy for read requests or null if requests are not hedged
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public @Nullable HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * @return scheduler that limits concurrent requests per request class or null if requests are not limited
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public @Nullable RequestScheduler getRequestScheduler() {
+        return requestScheduler;
+    }
+
+    /**
+     * @return metrics that receive a sample for each request
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    /**
+     * @return codec used to encode request bodies and decode responses and websocket messages
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public JsonCodec getJsonCodec() {
+        return jsonCodec;
+    }
+
+    /**
+     * @return cache for read requests or null if responses are not cached
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public @Nullable ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Get the executor used by the HTTP client and for asynchronous tasks of this client. Response bodies are decoded
+     * on a separate executor, so tasks on this executor never block while waiting for response data.
+     *
+     * @return executor
+     */
+    @ApiStatus.Internal
+    public Executor getExecutor() {
+        if (shared != null) {
+            return shared.getExecutor();
+        }
+
+        Executor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    ensureOpen();
+                    this.executor = executor = TaskExecutors.newTaskExecutor("exaroton-api-");
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Get the executor for decoding response bodies. Decoding tasks block until the whole body has been received, so
+     * they must not run on the executor that delivers the body ({@link #getExecutor()}). Each task runs on its own
+     * (virtual on Java 21 and newer) thread.
+     *
+     * @return executor for blocking decoding tasks
+     */
+    Executor getDecodeExecutor() {
+        if (shared != null) {
+            return shared.getDecodeExecutor();
+        }
+
+        ExecutorService executor = this.decodeExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.decodeExecutor;
+                if (executor == null) {
+                    // requests that are drained while the client is closing may still have to be decoded
+                    if (shutDown) {
+                        throw new IllegalStateException("Client is closed");
+                    }
+                    this.decodeExecutor = executor = TaskExecutors.newTaskExecutor("exaroton-api-decoder-");
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @return scheduler for timers like request deadlines
+     */
+    ScheduledExecutorService getScheduler() {
+        if (shared != null) {
+            return shared.getScheduler();
+        }
+
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null) {
+            synchronized (this) {
+                scheduler = this.scheduler;
+                if (scheduler == null) {
+                    ensureOpen();
+                    var executor = new ScheduledThreadPoolExecutor(1, new DaemonThreadFactory("exaroton-api-scheduler-"));
+                    executor.setRemoveOnCancelPolicy(true);
+                    this.scheduler = scheduler = executor;
+                }
+            }
+        }
+        return scheduler;
+    }
+
     protected URL baseUrl() throws MalformedURLException {
-        return new URL("https", host, basePath);
+        return new URL(secure ? "https" : "http", host, port, basePath);
     }
 
     /**
-     * Send an API request
+     * Send an API request. Cancelling the returned future (or completing it exceptionally, e.g. with
+     * {@link CompletableFuture#orTimeout(long, TimeUnit)}) aborts the request including the body subscriber.
+     * <p>
+     * Before Java 16, the HTTP client can't abort a request that is still waiting for its response headers. The
+     * returned future fails immediately, but the connection is only released once the headers arrive.
      *
      * @param request     API request
      * @param bodyHandler response body handler
@@ -138,33 +632,182 @@ public class ExarotonClient {
     public <T> CompletableFuture<T> request(
             @NotNull APIRequest<?> request,
             @NotNull HttpResponse.BodyHandler<T> bodyHandler
+    ) throws IOException {
+        return request(request, bodyHandler, deadline);
+    }
+
+    /**
+     * Send an API request with a deadline. If the request including retries and the response body doesn't complete
+     * within the deadline, it is aborted and fails with an {@link java.net.http.HttpTimeoutException}. For body
+     * handlers that return the body before it has been received (e.g. {@link HttpResponse.BodyHandlers#ofInputStream()})
+     * reading the body fails once the deadline is exceeded.
+     *
+     * @param request     API request
+     * @param bodyHandler response body handler
+     * @param deadline    deadline or null for no deadline
+     * @param <T>         response type
+     * @return CompletableFuture with the API response
+     * @throws IOException If an error occurs while sending the request
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public <T> CompletableFuture<T> request(
+            @NotNull APIRequest<?> request,
+            @NotNull HttpResponse.BodyHandler<T> bodyHandler,
+            @Nullable Duration deadline
     ) throws IOException {
         Objects.requireNonNull(request);
         Objects.requireNonNull(bodyHandler);
+        return request(request, TracedBodyHandler.of(bodyHandler), deadline, startTrace(request));
+    }
 
+    /**
+     * Send an API request and report it to the request metrics once it completed
+     *
+     * @param request     API request
+     * @param bodyHandler response body handler for the trace of each attempt
+     * @param deadline    deadline or null for no deadline
+     * @param trace       trace of the request or null if requests are not measured
+     * @param <T>         response type
+     * @return CompletableFuture with the API response
+     * @throws IOException If an error occurs while sending the request
+     */
+    private <T> CompletableFuture<T> request(
+            @NotNull APIRequest<?> request,
+            @NotNull TracedBodyHandler<T> bodyHandler,
+            @Nullable Duration deadline,
+            @Nullable RequestTrace trace
+    ) throws IOException {
+        CompletableFuture<T> future;
+        if (responseCache != null && responseCache.isCacheable(request)) {
+            future = responseCache.request(this, request, bodyHandler, deadline, trace);
+        } else if (responseCache != null && ResponseCache.isWrite(request)) {
+            future = exchange(request, bodyHandler, Map.of(), deadline, trace)
+                    .whenComplete((response, error) -> responseCache.invalidate(request))
+                    .thenCompose(ExarotonClient::checkStatus);
+        } else {
+            future = exchange(request, bodyHandler, Map.of(), deadline, trace)
+                    .thenCompose(ExarotonClient::checkStatus);
+        }
+
+        if (trace == null) {
+            return future;
+        }
+        return future.whenComplete((response, error) -> trace.complete(error));
+    }
+
+    /**
+     * @param request API request
+     * @return new trace for the request or null if requests are neither measured nor recorded
+     */
+    private @Nullable RequestTrace startTrace(@NotNull APIRequest<?> request) {
+        return RequestTrace.start(requestMetrics, request);
+    }
+
+    /**
+     * Build and send an API request without checking the response status
+     *
+     * @param request     API request
+     * @param bodyHandler response body handler for the trace of each attempt
+     * @param headers     additional request headers
+     * @param deadline    deadline or null for no deadline
+     * @param trace       trace of the request or null if the request is not measured
+     * @param <T>         response type
+     * @return CompletableFuture with the HTTP response. Cancelling it aborts the request.
+     * @throws IOException If an error occurs while building the request
+     */
+    <T> CompletableFuture<HttpResponse<T>> exchange(
+            @NotNull APIRequest<?> request,
+            @NotNull TracedBodyHandler<T> bodyHandler,
+            @NotNull Map<String, String> headers,
+            @Nullable Duration deadline,
+            @Nullable RequestTrace trace
+    ) throws IOException {
+        ensureOpen();
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .header("User-Agent", userAgent)
                 .header("Authorization", "Bearer " + apiToken);
+        if (compression) {
+            builder.header("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING);
+        }
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        if (requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
 
         try {
-            HttpRequest httpRequest = request.build(gson, builder, baseUrl());
-            return httpClient.sendAsync(httpRequest, bodyHandler).thenCompose(response -> {
-                var body = response.body();
-
-                if (response.statusCode() < 200 || response.statusCode() >= 300) {
-                    return CompletableFuture.failedFuture(new APIException("Failed to request data from exaroton API: "
-                            + response.statusCode() + " " + response.body()));
-                }
-
-                return CompletableFuture.completedFuture(body);
-            });
+            HttpRequest httpRequest = request.build(jsonCodec, builder, baseUrl());
+            if (hedgingPolicy != null && isHedgeable(request)) {
+                return track(new HedgedExchange<T>(this, hedgingPolicy, request.getEndpointTemplate().getEndpoint(),
+                        (attemptDeadline, attemptTrace) -> new Exchange<>(this, request, httpRequest,
+                                bodyHandler.forTrace(attemptTrace), attemptDeadline, attemptTrace).send(),
+                        deadline, trace).send());
+            }
+            return track(new Exchange<>(this, request, httpRequest, bodyHandler.forTrace(trace), deadline, trace)
+                    .send());
         } catch (URISyntaxException e) {
             throw new IOException("Failed to build request URI", e);
         }
     }
 
     /**
-     * Send an API request that returns an APIResponse
+     * Only read requests are hedged. Bulk requests like file downloads are not, because hedging them could double
+     * the transferred data.
+     *
+     * @param request API request
+     * @return whether the request may be sent a second time by the hedging policy
+     */
+    private static boolean isHedgeable(@NotNull APIRequest<?> request) {
+        return "GET".equals(request.getMethod()) && request.isIdempotent()
+                && request.getRequestClass() == RequestClass.READ;
+    }
+
+    /**
+     * @throws IllegalStateException if this client has been closed
+     */
+    private void ensureOpen() {
+        if (isClosed()) {
+            throw new IllegalStateException("Client is closed");
+        }
+    }
+
+    /**
+     * Track a request until it completes, so {@link #close(Duration)} can wait for it
+     *
+     * @param future future of the request
+     * @param <T>    response type
+     * @return the same future
+     */
+    private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        inFlight.add(future);
+        future.whenComplete((result, error) -> inFlight.remove(future));
+        if (isClosed()) {
+            // closed while the request was being sent
+            future.cancel(true);
+        }
+        return future;
+    }
+
+    /**
+     * @param response HTTP response
+     * @param <T>      response type
+     * @return future with the response body or an APIException if the status is not successful
+     */
+    static <T> CompletableFuture<T> checkStatus(HttpResponse<T> response) {
+        if (response.statusCode() < 200 || response.statusCode() >= 300) {
+            return CompletableFuture.failedFuture(new APIException("Failed to request data from exaroton API: "
+                    + response.statusCode() + " " + response.body(), response.statusCode()));
+        }
+
+        return CompletableFuture.completedFuture(response.body());
+    }
+
+    /**
+     * Send an API request that returns an APIResponse. If enabled with {@link Builder#setRequestCoalescing(boolean)},
+     * identical read requests that are sent while this request is in flight share its response, so they receive the
+     * same response object. Cancelling the returned future aborts the request unless it is shared with other callers
+     * that haven't cancelled.
      *
      * @param request API request
      * @param <T>     type of the data field in the API response
@@ -172,8 +815,144 @@ public class ExarotonClient {
      * @throws IOException If an error occurs while sending the request
      */
     public <T> CompletableFuture<T> request(@NotNull APIRequest<T> request) throws IOException {
-        return request(request, APIResponse.bodyHandler(this, gson, request.getType()))
-                .thenApply(APIResponse::getData);
+        if (coalescer != null && RequestCoalescer.canCoalesce(request)) {
+            return coalescer.request(request, () -> requestData(request, deadline));
+        }
+
+        return requestData(request, deadline);
+    }
+
+    /**
+     * Send an API request that returns an APIResponse with a deadline. Requests with a deadline are never coalesced
+     * with other requests.
+     *
+     * @param request  API request
+     * @param deadline deadline for the request including retries
+     * @param <T>      type of the data field in the API response
+     * @return CompletableFuture with the API response
+     * @throws IOException If an error occurs while sending the request
+     * @see #request(APIRequest, HttpResponse.BodyHandler, Duration)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public <T> CompletableFuture<T> request(@NotNull APIRequest<T> request, @NotNull Duration deadline)
+            throws IOException {
+        return requestData(request, Objects.requireNonNull(deadline));
+    }
+
+    /**
+     * Send an API request and extract the data from the APIResponse
+     *
+     * @param request  API request
+     * @param deadline deadline or null for no deadline
+     * @param <T>      type of the data field in the API response
+     * @return CompletableFuture with the response data
+     * @throws IOException If an error occurs while sending the request
+     */
+    private <T> CompletableFuture<T> requestData(@NotNull APIRequest<T> request, @Nullable Duration deadline)
+            throws IOException {
+        RequestTrace trace = startTrace(request);
+        TracedBodyHandler<APIResponse<T>> bodyHandler = attemptTrace -> APIResponse.bodyHandler(this, gson, jsonCodec,
+                request.getType(), attemptTrace);
+        return request(request, bodyHandler, deadline, trace).thenApply(APIResponse::getData);
+    }
+
+    /**
+     * Send an API request whose data is a list and publish its elements while the response is received. Each element
+     * is decoded and initialized as soon as it has been read and only while the subscriber has outstanding demand.
+     * Every subscriber sends its own request when it subscribes. Cancelling the subscription aborts the request.
+     * <p>
+     * Requests that fail after elements were published are not retried, so subscribers never receive an element
+     * twice. Decode and initialize times are not reported to the request metrics.
+     *
+     * @param request API request
+     * @param type    element type
+     * @param <T>     element type
+     * @return publisher of the elements
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public <T> Flow.Publisher<T> requestList(@NotNull APIRequest<List<T>> request, @NotNull Class<T> type) {
+        return new ListPublisher<>(this, gson, jsonCodec, request, type);
+    }
+
+    /**
+     * Open connections to the API host, so the first requests don't have to wait for DNS resolution and the TCP and
+     * TLS handshakes. The warm-up requests are sent concurrently, so over HTTP/1.1 each of them opens its own
+     * connection, which is kept in the connection pool of the transport afterwards. HTTP/2 multiplexes all requests
+     * over a single connection, so a single warm-up request is enough. Apart from the optional account request,
+     * warm-up requests are unauthenticated requests to the base URL that are not rate limited, retried or cached.
+     * Failed warm-up requests don't fail the returned future, but are reported in the result.
+     *
+     * @param connections     number of warm-up requests and therefore of HTTP/1.1 connections to open
+     * @param prefetchAccount whether one of the requests should fetch the account that owns the API token
+     * @return future with the warm-up result
+     * @throws IOException If an error occurs while building the requests
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<WarmUpResult> warmUp(int connections, boolean prefetchAccount) throws IOException {
+        if (connections < 1) {
+            throw new IllegalArgumentException("Connections must be at least 1");
+        }
+        ensureOpen();
+
+        long start = System.nanoTime();
+        HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(baseUrl().toURI())
+                    .GET()
+                    .header("User-Agent", userAgent);
+        } catch (URISyntaxException e) {
+            throw new IOException("Failed to build request URI", e);
+        }
+        if (requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
+        HttpRequest probe = builder.build();
+
+        CompletableFuture<Account> account = prefetchAccount ? getAccount() : null;
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        if (account != null) {
+            futures.add(account);
+        }
+        while (futures.size() < connections) {
+            futures.add(track(getTransport().sendAsync(probe, HttpResponse.BodyHandlers.discarding())));
+        }
+
+        return CompletableFuture.allOf(futures.stream()
+                        .map(future -> future.handle((result, error) -> null))
+                        .toArray(CompletableFuture[]::new))
+                .thenApply(x -> {
+                    Duration duration = Duration.ofNanos(System.nanoTime() - start);
+                    List<Throwable> errors = new ArrayList<>();
+                    int completed = 0;
+                    for (CompletableFuture<?> future : futures) {
+                        try {
+                            future.join();
+                            completed++;
+                        } catch (CompletionException e) {
+                            Throwable cause = e.getCause() == null ? e : e.getCause();
+                            errors.add(cause);
+                            // API errors (e.g. an invalid token) are responses, so the connection is still open
+                            if (cause instanceof APIException) {
+                                completed++;
+                            }
+                        }
+                    }
+                    Account prefetched = account == null || account.isCompletedExceptionally() ? null : account.join();
+                    return new WarmUpResult(duration, completed, prefetched, errors);
+                });
+    }
+
+    /**
+     * Open connections to the API host
+     *
+     * @param connections number of connections to open
+     * @return future with the warm-up result
+     * @throws IOException If an error occurs while building the requests
+     * @see #warmUp(int, boolean)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<WarmUpResult> warmUp(int connections) throws IOException {
+        return warmUp(connections, false);
     }
 
     /**
@@ -196,6 +975,18 @@ public class ExarotonClient {
         return request(new GetServersRequest());
     }
 
+    /**
+     * list all servers you have access to. Servers are published while the response is received, so the first
+     * servers can be processed before the whole list has been decoded.
+     *
+     * @return publisher of accessible servers
+     * @see #requestList(APIRequest, Class)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public Flow.Publisher<Server> streamServers() {
+        return requestList(new GetServersRequest(), Server.class);
+    }
+
     /**
      * get a server
      *
@@ -227,6 +1018,154 @@ public class ExarotonClient {
         return new CreditPool(this, id);
     }
 
+    /**
+     * Fetch many servers with at most {@code parallelism} requests in flight. A new request is sent as soon as one
+     * completes, and each result is passed to the listener as soon as it is available. Failed servers don't fail the
+     * returned future, but are reported in their result. Requests still go through the rate limiter and request
+     * scheduler of this client.
+     * <p>
+     * Cancelling the returned future cancels the requests in flight and doesn't send any more requests.
+     *
+     * @param ids         server ids
+     * @param parallelism maximum number of requests in flight
+     * @param listener    listener that receives each result as soon as it is available or null
+     * @return future with the results in the order of the ids
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<String, Server>>> fetchServers(
+            @NotNull Collection<String> ids,
+            int parallelism,
+            @Nullable Consumer<BulkResult<String, Server>> listener
+    ) {
+        return new BulkOperation<String, Server>(ids, parallelism, id -> getServer(id).fetch(), listener).start();
+    }
+
+    /**
+     * Fetch many servers with at most {@code parallelism} requests in flight
+     *
+     * @param ids         server ids
+     * @param parallelism maximum number of requests in flight
+     * @return future with the results in the order of the ids
+     * @see #fetchServers(Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<String, Server>>> fetchServers(
+            @NotNull Collection<String> ids,
+            int parallelism
+    ) {
+        return fetchServers(ids, parallelism, null);
+    }
+
+    /**
+     * Fetch the information of many files of a server with at most {@code parallelism} requests in flight
+     *
+     * @param server      server that contains the files
+     * @param paths       file paths
+     * @param parallelism maximum number of requests in flight
+     * @param listener    listener that receives each result as soon as it is available or null
+     * @return future with the results in the order of the paths
+     * @see #fetchServers(Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<String, ServerFile>>> fetchFiles(
+            @NotNull Server server,
+            @NotNull Collection<String> paths,
+            int parallelism,
+            @Nullable Consumer<BulkResult<String, ServerFile>> listener
+    ) {
+        Objects.requireNonNull(server);
+        return new BulkOperation<String, ServerFile>(paths, parallelism, path -> server.getFile(path).fetch(), listener)
+                .start();
+    }
+
+    /**
+     * Fetch the information of many files of a server with at most {@code parallelism} requests in flight
+     *
+     * @param server      server that contains the files
+     * @param paths       file paths
+     * @param parallelism maximum number of requests in flight
+     * @return future with the results in the order of the paths
+     * @see #fetchFiles(Server, Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<String, ServerFile>>> fetchFiles(
+            @NotNull Server server,
+            @NotNull Collection<String> paths,
+            int parallelism
+    ) {
+        return fetchFiles(server, paths, parallelism, null);
+    }
+
+    /**
+     * Fetch many credit pools with at most {@code parallelism} requests in flight
+     *
+     * @param ids         credit pool ids
+     * @param parallelism maximum number of requests in flight
+     * @param listener    listener that receives each result as soon as it is available or null
+     * @return future with the results in the order of the ids
+     * @see #fetchServers(Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<String, CreditPool>>> fetchCreditPools(
+            @NotNull Collection<String> ids,
+            int parallelism,
+            @Nullable Consumer<BulkResult<String, CreditPool>> listener
+    ) {
+        return new BulkOperation<String, CreditPool>(ids, parallelism, id -> getCreditPool(id).fetch(), listener)
+                .start();
+    }
+
+    /**
+     * Fetch many credit pools with at most {@code parallelism} requests in flight
+     *
+     * @param ids         credit pool ids
+     * @param parallelism maximum number of requests in flight
+     * @return future with the results in the order of the ids
+     * @see #fetchCreditPools(Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<String, CreditPool>>> fetchCreditPools(
+            @NotNull Collection<String> ids,
+            int parallelism
+    ) {
+        return fetchCreditPools(ids, parallelism, null);
+    }
+
+    /**
+     * Get the members of many credit pools with at most {@code parallelism} requests in flight
+     *
+     * @param pools       credit pools, e.g. from {@link #getCreditPools()}
+     * @param parallelism maximum number of requests in flight
+     * @param listener    listener that receives each result as soon as it is available or null
+     * @return future with the results in the order of the pools
+     * @see #fetchServers(Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<CreditPool, List<CreditPoolMember>>>> getCreditPoolMembers(
+            @NotNull Collection<CreditPool> pools,
+            int parallelism,
+            @Nullable Consumer<BulkResult<CreditPool, List<CreditPoolMember>>> listener
+    ) {
+        return new BulkOperation<CreditPool, List<CreditPoolMember>>(pools, parallelism, CreditPool::getMemberList,
+                listener).start();
+    }
+
+    /**
+     * Get the members of many credit pools with at most {@code parallelism} requests in flight
+     *
+     * @param pools       credit pools, e.g. from {@link #getCreditPools()}
+     * @param parallelism maximum number of requests in flight
+     * @return future with the results in the order of the pools
+     * @see #getCreditPoolMembers(Collection, int, Consumer)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<List<BulkResult<CreditPool, List<CreditPoolMember>>>> getCreditPoolMembers(
+            @NotNull Collection<CreditPool> pools,
+            int parallelism
+    ) {
+        return getCreditPoolMembers(pools, parallelism, null);
+    }
+
     /**
      * Get the current exaroton server using the EXAROTON_SERVER_ID environment variable. If the environment variable
      * is not set returns null. This method does not fetch the server from the API.
@@ -248,7 +1187,574 @@ public class ExarotonClient {
      */
     @ApiStatus.Internal
     public WebSocketConnection connectToWebSocket(Server server, String path) {
-        URI uri = URI.create("wss://" + getHost() + "/" + getBasePath()).resolve(path);
-        return new WebSocketConnection(httpClient, gson, uri, apiToken, server);
+        ensureOpen();
+        URI uri;
+        try {
+            uri = new URI(secure ? "wss" : "ws", null, host, port, basePath, null, null).resolve(path);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Failed to build websocket URI", e);
+        }
+        WebSocketConnection connection = new WebSocketConnection(getTransport(), gson, jsonCodec, uri,
+                Map.of("Authorization", "Bearer " + apiToken), server, getScheduler());
+        webSockets.put(connection, server);
+        connection.whenClosed().thenRun(() -> webSockets.remove(connection));
+        return connection;
+    }
+
+    /**
+     * @return whether this client (or the pool it belongs to) has been closed
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public boolean isClosed() {
+        return closed || shared != null && shared.closed;
+    }
+
+    /**
+     * Close this client. New requests and websocket connections are rejected immediately. Requests in flight and
+     * websocket messages that wait for their connection to become ready get until the timeout to complete, anything
+     * still outstanding after that is aborted. Then all websocket connections are closed without reconnecting and
+     * the scheduler, executor and HTTP client are shut down if this client created them. The HTTP client can only be
+     * shut down on Java 21 and newer, on older versions its selector thread stops once the client is unreachable.
+     * <p>
+     * Clients of an {@link ExarotonClientPool} only close their own requests and websocket connections, the shared
+     * resources are shut down by {@link ExarotonClientPool#close(Duration)}. Closing a client again has no effect
+     * apart from closing connections that were opened concurrently.
+     *
+     * @param timeout maximum time to wait for outstanding requests and messages
+     * @return what had to be aborted and whether all threads stopped
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CloseResult close(@NotNull Duration timeout) {
+        long start = System.nanoTime();
+        CloseResult result = close(start, start + timeout.toNanos());
+        if (!result.isClean()) {
+            logger.warn("Client was not closed cleanly: {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * Close this client and wait up to 5 seconds for outstanding requests and messages
+     *
+     * @see #close(Duration)
+     */
+    @Override
+    @ApiStatus.AvailableSince("2.5.0")
+    public void close() {
+        close(DEFAULT_CLOSE_TIMEOUT);
+    }
+
+    /**
+     * Close this client
+     *
+     * @param start    start of the close in nanoseconds
+     * @param deadline deadline in nanoseconds
+     * @return close result
+     */
+    CloseResult close(long start, long deadline) {
+        closed = true;
+
+        // drain: wait for requests in flight and for connections that have messages to send
+        List<CompletableFuture<?>> pending = new ArrayList<>(inFlight);
+        for (WebSocketConnection connection : webSockets.keySet()) {
+            if (connection.getPendingMessages() > 0) {
+                pending.add(connection.waitForReady());
+            }
+        }
+        if (!pending.isEmpty()) {
+            try {
+                CompletableFuture.allOf(pending.stream()
+                                .map(future -> future.handle((result, error) -> null))
+                                .toArray(CompletableFuture[]::new))
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // aborted below
+            }
+        }
+
+        int abortedRequests = 0;
+        for (CompletableFuture<?> future : new ArrayList<>(inFlight)) {
+            if (future.cancel(true)) {
+                abortedRequests++;
+            }
+        }
+
+        int closedWebSockets = 0;
+        int droppedMessages = 0;
+        for (Map.Entry<WebSocketConnection, Server> entry : new ArrayList<>(webSockets.entrySet())) {
+            WebSocketConnection connection = entry.getKey();
+            droppedMessages += connection.getPendingMessages();
+            if (entry.getValue().getWebSocket().orElse(null) == connection) {
+                entry.getValue().unsubscribe();
+            } else {
+                connection.close();
+            }
+            closedWebSockets++;
+        }
+
+        boolean terminated = shared != null || shutdown(deadline);
+        return new CloseResult(Duration.ofNanos(System.nanoTime() - start), abortedRequests, closedWebSockets,
+                droppedMessages, terminated);
+    }
+
+    /**
+     * Shut down the HTTP client, executors and scheduler if this client created them
+     *
+     * @param deadline deadline in nanoseconds
+     * @return whether everything has stopped before the deadline
+     */
+    private boolean shutdown(long deadline) {
+        HttpTransport transport;
+        Executor executor;
+        ExecutorService decodeExecutor;
+        ScheduledExecutorService scheduler;
+        synchronized (this) {
+            // resources are not created after the client has been closed
+            shutDown = true;
+            transport = this.transport;
+            executor = this.executor;
+            decodeExecutor = this.decodeExecutor;
+            scheduler = this.scheduler;
+        }
+
+        boolean terminated = true;
+        if (ownsTransport && transport instanceof HttpClientTransport) {
+            terminated = HttpClients.shutdown(((HttpClientTransport) transport).getHttpClient(),
+                    Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        }
+
+        if (decodeExecutor != null) {
+            terminated &= shutdown(decodeExecutor, deadline);
+        }
+        if (ownsExecutor && executor instanceof ExecutorService) {
+            terminated &= shutdown((ExecutorService) executor, deadline);
+        }
+
+        if (scheduler != null) {
+            // pending timers belong to requests that have completed or been aborted
+            scheduler.shutdownNow();
+        }
+        return terminated;
+    }
+
+    /**
+     * Builder for {@link ExarotonClient}. All options are optional except for the API token. If neither a transport
+     * nor an HTTP client is set, a new HTTP client is created on first use with the executor, connect timeout and HTTP
+     * version of this builder. Building a client doesn't start any threads.
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public static final class Builder {
+        private String apiToken;
+        private String userAgent = "java-exaroton-api@1.2.1";
+        private String host = "api.exaroton.com";
+        private int port = -1;
+        private boolean secure = true;
+        private Executor executor;
+        private Duration connectTimeout;
+        private HttpClient.Version httpVersion;
+        private HttpClient httpClient;
+        private HttpTransport transport;
+        private RateLimiter rateLimiter;
+        private Supplier<RateLimiter> rateLimiterFactory;
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private HedgingPolicy hedgingPolicy;
+        private RequestScheduler requestScheduler;
+        private RequestMetrics requestMetrics = RequestMetrics.NOOP;
+        private JsonCodec jsonCodec;
+        private boolean compression = true;
+        private boolean coalesceRequests = false;
+        private ResponseCache responseCache;
+        private Duration requestTimeout;
+        private Duration deadline;
+
+        private Builder() {
+        }
+
+        /**
+         * @param apiToken exaroton API token
+         * @return this builder
+         */
+        public Builder setAPIToken(String apiToken) {
+            this.apiToken = apiToken;
+            return this;
+        }
+
+        /**
+         * @param userAgent user agent sent with every request
+         * @return this builder
+         */
+        public Builder setUserAgent(@NotNull String userAgent) {
+            if (userAgent == null || userAgent.isEmpty()) {
+                throw new IllegalArgumentException("No user agent specified");
+            }
+
+            this.userAgent = userAgent;
+            return this;
+        }
+
+        /**
+         * Set the API host. This is only useful to point the client at a proxy or a local stand-in.
+         *
+         * @param host API host
+         * @return this builder
+         */
+        public Builder setHost(@NotNull String host) {
+            if (host == null || host.isBlank()) {
+                throw new IllegalArgumentException("No host specified");
+            }
+
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * @param port API port or -1 for the default port
+         * @return this builder
+         */
+        public Builder setPort(int port) {
+            if (port < -1 || port > 65535) {
+                throw new IllegalArgumentException("Invalid port " + port);
+            }
+
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Use HTTPS and WSS (default) or plain HTTP and WS. The exaroton API only supports secure connections, plain
+         * connections are only useful for local stand-ins (e.g. in load tests).
+         *
+         * @param secure use secure connections
+         * @return this builder
+         */
+        public Builder setSecure(boolean secure) {
+            this.secure = secure;
+            return this;
+        }
+
+        /**
+         * Set the executor used by the HTTP client and for asynchronous tasks of the client. Response bodies are
+         * decoded on a separate executor of the client, so tasks on this executor never block while waiting for
+         * response data and a bounded executor can be used. Defaults to a virtual thread per task on Java 21 and newer
+         * and a cached thread pool on older versions, which is created when it is first needed.
+         *
+         * @param executor executor
+         * @return this builder
+         */
+        public Builder setExecutor(@NotNull Executor executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        /**
+         * Set the connect timeout of the HTTP client. Ignored if an HTTP client or transport is set.
+         *
+         * @param connectTimeout connect timeout
+         * @return this builder
+         */
+        public Builder setConnectTimeout(@NotNull Duration connectTimeout) {
+            if (connectTimeout == null || connectTimeout.isNegative() || connectTimeout.isZero()) {
+                throw new IllegalArgumentException("Connect timeout must be positive");
+            }
+
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Set the preferred HTTP version of the HTTP client. Ignored if an HTTP client or transport is set.
+         *
+         * @param httpVersion preferred HTTP version
+         * @return this builder
+         */
+        public Builder setHttpVersion(@NotNull HttpClient.Version httpVersion) {
+            this.httpVersion = Objects.requireNonNull(httpVersion);
+            return this;
+        }
+
+        /**
+         * Set the timeout for receiving the response headers of each attempt. Attempts that time out fail with an
+         * {@link java.net.http.HttpTimeoutException} and may be retried.
+         *
+         * @param requestTimeout request timeout
+         * @return this builder
+         * @see HttpRequest.Builder#timeout(Duration)
+         */
+        public Builder setRequestTimeout(@NotNull Duration requestTimeout) {
+            if (requestTimeout == null || requestTimeout.isNegative() || requestTimeout.isZero()) {
+                throw new IllegalArgumentException("Request timeout must be positive");
+            }
+
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        /**
+         * Set the default deadline of requests. The deadline covers waiting for the rate limiter, all attempts and
+         * receiving the response body. Requests that exceed it are aborted and fail with an
+         * {@link java.net.http.HttpTimeoutException}.
+         *
+         * @param deadline default deadline
+         * @return this builder
+         * @see ExarotonClient#request(APIRequest, HttpResponse.BodyHandler, Duration)
+         */
+        public Builder setDeadline(@NotNull Duration deadline) {
+            if (deadline == null || deadline.isNegative() || deadline.isZero()) {
+                throw new IllegalArgumentException("Deadline must be positive");
+            }
+
+            this.deadline = deadline;
+            return this;
+        }
+
+        /**
+         * Use an existing HTTP client. This allows sharing a connection pool between multiple clients. Ignored if a
+         * transport is set.
+         *
+         * @param httpClient HTTP client
+         * @return this builder
+         */
+        public Builder setHttpClient(@NotNull HttpClient httpClient) {
+            this.httpClient = Objects.requireNonNull(httpClient);
+            return this;
+        }
+
+        /**
+         * Use a custom transport for all HTTP requests and websocket connections.
+         *
+         * @param transport transport
+         * @return this builder
+         */
+        public Builder setTransport(@NotNull HttpTransport transport) {
+            this.transport = Objects.requireNonNull(transport);
+            return this;
+        }
+
+        /**
+         * Limit the rate of API requests. Requests wait for a permit of the limiter instead of being sent at once,
+         * and responses with the status 429 pause the limiter and are retried after the Retry-After delay. The same
+         * limiter can be used by multiple clients with the same API token. Pools require
+         * {@link #setRateLimiterFactory(Supplier)} instead, because each API token has its own rate limit.
+         *
+         * @param rateLimiter rate limiter
+         * @return this builder
+         */
+        public Builder setRateLimiter(@NotNull RateLimiter rateLimiter) {
+            this.rateLimiter = Objects.requireNonNull(rateLimiter);
+            this.rateLimiterFactory = null;
+            return this;
+        }
+
+        /**
+         * Limit the rate of API requests with a new {@link RateLimiter} for each client built by this builder and
+         * for each client of a pool, so a client that is rate limited doesn't pause the clients of other API tokens.
+         *
+         * @param rateLimiterFactory creates a new rate limiter on each call
+         * @return this builder
+         * @see #setRateLimiter(RateLimiter)
+         */
+        @ApiStatus.AvailableSince("2.5.0")
+        public Builder setRateLimiterFactory(@NotNull Supplier<RateLimiter> rateLimiterFactory) {
+            this.rateLimiterFactory = Objects.requireNonNull(rateLimiterFactory);
+            this.rateLimiter = null;
+            return this;
+        }
+
+        /**
+         * Limit the rate of API requests with a new {@link RateLimiter} for each client built by this builder and
+         * for each client of a pool
+         *
+         * @param permitsPerSecond sustained number of requests per second
+         * @param burst            maximum number of requests that can be sent at once
+         * @return this builder
+         * @see #setRateLimiterFactory(Supplier)
+         */
+        public Builder setRateLimit(double permitsPerSecond, int burst) {
+            // validate the arguments once instead of when the first client is built
+            new RateLimiter(permitsPerSecond, burst);
+            return setRateLimiterFactory(() -> new RateLimiter(permitsPerSecond, burst));
+        }
+
+        /**
+         * Retry requests after transient errors. Only idempotent requests with a replayable body are retried unless
+         * the error guarantees that the API didn't process the request.
+         *
+         * @param retryPolicy retry policy
+         * @return this builder
+         * @see RetryPolicy
+         */
+        public Builder setRetryPolicy(@NotNull RetryPolicy retryPolicy) {
+            this.retryPolicy = Objects.requireNonNull(retryPolicy);
+            return this;
+        }
+
+        /**
+         * Fail requests immediately while the API host is failing or slow. While the breaker is open requests fail
+         * with a {@link com.exaroton.api.http.CircuitBreakerOpenException}.
+         *
+         * @param circuitBreaker circuit breaker
+         * @return this builder
+         * @see CircuitBreaker
+         */
+        public Builder setCircuitBreaker(@NotNull CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = Objects.requireNonNull(circuitBreaker);
+            return this;
+        }
+
+        /**
+         * Hedge idempotent GET requests of the class {@link RequestClass#READ}: if a request is slower than most
+         * recent requests to the same endpoint, it is sent a second time and completes with whichever attempt
+         * completes first. Bulk requests like file downloads are never hedged.
+         *
+         * @param hedgingPolicy hedging policy
+         * @return this builder
+         * @see HedgingPolicy
+         */
+        public Builder setHedgingPolicy(@NotNull HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = Objects.requireNonNull(hedgingPolicy);
+            return this;
+        }
+
+        /**
+         * Limit the number of concurrent requests per request class (control, read and bulk). Control requests like
+         * starting a server are sent before waiting read and bulk requests.
+         *
+         * @param requestScheduler request scheduler
+         * @return this builder
+         * @see RequestScheduler
+         */
+        public Builder setRequestScheduler(@NotNull RequestScheduler requestScheduler) {
+            this.requestScheduler = Objects.requireNonNull(requestScheduler);
+            return this;
+        }
+
+        /**
+         * Record the phase timings, byte counts and status code of each request, e.g. with a
+         * {@link com.exaroton.api.metrics.HistogramRequestMetrics}. By default, requests are not measured.
+         *
+         * @param requestMetrics request metrics
+         * @return this builder
+         * @see RequestMetrics
+         */
+        public Builder setRequestMetrics(@NotNull RequestMetrics requestMetrics) {
+            this.requestMetrics = Objects.requireNonNull(requestMetrics);
+            return this;
+        }
+
+        /**
+         * Set the codec used to encode request bodies and decode API responses and websocket messages. Defaults to a
+         * {@link GsonCodec} with the type adapters of this library.
+         *
+         * @param jsonCodec JSON codec
+         * @return this builder
+         * @see JsonCodec
+         */
+        public Builder setJsonCodec(@NotNull JsonCodec jsonCodec) {
+            this.jsonCodec = Objects.requireNonNull(jsonCodec);
+            return this;
+        }
+
+        /**
+         * Enable or disable compressed responses. If enabled (default), requests accept gzip and deflate encoded
+         * responses, which are decoded transparently while they are received. Body handlers (including those passed
+         * to {@link ExarotonClient#request(APIRequest, HttpResponse.BodyHandler)}) always receive the decoded body
+         * and headers without Content-Encoding and Content-Length.
+         *
+         * @param compression whether to request compressed responses
+         * @return this builder
+         */
+        public Builder setCompression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Enable or disable coalescing of identical read requests (disabled by default). If enabled, a read request
+         * that is identical to one that is already in flight (same method, path and request type) doesn't send a new
+         * request, but completes with the response of the request in flight. All callers then receive the same
+         * result objects, so changes one caller makes to them (e.g. to a fetched {@link Server}) are visible to the
+         * other callers.
+         *
+         * @param coalesceRequests whether identical concurrent read requests share one response
+         * @return this builder
+         */
+        public Builder setRequestCoalescing(boolean coalesceRequests) {
+            this.coalesceRequests = coalesceRequests;
+            return this;
+        }
+
+        /**
+         * Cache the responses of read requests that change rarely
+         *
+         * @param responseCache response cache
+         * @return this builder
+         * @see ResponseCache
+         */
+        public Builder setResponseCache(@NotNull ResponseCache responseCache) {
+            this.responseCache = Objects.requireNonNull(responseCache);
+            return this;
+        }
+
+        /**
+         * Create a pool of clients for multiple API tokens that share one transport, Gson instance and request
+         * scheduler. The API token of this builder is ignored. If no request scheduler has been set, the pool uses a
+         * default {@link RequestScheduler}. A retry policy, circuit breaker, hedging policy or response cache of this
+         * builder is shared by all clients of the pool. The response cache stores responses per API token. Each client
+         * gets its own rate limiter from the rate limiter factory.
+         *
+         * @return new client pool
+         * @throws IllegalStateException if a single rate limiter has been set with {@link #setRateLimiter(RateLimiter)}
+         */
+        @ApiStatus.AvailableSince("2.5.0")
+        public ExarotonClientPool buildPool() {
+            if (rateLimiter != null) {
+                throw new IllegalStateException("A rate limiter can't be shared between API tokens, "
+                        + "use setRateLimiterFactory or setRateLimit instead");
+            }
+
+            RequestScheduler configured = requestScheduler;
+            if (configured == null) {
+                requestScheduler = new RequestScheduler();
+            }
+            try {
+                return new ExarotonClientPool(new ExarotonClient(this));
+            } finally {
+                requestScheduler = configured;
+            }
+        }
+
+        /**
+         * @return new client
+         * @throws IllegalStateException if no API token has been set
+         */
+        public ExarotonClient build() {
+            if (apiToken == null || apiToken.isEmpty()) {
+                throw new IllegalStateException("No API token specified");
+            }
+
+            return new ExarotonClient(this);
+        }
+    }
+
+    /**
+     * Thread factory for the daemon threads of the default executor and the scheduler
+     */
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
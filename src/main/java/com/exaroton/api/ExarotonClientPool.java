@@ -0,0 +1,115 @@
+package com.exaroton.api;
+
+import com.exaroton.api.http.RequestScheduler;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Clients for many API tokens that share one transport (and its connection pool), executor, Gson instance, timers and
+ * {@link RequestScheduler}. Each client only holds its API token and its state for coalescing requests, so a pool can
+ * serve many tenants with little memory per tenant.
+ * <p>
+ * The request scheduler serves the clients in turns, so a client that sends many requests can't starve the clients of
+ * other tenants. Each client has its own rate limiter (if the pool was built with a rate limiter factory), so a
+ * client that is rate limited doesn't pause the others. A response cache is shared by all clients, but it stores
+ * responses per API token, so a client never receives a response cached for another tenant.
+ *
+ * @see ExarotonClient.Builder#buildPool()
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class ExarotonClientPool implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ExarotonClientPool.class);
+
+    /**
+     * Client that holds the shared resources. It has no API token and is never used to send requests.
+     */
+    private final ExarotonClient shared;
+    private final Map<String, ExarotonClient> clients = new ConcurrentHashMap<>();
+
+    ExarotonClientPool(@NotNull ExarotonClient shared) {
+        this.shared = Objects.requireNonNull(shared);
+    }
+
+    /**
+     * Get the client for an API token. The client is created on first use and returned again until it is removed.
+     *
+     * @param apiToken exaroton API token
+     * @return client for this API token
+     */
+    public ExarotonClient getClient(@NotNull String apiToken) {
+        if (apiToken == null || apiToken.isEmpty()) {
+            throw new IllegalArgumentException("No API token specified");
+        }
+
+        return clients.computeIfAbsent(apiToken, token -> new ExarotonClient(shared, token));
+    }
+
+    /**
+     * Remove the client for an API token. Requests that are already in flight are not affected. Use
+     * {@link ExarotonClient#close(Duration)} on the removed client to abort them and close its websocket connections.
+     *
+     * @param apiToken exaroton API token
+     * @return whether a client was removed
+     */
+    public boolean removeClient(@NotNull String apiToken) {
+        return clients.remove(apiToken) != null;
+    }
+
+    /**
+     * @return number of clients in this pool
+     */
+    public int size() {
+        return clients.size();
+    }
+
+    /**
+     * @return request scheduler shared by all clients
+     */
+    public @NotNull RequestScheduler getRequestScheduler() {
+        return Objects.requireNonNull(shared.getRequestScheduler());
+    }
+
+    /**
+     * Close all clients of this pool and the shared transport, executor and timers. Requests of all clients get until
+     * the timeout to complete, anything still outstanding after that is aborted.
+     *
+     * @param timeout maximum time to wait for outstanding requests and messages
+     * @return combined result of all clients
+     * @see ExarotonClient#close(Duration)
+     */
+    public CloseResult close(@NotNull Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        CloseResult result = null;
+        for (ExarotonClient client : new ArrayList<>(clients.values())) {
+            CloseResult closed = client.close(start, deadline);
+            result = result == null ? closed : result.combine(closed, closed.getDuration());
+        }
+        clients.clear();
+
+        CloseResult closed = shared.close(start, deadline);
+        result = result == null ? closed : result.combine(closed, closed.getDuration());
+        if (!result.isClean()) {
+            logger.warn("Client pool was not closed cleanly: {}", result);
+        }
+        return result;
+    }
+
+    /**
+     * Close all clients of this pool and wait up to 5 seconds for outstanding requests and messages
+     *
+     * @see #close(Duration)
+     */
+    @Override
+    public void close() {
+        close(Duration.ofSeconds(5));
+    }
+}
@@ -0,0 +1,565 @@
+package com.exaroton.api;
+
+import com.exaroton.api.http.CircuitBreaker;
+import com.exaroton.api.http.CircuitBreakerOpenException;
+import com.exaroton.api.http.RateLimiter;
+import com.exaroton.api.http.RequestScheduler;
+import com.exaroton.api.http.RetryPolicy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A single API request including all attempts to send it. Each attempt waits for a slot of the request scheduler,
+ * a permit of the rate limiter and a permit of the circuit breaker, each only if the client has one. Clients without
+ * a request scheduler don't limit concurrent attempts. The scheduler slot is held until the response body of the
+ * attempt completed. Failed attempts are sent again if the rate limiter or the retry policy allow it.
+ * <p>
+ * The exchange can be aborted by cancelling the returned future (or any future derived from it) or by exceeding its
+ * deadline. Aborting cancels the pending attempt and the subscription of the body subscriber, so body handlers like
+ * {@link HttpResponse.BodyHandlers#ofInputStream()} fail instead of waiting for more data.
+ * <p>
+ * Before Java 16, cancelling the future returned by {@link java.net.http.HttpClient#sendAsync} doesn't abort the
+ * underlying HTTP exchange. An attempt that is aborted while it waits for the response headers therefore keeps its
+ * connection until the headers arrive, then {@code handleResponse} cancels the body. The returned future still fails
+ * immediately.
+ *
+ * @param <T> response body type
+ */
+final class Exchange<T> {
+    private final ExarotonClient client;
+    private final APIRequest<?> request;
+    private final HttpRequest httpRequest;
+    private final HttpResponse.BodyHandler<T> bodyHandler;
+    private final RateLimiter rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final RequestScheduler scheduler;
+    private final Duration deadline;
+
+    /**
+     * Trace that records the measurements of the request or null if requests are not measured
+     */
+    private final RequestTrace trace;
+
+    /**
+     * Length of the request body or -1 if it is unknown
+     */
+    private final long requestBytes;
+
+    /**
+     * Number of attempts that have been sent or are being sent
+     */
+    private int attempts = 0;
+
+    /**
+     * Number of retries after rate limited responses
+     */
+    private int rateLimitedRetries = 0;
+
+    /**
+     * Delay before the next attempt if the response of the current attempt should be retried
+     */
+    private volatile Duration retryDelay;
+
+    /**
+     * Future of the current step (waiting for a permit, a retry delay or a response)
+     */
+    private volatile CompletableFuture<?> pending;
+
+    /**
+     * Scheduler slot of the current attempt or null
+     */
+    private volatile RequestScheduler.Slot slot;
+
+    /**
+     * Body subscriber of the current attempt
+     */
+    private volatile AbortableBodySubscriber<T> subscriber;
+
+    /**
+     * Timer that aborts the exchange once the deadline is exceeded
+     */
+    private volatile Future<?> deadlineTimer;
+
+    /**
+     * Reason why the exchange was aborted or null
+     */
+    private Throwable abortReason;
+
+    /**
+     * Whether the exchange and the body of the response have completed
+     */
+    private boolean finished = false;
+
+    Exchange(
+            @NotNull ExarotonClient client,
+            @NotNull APIRequest<?> request,
+            @NotNull HttpRequest httpRequest,
+            @NotNull HttpResponse.BodyHandler<T> bodyHandler,
+            @Nullable Duration deadline,
+            @Nullable RequestTrace trace
+    ) {
+        this.client = Objects.requireNonNull(client);
+        this.request = Objects.requireNonNull(request);
+        this.httpRequest = Objects.requireNonNull(httpRequest);
+        this.bodyHandler = Objects.requireNonNull(bodyHandler);
+        this.rateLimiter = client.getRateLimiter();
+        this.retryPolicy = client.getRetryPolicy();
+        this.circuitBreaker = client.getCircuitBreaker();
+        this.scheduler = client.getRequestScheduler();
+        this.deadline = deadline;
+        this.trace = trace;
+        this.requestBytes = trace == null ? -1 : httpRequest.bodyPublisher()
+                .map(HttpRequest.BodyPublisher::contentLength)
+                .orElse(0L);
+    }
+
+    /**
+     * Send the request
+     *
+     * @return future with the response of the last attempt. Cancelling it or any future derived from it aborts the
+     * exchange.
+     */
+    CompletableFuture<HttpResponse<T>> send() {
+        AbortableFuture<HttpResponse<T>> result = new AbortableFuture<>(this::abort);
+        if (deadline != null) {
+            deadlineTimer = client.getScheduler().schedule(
+                    () -> abort(new HttpTimeoutException("Request exceeded its deadline of " + deadline)),
+                    deadline.toNanos(),
+                    TimeUnit.NANOSECONDS
+            );
+        }
+
+        attempt().whenComplete((response, error) -> {
+            if (error != null) {
+                finish();
+                result.fail(error);
+            } else {
+                result.succeed(response);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Abort the exchange
+     *
+     * @param reason reason passed to the body subscriber and the returned future
+     */
+    void abort(@NotNull Throwable reason) {
+        synchronized (this) {
+            if (finished || abortReason != null) {
+                return;
+            }
+            abortReason = reason;
+        }
+
+        AbortableBodySubscriber<T> subscriber = this.subscriber;
+        if (subscriber != null) {
+            subscriber.abort(reason);
+        }
+
+        CompletableFuture<?> pending = this.pending;
+        if (pending != null) {
+            pending.cancel(true);
+        }
+        finish();
+    }
+
+    /**
+     * Mark the exchange as finished and stop the deadline timer
+     */
+    private void finish() {
+        synchronized (this) {
+            finished = true;
+        }
+
+        Future<?> timer = deadlineTimer;
+        if (timer != null) {
+            timer.cancel(false);
+        }
+    }
+
+    private synchronized Throwable getAbortReason() {
+        return abortReason;
+    }
+
+    /**
+     * Send an attempt
+     *
+     * @return future with the response of the last attempt
+     */
+    private CompletableFuture<HttpResponse<T>> attempt() {
+        Throwable reason = getAbortReason();
+        if (reason != null) {
+            return CompletableFuture.failedFuture(reason);
+        }
+
+        if (circuitBreaker != null && circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            // don't wait for a rate limiter permit if the breaker would reject the attempt anyway
+            return CompletableFuture.failedFuture(
+                    new CircuitBreakerOpenException(circuitBreaker.getRemainingOpenDuration()));
+        }
+
+        attempts++;
+        retryDelay = null;
+        slot = null;
+        long queued = System.nanoTime();
+        CompletableFuture<RequestScheduler.Slot> scheduled = scheduler == null
+                ? CompletableFuture.completedFuture(null)
+                : scheduler.acquire(request.getRequestClass(), client);
+        pending = scheduled;
+
+        return scheduled
+                .thenCompose(slot -> {
+                    this.slot = slot;
+                    CompletableFuture<Void> permit = rateLimiter == null
+                            ? CompletableFuture.completedFuture(null)
+                            : rateLimiter.acquire(client.getScheduler(), client.getExecutor());
+                    pending = permit;
+                    if (getAbortReason() != null) {
+                        permit.cancel(true);
+                    }
+                    return permit;
+                })
+                .thenCompose(x -> {
+                    if (trace != null) {
+                        trace.addQueueTime(System.nanoTime() - queued);
+                    }
+                    return send(circuitBreaker == null ? null : circuitBreaker.tryAcquire());
+                })
+                .handle((response, error) -> {
+                    if (error != null) {
+                        releaseSlot(slot);
+                    }
+
+                    Throwable abortReason = getAbortReason();
+                    if (abortReason != null) {
+                        return CompletableFuture.<HttpResponse<T>>failedFuture(abortReason);
+                    }
+
+                    Duration delay = error == null ? retryDelay : getRetryDelay(unwrap(error));
+                    if (delay != null) {
+                        return retry(delay);
+                    }
+
+                    return error == null
+                            ? CompletableFuture.completedFuture(response)
+                            : CompletableFuture.<HttpResponse<T>>failedFuture(error);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Send the request of the current attempt and report its outcome to the circuit breaker. Responses with a 5xx
+     * status and connection errors are failures, cancelled attempts and other errors are not reported.
+     *
+     * @param breakerPermit permit of the circuit breaker or null if the attempt was rejected or there is no breaker
+     * @return future with the response of the attempt
+     */
+    private CompletableFuture<HttpResponse<T>> send(@Nullable CircuitBreaker.Permit breakerPermit) {
+        if (circuitBreaker != null && breakerPermit == null) {
+            return CompletableFuture.failedFuture(
+                    new CircuitBreakerOpenException(circuitBreaker.getRemainingOpenDuration()));
+        }
+
+        if (trace != null && requestBytes > 0) {
+            trace.addRequestBytes(requestBytes);
+        }
+
+        long start = System.nanoTime();
+        var response = client.getTransport().sendAsync(httpRequest, responseInfo -> {
+            if (trace != null) {
+                trace.onResponse(responseInfo.statusCode(), System.nanoTime() - start);
+            }
+            if (breakerPermit != null) {
+                Duration latency = Duration.ofNanos(System.nanoTime() - start);
+                if (responseInfo.statusCode() >= 500) {
+                    breakerPermit.onFailure(latency);
+                } else {
+                    breakerPermit.onSuccess(latency);
+                }
+            }
+            return handleResponse(responseInfo);
+        });
+        pending = response;
+        if (getAbortReason() != null) {
+            response.cancel(true);
+        }
+
+        if (breakerPermit == null) {
+            return response;
+        }
+
+        return response.whenComplete((result, error) -> {
+            if (error != null && getAbortReason() == null && unwrap(error) instanceof IOException) {
+                breakerPermit.onFailure(Duration.ofNanos(System.nanoTime() - start));
+            } else {
+                // no-op if the outcome was already reported when the response headers arrived
+                breakerPermit.release();
+            }
+        });
+    }
+
+    /**
+     * Create the body subscriber for a response. Responses that will be retried are discarded, compressed responses
+     * are decoded.
+     *
+     * @param responseInfo response status and headers
+     * @return body subscriber
+     */
+    private HttpResponse.BodySubscriber<T> handleResponse(HttpResponse.ResponseInfo responseInfo) {
+        Duration delay = getAbortReason() == null ? getRetryDelay(responseInfo) : null;
+        AbortableBodySubscriber<T> subscriber;
+        if (delay != null) {
+            retryDelay = delay;
+            subscriber = new AbortableBodySubscriber<>(this, HttpResponse.BodySubscribers.replacing(null), slot, false);
+        } else {
+            subscriber = new AbortableBodySubscriber<>(this, ContentDecoding.apply(bodyHandler, responseInfo), slot,
+                    true);
+        }
+
+        this.subscriber = subscriber;
+        Throwable reason = getAbortReason();
+        if (reason != null) {
+            subscriber.abort(reason);
+        }
+        return subscriber;
+    }
+
+    /**
+     * Release the scheduler slot of an attempt
+     *
+     * @param slot slot or null
+     */
+    private static void releaseSlot(@Nullable RequestScheduler.Slot slot) {
+        if (slot != null) {
+            slot.release();
+        }
+    }
+
+    /**
+     * Decide whether a response should be retried
+     *
+     * @param responseInfo response status and headers
+     * @return delay before the next attempt or null if the response should not be retried
+     */
+    private Duration getRetryDelay(HttpResponse.ResponseInfo responseInfo) {
+        int statusCode = responseInfo.statusCode();
+        if (statusCode == RateLimiter.TOO_MANY_REQUESTS && rateLimiter != null) {
+            rateLimiter.pause(responseInfo.headers());
+            if (rateLimitedRetries < rateLimiter.getMaxRetries() && request.isBodyReplayable()) {
+                // rate limited attempts don't count towards the attempt budget of the retry policy
+                rateLimitedRetries++;
+                attempts--;
+                return Duration.ZERO;
+            }
+            return null;
+        }
+
+        if (retryPolicy == null || !retryPolicy.isRetryableStatusCode(statusCode)) {
+            return null;
+        }
+
+        if (!canRetry(statusCode == RateLimiter.TOO_MANY_REQUESTS)) {
+            return null;
+        }
+
+        Duration backoff = retryPolicy.getBackoff(attempts);
+        Duration retryAfter = responseInfo.headers().firstValue("Retry-After")
+                .map(RateLimiter::parseRetryAfter)
+                .orElse(null);
+        if (retryAfter != null && retryAfter.compareTo(backoff) > 0) {
+            return retryAfter.compareTo(retryPolicy.getMaxBackoff()) > 0 ? null : retryAfter;
+        }
+        return backoff;
+    }
+
+    /**
+     * Decide whether a failed attempt should be retried
+     *
+     * @param error error of the attempt
+     * @return delay before the next attempt or null if the error should not be retried
+     */
+    private Duration getRetryDelay(Throwable error) {
+        if (retryPolicy == null || !(error instanceof IOException) || error instanceof CircuitBreakerOpenException) {
+            return null;
+        }
+
+        if (!canRetry(error instanceof ConnectException)) {
+            return null;
+        }
+
+        return retryPolicy.getBackoff(attempts);
+    }
+
+    /**
+     * @param notProcessed whether the API certainly didn't process the request
+     * @return whether the attempt budget and the request allow another attempt
+     */
+    private boolean canRetry(boolean notProcessed) {
+        return attempts < retryPolicy.getMaxAttempts()
+                && (notProcessed || request.isIdempotent())
+                && request.isBodyReplayable();
+    }
+
+    /**
+     * Send the request again after a delay
+     *
+     * @param delay delay
+     * @return future with the response of the last attempt
+     */
+    private CompletableFuture<HttpResponse<T>> retry(Duration delay) {
+        if (delay.isZero()) {
+            return attempt();
+        }
+
+        var executor = CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, client.getExecutor());
+        var delayed = CompletableFuture.runAsync(() -> {}, executor);
+        pending = delayed;
+        return delayed.thenCompose(x -> attempt());
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Body subscriber that can be aborted. Aborting cancels the subscription and passes the abort reason to the
+     * wrapped subscriber. The scheduler slot of the attempt is released once the body terminated or was aborted.
+     *
+     * @param <U> response body type
+     */
+    private static final class AbortableBodySubscriber<U> implements HttpResponse.BodySubscriber<U> {
+        private final Exchange<?> exchange;
+        private final HttpResponse.BodySubscriber<U> parent;
+        private final RequestScheduler.Slot slot;
+        private final boolean last;
+        private Flow.Subscription subscription;
+        private Throwable abortReason;
+        private boolean terminated = false;
+
+        private AbortableBodySubscriber(
+                Exchange<?> exchange,
+                HttpResponse.BodySubscriber<U> parent,
+                RequestScheduler.Slot slot,
+                boolean last
+        ) {
+            this.exchange = exchange;
+            this.parent = parent;
+            this.slot = slot;
+            this.last = last;
+        }
+
+        @Override
+        public CompletionStage<U> getBody() {
+            return parent.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            Throwable reason;
+            synchronized (this) {
+                this.subscription = subscription;
+                reason = abortReason;
+            }
+
+            parent.onSubscribe(subscription);
+            if (reason != null) {
+                subscription.cancel();
+                parent.onError(reason);
+            }
+        }
+
+        @Override
+        public synchronized void onNext(List<ByteBuffer> item) {
+            if (!terminated) {
+                RequestTrace trace = exchange.trace;
+                if (trace != null) {
+                    long bytes = 0;
+                    for (ByteBuffer buffer : item) {
+                        bytes += buffer.remaining();
+                    }
+                    trace.addResponseBytes(bytes);
+                }
+                parent.onNext(item);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+            }
+
+            releaseSlot(slot);
+            parent.onError(throwable);
+            if (last) {
+                exchange.finish();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+            }
+
+            releaseSlot(slot);
+            parent.onComplete();
+            if (last) {
+                exchange.finish();
+            }
+        }
+
+        /**
+         * Cancel the subscription and fail the wrapped subscriber
+         *
+         * @param reason abort reason
+         */
+        private void abort(Throwable reason) {
+            Flow.Subscription subscription;
+            synchronized (this) {
+                if (terminated) {
+                    return;
+                }
+                terminated = true;
+                abortReason = reason;
+                subscription = this.subscription;
+            }
+
+            releaseSlot(slot);
+
+            if (subscription != null) {
+                subscription.cancel();
+                parent.onError(reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.exaroton.api;
+
+import com.exaroton.api.http.HedgingPolicy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read request that is sent a second time if the first attempt is slow. The request completes with the attempt
+ * that completes first, the other attempt is cancelled. It only fails if all attempts fail. Each attempt is measured
+ * in its own trace and only the trace of the attempt that completed the request is added to the request trace.
+ *
+ * @param <T> response body type
+ * @see HedgingPolicy
+ */
+final class HedgedExchange<T> {
+    private final ExarotonClient client;
+    private final HedgingPolicy policy;
+    private final String endpoint;
+    private final Sender<T> sender;
+    private final Duration deadline;
+
+    /**
+     * Trace of the request or null if the request is not measured
+     */
+    private final RequestTrace trace;
+    private final AbortableFuture<HttpResponse<T>> result = new AbortableFuture<>(this::abort);
+
+    /**
+     * Time the exchange was started in nanoseconds
+     */
+    private long start;
+
+    private CompletableFuture<HttpResponse<T>> primary;
+    private CompletableFuture<HttpResponse<T>> hedge;
+    private Future<?> hedgeTimer;
+
+    /**
+     * Number of attempts that haven't completed yet
+     */
+    private int running = 0;
+
+    /**
+     * Whether an attempt completed the request
+     */
+    private boolean completed = false;
+
+    /**
+     * Error of the first failed attempt
+     */
+    private Throwable error;
+
+    /**
+     * Trace of the first failed attempt or null
+     */
+    private RequestTrace errorTrace;
+
+    HedgedExchange(
+            @NotNull ExarotonClient client,
+            @NotNull HedgingPolicy policy,
+            @NotNull String endpoint,
+            @NotNull Sender<T> sender,
+            @Nullable Duration deadline,
+            @Nullable RequestTrace trace
+    ) {
+        this.client = client;
+        this.policy = policy;
+        this.endpoint = endpoint;
+        this.sender = sender;
+        this.deadline = deadline;
+        this.trace = trace;
+    }
+
+    /**
+     * Send the first attempt and schedule the hedge
+     *
+     * @return future with the response of the first attempt that completed. Cancelling it cancels all attempts.
+     * @throws IOException if the first attempt could not be sent
+     */
+    CompletableFuture<HttpResponse<T>> send() throws IOException {
+        policy.onRequest();
+        start = System.nanoTime();
+        RequestTrace attemptTrace = trace == null ? null : trace.newAttempt();
+        CompletableFuture<HttpResponse<T>> attempt = sender.send(deadline, attemptTrace);
+        synchronized (this) {
+            primary = attempt;
+            running++;
+        }
+        attempt.whenComplete((response, error) -> onComplete(attempt, attemptTrace, start, response, error));
+
+        Duration delay = policy.getDelay(endpoint);
+        if (deadline == null || delay.compareTo(deadline) < 0) {
+            Future<?> timer = client.getScheduler().schedule(this::sendHedge, delay.toNanos(), TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                hedgeTimer = timer;
+            }
+            if (result.isDone()) {
+                timer.cancel(false);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Send the second attempt if the first one is still running and the budget allows it
+     */
+    private void sendHedge() {
+        synchronized (this) {
+            if (result.isDone() || running == 0 || hedge != null) {
+                return;
+            }
+        }
+
+        long hedgeStart = System.nanoTime();
+        Duration remaining = null;
+        if (deadline != null) {
+            remaining = deadline.minusNanos(hedgeStart - start);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return;
+            }
+        }
+
+        if (!policy.tryAcquireHedge()) {
+            return;
+        }
+
+        RequestTrace attemptTrace = trace == null ? null : trace.newAttempt();
+        CompletableFuture<HttpResponse<T>> attempt;
+        try {
+            attempt = sender.send(remaining, attemptTrace);
+        } catch (IOException | RuntimeException e) {
+            return;
+        }
+
+        boolean cancel;
+        synchronized (this) {
+            cancel = result.isDone();
+            if (!cancel) {
+                hedge = attempt;
+                running++;
+            }
+        }
+
+        if (cancel) {
+            attempt.cancel(true);
+        } else {
+            if (trace != null) {
+                trace.addHedge();
+            }
+            attempt.whenComplete((response, error) -> onComplete(attempt, attemptTrace, hedgeStart, response, error));
+        }
+    }
+
+    /**
+     * Handle the completion of an attempt
+     *
+     * @param attempt      attempt that completed
+     * @param attemptTrace trace of the attempt or null
+     * @param attemptStart time the attempt was started in nanoseconds
+     * @param response     response or null if the attempt failed
+     * @param attemptError error or null if the attempt succeeded
+     */
+    private void onComplete(
+            CompletableFuture<HttpResponse<T>> attempt,
+            @Nullable RequestTrace attemptTrace,
+            long attemptStart,
+            HttpResponse<T> response,
+            Throwable attemptError
+    ) {
+        if (attemptError == null) {
+            synchronized (this) {
+                if (completed) {
+                    return;
+                }
+                completed = true;
+            }
+
+            // the request trace is completed with the result, so the winner has to be added first
+            if (attemptTrace != null) {
+                trace.select(attemptTrace);
+            }
+            if (result.succeed(response)) {
+                policy.recordLatency(endpoint, Duration.ofNanos(System.nanoTime() - attemptStart));
+                cancelOthers(attempt);
+            }
+            return;
+        }
+
+        Throwable failure = null;
+        RequestTrace failureTrace = null;
+        synchronized (this) {
+            running--;
+            if (error == null) {
+                error = attemptError;
+                errorTrace = attemptTrace;
+            } else if (error != attemptError) {
+                error.addSuppressed(attemptError);
+            }
+
+            // a failed first attempt is only worth waiting for a hedge if one is running
+            if (running == 0 && !completed) {
+                completed = true;
+                failure = error;
+                failureTrace = errorTrace;
+            }
+        }
+
+        if (failure != null) {
+            if (failureTrace != null) {
+                trace.select(failureTrace);
+            }
+            result.fail(failure);
+            cancelOthers(null);
+        }
+    }
+
+    /**
+     * Abort all attempts
+     *
+     * @param reason abort reason
+     */
+    private void abort(Throwable reason) {
+        cancelOthers(null);
+    }
+
+    /**
+     * Cancel the hedge timer and all attempts except one
+     *
+     * @param winner attempt that should not be cancelled or null
+     */
+    private void cancelOthers(CompletableFuture<HttpResponse<T>> winner) {
+        CompletableFuture<HttpResponse<T>> primary, hedge;
+        Future<?> timer;
+        synchronized (this) {
+            primary = this.primary;
+            hedge = this.hedge;
+            timer = hedgeTimer;
+        }
+
+        if (timer != null) {
+            timer.cancel(false);
+        }
+        if (primary != null && primary != winner) {
+            primary.cancel(true);
+        }
+        if (hedge != null && hedge != winner) {
+            hedge.cancel(true);
+        }
+    }
+
+    /**
+     * Sends a single attempt
+     *
+     * @param <T> response body type
+     */
+    @FunctionalInterface
+    interface Sender<T> {
+        /**
+         * @param deadline deadline of the attempt or null
+         * @param trace    trace of the attempt or null if the request is not measured
+         * @return future with the response of the attempt
+         * @throws IOException if the request could not be sent
+         */
+        CompletableFuture<HttpResponse<T>> send(@Nullable Duration deadline, @Nullable RequestTrace trace)
+                throws IOException;
+    }
+}
@@ -0,0 +1,444 @@
+package com.exaroton.api;
+
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.util.Initializable;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the elements of an API response whose data is a JSON array while the response is received. Each
+ * subscriber sends its own request. Elements are decoded and initialized one at a time on the decode executor of the
+ * client and only while the subscriber has outstanding demand, so a slow subscriber applies backpressure to the
+ * connection instead of buffering the response.
+ * <p>
+ * Elements are only read incrementally if the client uses a {@link GsonCodec}. Other codecs decode the whole response
+ * before the first element is published.
+ *
+ * @param <T> element type
+ */
+final class ListPublisher<T> implements Flow.Publisher<T> {
+    private final ExarotonClient client;
+    private final Gson gson;
+    private final JsonCodec codec;
+    private final APIRequest<List<T>> request;
+    private final Class<T> type;
+
+    /**
+     * @param client  exaroton client
+     * @param gson    gson instance used to initialize the elements
+     * @param codec   JSON codec used to decode the response
+     * @param request API request that returns a list
+     * @param type    element type
+     */
+    ListPublisher(
+            @NotNull ExarotonClient client,
+            @NotNull Gson gson,
+            @NotNull JsonCodec codec,
+            @NotNull APIRequest<List<T>> request,
+            @NotNull Class<T> type
+    ) {
+        this.client = Objects.requireNonNull(client);
+        this.gson = Objects.requireNonNull(gson);
+        this.codec = Objects.requireNonNull(codec);
+        this.request = Objects.requireNonNull(request);
+        this.type = Objects.requireNonNull(type);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        ElementSubscription subscription = new ElementSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+    }
+
+    /**
+     * Subscription of a single subscriber. All signals to the subscriber are sent from {@link #emit()}, which runs
+     * on one thread at a time.
+     */
+    private final class ElementSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        /**
+         * Completes once the last element has been published. This is the body of the response, so the request
+         * (including its scheduler slot and deadline) lasts until then.
+         */
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private volatile boolean cancelled;
+        private volatile CompletableFuture<Void> response;
+        private volatile InputStream stream;
+        private volatile int statusCode;
+
+        // only accessed from drain()
+        private JsonReader reader;
+        private Iterator<T> elements;
+        private boolean inArray;
+        private boolean success = true;
+        private String message;
+        private boolean terminated;
+
+        private ElementSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void start() {
+            if (cancelled) {
+                return;
+            }
+
+            try {
+                response = client.request(request, this::handle);
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+                return;
+            }
+
+            response.whenComplete((result, error) -> {
+                if (error != null) {
+                    fail(error);
+                }
+            });
+            if (cancelled) {
+                response.cancel(true);
+            }
+        }
+
+        /**
+         * Create the body subscriber of a response. Only the first response is published, any other response (e.g.
+         * of a hedged attempt) is discarded and completes with the published one.
+         *
+         * @param responseInfo response status and headers
+         * @return body subscriber
+         */
+        private HttpResponse.BodySubscriber<Void> handle(HttpResponse.ResponseInfo responseInfo) {
+            if (!claimed.compareAndSet(false, true)) {
+                return new BodySubscriber(HttpResponse.BodySubscribers.replacing(null), false);
+            }
+
+            statusCode = responseInfo.statusCode();
+            return new BodySubscriber(HttpResponse.BodySubscribers.ofInputStream(), true);
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested " + n + " elements, but demand must be positive"));
+                return;
+            }
+
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            CompletableFuture<Void> response = this.response;
+            if (response != null) {
+                response.cancel(true);
+            }
+            drain();
+        }
+
+        /**
+         * Terminate the subscription with an error
+         *
+         * @param error error
+         */
+        private void fail(Throwable error) {
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            if (error instanceof UncheckedIOException) {
+                error = error.getCause();
+            }
+            this.error.compareAndSet(null, error);
+            drain();
+        }
+
+        /**
+         * Schedule the emission of elements and terminal signals on the decode executor of the client
+         */
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                client.getDecodeExecutor().execute(this::emit);
+            }
+        }
+
+        private void emit() {
+            do {
+                while (!terminated) {
+                    if (cancelled) {
+                        terminate(null);
+                        break;
+                    }
+
+                    Throwable error = this.error.get();
+                    if (error != null) {
+                        terminate(error);
+                        subscriber.onError(error);
+                        break;
+                    }
+
+                    if (stream == null) {
+                        break;
+                    }
+
+                    try {
+                        if (!emitNext()) {
+                            break;
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        // e.g. a JsonParseException or an exception thrown by the subscriber
+                        this.error.compareAndSet(null, e);
+                    }
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+
+        /**
+         * Read the next element or the rest of the response
+         *
+         * @return false if no further elements can be emitted right now
+         * @throws IOException if reading the body failed
+         */
+        private boolean emitNext() throws IOException {
+            if (!(codec instanceof GsonCodec)) {
+                return emitDecoded();
+            }
+
+            Gson decoder = ((GsonCodec) codec).getGson();
+            if (reader == null) {
+                reader = decoder.newJsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+                reader.beginObject();
+                readFields();
+            }
+
+            if (inArray) {
+                if (demand.get() == 0) {
+                    return false;
+                }
+
+                if (reader.hasNext()) {
+                    publish(decoder.fromJson(reader, type));
+                    return true;
+                }
+
+                reader.endArray();
+                inArray = false;
+                readFields();
+            }
+
+            reader.endObject();
+            // consume trailing whitespace, so the exchange completes instead of being cancelled on close
+            stream.transferTo(OutputStream.nullOutputStream());
+
+            if (!success) {
+                this.error.compareAndSet(null, new APIException(message, statusCode));
+                return true;
+            }
+
+            terminate(null);
+            subscriber.onComplete();
+            return false;
+        }
+
+        /**
+         * Decode the whole response with the codec and emit the next element of the decoded list
+         *
+         * @return false if no further elements can be emitted right now
+         * @throws IOException if reading the body failed
+         */
+        private boolean emitDecoded() throws IOException {
+            if (elements == null) {
+                APIResponse<List<T>> response;
+                try (InputStreamReader in = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                    response = codec.decode(in, request.getType().getType());
+                    stream.transferTo(OutputStream.nullOutputStream());
+                }
+                if (response == null) {
+                    throw new JsonParseException("Response body is empty");
+                }
+                if (!response.isSuccess()) {
+                    this.error.compareAndSet(null, new APIException(response.getError(), statusCode));
+                    return true;
+                }
+
+                List<T> data = response.getData();
+                elements = data == null ? List.<T>of().iterator() : data.iterator();
+            }
+
+            if (elements.hasNext()) {
+                if (demand.get() == 0) {
+                    return false;
+                }
+
+                publish(elements.next());
+                return true;
+            }
+
+            terminate(null);
+            subscriber.onComplete();
+            return false;
+        }
+
+        /**
+         * Initialize an element and pass it to the subscriber
+         *
+         * @param element decoded element
+         */
+        private void publish(T element) {
+            if (element instanceof Initializable) {
+                ((Initializable) element).initialize(client, gson);
+            }
+            demand.decrementAndGet();
+            subscriber.onNext(element);
+        }
+
+        /**
+         * Read the fields of the response until the start of the data array or the end of the response object
+         *
+         * @throws IOException if reading the body failed
+         */
+        private void readFields() throws IOException {
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                switch (name) {
+                    case "success":
+                        success = reader.nextBoolean();
+                        break;
+                    case "error":
+                        if (reader.peek() == JsonToken.NULL) {
+                            reader.nextNull();
+                        } else {
+                            message = reader.nextString();
+                        }
+                        break;
+                    case "data":
+                        if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                            reader.beginArray();
+                            inArray = true;
+                            return;
+                        }
+                        if (reader.peek() != JsonToken.NULL) {
+                            throw new JsonParseException("Expected an array as response data but got "
+                                    + reader.peek());
+                        }
+                        reader.skipValue();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+        }
+
+        /**
+         * Stop reading the response and complete the request
+         *
+         * @param error error that terminated the subscription or null
+         */
+        private void terminate(@Nullable Throwable error) {
+            terminated = true;
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                    // the response is not needed anymore
+                }
+            }
+
+            if (error == null && !cancelled) {
+                done.complete(null);
+            } else {
+                // not an IOException, so the exchange is not retried after elements were published
+                done.completeExceptionally(error instanceof IOException
+                        ? new UncheckedIOException((IOException) error)
+                        : error == null ? new IllegalStateException("Subscription was cancelled") : error);
+                CompletableFuture<Void> response = this.response;
+                if (response != null) {
+                    response.cancel(true);
+                }
+            }
+        }
+
+        /**
+         * Body subscriber that passes the body stream to the subscription and completes once all elements have been
+         * published
+         */
+        private final class BodySubscriber implements HttpResponse.BodySubscriber<Void> {
+            private final HttpResponse.BodySubscriber<?> parent;
+            private final boolean publish;
+
+            /**
+             * @param parent  body subscriber that receives the chunks
+             * @param publish whether the parent is the input stream whose elements are published
+             */
+            private BodySubscriber(HttpResponse.BodySubscriber<?> parent, boolean publish) {
+                this.parent = parent;
+                this.publish = publish;
+            }
+
+            @Override
+            public CompletionStage<Void> getBody() {
+                if (publish) {
+                    parent.getBody().thenAccept(body -> {
+                        stream = (InputStream) body;
+                        drain();
+                    });
+                }
+                return done;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                parent.onSubscribe(subscription);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> item) {
+                parent.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                parent.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                parent.onComplete();
+            }
+        }
+    }
+}
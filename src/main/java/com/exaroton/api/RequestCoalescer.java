@@ -0,0 +1,171 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coalesces identical read requests that are in flight at the same time. The first caller sends the request, later
+ * callers get the result of that request instead of sending their own. Once the request has completed, the next
+ * call sends a new request. The request is aborted once every caller has cancelled (or failed) its future.
+ */
+final class RequestCoalescer {
+    /**
+     * Requests that are currently in flight by key
+     */
+    private final Map<String, Entry<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Whether a request may be coalesced with identical requests. Only GET requests that opted into being
+     * idempotent are coalesced, because some actions (e.g. stopping a server) are GET requests as well.
+     *
+     * @param request API request
+     * @return whether the request may be coalesced
+     */
+    static boolean canCoalesce(@NotNull APIRequest<?> request) {
+        return "GET".equals(request.getMethod()) && request.isIdempotent();
+    }
+
+    /**
+     * @param request API request
+     * @return key identifying identical requests
+     */
+    static String getKey(@NotNull APIRequest<?> request) {
+        // the request class is part of the key, because it determines headers and the response type
+        return request.getMethod() + " " + request.getPath() + " " + request.getClass().getName();
+    }
+
+    /**
+     * Send a request or join an identical request that is already in flight
+     *
+     * @param request API request
+     * @param sender  sends the request if no identical request is in flight
+     * @param <T>     response type
+     * @return future for this caller. Cancelling it only aborts the request if all other callers cancelled as well.
+     * @throws IOException if sending the request fails
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> request(@NotNull APIRequest<T> request, @NotNull Sender<T> sender) throws IOException {
+        String key = getKey(request);
+        Entry<T> created = new Entry<>(key);
+        Entry<T> entry = (Entry<T>) inFlight.compute(key, (k, existing) ->
+                existing != null && existing.join() ? existing : created);
+        if (entry != created) {
+            return entry.newCaller();
+        }
+
+        CompletableFuture<T> future = entry.newCaller();
+        try {
+            entry.start(sender.send());
+        } catch (IOException | RuntimeException e) {
+            inFlight.remove(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Request that is shared by one or more callers
+     *
+     * @param <T> response type
+     */
+    private final class Entry<T> {
+        private final String key;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> request;
+
+        // guarded by this
+        private int callers = 1;
+        private boolean abandoned = false;
+
+        private Entry(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Add a caller to this request
+         *
+         * @return false if all callers already left and the request is being aborted
+         */
+        private synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            callers++;
+            return true;
+        }
+
+        /**
+         * @param request future of the sent request
+         */
+        private void start(CompletableFuture<T> request) {
+            this.request = request;
+            request.whenComplete((value, error) -> {
+                // remove the entry first, so callers that see the result don't join this request anymore
+                inFlight.remove(key, this);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+            if (isAbandoned()) {
+                request.cancel(true);
+            }
+        }
+
+        private synchronized boolean isAbandoned() {
+            return abandoned;
+        }
+
+        /**
+         * @return future for a new caller. Cancelling it (or a future derived from it) removes the caller.
+         */
+        private CompletableFuture<T> newCaller() {
+            AtomicBoolean left = new AtomicBoolean();
+            AbortableFuture<T> caller = new AbortableFuture<>(reason -> {
+                if (left.compareAndSet(false, true)) {
+                    leave(reason);
+                }
+            });
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    caller.fail(error);
+                } else {
+                    caller.succeed(value);
+                }
+            });
+            return caller;
+        }
+
+        /**
+         * Remove a caller. The request is aborted once the last caller left before it completed.
+         *
+         * @param reason why the caller left
+         */
+        private void leave(Throwable reason) {
+            synchronized (this) {
+                if (result.isDone() || --callers > 0) {
+                    return;
+                }
+                abandoned = true;
+            }
+
+            inFlight.remove(key, this);
+            CompletableFuture<T> request = this.request;
+            if (request != null) {
+                request.completeExceptionally(reason);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Sender<T> {
+        CompletableFuture<T> send() throws IOException;
+    }
+}
@@ -0,0 +1,244 @@
+package com.exaroton.api;
+
+import com.exaroton.api.jfr.FlightRecorderEvents;
+import com.exaroton.api.jfr.RequestEvent;
+import com.exaroton.api.metrics.RequestMetrics;
+import com.exaroton.api.metrics.RequestSample;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Collects the measurements of one API request while it is in flight and reports them to the request metrics and as
+ * a {@link RequestEvent} once it completed. Hedged attempts are measured in their own traces (see
+ * {@link #newAttempt()}) and only the attempt that completed the request is added to the trace of the request.
+ * Attempts may complete on different threads, so all methods are thread-safe.
+ */
+final class RequestTrace {
+    private static final Logger logger = LoggerFactory.getLogger(RequestTrace.class);
+
+    private final RequestMetrics metrics;
+    private final APIRequest<?> request;
+    private final long start = System.nanoTime();
+
+    /**
+     * Trace of the request if this is the trace of a hedged attempt or null
+     */
+    private final RequestTrace parent;
+
+    /**
+     * Flight recorder event or null if the event was disabled when the request started
+     */
+    private final RequestEvent event;
+
+    private int statusCode = 0;
+    private int attempts = 0;
+    private int hedges = 0;
+    private long queueNanos = 0;
+    private long timeToFirstByteNanos = 0;
+    private long decodeNanos = 0;
+    private long initializeNanos = 0;
+    private long requestBytes = 0;
+    private long responseBytes = 0;
+    private boolean completed = false;
+
+    private RequestTrace(@NotNull RequestMetrics metrics, @NotNull APIRequest<?> request, boolean recording) {
+        this.metrics = metrics;
+        this.request = request;
+        this.parent = null;
+        if (recording) {
+            event = new RequestEvent();
+            event.begin();
+        } else {
+            event = null;
+        }
+    }
+
+    private RequestTrace(@NotNull RequestTrace parent) {
+        this.metrics = parent.metrics;
+        this.request = parent.request;
+        this.parent = parent;
+        this.event = null;
+    }
+
+    /**
+     * Start a trace for a request if it is measured by the metrics or recorded by the flight recorder
+     *
+     * @param metrics request metrics
+     * @param request API request
+     * @return new trace or null if the request is neither measured nor recorded
+     */
+    static @Nullable RequestTrace start(@NotNull RequestMetrics metrics, @NotNull APIRequest<?> request) {
+        boolean recording = FlightRecorderEvents.isRequestEnabled();
+        if (metrics == RequestMetrics.NOOP && !recording) {
+            return null;
+        }
+        return new RequestTrace(metrics, request, recording);
+    }
+
+    /**
+     * Create the trace of a hedged attempt. Its measurements are only added to this trace if it is selected.
+     *
+     * @return trace of the attempt
+     */
+    RequestTrace newAttempt() {
+        return new RequestTrace(this);
+    }
+
+    /**
+     * Add the measurements of the attempt that completed the request
+     *
+     * @param attempt trace of the attempt created by {@link #newAttempt()}
+     */
+    void select(@NotNull RequestTrace attempt) {
+        if (attempt.parent != this) {
+            throw new IllegalArgumentException("Trace is not an attempt of this request");
+        }
+
+        int statusCode, attempts;
+        long queueNanos, timeToFirstByteNanos, decodeNanos, initializeNanos, requestBytes, responseBytes;
+        synchronized (attempt) {
+            statusCode = attempt.statusCode;
+            attempts = attempt.attempts;
+            queueNanos = attempt.queueNanos;
+            timeToFirstByteNanos = attempt.timeToFirstByteNanos;
+            decodeNanos = attempt.decodeNanos;
+            initializeNanos = attempt.initializeNanos;
+            requestBytes = attempt.requestBytes;
+            responseBytes = attempt.responseBytes;
+        }
+
+        synchronized (this) {
+            if (attempts > 0) {
+                this.statusCode = statusCode;
+                this.timeToFirstByteNanos = timeToFirstByteNanos;
+            }
+            this.attempts += attempts;
+            this.queueNanos += queueNanos;
+            this.decodeNanos += decodeNanos;
+            this.initializeNanos += initializeNanos;
+            this.requestBytes += requestBytes;
+            this.responseBytes += responseBytes;
+        }
+    }
+
+    /**
+     * Record that a hedged attempt was sent in addition to the first one
+     */
+    synchronized void addHedge() {
+        hedges++;
+    }
+
+    /**
+     * @param nanos time an attempt waited for the request scheduler and rate limiter
+     */
+    synchronized void addQueueTime(long nanos) {
+        queueNanos += nanos;
+    }
+
+    /**
+     * @param bytes number of request body bytes sent by an attempt
+     */
+    synchronized void addRequestBytes(long bytes) {
+        requestBytes += bytes;
+    }
+
+    /**
+     * @param bytes number of response body bytes received
+     */
+    synchronized void addResponseBytes(long bytes) {
+        responseBytes += bytes;
+    }
+
+    /**
+     * Record that the response headers of an attempt arrived
+     *
+     * @param statusCode      status code
+     * @param timeToFirstByte time since the attempt was sent in nanoseconds
+     */
+    synchronized void onResponse(int statusCode, long timeToFirstByte) {
+        this.statusCode = statusCode;
+        this.timeToFirstByteNanos = timeToFirstByte;
+        attempts++;
+    }
+
+    /**
+     * @param nanos time spent reading and decoding the response
+     */
+    synchronized void addDecodeTime(long nanos) {
+        decodeNanos += nanos;
+    }
+
+    /**
+     * @param nanos time spent initializing the decoded objects
+     */
+    synchronized void addInitializeTime(long nanos) {
+        initializeNanos += nanos;
+    }
+
+    /**
+     * Report the request to the metrics and commit the flight recorder event. Only the first call has an effect and
+     * traces of attempts are never reported.
+     *
+     * @param error error the request failed with or null
+     */
+    void complete(@Nullable Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+
+        RequestSample sample;
+        synchronized (this) {
+            if (completed || parent != null) {
+                return;
+            }
+            completed = true;
+            sample = new RequestSample(
+                    request.getEndpointTemplate().getEndpoint(),
+                    request.getMethod(),
+                    request.getRequestClass(),
+                    statusCode,
+                    attempts,
+                    hedges,
+                    queueNanos,
+                    timeToFirstByteNanos,
+                    decodeNanos,
+                    initializeNanos,
+                    System.nanoTime() - start,
+                    requestBytes,
+                    responseBytes,
+                    error
+            );
+        }
+
+        if (event != null) {
+            commit(event, sample);
+        }
+
+        if (metrics != RequestMetrics.NOOP) {
+            try {
+                metrics.record(sample);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to record request metrics", e);
+            }
+        }
+    }
+
+    private static void commit(RequestEvent event, RequestSample sample) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.endpoint = sample.getEndpoint();
+            event.method = sample.getMethod();
+            event.statusCode = sample.getStatusCode();
+            event.attempts = sample.getAttempts();
+            event.hedges = sample.getHedges();
+            event.requestBytes = sample.getRequestBytes();
+            event.responseBytes = sample.getResponseBytes();
+            event.error = sample.getError() == null ? null : sample.getError().getClass().getName();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,773 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache for responses of read requests that change rarely. Each endpoint has its own time to live, by default only
+ * the account, credit pool list, player list names, file info and config options are cached. The cache is bounded
+ * and evicts the least recently used response first.
+ * <p>
+ * Expired responses with an ETag or Last-Modified header are revalidated with a conditional request. Within the
+ * stale-while-revalidate window an expired response is returned immediately while it is refreshed in the background.
+ * Write requests (including actions like starting a server) invalidate the cached responses of the resource they
+ * change.
+ * <p>
+ * Responses are cached as raw bytes and decoded for each caller, so callers never share response objects. They are
+ * cached per API token, so a cache shared by several clients never returns the response of another account.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class ResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
+    /**
+     * HTTP status code of a successful conditional request for an unchanged resource
+     */
+    private static final int NOT_MODIFIED = 304;
+
+    /**
+     * Time to live by endpoint template
+     */
+    private final Map<String, Duration> timeToLive = new ConcurrentHashMap<>(Map.of(
+            "account/", Duration.ofSeconds(60),
+            "billing/pools/", Duration.ofSeconds(60),
+            "servers/{id}/playerlists/", Duration.ofSeconds(30),
+            "servers/{server}/files/info/{path}", Duration.ofSeconds(10),
+            "servers/{server}/files/config/{path}", Duration.ofSeconds(10)
+    ));
+
+    /**
+     * Cached responses in access order
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Generations of the keys that have responses in flight, guarded by {@link #entries}. Invalidating a key
+     * increments its generation, so responses that were requested before are not stored afterwards.
+     */
+    private final Map<String, Generation> generations = new HashMap<>();
+
+    /**
+     * Maximum number of cached responses
+     */
+    private volatile int maxEntries = 256;
+
+    /**
+     * Maximum size of a cached response body in bytes
+     */
+    private volatile int maxEntrySize = 1024 * 1024;
+
+    /**
+     * Time after expiry during which a response is returned while it is revalidated
+     */
+    private volatile Duration staleWhileRevalidate = Duration.ZERO;
+
+    /**
+     * Source of the current time in nanoseconds
+     */
+    private volatile LongSupplier ticker = System::nanoTime;
+
+    /**
+     * Set the time to live of responses from an endpoint. The endpoint is the template of the request, e.g.
+     * {@code servers/{id}/playerlists/} or {@code servers/{server}/files/info/{path}}.
+     *
+     * @param endpoint endpoint template
+     * @param ttl      time to live. A duration of zero disables caching for this endpoint
+     * @return this cache
+     */
+    public ResponseCache setTimeToLive(@NotNull String endpoint, @NotNull Duration ttl) {
+        Objects.requireNonNull(endpoint);
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("Time to live can't be negative");
+        }
+
+        if (ttl.isZero()) {
+            timeToLive.remove(endpoint);
+        } else {
+            timeToLive.put(endpoint, ttl);
+        }
+        return this;
+    }
+
+    /**
+     * @param endpoint endpoint template
+     * @return time to live of responses from this endpoint or zero if they are not cached
+     */
+    public Duration getTimeToLive(@NotNull String endpoint) {
+        return timeToLive.getOrDefault(endpoint, Duration.ZERO);
+    }
+
+    /**
+     * Set the maximum number of cached responses. Defaults to 256.
+     *
+     * @param maxEntries maximum number of cached responses
+     * @return this cache
+     */
+    public ResponseCache setMaxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1");
+        }
+
+        this.maxEntries = maxEntries;
+        synchronized (entries) {
+            evict();
+        }
+        return this;
+    }
+
+    /**
+     * Set the maximum size of a cached response body. Larger responses are not cached. Defaults to 1 MiB.
+     *
+     * @param maxEntrySize maximum size in bytes
+     * @return this cache
+     */
+    public ResponseCache setMaxEntrySize(int maxEntrySize) {
+        if (maxEntrySize < 0) {
+            throw new IllegalArgumentException("Max entry size can't be negative");
+        }
+
+        this.maxEntrySize = maxEntrySize;
+        return this;
+    }
+
+    /**
+     * Set the time after expiry during which an expired response is returned while it is refreshed in the
+     * background. Defaults to zero.
+     *
+     * @param staleWhileRevalidate stale-while-revalidate window
+     * @return this cache
+     */
+    public ResponseCache setStaleWhileRevalidate(@NotNull Duration staleWhileRevalidate) {
+        if (staleWhileRevalidate == null || staleWhileRevalidate.isNegative()) {
+            throw new IllegalArgumentException("Stale while revalidate can't be negative");
+        }
+
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        return this;
+    }
+
+    /**
+     * Set the source of the current time that decides whether responses are fresh. It returns nanoseconds from an
+     * arbitrary origin like {@link System#nanoTime()}, which is the default.
+     *
+     * @param ticker time source in nanoseconds
+     * @return this cache
+     */
+    public ResponseCache setTicker(@NotNull LongSupplier ticker) {
+        this.ticker = Objects.requireNonNull(ticker);
+        return this;
+    }
+
+    /**
+     * @return number of cached responses
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Remove all cached responses
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            for (Generation generation : generations.values()) {
+                generation.value++;
+            }
+        }
+    }
+
+    /**
+     * @param request API request
+     * @return whether the response of this request may be cached
+     */
+    boolean isCacheable(@NotNull APIRequest<?> request) {
+        return RequestCoalescer.canCoalesce(request) && timeToLive.containsKey(request.getEndpoint());
+    }
+
+    /**
+     * @param request API request
+     * @return whether this request may change resources
+     */
+    static boolean isWrite(@NotNull APIRequest<?> request) {
+        return !"GET".equals(request.getMethod()) || !request.isIdempotent();
+    }
+
+    /**
+     * Send a cacheable request or answer it from the cache
+     *
+     * @param client      exaroton client
+     * @param request     cacheable API request
+     * @param bodyHandler response body handler for the trace of each attempt
+     * @param deadline    deadline or null for no deadline
+     * @param trace       trace of the request or null if the request is not measured
+     * @param <T>         response type
+     * @return CompletableFuture with the response body
+     * @throws IOException If an error occurs while sending the request
+     */
+    <T> CompletableFuture<T> request(
+            @NotNull ExarotonClient client,
+            @NotNull APIRequest<?> request,
+            @NotNull TracedBodyHandler<T> bodyHandler,
+            @Nullable Duration deadline,
+            @Nullable RequestTrace trace
+    ) throws IOException {
+        String key = getKey(client, request);
+        long now = ticker.getAsLong();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && !entry.isUsable(now) && !entry.hasValidators()) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+
+        if (entry != null && entry.isFresh(now)) {
+            return replay(entry, bodyHandler.forTrace(trace));
+        }
+
+        if (entry != null && entry.isUsable(now)) {
+            revalidate(client, request, key, entry);
+            return replay(entry, bodyHandler.forTrace(trace));
+        }
+
+        Entry cached = entry;
+        Duration ttl = getTimeToLive(request.getEndpoint());
+        Fill fill = startFill(key, request.getPath());
+        CompletableFuture<HttpResponse<T>> future;
+        try {
+            future = client.exchange(request, attemptTrace -> responseInfo -> {
+                if (responseInfo.statusCode() == NOT_MODIFIED && cached != null) {
+                    return HttpResponse.BodySubscribers.replacing(null);
+                }
+
+                HttpResponse.BodySubscriber<T> subscriber = bodyHandler.forTrace(attemptTrace).apply(responseInfo);
+                if (!isStorable(responseInfo)) {
+                    return subscriber;
+                }
+
+                return new CapturingBodySubscriber<>(subscriber, maxEntrySize, body -> fill.finish(body == null
+                        ? null : new Entry(request.getPath(), responseInfo, body, ticker.getAsLong(), ttl,
+                        staleWhileRevalidate)));
+            }, cached != null ? cached.getConditionalHeaders() : Map.of(), deadline, trace);
+        } catch (IOException | RuntimeException e) {
+            fill.finish(null);
+            throw e;
+        }
+
+        return future.whenComplete((response, error) -> {
+            // storable responses are stored (or discarded) by their body subscriber
+            if (error != null || !isStorable(response)) {
+                fill.finish(null);
+            }
+        }).thenCompose(response -> {
+            if (response.statusCode() == NOT_MODIFIED && cached != null) {
+                cached.refresh(ticker.getAsLong(), ttl, staleWhileRevalidate);
+                return replay(cached, bodyHandler.forTrace(trace));
+            }
+
+            return ExarotonClient.checkStatus(response);
+        });
+    }
+
+    /**
+     * Invalidate cached responses that may be changed by a write request. Writes to a file invalidate cached
+     * responses for the same file, its parent directories and its children. Other writes to a server invalidate the
+     * cached responses of that server (except files) and server lists. Any other write invalidates all responses.
+     *
+     * @param request write request
+     */
+    void invalidate(@NotNull APIRequest<?> request) {
+        String path = request.getPath();
+        FilePath file = FilePath.parse(path);
+        String server = getServerPrefix(path);
+
+        synchronized (entries) {
+            entries.values().removeIf(entry -> isInvalidated(entry.path, file, server));
+            for (Generation generation : generations.values()) {
+                if (isInvalidated(generation.path, file, server)) {
+                    generation.value++;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param cachedPath path of a cached response
+     * @param file       file path of the write request or null if it doesn't change a file
+     * @param server     path prefix of the server changed by the write request or null
+     * @return whether the write request may change the cached response
+     */
+    private static boolean isInvalidated(String cachedPath, @Nullable FilePath file, @Nullable String server) {
+        if (file != null) {
+            FilePath cachedFile = FilePath.parse(cachedPath);
+            return cachedFile != null && cachedFile.isRelatedTo(file);
+        }
+
+        if (server != null) {
+            return (cachedPath.startsWith(server) && FilePath.parse(cachedPath) == null)
+                    || cachedPath.equals("servers/")
+                    || (cachedPath.startsWith("billing/pools/") && cachedPath.endsWith("/servers/"));
+        }
+
+        return true;
+    }
+
+    /**
+     * @param client  exaroton client
+     * @param request API request
+     * @return cache key of the request for the API token of the client
+     */
+    private static String getKey(ExarotonClient client, APIRequest<?> request) {
+        return client.getAPIToken() + " " + RequestCoalescer.getKey(request);
+    }
+
+    /**
+     * Refresh a response in the background
+     *
+     * @param client  exaroton client
+     * @param request API request
+     * @param key     cache key
+     * @param entry   expired entry
+     */
+    private void revalidate(ExarotonClient client, APIRequest<?> request, String key, Entry entry) {
+        if (!entry.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+
+        Duration ttl = getTimeToLive(request.getEndpoint());
+        HttpResponse.BodyHandler<byte[]> handler = responseInfo -> isStorable(responseInfo)
+                ? HttpResponse.BodySubscribers.ofByteArray()
+                : HttpResponse.BodySubscribers.replacing(null);
+
+        Fill fill = startFill(key, entry.path);
+        CompletableFuture<HttpResponse<byte[]>> future;
+        try {
+            future = client.exchange(request, TracedBodyHandler.of(handler), entry.getConditionalHeaders(), null,
+                    null);
+        } catch (IOException | RuntimeException e) {
+            fill.finish(null);
+            entry.revalidating.set(false);
+            logger.debug("Failed to revalidate cached response for {}", entry.path, e);
+            return;
+        }
+
+        future.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    fill.finish(null);
+                    logger.debug("Failed to revalidate cached response for {}", entry.path, error);
+                } else if (response.statusCode() == NOT_MODIFIED) {
+                    fill.finish(null);
+                    entry.refresh(ticker.getAsLong(), ttl, staleWhileRevalidate);
+                } else if (response.body() != null && response.body().length <= maxEntrySize) {
+                    fill.finish(new Entry(entry.path, response, response.body(), ticker.getAsLong(), ttl,
+                            staleWhileRevalidate));
+                } else {
+                    fill.finish(null);
+                }
+            } finally {
+                // only after the entry has been refreshed or replaced, so it isn't revalidated twice
+                entry.revalidating.set(false);
+            }
+        });
+    }
+
+    private boolean isStorable(HttpResponse.ResponseInfo responseInfo) {
+        return isStorable(responseInfo.statusCode(), responseInfo.headers());
+    }
+
+    private boolean isStorable(HttpResponse<?> response) {
+        return isStorable(response.statusCode(), response.headers());
+    }
+
+    private boolean isStorable(int statusCode, HttpHeaders headers) {
+        return statusCode >= 200 && statusCode < 300
+                && headers.allValues("Cache-Control").stream().noneMatch(v -> v.contains("no-store"));
+    }
+
+    /**
+     * Register a response that is requested to be stored in the cache
+     *
+     * @param key  cache key
+     * @param path request path
+     * @return fill that stores the response unless the key is invalidated in the meantime
+     */
+    private Fill startFill(String key, String path) {
+        synchronized (entries) {
+            Generation generation = generations.computeIfAbsent(key, k -> new Generation(path));
+            generation.fills++;
+            return new Fill(key, generation);
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @param path request path
+     * @return path prefix of the server this path belongs to or null
+     */
+    private static String getServerPrefix(String path) {
+        if (!path.startsWith("servers/")) {
+            return null;
+        }
+
+        int end = path.indexOf('/', "servers/".length());
+        return end == -1 ? null : path.substring(0, end + 1);
+    }
+
+    /**
+     * Feed a cached response into a body handler
+     *
+     * @param entry       cached response
+     * @param bodyHandler body handler
+     * @param <T>         response type
+     * @return future with the response body
+     */
+    private static <T> CompletableFuture<T> replay(Entry entry, HttpResponse.BodyHandler<T> bodyHandler) {
+        HttpResponse.BodySubscriber<T> subscriber = bodyHandler.apply(entry);
+        subscriber.onSubscribe(new Flow.Subscription() {
+            private final AtomicBoolean done = new AtomicBoolean();
+
+            @Override
+            public void request(long n) {
+                if (n > 0 && done.compareAndSet(false, true)) {
+                    subscriber.onNext(List.of(ByteBuffer.wrap(entry.body).asReadOnlyBuffer()));
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                done.set(true);
+            }
+        });
+        return subscriber.getBody().toCompletableFuture();
+    }
+
+    /**
+     * Generation of a key with responses in flight
+     */
+    private static final class Generation {
+        private final String path;
+        private long value = 0;
+        private int fills = 0;
+
+        private Generation(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Response in flight that is stored in the cache once it has been received, unless its key has been invalidated
+     * since it was requested
+     */
+    private final class Fill {
+        private final String key;
+        private final Generation generation;
+        private final long value;
+        private boolean finished = false;
+
+        private Fill(String key, Generation generation) {
+            this.key = key;
+            this.generation = generation;
+            this.value = generation.value;
+        }
+
+        /**
+         * Store the response and release the generation. Only the first call has an effect.
+         *
+         * @param entry response to store or null if the response can't be stored
+         */
+        private void finish(@Nullable Entry entry) {
+            synchronized (entries) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+
+                if (--generation.fills == 0) {
+                    generations.remove(key, generation);
+                }
+                if (entry != null && generation.value == value) {
+                    entries.put(key, entry);
+                    evict();
+                }
+            }
+        }
+    }
+
+    /**
+     * A cached response
+     */
+    private static final class Entry implements HttpResponse.ResponseInfo {
+        private final String path;
+        private final int statusCode;
+        private final HttpHeaders headers;
+        private final HttpClient.Version version;
+        private final byte[] body;
+        private final AtomicBoolean revalidating = new AtomicBoolean();
+        private volatile long freshUntil;
+        private volatile long usableUntil;
+
+        private Entry(
+                String path,
+                HttpResponse.ResponseInfo responseInfo,
+                byte[] body,
+                long now,
+                Duration ttl,
+                Duration staleWhileRevalidate
+        ) {
+            this.path = path;
+            this.statusCode = responseInfo.statusCode();
+            this.headers = responseInfo.headers();
+            this.version = responseInfo.version();
+            this.body = body;
+            refresh(now, ttl, staleWhileRevalidate);
+        }
+
+        private Entry(
+                String path,
+                HttpResponse<?> response,
+                byte[] body,
+                long now,
+                Duration ttl,
+                Duration staleWhileRevalidate
+        ) {
+            this(path, new HttpResponse.ResponseInfo() {
+                @Override
+                public int statusCode() {
+                    return response.statusCode();
+                }
+
+                @Override
+                public HttpHeaders headers() {
+                    // the body has already been decoded
+                    return ContentDecoding.decodedHeaders(response.headers());
+                }
+
+                @Override
+                public HttpClient.Version version() {
+                    return response.version();
+                }
+            }, body, now, ttl, staleWhileRevalidate);
+        }
+
+        private void refresh(long now, Duration ttl, Duration staleWhileRevalidate) {
+            freshUntil = now + ttl.toNanos();
+            usableUntil = freshUntil + staleWhileRevalidate.toNanos();
+        }
+
+        private boolean isFresh(long now) {
+            return now - freshUntil < 0;
+        }
+
+        private boolean isUsable(long now) {
+            return now - usableUntil < 0;
+        }
+
+        private boolean hasValidators() {
+            return headers.firstValue("ETag").isPresent() || headers.firstValue("Last-Modified").isPresent();
+        }
+
+        private Map<String, String> getConditionalHeaders() {
+            Map<String, String> conditional = new HashMap<>();
+            headers.firstValue("ETag").ifPresent(etag -> conditional.put("If-None-Match", etag));
+            headers.firstValue("Last-Modified").ifPresent(date -> conditional.put("If-Modified-Since", date));
+            return conditional;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return headers;
+        }
+
+        @Override
+        public HttpClient.Version version() {
+            return version;
+        }
+    }
+
+    /**
+     * Server and file path of a file request
+     */
+    private static final class FilePath {
+        private final String server;
+        private final String file;
+
+        private FilePath(String server, String file) {
+            this.server = server;
+            this.file = file;
+        }
+
+        /**
+         * @param path request path
+         * @return file path or null if this isn't a file request
+         */
+        private static FilePath parse(String path) {
+            String server = getServerPrefix(path);
+            if (server == null || !path.startsWith("files/", server.length())) {
+                return null;
+            }
+
+            int kindEnd = path.indexOf('/', server.length() + "files/".length());
+            if (kindEnd == -1) {
+                return null;
+            }
+
+            String file = path.substring(kindEnd + 1);
+            while (file.startsWith("/")) {
+                file = file.substring(1);
+            }
+            while (file.endsWith("/")) {
+                file = file.substring(0, file.length() - 1);
+            }
+            return new FilePath(server, file);
+        }
+
+        /**
+         * @param other other file path
+         * @return whether the files are the same or one is a directory containing the other
+         */
+        private boolean isRelatedTo(FilePath other) {
+            if (!server.equals(other.server)) {
+                return false;
+            }
+
+            return file.isEmpty() || other.file.isEmpty() || file.equals(other.file)
+                    || file.startsWith(other.file + "/") || other.file.startsWith(file + "/");
+        }
+    }
+
+    /**
+     * Body subscriber that keeps a copy of the received body and stores it once the body has been handled
+     * successfully. Bodies that are too large are passed to the store as null.
+     *
+     * @param <T> response type
+     */
+    private static final class CapturingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> parent;
+        private final int maxSize;
+        private final Consumer<byte[]> store;
+        private ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private byte[] captured;
+        private boolean handled = false;
+
+        private CapturingBodySubscriber(
+                HttpResponse.BodySubscriber<T> parent,
+                int maxSize,
+                Consumer<byte[]> store
+        ) {
+            this.parent = parent;
+            this.maxSize = maxSize;
+            this.store = store;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return parent.getBody().thenApply(result -> {
+                synchronized (this) {
+                    handled = true;
+                }
+                storeIfComplete();
+                return result;
+            });
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            parent.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            if (body != null) {
+                for (ByteBuffer buffer : item) {
+                    if (body.size() + buffer.remaining() > maxSize) {
+                        body = null;
+                        store.accept(null);
+                        break;
+                    }
+
+                    ByteBuffer copy = buffer.duplicate();
+                    byte[] bytes = new byte[copy.remaining()];
+                    copy.get(bytes);
+                    body.write(bytes, 0, bytes.length);
+                }
+            }
+            parent.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            body = null;
+            parent.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            if (body != null) {
+                synchronized (this) {
+                    captured = body.toByteArray();
+                }
+                body = null;
+                storeIfComplete();
+            }
+            parent.onComplete();
+        }
+
+        /**
+         * Store the body once it has been received completely and handled successfully. Body handlers may complete
+         * before the end of the body has been received, so this is called from both places.
+         */
+        private void storeIfComplete() {
+            byte[] bytes;
+            synchronized (this) {
+                if (!handled || captured == null) {
+                    return;
+                }
+                bytes = captured;
+                captured = null;
+            }
+            store.accept(bytes);
+        }
+    }
+}
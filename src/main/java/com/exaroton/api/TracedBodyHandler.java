@@ -0,0 +1,31 @@
+package com.exaroton.api;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.HttpResponse;
+
+/**
+ * Creates the body handler of an attempt, so measurements taken while the response is read (e.g. the decode time)
+ * are recorded in the trace of the attempt that received the response.
+ *
+ * @param <T> response body type
+ * @see RequestTrace#newAttempt()
+ */
+@FunctionalInterface
+interface TracedBodyHandler<T> {
+    /**
+     * @param trace trace of the attempt or null if the request is not measured
+     * @return body handler for the responses of the attempt
+     */
+    HttpResponse.BodyHandler<T> forTrace(@Nullable RequestTrace trace);
+
+    /**
+     * @param bodyHandler body handler that doesn't record any measurements
+     * @param <T>         response body type
+     * @return traced body handler that uses the same body handler for all attempts
+     */
+    static <T> TracedBodyHandler<T> of(@NotNull HttpResponse.BodyHandler<T> bodyHandler) {
+        return trace -> bodyHandler;
+    }
+}
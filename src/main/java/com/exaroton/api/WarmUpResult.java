@@ -0,0 +1,69 @@
+package com.exaroton.api;
+
+import com.exaroton.api.account.Account;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Result of {@link ExarotonClient#warmUp(int, boolean)}
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class WarmUpResult {
+    private final Duration duration;
+    private final int completedRequests;
+    private final Account account;
+    private final List<Throwable> errors;
+
+    WarmUpResult(
+            @NotNull Duration duration,
+            int completedRequests,
+            @Nullable Account account,
+            @NotNull List<Throwable> errors
+    ) {
+        this.duration = duration;
+        this.completedRequests = completedRequests;
+        this.account = account;
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * @return time from the start of the warm-up until all connections were ready
+     */
+    public @NotNull Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Get the number of warm-up requests that received a response. Over HTTP/1.1 each of them left its own connection
+     * in the pool. Over HTTP/2 all of them share a single connection, so this is not the number of open connections.
+     *
+     * @return number of warm-up requests that received a response
+     */
+    public int getCompletedRequests() {
+        return completedRequests;
+    }
+
+    /**
+     * @return prefetched account or null if the account was not requested or the request failed
+     */
+    public @Nullable Account getAccount() {
+        return account;
+    }
+
+    /**
+     * @return errors of the warm-up requests that failed
+     */
+    public @NotNull List<Throwable> getErrors() {
+        return errors;
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpResult{duration=" + duration + ", completedRequests=" + completedRequests
+                + ", errors=" + errors.size() + "}";
+    }
+}
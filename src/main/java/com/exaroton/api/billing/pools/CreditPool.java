@@ -6,7 +6,12 @@ import com.exaroton.api.request.billing.pools.GetCreditPoolMembersRequest;
 import com.exaroton.api.request.billing.pools.GetCreditPoolRequest;
 import com.exaroton.api.request.billing.pools.GetCreditPoolServersRequest;
 import com.exaroton.api.server.Server;
+import com.exaroton.api.util.JsonReaders;
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -14,6 +19,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 
 public final class CreditPool implements Initializable {
     /**
@@ -71,6 +77,16 @@ public final class CreditPool implements Initializable {
      */
     private transient ExarotonClient client;
 
+    /**
+     * Create a credit pool object for the type adapter. The client is set by
+     * {@link #initialize(ExarotonClient, Gson)}.
+     *
+     * @param id unique pool id
+     */
+    private CreditPool(String id) {
+        this.id = id;
+    }
+
     /**
      * Create a new Credit Pool
      *
@@ -240,6 +256,17 @@ public final class CreditPool implements Initializable {
         return client.request(new GetCreditPoolServersRequest(this.id));
     }
 
+    /**
+     * Get the servers in this pool. Servers are published while the response is received.
+     *
+     * @return publisher of pool servers
+     * @see ExarotonClient#requestList(com.exaroton.api.APIRequest, Class)
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public Flow.Publisher<Server> streamServerList() {
+        return client.requestList(new GetCreditPoolServersRequest(this.id), Server.class);
+    }
+
     /**
      * update properties from fetched object
      *
@@ -258,4 +285,103 @@ public final class CreditPool implements Initializable {
         this.ownCredits = pool.getOwnCredits();
         return this;
     }
+
+    /**
+     * @return streaming type adapter for credit pools
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<CreditPool> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link CreditPool}. Decoded pools still have to be initialized.
+     */
+    private static final class Adapter extends TypeAdapter<CreditPool> {
+        @Override
+        public void write(JsonWriter out, CreditPool value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("name").value(value.name);
+            out.name("credits").value(value.credits);
+            out.name("servers").value(value.servers);
+            out.name("owner").value(value.owner);
+            out.name("isOwner").value(value.isOwner);
+            out.name("members").value(value.members);
+            out.name("ownShare").value(value.ownShare);
+            out.name("ownCredits").value(value.ownCredits);
+            out.endObject();
+        }
+
+        @Override
+        public CreditPool read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            // the id is final, so the other fields are collected until the end of the object
+            String id = null;
+            String name = null;
+            double credits = 0;
+            int servers = 0;
+            String owner = null;
+            boolean isOwner = false;
+            int members = 0;
+            double ownShare = 0;
+            double ownCredits = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        id = JsonReaders.nextString(in);
+                        break;
+                    case "name":
+                        name = JsonReaders.nextString(in);
+                        break;
+                    case "credits":
+                        credits = JsonReaders.nextDouble(in, credits);
+                        break;
+                    case "servers":
+                        servers = JsonReaders.nextInt(in, servers);
+                        break;
+                    case "owner":
+                        owner = JsonReaders.nextString(in);
+                        break;
+                    case "isOwner":
+                        isOwner = JsonReaders.nextBoolean(in, isOwner);
+                        break;
+                    case "members":
+                        members = JsonReaders.nextInt(in, members);
+                        break;
+                    case "ownShare":
+                        ownShare = JsonReaders.nextDouble(in, ownShare);
+                        break;
+                    case "ownCredits":
+                        ownCredits = JsonReaders.nextDouble(in, ownCredits);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+
+            CreditPool pool = new CreditPool(id);
+            pool.name = name;
+            pool.credits = credits;
+            pool.servers = servers;
+            pool.owner = owner;
+            pool.isOwner = isOwner;
+            pool.members = members;
+            pool.ownShare = ownShare;
+            pool.ownCredits = ownCredits;
+            return pool;
+        }
+    }
 }
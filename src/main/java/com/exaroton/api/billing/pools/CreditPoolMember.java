@@ -1,5 +1,14 @@
 package com.exaroton.api.billing.pools;
 
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public class CreditPoolMember {
     /**
@@ -61,4 +70,67 @@ public class CreditPoolMember {
     public boolean isOwner() {
         return isOwner;
     }
+
+    /**
+     * @return streaming type adapter for credit pool members
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<CreditPoolMember> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link CreditPoolMember}
+     */
+    private static final class Adapter extends TypeAdapter<CreditPoolMember> {
+        @Override
+        public void write(JsonWriter out, CreditPoolMember value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("account").value(value.account);
+            out.name("name").value(value.name);
+            out.name("share").value(value.share);
+            out.name("credits").value(value.credits);
+            out.name("isOwner").value(value.isOwner);
+            out.endObject();
+        }
+
+        @Override
+        public CreditPoolMember read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            CreditPoolMember member = new CreditPoolMember();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "account":
+                        member.account = JsonReaders.nextString(in);
+                        break;
+                    case "name":
+                        member.name = JsonReaders.nextString(in);
+                        break;
+                    case "share":
+                        member.share = JsonReaders.nextDouble(in, member.share);
+                        break;
+                    case "credits":
+                        member.credits = JsonReaders.nextDouble(in, member.credits);
+                        break;
+                    case "isOwner":
+                        member.isOwner = JsonReaders.nextBoolean(in, member.isOwner);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return member;
+        }
+    }
 }
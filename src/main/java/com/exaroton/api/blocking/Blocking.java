@@ -0,0 +1,61 @@
+package com.exaroton.api.blocking;
+
+import com.exaroton.api.APIException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Waits for the futures of the asynchronous API. Waiting parks the calling thread, so on a virtual thread it doesn't
+ * block a platform thread.
+ */
+final class Blocking {
+    private Blocking() {
+    }
+
+    /**
+     * Start an asynchronous call and wait for its result. If the calling thread is interrupted while waiting, the
+     * call is cancelled, which aborts its request.
+     *
+     * @param call asynchronous call
+     * @param <T>  result type
+     * @return result of the call
+     * @throws IOException  if the request failed or the thread was interrupted
+     * @throws APIException if the API returned an error
+     */
+    static <T> T await(@NotNull Call<T> call) throws IOException, APIException {
+        CompletableFuture<T> future = call.call();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for a response");
+            exception.initCause(e);
+            throw exception;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof APIException) {
+                throw (APIException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    interface Call<T> {
+        CompletableFuture<T> call() throws IOException;
+    }
+}
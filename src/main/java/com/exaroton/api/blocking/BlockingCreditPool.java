@@ -0,0 +1,75 @@
+package com.exaroton.api.blocking;
+
+import com.exaroton.api.APIException;
+import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.billing.pools.CreditPoolMember;
+import com.exaroton.api.server.Server;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Blocking version of the actions of a {@link CreditPool}
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class BlockingCreditPool {
+    private final CreditPool pool;
+
+    /**
+     * @param pool credit pool to wrap
+     */
+    public BlockingCreditPool(@NotNull CreditPool pool) {
+        this.pool = Objects.requireNonNull(pool);
+    }
+
+    /**
+     * @return the wrapped credit pool
+     */
+    public CreditPool getCreditPool() {
+        return pool;
+    }
+
+    /**
+     * @return the fetched credit pool
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see CreditPool#fetch()
+     */
+    public CreditPool fetch() throws IOException, APIException {
+        return Blocking.await(pool::fetch);
+    }
+
+    /**
+     * @param force whether to fetch the credit pool even if it has been fetched before
+     * @return the fetched credit pool
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see CreditPool#fetch(boolean)
+     */
+    public CreditPool fetch(boolean force) throws IOException, APIException {
+        return Blocking.await(() -> pool.fetch(force));
+    }
+
+    /**
+     * @return members of the credit pool
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see CreditPool#getMemberList()
+     */
+    public List<CreditPoolMember> getMemberList() throws IOException, APIException {
+        return Blocking.await(pool::getMemberList);
+    }
+
+    /**
+     * @return servers of the credit pool
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see CreditPool#getServerList()
+     */
+    public List<Server> getServerList() throws IOException, APIException {
+        return Blocking.await(pool::getServerList);
+    }
+}
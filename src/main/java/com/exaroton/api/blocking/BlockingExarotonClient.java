@@ -0,0 +1,114 @@
+package com.exaroton.api.blocking;
+
+import com.exaroton.api.APIException;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.WarmUpResult;
+import com.exaroton.api.account.Account;
+import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.util.TaskExecutors;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Blocking facade for an {@link ExarotonClient}. Each method sends its request with the asynchronous client and parks
+ * the calling thread until the response has been received. If the thread is interrupted while waiting, the request is
+ * aborted and an {@link java.io.InterruptedIOException} is thrown.
+ * <p>
+ * On Java 21 and newer the facade is meant to be called from virtual threads, e.g. from an executor created with
+ * {@link #newTaskExecutor()}: waiting threads don't occupy platform threads, so tens of thousands of operations can
+ * run concurrently. The client itself decodes responses on virtual threads by default on these versions.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class BlockingExarotonClient {
+    private final ExarotonClient client;
+
+    /**
+     * @param client client to wrap
+     */
+    public BlockingExarotonClient(@NotNull ExarotonClient client) {
+        this.client = Objects.requireNonNull(client);
+    }
+
+    /**
+     * Create an executor that runs each task on a new thread. On Java 21 and newer these are virtual threads, on
+     * older versions idle threads of a cached thread pool are reused. The executor should be shut down once it isn't
+     * needed anymore.
+     *
+     * @return new executor
+     */
+    public static ExecutorService newTaskExecutor() {
+        return TaskExecutors.newTaskExecutor("exaroton-api-task-");
+    }
+
+    /**
+     * @return the wrapped client
+     */
+    public ExarotonClient getClient() {
+        return client;
+    }
+
+    /**
+     * @return account that owns the API token
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ExarotonClient#getAccount()
+     */
+    public Account getAccount() throws IOException, APIException {
+        return Blocking.await(client::getAccount);
+    }
+
+    /**
+     * @return servers of the account
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ExarotonClient#getServers()
+     */
+    public List<Server> getServers() throws IOException, APIException {
+        return Blocking.await(client::getServers);
+    }
+
+    /**
+     * @param id server id
+     * @return blocking version of the server. The server is not fetched.
+     * @see ExarotonClient#getServer(String)
+     */
+    public BlockingServer getServer(@NotNull String id) {
+        return new BlockingServer(client.getServer(id));
+    }
+
+    /**
+     * @return credit pools of the account
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ExarotonClient#getCreditPools()
+     */
+    public List<CreditPool> getCreditPools() throws IOException, APIException {
+        return Blocking.await(client::getCreditPools);
+    }
+
+    /**
+     * @param id credit pool id
+     * @return blocking version of the credit pool. The pool is not fetched.
+     * @see ExarotonClient#getCreditPool(String)
+     */
+    public BlockingCreditPool getCreditPool(@NotNull String id) {
+        return new BlockingCreditPool(client.getCreditPool(id));
+    }
+
+    /**
+     * @param connections number of warm-up requests and therefore of HTTP/1.1 connections to open
+     * @return warm-up result
+     * @throws IOException  if the warm-up requests could not be built
+     * @throws APIException never thrown, failed warm-up requests are reported in the result
+     * @see ExarotonClient#warmUp(int)
+     */
+    public WarmUpResult warmUp(int connections) throws IOException, APIException {
+        return Blocking.await(() -> client.warmUp(connections));
+    }
+}
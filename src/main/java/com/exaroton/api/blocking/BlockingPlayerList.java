@@ -0,0 +1,87 @@
+package com.exaroton.api.blocking;
+
+import com.exaroton.api.APIException;
+import com.exaroton.api.server.PlayerList;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Blocking version of the actions of a {@link PlayerList}
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class BlockingPlayerList {
+    private final PlayerList list;
+
+    /**
+     * @param list player list to wrap
+     */
+    public BlockingPlayerList(@NotNull PlayerList list) {
+        this.list = Objects.requireNonNull(list);
+    }
+
+    /**
+     * @return the wrapped player list
+     */
+    public PlayerList getPlayerList() {
+        return list;
+    }
+
+    /**
+     * @return players in the list
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see PlayerList#getEntries()
+     */
+    public List<String> getEntries() throws IOException, APIException {
+        return Blocking.await(list::getEntries);
+    }
+
+    /**
+     * @param entries players to add
+     * @return players in the list
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see PlayerList#add(String...)
+     */
+    public List<String> add(@NotNull String... entries) throws IOException, APIException {
+        return Blocking.await(() -> list.add(entries));
+    }
+
+    /**
+     * @param entries players to add
+     * @return players in the list
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see PlayerList#add(Collection)
+     */
+    public List<String> add(@NotNull Collection<String> entries) throws IOException, APIException {
+        return Blocking.await(() -> list.add(entries));
+    }
+
+    /**
+     * @param entries players to remove
+     * @return players in the list
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see PlayerList#remove(String...)
+     */
+    public List<String> remove(@NotNull String... entries) throws IOException, APIException {
+        return Blocking.await(() -> list.remove(entries));
+    }
+
+    /**
+     * @param entries players to remove
+     * @return players in the list
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see PlayerList#remove(List)
+     */
+    public List<String> remove(@NotNull List<String> entries) throws IOException, APIException {
+        return Blocking.await(() -> list.remove(entries));
+    }
+}
@@ -0,0 +1,247 @@
+package com.exaroton.api.blocking;
+
+import com.exaroton.api.APIException;
+import com.exaroton.api.server.MclogsData;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerLog;
+import com.exaroton.api.server.ServerMOTDInfo;
+import com.exaroton.api.server.ServerRAMInfo;
+import com.exaroton.api.server.ServerStatus;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Blocking version of the actions of a {@link Server}. The data of the server (e.g. its name and status) is available
+ * from {@link #getServer()} and the server returned by {@link #fetch()}.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class BlockingServer {
+    private final Server server;
+
+    /**
+     * @param server server to wrap
+     */
+    public BlockingServer(@NotNull Server server) {
+        this.server = Objects.requireNonNull(server);
+    }
+
+    /**
+     * @return the wrapped server
+     */
+    public Server getServer() {
+        return server;
+    }
+
+    /**
+     * Fetch the server from the API if it hasn't been fetched yet
+     *
+     * @return the fetched server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#fetch()
+     */
+    public Server fetch() throws IOException, APIException {
+        return Blocking.await(server::fetch);
+    }
+
+    /**
+     * Fetch the server from the API
+     *
+     * @param force whether to fetch the server even if it has been fetched before
+     * @return the fetched server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#fetch(boolean)
+     */
+    public Server fetch(boolean force) throws IOException, APIException {
+        return Blocking.await(() -> server.fetch(force));
+    }
+
+    /**
+     * @return MOTD of the server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#fetchMotd()
+     */
+    public ServerMOTDInfo fetchMotd() throws IOException, APIException {
+        return Blocking.await(server::fetchMotd);
+    }
+
+    /**
+     * @param motd new MOTD
+     * @return updated MOTD of the server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#setMotd(String)
+     */
+    public ServerMOTDInfo setMotd(@NotNull String motd) throws IOException, APIException {
+        return Blocking.await(() -> server.setMotd(motd));
+    }
+
+    /**
+     * @return log of the server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#getLog()
+     */
+    public ServerLog getLog() throws IOException, APIException {
+        return Blocking.await(server::getLog);
+    }
+
+    /**
+     * @return shared log
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#shareLog()
+     */
+    public MclogsData shareLog() throws IOException, APIException {
+        return Blocking.await(server::shareLog);
+    }
+
+    /**
+     * @return RAM of the server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#getRAM()
+     */
+    public ServerRAMInfo getRAM() throws IOException, APIException {
+        return Blocking.await(server::getRAM);
+    }
+
+    /**
+     * @param ram new RAM in GiB
+     * @return updated RAM of the server
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#setRAM(int)
+     */
+    public ServerRAMInfo setRAM(int ram) throws IOException, APIException {
+        return Blocking.await(() -> server.setRAM(ram));
+    }
+
+    /**
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#start()
+     */
+    public void start() throws IOException, APIException {
+        Blocking.await(server::start);
+    }
+
+    /**
+     * @param useOwnCredits whether to use the credits of the account instead of the credits of the owner
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#start(boolean)
+     */
+    public void start(boolean useOwnCredits) throws IOException, APIException {
+        Blocking.await(() -> server.start(useOwnCredits));
+    }
+
+    /**
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#stop()
+     */
+    public void stop() throws IOException, APIException {
+        Blocking.await(server::stop);
+    }
+
+    /**
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#restart()
+     */
+    public void restart() throws IOException, APIException {
+        Blocking.await(server::restart);
+    }
+
+    /**
+     * Wait until the server has reached one of the given statuses
+     *
+     * @param timeout  maximum time to wait
+     * @param statuses statuses to wait for
+     * @return the server
+     * @throws IOException      connection errors or if the thread was interrupted
+     * @throws TimeoutException if the server didn't reach one of the statuses within the timeout
+     * @see Server#waitForStatus(Set)
+     */
+    public Server waitForStatus(@NotNull Duration timeout, @NotNull ServerStatus... statuses)
+            throws IOException, TimeoutException {
+        Objects.requireNonNull(timeout);
+        Future<Server> future = server.waitForStatus(statuses);
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            InterruptedIOException exception = new InterruptedIOException("Interrupted while waiting for a status");
+            exception.initCause(e);
+            throw exception;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * @param command command to execute
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#executeCommand(String)
+     */
+    public void executeCommand(@NotNull String command) throws IOException, APIException {
+        Blocking.await(() -> server.executeCommand(command));
+    }
+
+    /**
+     * @param time time in minutes to extend the stop time by
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#extendStopTime(int)
+     */
+    public void extendStopTime(int time) throws IOException, APIException {
+        Blocking.await(() -> server.extendStopTime(time));
+    }
+
+    /**
+     * @return names of the available player lists
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see Server#getPlayerLists()
+     */
+    public List<String> getPlayerLists() throws IOException, APIException {
+        return Blocking.await(server::getPlayerLists);
+    }
+
+    /**
+     * @param path path of the file
+     * @return blocking version of the file
+     * @see Server#getFile(String)
+     */
+    public BlockingServerFile getFile(@NotNull String path) {
+        return new BlockingServerFile(server.getFile(path));
+    }
+
+    /**
+     * @param name name of the player list
+     * @return blocking version of the player list
+     * @see Server#getPlayerList(String)
+     */
+    public BlockingPlayerList getPlayerList(@NotNull String name) {
+        return new BlockingPlayerList(server.getPlayerList(name));
+    }
+}
@@ -0,0 +1,132 @@
+package com.exaroton.api.blocking;
+
+import com.exaroton.api.APIException;
+import com.exaroton.api.server.ServerFile;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Blocking version of the actions of a {@link ServerFile}
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class BlockingServerFile {
+    private final ServerFile file;
+
+    /**
+     * @param file file to wrap
+     */
+    public BlockingServerFile(@NotNull ServerFile file) {
+        this.file = Objects.requireNonNull(file);
+    }
+
+    /**
+     * @return the wrapped file
+     */
+    public ServerFile getFile() {
+        return file;
+    }
+
+    /**
+     * @return the fetched file information
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#fetch()
+     */
+    public ServerFile fetch() throws IOException, APIException {
+        return Blocking.await(file::fetch);
+    }
+
+    /**
+     * @param force whether to fetch the file information even if it has been fetched before
+     * @return the fetched file information
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#fetch(boolean)
+     */
+    public ServerFile fetch(boolean force) throws IOException, APIException {
+        return Blocking.await(() -> file.fetch(force));
+    }
+
+    /**
+     * @return content of the text file
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#getContent()
+     */
+    public String getContent() throws IOException, APIException {
+        return Blocking.await(file::getContent);
+    }
+
+    /**
+     * @param path output file path
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#download(Path)
+     */
+    public void download(@NotNull Path path) throws IOException, APIException {
+        Blocking.await(() -> file.download(path));
+    }
+
+    /**
+     * @return stream of the file content. The stream must be closed.
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#downloadStream()
+     */
+    public InputStream downloadStream() throws IOException, APIException {
+        return Blocking.await(file::downloadStream);
+    }
+
+    /**
+     * @param content new file content
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#putContent(String)
+     */
+    public void putContent(@NotNull String content) throws IOException, APIException {
+        Blocking.await(() -> file.putContent(content));
+    }
+
+    /**
+     * @param path path of the local file
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#upload(Path)
+     */
+    public void upload(@NotNull Path path) throws IOException, APIException {
+        Blocking.await(() -> file.upload(path));
+    }
+
+    /**
+     * @param stream stream of the new file content
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#upload(InputStream)
+     */
+    public void upload(@NotNull InputStream stream) throws IOException, APIException {
+        Blocking.await(() -> file.upload(stream));
+    }
+
+    /**
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#delete()
+     */
+    public void delete() throws IOException, APIException {
+        Blocking.await(file::delete);
+    }
+
+    /**
+     * @throws IOException  connection errors
+     * @throws APIException if the API returned an error
+     * @see ServerFile#createAsDirectory()
+     */
+    public void createAsDirectory() throws IOException, APIException {
+        Blocking.await(file::createAsDirectory);
+    }
+}
@@ -0,0 +1,395 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Circuit breaker for the requests of an {@link com.exaroton.api.ExarotonClient}. The breaker records the outcome
+ * of the last {@code windowSize} calls. Connection errors, timeouts and responses with a 5xx status are failures,
+ * calls that take longer than the slow call duration until the response headers arrive are slow.
+ * <ul>
+ *     <li>{@link State#CLOSED}: calls pass. Once the window holds at least {@code minimumCalls} outcomes and the
+ *     failure rate or the slow call rate reaches its threshold, the breaker opens.</li>
+ *     <li>{@link State#OPEN}: calls fail immediately with a {@link CircuitBreakerOpenException} until the open
+ *     duration is over.</li>
+ *     <li>{@link State#HALF_OPEN}: a limited number of probe calls pass. If all of them succeed the breaker closes,
+ *     if any of them fails or is slow it opens again.</li>
+ * </ul>
+ * A breaker can be shared by multiple clients that use the same API host.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class CircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * State of a circuit breaker
+     */
+    public enum State {
+        /**
+         * Calls pass and their outcomes are recorded
+         */
+        CLOSED,
+
+        /**
+         * Calls fail immediately
+         */
+        OPEN,
+
+        /**
+         * A limited number of probe calls pass to check whether the API has recovered
+         */
+        HALF_OPEN,
+    }
+
+    private final List<Consumer<State>> listeners = new CopyOnWriteArrayList<>();
+
+    private int windowSize = 50;
+    private int minimumCalls = 10;
+    private double failureRateThreshold = 0.5;
+    private double slowCallRateThreshold = 0.8;
+    private Duration slowCallDuration = Duration.ofSeconds(5);
+    private Duration openDuration = Duration.ofSeconds(30);
+    private int halfOpenCalls = 3;
+
+    /**
+     * Outcomes of the last calls. Bit 0 is set for failures, bit 1 for slow calls.
+     */
+    private byte[] window = new byte[windowSize];
+    private int windowPosition = 0;
+    private int recordedCalls = 0;
+    private int failures = 0;
+    private int slowCalls = 0;
+
+    private State state = State.CLOSED;
+    private long openUntil;
+    private int halfOpenPermits = 0;
+    private int halfOpenSuccesses = 0;
+
+    /**
+     * Set the number of calls in the sliding window. Defaults to 50.
+     *
+     * @param windowSize window size
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setWindowSize(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1");
+        }
+
+        this.windowSize = windowSize;
+        this.window = new byte[windowSize];
+        resetWindow();
+        return this;
+    }
+
+    /**
+     * Set the number of calls that have to be recorded before the breaker can open. Defaults to 10.
+     *
+     * @param minimumCalls minimum number of calls
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setMinimumCalls(int minimumCalls) {
+        if (minimumCalls < 1) {
+            throw new IllegalArgumentException("Minimum calls must be at least 1");
+        }
+
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * Set the failure rate at which the breaker opens. Defaults to 0.5.
+     *
+     * @param failureRateThreshold failure rate between 0 (exclusive) and 1
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = requireRate(failureRateThreshold);
+        return this;
+    }
+
+    /**
+     * Set the slow call rate at which the breaker opens. Defaults to 0.8.
+     *
+     * @param slowCallRateThreshold slow call rate between 0 (exclusive) and 1
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = requireRate(slowCallRateThreshold);
+        return this;
+    }
+
+    /**
+     * Set the time until the response headers after which a call is slow. Defaults to 5 seconds.
+     *
+     * @param slowCallDuration slow call duration
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setSlowCallDuration(@NotNull Duration slowCallDuration) {
+        this.slowCallDuration = requirePositive(slowCallDuration, "Slow call duration");
+        return this;
+    }
+
+    /**
+     * Set how long the breaker stays open before it lets probe calls pass. Defaults to 30 seconds.
+     *
+     * @param openDuration open duration
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setOpenDuration(@NotNull Duration openDuration) {
+        this.openDuration = requirePositive(openDuration, "Open duration");
+        return this;
+    }
+
+    /**
+     * Set the number of probe calls in the half-open state. Defaults to 3.
+     *
+     * @param halfOpenCalls number of probe calls
+     * @return this breaker
+     */
+    public synchronized CircuitBreaker setHalfOpenCalls(int halfOpenCalls) {
+        if (halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Half open calls must be at least 1");
+        }
+
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+    /**
+     * Add a listener that is called after each state transition
+     *
+     * @param listener state listener
+     * @return this breaker
+     */
+    public CircuitBreaker addStateListener(@NotNull Consumer<State> listener) {
+        listeners.add(Objects.requireNonNull(listener));
+        return this;
+    }
+
+    /**
+     * @return current state
+     */
+    public State getState() {
+        State transition, current;
+        synchronized (this) {
+            transition = updateState(System.nanoTime());
+            current = state;
+        }
+        notifyListeners(transition);
+        return current;
+    }
+
+    /**
+     * @return time until an open breaker lets probe calls pass or zero if it is not open
+     */
+    public synchronized Duration getRemainingOpenDuration() {
+        long remaining = openUntil - System.nanoTime();
+        return state == State.OPEN && remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * @return failure rate of the calls in the sliding window
+     */
+    public synchronized double getFailureRate() {
+        return recordedCalls == 0 ? 0 : (double) failures / recordedCalls;
+    }
+
+    /**
+     * @return slow call rate of the calls in the sliding window
+     */
+    public synchronized double getSlowCallRate() {
+        return recordedCalls == 0 ? 0 : (double) slowCalls / recordedCalls;
+    }
+
+    /**
+     * Ask for permission to send a call. The outcome of a permitted call must be reported to the returned permit.
+     *
+     * @return permit or null if the breaker is open
+     */
+    public @Nullable Permit tryAcquire() {
+        State transition;
+        Permit permit = null;
+        synchronized (this) {
+            transition = updateState(System.nanoTime());
+            if (state == State.CLOSED) {
+                permit = new Permit(false);
+            } else if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls) {
+                halfOpenPermits++;
+                permit = new Permit(true);
+            }
+        }
+
+        notifyListeners(transition);
+        return permit;
+    }
+
+    /**
+     * Open the breaker if the open duration is over
+     *
+     * @param now current time in nanoseconds
+     * @return new state if the state changed or null
+     */
+    private State updateState(long now) {
+        if (state == State.OPEN && now - openUntil >= 0) {
+            return transitionTo(State.HALF_OPEN, now);
+        }
+        return null;
+    }
+
+    private State transitionTo(State newState, long now) {
+        state = newState;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+        if (newState == State.OPEN) {
+            openUntil = now + openDuration.toNanos();
+        } else if (newState == State.CLOSED) {
+            resetWindow();
+        }
+        return newState;
+    }
+
+    private void resetWindow() {
+        windowPosition = 0;
+        recordedCalls = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+
+    /**
+     * Record the outcome of a call
+     *
+     * @param halfOpen whether the call was a probe of the half-open state
+     * @param failure  whether the call failed
+     * @param latency  time until the response headers arrived
+     */
+    private void record(boolean halfOpen, boolean failure, Duration latency) {
+        State transition = null;
+        synchronized (this) {
+            boolean slow = latency.compareTo(slowCallDuration) >= 0;
+            long now = System.nanoTime();
+            if (halfOpen) {
+                if (state == State.HALF_OPEN) {
+                    if (failure || slow) {
+                        transition = transitionTo(State.OPEN, now);
+                    } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                        transition = transitionTo(State.CLOSED, now);
+                    }
+                }
+            } else if (state == State.CLOSED) {
+                if (recordedCalls == windowSize) {
+                    byte evicted = window[windowPosition];
+                    failures -= evicted & 1;
+                    slowCalls -= (evicted >> 1) & 1;
+                } else {
+                    recordedCalls++;
+                }
+
+                window[windowPosition] = (byte) ((failure ? 1 : 0) | (slow ? 2 : 0));
+                windowPosition = (windowPosition + 1) % windowSize;
+                failures += failure ? 1 : 0;
+                slowCalls += slow ? 1 : 0;
+
+                if (recordedCalls >= minimumCalls && (failures >= failureRateThreshold * recordedCalls
+                        || slowCalls >= slowCallRateThreshold * recordedCalls)) {
+                    transition = transitionTo(State.OPEN, now);
+                }
+            }
+        }
+
+        notifyListeners(transition);
+    }
+
+    /**
+     * Release a probe permit without recording an outcome
+     *
+     * @param halfOpen whether the call was a probe of the half-open state
+     */
+    private synchronized void release(boolean halfOpen) {
+        if (halfOpen && state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    private void notifyListeners(State transition) {
+        if (transition == null) {
+            return;
+        }
+
+        logger.debug("Circuit breaker is now {}", transition);
+        for (Consumer<State> listener : listeners) {
+            try {
+                listener.accept(transition);
+            } catch (RuntimeException e) {
+                logger.error("Circuit breaker state listener failed", e);
+            }
+        }
+    }
+
+    private static double requireRate(double rate) {
+        if (!(rate > 0 && rate <= 1)) {
+            throw new IllegalArgumentException("Rate must be between 0 (exclusive) and 1");
+        }
+        return rate;
+    }
+
+    private static Duration requirePositive(Duration duration, String name) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return duration;
+    }
+
+    /**
+     * Permission to send a single call. Only the first reported outcome counts.
+     */
+    public final class Permit {
+        private final boolean halfOpen;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Permit(boolean halfOpen) {
+            this.halfOpen = halfOpen;
+        }
+
+        /**
+         * Report a successful call
+         *
+         * @param latency time until the response headers arrived
+         */
+        public void onSuccess(@NotNull Duration latency) {
+            if (done.compareAndSet(false, true)) {
+                record(halfOpen, false, latency);
+            }
+        }
+
+        /**
+         * Report a failed call
+         *
+         * @param latency time until the call failed
+         */
+        public void onFailure(@NotNull Duration latency) {
+            if (done.compareAndSet(false, true)) {
+                record(halfOpen, true, latency);
+            }
+        }
+
+        /**
+         * Release the permit without reporting an outcome, e.g. because the call was cancelled
+         */
+        public void release() {
+            if (done.compareAndSet(false, true)) {
+                CircuitBreaker.this.release(halfOpen);
+            }
+        }
+    }
+}
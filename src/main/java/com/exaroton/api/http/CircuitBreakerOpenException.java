@@ -0,0 +1,33 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Exception for requests that were not sent because the {@link CircuitBreaker} is open. These requests are not
+ * retried.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class CircuitBreakerOpenException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final Duration remainingOpenDuration;
+
+    /**
+     * @param remainingOpenDuration time until the breaker lets probe requests pass
+     */
+    public CircuitBreakerOpenException(@NotNull Duration remainingOpenDuration) {
+        super("Circuit breaker is open");
+        this.remainingOpenDuration = remainingOpenDuration;
+    }
+
+    /**
+     * @return time until the breaker lets probe requests pass when the request was rejected
+     */
+    public Duration getRemainingOpenDuration() {
+        return remainingOpenDuration;
+    }
+}
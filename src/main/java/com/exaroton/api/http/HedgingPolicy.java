@@ -0,0 +1,244 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Policy for hedging read requests. If the first attempt of an idempotent GET request of the class
+ * {@link RequestClass#READ} hasn't completed after the hedging delay, a second attempt is sent and the request
+ * completes with whichever attempt completes first. The other attempt is cancelled. Bulk requests like file downloads
+ * are never hedged, so hedging can't double the transferred data.
+ * <p>
+ * The hedging delay is a percentile (95th by default) of the recent latencies of the same endpoint, so only the
+ * slowest requests are hedged. Until enough latencies have been recorded for an endpoint the initial delay is used.
+ * <p>
+ * Hedges are limited by a budget: each request adds a fraction of a hedge to the budget (5% by default), each hedge
+ * takes a whole one. This limits the additional load caused by hedging even if the API is slow for all requests.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class HedgingPolicy {
+    /**
+     * Number of latencies that are kept per endpoint
+     */
+    private static final int WINDOW_SIZE = 128;
+
+    /**
+     * Number of recorded latencies after which the delay of an endpoint is recalculated
+     */
+    private static final int RECALCULATE_INTERVAL = 16;
+
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong hedges = new AtomicLong();
+
+    private volatile double percentile = 0.95;
+    private volatile Duration initialDelay = Duration.ofMillis(500);
+    private volatile Duration minDelay = Duration.ofMillis(20);
+    private volatile Duration maxDelay = Duration.ofSeconds(2);
+    private volatile int minSamples = 20;
+    private volatile double budgetRatio = 0.05;
+    private volatile double maxBudget = 10;
+
+    /**
+     * Available hedges. Starts full, so the first slow requests can be hedged.
+     */
+    private double budget = maxBudget;
+
+    /**
+     * Set the latency percentile after which a request is hedged. Defaults to 0.95.
+     *
+     * @param percentile percentile between 0 (exclusive) and 1 (exclusive)
+     * @return this policy
+     */
+    public HedgingPolicy setPercentile(double percentile) {
+        if (!(percentile > 0 && percentile < 1)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+
+        this.percentile = percentile;
+        return this;
+    }
+
+    /**
+     * Set the hedging delay for endpoints with too few recorded latencies. Defaults to 500 milliseconds.
+     *
+     * @param initialDelay initial delay
+     * @return this policy
+     */
+    public HedgingPolicy setInitialDelay(@NotNull Duration initialDelay) {
+        this.initialDelay = requireNotNegative(initialDelay, "Initial delay");
+        return this;
+    }
+
+    /**
+     * Set the lower bound of the hedging delay. Defaults to 20 milliseconds.
+     *
+     * @param minDelay minimum delay
+     * @return this policy
+     */
+    public HedgingPolicy setMinDelay(@NotNull Duration minDelay) {
+        this.minDelay = requireNotNegative(minDelay, "Min delay");
+        return this;
+    }
+
+    /**
+     * Set the upper bound of the hedging delay. Defaults to 2 seconds.
+     *
+     * @param maxDelay maximum delay
+     * @return this policy
+     */
+    public HedgingPolicy setMaxDelay(@NotNull Duration maxDelay) {
+        this.maxDelay = requireNotNegative(maxDelay, "Max delay");
+        return this;
+    }
+
+    /**
+     * Set the number of latencies that have to be recorded for an endpoint before its percentile is used. Defaults
+     * to 20.
+     *
+     * @param minSamples minimum number of latencies
+     * @return this policy
+     */
+    public HedgingPolicy setMinSamples(int minSamples) {
+        if (minSamples < 1 || minSamples > WINDOW_SIZE) {
+            throw new IllegalArgumentException("Min samples must be between 1 and " + WINDOW_SIZE);
+        }
+
+        this.minSamples = minSamples;
+        return this;
+    }
+
+    /**
+     * Set the hedge budget. Each request adds {@code ratio} hedges to the budget, which holds at most
+     * {@code maxBudget} hedges.
+     *
+     * @param ratio     maximum ratio of hedges to requests
+     * @param maxBudget maximum number of hedges that can be saved up
+     * @return this policy
+     */
+    public HedgingPolicy setBudget(double ratio, double maxBudget) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("Ratio must be between 0 and 1");
+        }
+        if (!(maxBudget >= 1)) {
+            throw new IllegalArgumentException("Max budget must be at least 1");
+        }
+
+        synchronized (this) {
+            this.budgetRatio = ratio;
+            this.maxBudget = maxBudget;
+            this.budget = Math.min(budget, maxBudget);
+        }
+        return this;
+    }
+
+    /**
+     * @return number of hedges that have been sent
+     */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /**
+     * Get the hedging delay for an endpoint
+     *
+     * @param endpoint endpoint template (e.g. servers/{id}/)
+     * @return delay after which the request should be hedged
+     */
+    public Duration getDelay(@NotNull String endpoint) {
+        LatencyWindow window = latencies.get(endpoint);
+        Duration delay = window == null ? null : window.getDelay();
+        if (delay == null) {
+            return initialDelay;
+        }
+
+        if (delay.compareTo(minDelay) < 0) {
+            return minDelay;
+        }
+        if (delay.compareTo(maxDelay) > 0) {
+            return maxDelay;
+        }
+        return delay;
+    }
+
+    /**
+     * Record the latency of a successful attempt
+     *
+     * @param endpoint endpoint template (e.g. servers/{id}/)
+     * @param latency  time until the attempt completed
+     */
+    public void recordLatency(@NotNull String endpoint, @NotNull Duration latency) {
+        latencies.computeIfAbsent(endpoint, x -> new LatencyWindow()).record(latency.toNanos());
+    }
+
+    /**
+     * Add the share of a request to the hedge budget. Called once per hedgeable request.
+     */
+    public synchronized void onRequest() {
+        budget = Math.min(maxBudget, budget + budgetRatio);
+    }
+
+    /**
+     * Take a hedge from the budget
+     *
+     * @return whether a hedge may be sent
+     */
+    public boolean tryAcquireHedge() {
+        synchronized (this) {
+            if (budget < 1) {
+                return false;
+            }
+            budget--;
+        }
+
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    private static Duration requireNotNegative(Duration duration, String name) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+        return duration;
+    }
+
+    /**
+     * Latencies of the last requests to an endpoint. The percentile is recalculated every few requests instead of
+     * on every request.
+     */
+    private final class LatencyWindow {
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int position = 0;
+        private int count = 0;
+        private int sinceRecalculation = 0;
+        private volatile Duration delay;
+
+        private void record(long latency) {
+            long[] sorted = null;
+            synchronized (this) {
+                samples[position] = latency;
+                position = (position + 1) % WINDOW_SIZE;
+                count = Math.min(count + 1, WINDOW_SIZE);
+                if (count >= minSamples && (delay == null || ++sinceRecalculation >= RECALCULATE_INTERVAL)) {
+                    sinceRecalculation = 0;
+                    sorted = Arrays.copyOf(samples, count);
+                }
+            }
+
+            if (sorted != null) {
+                Arrays.sort(sorted);
+                int index = (int) Math.ceil(percentile * sorted.length) - 1;
+                delay = Duration.ofNanos(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+            }
+        }
+
+        private Duration getDelay() {
+            return delay;
+        }
+    }
+}
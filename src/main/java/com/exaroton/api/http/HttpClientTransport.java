@@ -0,0 +1,60 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport that sends requests using a {@link HttpClient}. Multiple exaroton clients can share one transport to
+ * share the connection pool of the HTTP client.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class HttpClientTransport implements HttpTransport {
+    /**
+     * HTTP client
+     */
+    private final HttpClient httpClient;
+
+    /**
+     * @param httpClient HTTP client used for all requests
+     */
+    public HttpClientTransport(@NotNull HttpClient httpClient) {
+        this.httpClient = Objects.requireNonNull(httpClient);
+    }
+
+    /**
+     * @return HTTP client used for all requests
+     */
+    public HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+            @NotNull HttpRequest request,
+            @NotNull HttpResponse.BodyHandler<T> bodyHandler
+    ) {
+        return httpClient.sendAsync(request, bodyHandler);
+    }
+
+    @Override
+    public CompletableFuture<WebSocket> connectWebSocket(
+            @NotNull URI uri,
+            @NotNull Map<String, String> headers,
+            @NotNull WebSocket.Listener listener
+    ) {
+        WebSocket.Builder builder = httpClient.newWebSocketBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        return builder.buildAsync(uri, listener);
+    }
+}
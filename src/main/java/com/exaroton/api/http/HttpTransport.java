@@ -0,0 +1,51 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport used by the {@link com.exaroton.api.ExarotonClient} to send HTTP requests and open websocket
+ * connections. The default implementation uses a {@link HttpClient}, custom implementations can be used to
+ * instrument requests or to redirect them to a local stand-in.
+ *
+ * @see HttpClientTransport
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public interface HttpTransport {
+    /**
+     * Send a request asynchronously
+     *
+     * @param request     HTTP request
+     * @param bodyHandler response body handler
+     * @param <T>         response body type
+     * @return future that completes with the response
+     * @see HttpClient#sendAsync(HttpRequest, HttpResponse.BodyHandler)
+     */
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(
+            @NotNull HttpRequest request,
+            @NotNull HttpResponse.BodyHandler<T> bodyHandler
+    );
+
+    /**
+     * Open a websocket connection
+     *
+     * @param uri      websocket URI
+     * @param headers  additional request headers
+     * @param listener websocket listener
+     * @return future that completes once the connection is open
+     * @see WebSocket.Builder#buildAsync(URI, WebSocket.Listener)
+     */
+    CompletableFuture<WebSocket> connectWebSocket(
+            @NotNull URI uri,
+            @NotNull Map<String, String> headers,
+            @NotNull WebSocket.Listener listener
+    );
+}
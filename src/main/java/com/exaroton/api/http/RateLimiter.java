@@ -0,0 +1,414 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.http.HttpHeaders;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket that limits the rate of requests sent by an {@link com.exaroton.api.ExarotonClient}. The bucket holds
+ * up to {@code burst} permits and is refilled with {@code permitsPerSecond}. Requests that don't get a permit wait in
+ * FIFO order instead of failing.
+ * <p>
+ * If the API responds with {@code 429 Too Many Requests}, the bucket is paused for the duration of the Retry-After
+ * header (or {@link #setDefaultRetryAfter(Duration)} if it is missing) and the request is queued again. A limiter can
+ * be shared by multiple clients that use the same API token. The clients of a pool each get their own limiter from
+ * {@link com.exaroton.api.ExarotonClient.Builder#setRateLimiterFactory(java.util.function.Supplier)}.
+ * <p>
+ * The limiter doesn't start any threads. Waiting requests are handed their permit by a timer on the scheduler passed
+ * to {@link #acquire(ScheduledExecutorService, Executor)}, so it stops when the client that owns the scheduler is
+ * closed.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class RateLimiter {
+    /**
+     * HTTP status code for rate limited requests
+     */
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Longest pause caused by a single rate limited response
+     */
+    private static final Duration MAX_PAUSE = Duration.ofHours(1);
+
+    /**
+     * Refill rate in permits per nanosecond
+     */
+    private final double permitsPerNano;
+
+    /**
+     * Maximum number of stored permits
+     */
+    private final int burst;
+
+    /**
+     * Requests waiting for a permit
+     */
+    private final Queue<Waiter> waiting = new ArrayDeque<>();
+
+    /**
+     * Currently available permits
+     */
+    private double permits;
+
+    /**
+     * Time of the last refill in nanoseconds
+     */
+    private long refilledAt;
+
+    /**
+     * Time in nanoseconds until which no permits are handed out
+     */
+    private long pausedUntil;
+
+    /**
+     * Scheduled task that drains the queue or null if none is scheduled
+     */
+    private ScheduledFuture<?> drainTask;
+
+    /**
+     * Scheduler that runs the drain task
+     */
+    private ScheduledExecutorService drainScheduler;
+
+    /**
+     * Maximum number of times a rate limited request is sent again
+     */
+    private volatile int maxRetries = 10;
+
+    /**
+     * Pause used if a rate limited response has no valid Retry-After header
+     */
+    private volatile Duration defaultRetryAfter = Duration.ofSeconds(1);
+
+    /**
+     * @param permitsPerSecond sustained number of requests per second
+     * @param burst            maximum number of requests that can be sent at once
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be at least 1");
+        }
+
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.permits = burst;
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = this.refilledAt;
+    }
+
+    /**
+     * Set how often a rate limited request is sent again before it fails with an
+     * {@link com.exaroton.api.APIException}. Defaults to 10.
+     *
+     * @param maxRetries maximum number of retries
+     * @return this limiter
+     */
+    public RateLimiter setMaxRetries(int maxRetries) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("Max retries can't be negative");
+        }
+
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * @return maximum number of times a rate limited request is sent again
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Set how long the bucket is paused if a rate limited response has no valid Retry-After header. Defaults to one
+     * second.
+     *
+     * @param defaultRetryAfter pause duration
+     * @return this limiter
+     */
+    public RateLimiter setDefaultRetryAfter(@NotNull Duration defaultRetryAfter) {
+        if (defaultRetryAfter == null || defaultRetryAfter.isNegative()) {
+            throw new IllegalArgumentException("Default retry after can't be negative");
+        }
+
+        this.defaultRetryAfter = defaultRetryAfter;
+        return this;
+    }
+
+    /**
+     * @return pause used if a rate limited response has no valid Retry-After header
+     */
+    public Duration getDefaultRetryAfter() {
+        return defaultRetryAfter;
+    }
+
+    /**
+     * @return maximum number of requests that can be sent at once
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * @return sustained number of requests per second
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerNano * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * @return number of permits that are currently available
+     */
+    public synchronized double getAvailablePermits() {
+        long now = System.nanoTime();
+        refill(now);
+        return now - pausedUntil < 0 ? 0 : permits;
+    }
+
+    /**
+     * @return number of requests waiting for a permit
+     */
+    public synchronized int getQueueLength() {
+        return waiting.size();
+    }
+
+    /**
+     * @return whether the bucket is currently paused because of a rate limited response
+     */
+    public synchronized boolean isPaused() {
+        return System.nanoTime() - pausedUntil < 0;
+    }
+
+    /**
+     * Acquire a permit. If no permit is available, the request waits in the queue. Cancelling the returned future
+     * removes it from the queue.
+     *
+     * @param scheduler scheduler that hands out the permit once it is available
+     * @param executor  executor that completes the returned future if the request has to wait
+     * @return future that completes once a request may be sent
+     */
+    public CompletableFuture<Void> acquire(@NotNull ScheduledExecutorService scheduler, @NotNull Executor executor) {
+        Objects.requireNonNull(scheduler);
+        Objects.requireNonNull(executor);
+
+        Waiter waiter;
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            if (waiting.isEmpty() && now - pausedUntil >= 0 && permits >= 1) {
+                permits -= 1;
+                return CompletableFuture.completedFuture(null);
+            }
+
+            waiter = new Waiter(scheduler, executor);
+            waiting.add(waiter);
+            scheduleDrain(now);
+        }
+
+        waiter.future.whenComplete((result, error) -> {
+            if (waiter.future.isCancelled()) {
+                remove(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Pause the bucket. Permits are not handed out until the pause is over. After the pause the bucket starts with a
+     * single permit, so requests resume at the sustained rate instead of bursting.
+     *
+     * @param duration pause duration
+     */
+    public void pause(@NotNull Duration duration) {
+        Objects.requireNonNull(duration);
+        synchronized (this) {
+            long now = System.nanoTime();
+            long until = now + Math.max(0, (duration.compareTo(MAX_PAUSE) > 0 ? MAX_PAUSE : duration).toNanos());
+            if (until - pausedUntil > 0) {
+                refill(now);
+                pausedUntil = until;
+                refilledAt = until;
+                permits = Math.min(permits, 1);
+            }
+
+            if (!waiting.isEmpty()) {
+                scheduleDrain(now);
+            }
+        }
+    }
+
+    /**
+     * Pause the bucket after a rate limited response
+     *
+     * @param headers response headers
+     * @see #parseRetryAfter(String)
+     */
+    public void pause(@NotNull HttpHeaders headers) {
+        Duration retryAfter = headers.firstValue("Retry-After").map(RateLimiter::parseRetryAfter).orElse(null);
+        pause(retryAfter != null ? retryAfter : defaultRetryAfter);
+    }
+
+    /**
+     * Parse the value of a Retry-After header
+     *
+     * @param value delay in seconds or an HTTP date
+     * @return time until the request may be retried or null if the value is invalid
+     */
+    public static @Nullable Duration parseRetryAfter(@NotNull String value) {
+        value = value.trim();
+        try {
+            long seconds = Long.parseLong(value);
+            return seconds < 0 ? null : Duration.ofSeconds(seconds);
+        } catch (NumberFormatException ignored) {
+        }
+
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            Duration duration = Duration.between(Instant.now(), date.toInstant());
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Add the permits accumulated since the last refill
+     *
+     * @param now current time in nanoseconds
+     */
+    private void refill(long now) {
+        long elapsed = now - refilledAt;
+        if (elapsed > 0) {
+            permits = Math.min(burst, permits + elapsed * permitsPerNano);
+            refilledAt = now;
+        }
+    }
+
+    /**
+     * Remove a cancelled request from the queue. If the drain task runs on the scheduler of that request and no other
+     * waiting request uses it, the task is moved to the scheduler of another request, because the scheduler is shut
+     * down when the client of the cancelled request is closed.
+     *
+     * @param waiter cancelled request
+     */
+    private synchronized void remove(Waiter waiter) {
+        waiting.remove(waiter);
+        if (drainTask == null || drainScheduler != waiter.scheduler) {
+            return;
+        }
+
+        for (Waiter other : waiting) {
+            if (other.scheduler == drainScheduler) {
+                return;
+            }
+        }
+
+        drainTask.cancel(false);
+        drainTask = null;
+        drainScheduler = null;
+        if (!waiting.isEmpty()) {
+            scheduleDrain(System.nanoTime());
+        }
+    }
+
+    /**
+     * Schedule a task that hands out permits to waiting requests once they are available. The task runs on the
+     * scheduler of the first waiting request whose scheduler accepts it. Requests whose scheduler has been shut down
+     * fail with a {@link RejectedExecutionException}.
+     *
+     * @param now current time in nanoseconds
+     */
+    private void scheduleDrain(long now) {
+        if (drainTask != null) {
+            return;
+        }
+
+        long readyAt = refilledAt + (long) Math.ceil(Math.max(0, 1 - permits) / permitsPerNano);
+        long delay = Math.max(Math.max(pausedUntil - now, readyAt - now), 0);
+        while (!waiting.isEmpty()) {
+            ScheduledExecutorService scheduler = waiting.peek().scheduler;
+            try {
+                drainTask = scheduler.schedule(this::drain, delay, TimeUnit.NANOSECONDS);
+                drainScheduler = scheduler;
+                return;
+            } catch (RejectedExecutionException e) {
+                waiting.removeIf(waiter -> {
+                    if (waiter.scheduler != scheduler) {
+                        return false;
+                    }
+                    waiter.future.completeExceptionally(e);
+                    return true;
+                });
+            }
+        }
+    }
+
+    /**
+     * Hand out permits to waiting requests
+     */
+    private void drain() {
+        List<Waiter> ready = new ArrayList<>();
+        synchronized (this) {
+            drainTask = null;
+            drainScheduler = null;
+            long now = System.nanoTime();
+            refill(now);
+            while (!waiting.isEmpty() && now - pausedUntil >= 0 && permits >= 1) {
+                Waiter waiter = waiting.poll();
+                if (!waiter.future.isDone()) {
+                    permits -= 1;
+                    ready.add(waiter);
+                }
+            }
+
+            if (!waiting.isEmpty()) {
+                scheduleDrain(now);
+            }
+        }
+
+        for (Waiter waiter : ready) {
+            try {
+                waiter.executor.execute(() -> waiter.future.complete(null));
+            } catch (RejectedExecutionException e) {
+                // the client is closing, so its requests are aborted anyway
+                waiter.future.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Request waiting for a permit
+     */
+    private static final class Waiter {
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final ScheduledExecutorService scheduler;
+        private final Executor executor;
+
+        private Waiter(ScheduledExecutorService scheduler, Executor executor) {
+            this.scheduler = scheduler;
+            this.executor = executor;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Scheduling class of an API request. Classes are listed in order of their priority.
+ *
+ * @see RequestScheduler
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public enum RequestClass {
+    /**
+     * Requests that change the state of a server or an account (e.g. starting a server or executing a command)
+     */
+    CONTROL,
+
+    /**
+     * Requests that read small resources (e.g. fetching a server)
+     */
+    READ,
+
+    /**
+     * Requests that transfer large bodies (e.g. file downloads, uploads and logs)
+     */
+    BULK,
+}
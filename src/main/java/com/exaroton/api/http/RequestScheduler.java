@@ -0,0 +1,360 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits the number of concurrent requests of an {@link com.exaroton.api.ExarotonClient}. Each request belongs to a
+ * {@link RequestClass}. A request is sent once fewer requests than the limit of its class and fewer requests than the
+ * total limit are running. Otherwise, it waits in the queue of its class.
+ * <p>
+ * Whenever a request completes, the queues are served in strict priority order: waiting control requests are sent
+ * before waiting read requests, which are sent before waiting bulk requests. By default, the limits of the read and
+ * bulk classes are lower than the total limit, so slow downloads or many reads can't occupy all slots and control
+ * requests are sent without waiting for them.
+ * <p>
+ * A scheduler can be shared by multiple clients (e.g. the clients of an {@link com.exaroton.api.ExarotonClientPool}).
+ * Within a class, the scheduler takes turns between the clients (tenants) with waiting requests, so a client that
+ * sends many requests can't starve the others. The requests of each tenant are sent in FIFO order.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class RequestScheduler {
+    /**
+     * Weight of the latest wait time in the average wait time
+     */
+    private static final double WAIT_TIME_WEIGHT = 0.2;
+
+    private static final RequestClass[] CLASSES = RequestClass.values();
+
+    /**
+     * Tenant of requests that are acquired without a tenant
+     */
+    private static final Object DEFAULT_TENANT = new Object();
+
+    private final Map<RequestClass, ClassState> classes = new EnumMap<>(RequestClass.class);
+
+    /**
+     * Maximum number of concurrent requests of all classes
+     */
+    private int maxConcurrency = 16;
+
+    /**
+     * Number of running requests of all classes
+     */
+    private int running = 0;
+
+    public RequestScheduler() {
+        classes.put(RequestClass.CONTROL, new ClassState(16));
+        classes.put(RequestClass.READ, new ClassState(12));
+        classes.put(RequestClass.BULK, new ClassState(4));
+    }
+
+    /**
+     * Set the maximum number of concurrent requests of all classes. Defaults to 16.
+     *
+     * @param maxConcurrency maximum number of concurrent requests
+     * @return this scheduler
+     */
+    public RequestScheduler setMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+
+        List<Waiter> ready;
+        synchronized (this) {
+            this.maxConcurrency = maxConcurrency;
+            ready = dispatch();
+        }
+        grant(ready);
+        return this;
+    }
+
+    /**
+     * Set the maximum number of concurrent requests of a class. Defaults to 16 for control requests, 12 for read
+     * requests and 4 for bulk requests.
+     *
+     * @param requestClass request class
+     * @param limit        maximum number of concurrent requests of this class
+     * @return this scheduler
+     */
+    public RequestScheduler setConcurrencyLimit(@NotNull RequestClass requestClass, int limit) {
+        Objects.requireNonNull(requestClass);
+        if (limit < 1) {
+            throw new IllegalArgumentException("Concurrency limit must be at least 1");
+        }
+
+        List<Waiter> ready;
+        synchronized (this) {
+            classes.get(requestClass).limit = limit;
+            ready = dispatch();
+        }
+        grant(ready);
+        return this;
+    }
+
+    /**
+     * @return maximum number of concurrent requests of all classes
+     */
+    public synchronized int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @param requestClass request class
+     * @return maximum number of concurrent requests of this class
+     */
+    public synchronized int getConcurrencyLimit(@NotNull RequestClass requestClass) {
+        return classes.get(requestClass).limit;
+    }
+
+    /**
+     * @param requestClass request class
+     * @return number of requests of this class that are waiting for a slot
+     */
+    public synchronized int getQueueLength(@NotNull RequestClass requestClass) {
+        return classes.get(requestClass).size;
+    }
+
+    /**
+     * @param requestClass request class
+     * @return number of running requests of this class
+     */
+    public synchronized int getRunning(@NotNull RequestClass requestClass) {
+        return classes.get(requestClass).running;
+    }
+
+    /**
+     * @param requestClass request class
+     * @return exponentially weighted average of the time requests of this class waited for a slot
+     */
+    public synchronized Duration getAverageWaitTime(@NotNull RequestClass requestClass) {
+        return Duration.ofNanos((long) classes.get(requestClass).averageWaitTime);
+    }
+
+    /**
+     * @param requestClass request class
+     * @return time the oldest waiting request of this class has been waiting or zero if none is waiting
+     */
+    public synchronized Duration getCurrentWaitTime(@NotNull RequestClass requestClass) {
+        long now = System.nanoTime();
+        long longest = 0;
+        for (Queue<Waiter> queue : classes.get(requestClass).waiting.values()) {
+            Waiter oldest = queue.peek();
+            if (oldest != null) {
+                longest = Math.max(longest, now - oldest.queuedAt);
+            }
+        }
+        return Duration.ofNanos(longest);
+    }
+
+    /**
+     * Acquire a slot for a request. The slot must be released once the request and its response body completed.
+     * Cancelling the returned future removes the request from the queue.
+     *
+     * @param requestClass request class
+     * @return future that completes with the slot once the request may be sent
+     */
+    public CompletableFuture<Slot> acquire(@NotNull RequestClass requestClass) {
+        return acquire(requestClass, DEFAULT_TENANT);
+    }
+
+    /**
+     * Acquire a slot for a request of a tenant. Waiting tenants are served in turns. The slot must be released once
+     * the request and its response body completed. Cancelling the returned future removes the request from the queue.
+     *
+     * @param requestClass request class
+     * @param tenant       tenant of the request (e.g. the client that sends it)
+     * @return future that completes with the slot once the request may be sent
+     */
+    public CompletableFuture<Slot> acquire(@NotNull RequestClass requestClass, @NotNull Object tenant) {
+        Objects.requireNonNull(requestClass);
+        Objects.requireNonNull(tenant);
+        Waiter waiter = new Waiter(requestClass, tenant);
+        List<Waiter> ready;
+        synchronized (this) {
+            classes.get(requestClass).add(waiter);
+            ready = dispatch();
+        }
+        grant(ready);
+
+        waiter.future.whenComplete((slot, error) -> {
+            if (error != null) {
+                remove(waiter);
+            }
+        });
+        return waiter.future;
+    }
+
+    /**
+     * Remove a cancelled request from its queue
+     *
+     * @param waiter waiting request
+     */
+    private synchronized void remove(Waiter waiter) {
+        classes.get(waiter.requestClass).remove(waiter);
+    }
+
+    /**
+     * Release a slot and hand it out to waiting requests
+     *
+     * @param requestClass request class of the slot
+     */
+    private void release(RequestClass requestClass) {
+        List<Waiter> ready;
+        synchronized (this) {
+            classes.get(requestClass).running--;
+            running--;
+            ready = dispatch();
+        }
+        grant(ready);
+    }
+
+    /**
+     * Take waiting requests off the queues in priority order while slots are available
+     *
+     * @return requests that got a slot
+     */
+    private List<Waiter> dispatch() {
+        List<Waiter> ready = null;
+        long now = System.nanoTime();
+        for (RequestClass requestClass : CLASSES) {
+            ClassState state = classes.get(requestClass);
+            while (running < maxConcurrency && state.running < state.limit && state.size > 0) {
+                Waiter waiter = state.poll();
+                if (waiter.future.isDone()) {
+                    continue;
+                }
+
+                state.running++;
+                running++;
+                state.averageWaitTime += WAIT_TIME_WEIGHT * ((now - waiter.queuedAt) - state.averageWaitTime);
+                if (ready == null) {
+                    ready = new ArrayList<>();
+                }
+                ready.add(waiter);
+            }
+        }
+        return ready == null ? List.of() : ready;
+    }
+
+    /**
+     * Complete the futures of requests that got a slot. Slots of requests that were cancelled in the meantime are
+     * released again.
+     *
+     * @param ready requests that got a slot
+     */
+    private void grant(List<Waiter> ready) {
+        for (Waiter waiter : ready) {
+            Slot slot = new Slot(waiter.requestClass);
+            if (!waiter.future.complete(slot)) {
+                slot.release();
+            }
+        }
+    }
+
+    /**
+     * State of a request class
+     */
+    private static final class ClassState {
+        /**
+         * Queues of the tenants with waiting requests in the order they are served
+         */
+        private final Map<Object, Queue<Waiter>> waiting = new LinkedHashMap<>();
+        private int size = 0;
+        private int limit;
+        private int running = 0;
+        private double averageWaitTime = 0;
+
+        private ClassState(int limit) {
+            this.limit = limit;
+        }
+
+        private void add(Waiter waiter) {
+            waiting.computeIfAbsent(waiter.tenant, x -> new ArrayDeque<>()).add(waiter);
+            size++;
+        }
+
+        /**
+         * Take the next request of the tenant whose turn it is. The tenant moves to the end of the order.
+         *
+         * @return waiting request
+         */
+        private Waiter poll() {
+            Iterator<Map.Entry<Object, Queue<Waiter>>> iterator = waiting.entrySet().iterator();
+            Map.Entry<Object, Queue<Waiter>> next = iterator.next();
+            iterator.remove();
+            Waiter waiter = next.getValue().poll();
+            if (!next.getValue().isEmpty()) {
+                waiting.put(next.getKey(), next.getValue());
+            }
+            size--;
+            return waiter;
+        }
+
+        private void remove(Waiter waiter) {
+            Queue<Waiter> queue = waiting.get(waiter.tenant);
+            if (queue != null && queue.remove(waiter)) {
+                size--;
+                if (queue.isEmpty()) {
+                    waiting.remove(waiter.tenant);
+                }
+            }
+        }
+    }
+
+    /**
+     * Request waiting for a slot
+     */
+    private static final class Waiter {
+        private final RequestClass requestClass;
+        private final Object tenant;
+        private final CompletableFuture<Slot> future = new CompletableFuture<>();
+        private final long queuedAt = System.nanoTime();
+
+        private Waiter(RequestClass requestClass, Object tenant) {
+            this.requestClass = requestClass;
+            this.tenant = tenant;
+        }
+    }
+
+    /**
+     * Slot of a running request. Releasing it more than once has no effect.
+     */
+    public final class Slot {
+        private final RequestClass requestClass;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(RequestClass requestClass) {
+            this.requestClass = requestClass;
+        }
+
+        /**
+         * @return request class of this slot
+         */
+        public RequestClass getRequestClass() {
+            return requestClass;
+        }
+
+        /**
+         * Release the slot
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                RequestScheduler.this.release(requestClass);
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.exaroton.api.http;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy for retrying API requests after transient errors. A request is retried if
+ * <ul>
+ *     <li>it failed with a connection error or a response with a retryable status code (429, 502, 503 and 504 by
+ *     default),</li>
+ *     <li>it is idempotent (reading requests and PUT/DELETE requests) or the error guarantees that the API didn't
+ *     process it (429 responses and refused connections),</li>
+ *     <li>its body can be sent again and</li>
+ *     <li>its attempt budget isn't exhausted.</li>
+ * </ul>
+ * The delay between attempts grows exponentially and is randomized (full jitter), so clients that failed at the same
+ * time don't retry at the same time. A Retry-After header in the response extends the delay, unless it is longer
+ * than the maximum backoff, in which case the request is not retried.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public class RetryPolicy {
+    /**
+     * Status codes that are retried by default
+     */
+    private static final Set<Integer> DEFAULT_STATUS_CODES = Set.of(429, 502, 503, 504);
+
+    /**
+     * Maximum number of attempts per request including the first one
+     */
+    private volatile int maxAttempts = 3;
+
+    /**
+     * Upper bound of the delay before the first retry
+     */
+    private volatile Duration initialBackoff = Duration.ofMillis(200);
+
+    /**
+     * Upper bound of the delay between any two attempts
+     */
+    private volatile Duration maxBackoff = Duration.ofSeconds(5);
+
+    /**
+     * Response status codes that are retried
+     */
+    private volatile Set<Integer> retryableStatusCodes = DEFAULT_STATUS_CODES;
+
+    /**
+     * Set the attempt budget of each request. Defaults to 3.
+     *
+     * @param maxAttempts maximum number of attempts per request including the first one
+     * @return this policy
+     */
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1");
+        }
+
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * @return maximum number of attempts per request including the first one
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Set the upper bound of the delay before the first retry. The bound doubles with each further retry. Defaults
+     * to 200 milliseconds.
+     *
+     * @param initialBackoff initial backoff
+     * @return this policy
+     */
+    public RetryPolicy setInitialBackoff(@NotNull Duration initialBackoff) {
+        if (initialBackoff == null || initialBackoff.isNegative()) {
+            throw new IllegalArgumentException("Initial backoff can't be negative");
+        }
+
+        this.initialBackoff = initialBackoff;
+        return this;
+    }
+
+    /**
+     * @return upper bound of the delay before the first retry
+     */
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * Set the upper bound of the delay between any two attempts. Defaults to 5 seconds.
+     *
+     * @param maxBackoff maximum backoff
+     * @return this policy
+     */
+    public RetryPolicy setMaxBackoff(@NotNull Duration maxBackoff) {
+        if (maxBackoff == null || maxBackoff.isNegative()) {
+            throw new IllegalArgumentException("Max backoff can't be negative");
+        }
+
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * @return upper bound of the delay between any two attempts
+     */
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * Set the response status codes that are retried. Defaults to 429, 502, 503 and 504.
+     *
+     * @param retryableStatusCodes status codes
+     * @return this policy
+     */
+    public RetryPolicy setRetryableStatusCodes(@NotNull Set<Integer> retryableStatusCodes) {
+        this.retryableStatusCodes = Set.copyOf(retryableStatusCodes);
+        return this;
+    }
+
+    /**
+     * @return response status codes that are retried
+     */
+    public Set<Integer> getRetryableStatusCodes() {
+        return retryableStatusCodes;
+    }
+
+    /**
+     * @param statusCode response status code
+     * @return whether responses with this status code are retried
+     */
+    public boolean isRetryableStatusCode(int statusCode) {
+        return retryableStatusCodes.contains(statusCode);
+    }
+
+    /**
+     * Get a random delay before the next attempt
+     *
+     * @param attempt number of failed attempts (starting at 1)
+     * @return delay between zero and the exponential backoff bound of this attempt
+     */
+    public Duration getBackoff(int attempt) {
+        double bound = Math.min(
+                maxBackoff.toNanos(),
+                initialBackoff.toNanos() * Math.pow(2, Math.max(0, attempt - 1))
+        );
+        return Duration.ofNanos((long) (ThreadLocalRandom.current().nextDouble() * bound));
+    }
+}
@@ -0,0 +1,54 @@
+package com.exaroton.api.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * Checks whether the events of the library are enabled. The checks read the current settings of the event types,
+ * so callers only create events while a recording enabled them. If the runtime doesn't contain the jdk.jfr module,
+ * all events are disabled.
+ */
+public final class FlightRecorderEvents {
+    private static final boolean AVAILABLE = isAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * @return whether {@link RequestEvent}s are recorded
+     */
+    public static boolean isRequestEnabled() {
+        return AVAILABLE && Types.REQUEST.isEnabled();
+    }
+
+    /**
+     * @return whether {@link WebSocketMessageEvent}s are recorded
+     */
+    public static boolean isWebSocketMessageEnabled() {
+        return AVAILABLE && Types.WEB_SOCKET_MESSAGE.isEnabled();
+    }
+
+    /**
+     * @return whether {@link WebSocketReconnectEvent}s are recorded
+     */
+    public static boolean isWebSocketReconnectEnabled() {
+        return AVAILABLE && Types.WEB_SOCKET_RECONNECT.isEnabled();
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Event types. Loaded on first use, so the jdk.jfr classes are only loaded if they are available.
+     */
+    private static final class Types {
+        private static final EventType REQUEST = EventType.getEventType(RequestEvent.class);
+        private static final EventType WEB_SOCKET_MESSAGE = EventType.getEventType(WebSocketMessageEvent.class);
+        private static final EventType WEB_SOCKET_RECONNECT = EventType.getEventType(WebSocketReconnectEvent.class);
+    }
+}
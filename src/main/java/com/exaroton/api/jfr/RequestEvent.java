@@ -0,0 +1,50 @@
+package com.exaroton.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted once an API request sent with {@link com.exaroton.api.ExarotonClient#request} completed. The duration
+ * includes waiting for the request scheduler, retries and decoding the response.
+ */
+@Name("com.exaroton.api.Request")
+@Label("exaroton API Request")
+@Category({"exaroton", "HTTP"})
+@Description("API request including all of its attempts")
+@StackTrace(false)
+public final class RequestEvent extends jdk.jfr.Event {
+    @Label("Endpoint")
+    @Description("Endpoint template, e.g. servers/{id}/")
+    public String endpoint;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Status Code")
+    @Description("Status code of the last response or 0 if no response was received")
+    public int statusCode;
+
+    @Label("Attempts")
+    @Description("Number of attempts that received a response")
+    public int attempts;
+
+    @Label("Hedges")
+    @Description("Number of hedged attempts sent in addition to the first attempt")
+    public int hedges;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+
+    @Label("Error")
+    @Description("Class of the error the request failed with")
+    public String error;
+}
@@ -0,0 +1,43 @@
+package com.exaroton.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted for each text message received by a {@link com.exaroton.api.ws.WebSocketConnection}. The duration covers
+ * decoding the message and passing it to the subscribers of its stream.
+ */
+@Name("com.exaroton.api.WebSocketMessage")
+@Label("exaroton WebSocket Message")
+@Category({"exaroton", "WebSocket"})
+@Description("Websocket message dispatched to stream subscribers")
+@StackTrace(false)
+public final class WebSocketMessageEvent extends jdk.jfr.Event {
+    @Label("Server")
+    @Description("ID of the exaroton server")
+    public String server;
+
+    @Label("Stream")
+    @Description("Stream type or null for connection messages")
+    public String stream;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Message Length")
+    @Description("Number of characters in the message")
+    public long length;
+
+    @Label("Decode Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decodeTime;
+
+    @Label("Fan-out Time")
+    @Description("Time spent passing the message to the stream and its subscribers")
+    @Timespan(Timespan.NANOSECONDS)
+    public long fanOutTime;
+}
@@ -0,0 +1,32 @@
+package com.exaroton.api.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted for each attempt of a {@link com.exaroton.api.ws.WebSocketConnection} to reconnect after the connection was
+ * closed or failed. The duration is the time until the attempt connected or failed.
+ */
+@Name("com.exaroton.api.WebSocketReconnect")
+@Label("exaroton WebSocket Reconnect")
+@Category({"exaroton", "WebSocket"})
+@Description("Attempt to reconnect a websocket connection")
+@StackTrace(false)
+public final class WebSocketReconnectEvent extends jdk.jfr.Event {
+    @Label("Server")
+    @Description("ID of the exaroton server")
+    public String server;
+
+    @Label("URI")
+    public String uri;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Error")
+    @Description("Class of the error the attempt failed with")
+    public String error;
+}
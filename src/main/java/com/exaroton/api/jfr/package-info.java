@@ -0,0 +1,7 @@
+/**
+ * JDK Flight Recorder events emitted by the library. The events are only created while a recording has enabled them.
+ */
+@ApiStatus.Internal
+package com.exaroton.api.jfr;
+
+import org.jetbrains.annotations.ApiStatus;
@@ -0,0 +1,106 @@
+package com.exaroton.api.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * JSON codec backed by a Gson instance. This is the default codec of the client.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class GsonCodec implements JsonCodec {
+    private final Gson gson;
+
+    /**
+     * @param gson gson instance
+     */
+    public GsonCodec(@NotNull Gson gson) {
+        this.gson = Objects.requireNonNull(gson);
+    }
+
+    /**
+     * @return gson instance used by this codec
+     */
+    public @NotNull Gson getGson() {
+        return gson;
+    }
+
+    @Override
+    public <T> @Nullable T decode(@NotNull Reader reader, @NotNull Type type) throws IOException {
+        JsonReader in = gson.newJsonReader(reader);
+        @SuppressWarnings("unchecked")
+        TypeToken<T> token = (TypeToken<T>) TypeToken.get(type);
+        return gson.fromJson(in, token);
+    }
+
+    @Override
+    public void encode(@Nullable Object value, @NotNull Type type, @NotNull Writer writer) throws IOException {
+        JsonWriter out = gson.newJsonWriter(writer);
+        if (value == null) {
+            out.nullValue();
+        } else {
+            gson.toJson(value, type, out);
+        }
+        out.flush();
+    }
+
+    @Override
+    public @NotNull WebSocketFrame decodeFrame(@NotNull String text) {
+        JsonElement element = JsonParser.parseString(text);
+        if (!element.isJsonObject()) {
+            throw new JsonParseException("Expected a websocket message object but got " + element);
+        }
+        return new Frame(element.getAsJsonObject());
+    }
+
+    /**
+     * Websocket message backed by a parsed JSON object
+     */
+    private final class Frame implements WebSocketFrame {
+        private final JsonObject message;
+
+        private Frame(JsonObject message) {
+            this.message = message;
+        }
+
+        @Override
+        public @NotNull String getType() {
+            JsonElement type = message.get("type");
+            if (type == null || type.isJsonNull()) {
+                throw new JsonParseException("Websocket message has no type");
+            }
+            return type.getAsString();
+        }
+
+        @Override
+        public @Nullable String getStream() {
+            JsonElement stream = message.get("stream");
+            return stream == null || stream.isJsonNull() ? null : stream.getAsString();
+        }
+
+        @Override
+        public <T> @Nullable T getData(@NotNull Type type) {
+            JsonElement data = message.get("data");
+            if (data == null || data.isJsonNull()) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            TypeToken<T> token = (TypeToken<T>) TypeToken.get(type);
+            return gson.fromJson(data, token);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.exaroton.api.json;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+
+/**
+ * Encodes and decodes the JSON of API requests, API responses and websocket messages. The client uses a
+ * {@link GsonCodec} unless a codec is set with
+ * {@link com.exaroton.api.ExarotonClient.Builder#setJsonCodec(JsonCodec)}.
+ * <p>
+ * Implementations must be thread-safe. They must be able to decode the model classes of this library (including the
+ * generic {@link com.exaroton.api.APIResponse} envelope and lists), encode maps, lists and strings, and decode and
+ * encode Gson's {@link com.google.gson.JsonElement}, which the server management API exposes. Decoded objects are
+ * initialized by the client afterwards, so codecs don't have to set the client of a model object.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public interface JsonCodec {
+    /**
+     * Decode a single JSON value from a reader. The reader may be at the start of a response body that is still being
+     * received, so the codec should read incrementally instead of buffering the whole input.
+     *
+     * @param reader reader positioned at the value
+     * @param type   type of the value
+     * @param <T>    type of the value
+     * @return decoded value or null if the value is JSON null
+     * @throws IOException if reading failed
+     */
+    <T> @Nullable T decode(@NotNull Reader reader, @NotNull Type type) throws IOException;
+
+    /**
+     * Decode a JSON string
+     *
+     * @param json JSON string
+     * @param type type of the value
+     * @param <T>  type of the value
+     * @return decoded value or null if the value is JSON null
+     */
+    default <T> @Nullable T decode(@NotNull String json, @NotNull Type type) {
+        try {
+            return decode(new StringReader(json), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Encode a value to a writer
+     *
+     * @param value  value to encode
+     * @param type   type of the value
+     * @param writer writer that receives the JSON
+     * @throws IOException if writing failed
+     */
+    void encode(@Nullable Object value, @NotNull Type type, @NotNull Writer writer) throws IOException;
+
+    /**
+     * Encode a value to a string
+     *
+     * @param value value to encode
+     * @param type  type of the value
+     * @return JSON string
+     */
+    default @NotNull String encode(@Nullable Object value, @NotNull Type type) {
+        StringWriter writer = new StringWriter();
+        try {
+            encode(value, type, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Decode a message received from a websocket. The data of the message should only be decoded when
+     * {@link WebSocketFrame#getData(Type)} is called, because the type depends on the stream.
+     *
+     * @param text text of the message
+     * @return decoded message
+     */
+    @NotNull WebSocketFrame decodeFrame(@NotNull String text);
+}
@@ -0,0 +1,34 @@
+package com.exaroton.api.json;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+
+/**
+ * A message received from a websocket, e.g. {@code {"type":"status","stream":"status","data":{...}}}
+ *
+ * @see JsonCodec#decodeFrame(String)
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public interface WebSocketFrame {
+    /**
+     * @return message type
+     */
+    @NotNull String getType();
+
+    /**
+     * @return name of the stream or null for messages of the connection itself (e.g. "ready")
+     */
+    @Nullable String getStream();
+
+    /**
+     * Decode the data of the message
+     *
+     * @param type type of the data
+     * @param <T>  type of the data
+     * @return decoded data or null if the message has no data
+     */
+    <T> @Nullable T getData(@NotNull Type type);
+}
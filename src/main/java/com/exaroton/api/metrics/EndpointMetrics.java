@@ -0,0 +1,145 @@
+package com.exaroton.api.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated measurements of the requests to one endpoint
+ *
+ * @see HistogramRequestMetrics
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class EndpointMetrics {
+    private final String endpoint;
+    private final Histogram queueTime = new Histogram();
+    private final Histogram timeToFirstByte = new Histogram();
+    private final Histogram decodeTime = new Histogram();
+    private final Histogram initializeTime = new Histogram();
+    private final Histogram duration = new Histogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    EndpointMetrics(@NotNull String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Add a sample
+     *
+     * @param sample request sample
+     */
+    void record(@NotNull RequestSample sample) {
+        queueTime.record(sample.getQueueNanos());
+        duration.record(sample.getDurationNanos());
+        if (sample.getAttempts() > 0) {
+            timeToFirstByte.record(sample.getTimeToFirstByteNanos());
+            statusCodes.computeIfAbsent(sample.getStatusCode(), x -> new LongAdder()).increment();
+        }
+        if (sample.getDecodeNanos() > 0) {
+            decodeTime.record(sample.getDecodeNanos());
+        }
+        if (sample.getInitializeNanos() > 0) {
+            initializeTime.record(sample.getInitializeNanos());
+        }
+        if (sample.getError() != null) {
+            errors.increment();
+        }
+        requestBytes.add(sample.getRequestBytes());
+        responseBytes.add(sample.getResponseBytes());
+    }
+
+    /**
+     * @return endpoint template
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return number of completed requests
+     */
+    public long getCount() {
+        return duration.getCount();
+    }
+
+    /**
+     * @return number of requests that failed
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return time requests waited for the request scheduler and rate limiter
+     */
+    public Histogram getQueueTime() {
+        return queueTime;
+    }
+
+    /**
+     * @return time from sending requests until their response headers arrived
+     */
+    public Histogram getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+
+    /**
+     * @return time spent reading and decoding JSON responses
+     */
+    public Histogram getDecodeTime() {
+        return decodeTime;
+    }
+
+    /**
+     * @return time spent initializing decoded objects
+     */
+    public Histogram getInitializeTime() {
+        return initializeTime;
+    }
+
+    /**
+     * @return total duration of requests
+     */
+    public Histogram getDuration() {
+        return duration;
+    }
+
+    /**
+     * @return number of request body bytes sent
+     */
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    /**
+     * @return number of response body bytes received
+     */
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+
+    /**
+     * @param statusCode HTTP status code
+     * @return number of requests whose last response had this status code
+     */
+    public long getStatusCodeCount(int statusCode) {
+        LongAdder adder = statusCodes.get(statusCode);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * @return number of requests by the status code of their last response
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        Map<Integer, Long> result = new TreeMap<>();
+        statusCodes.forEach((statusCode, adder) -> result.put(statusCode, adder.sum()));
+        return result;
+    }
+}
@@ -0,0 +1,141 @@
+package com.exaroton.api.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations. Values are counted in buckets with a width of 1/8 of their power of two, so
+ * recording a value is a few bit operations and an atomic increment and percentiles have a relative error of at most
+ * 12.5%. Durations longer than about 18 minutes are counted in the last bucket.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class Histogram {
+    /**
+     * Number of bits used for the buckets within a power of two
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Largest power of two with its own buckets (2^40 ns are about 18 minutes)
+     */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Record a value
+     *
+     * @param nanos duration in nanoseconds. Negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(getBucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return sum of all recorded values
+     */
+    public Duration getTotal() {
+        return Duration.ofNanos(sum.sum());
+    }
+
+    /**
+     * @return average of all recorded values or zero if no value has been recorded
+     */
+    public Duration getMean() {
+        long count = getCount();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(sum.sum() / count);
+    }
+
+    /**
+     * @return largest recorded value
+     */
+    public Duration getMax() {
+        return Duration.ofNanos(max.get());
+    }
+
+    /**
+     * Estimate a percentile from the buckets. The estimate is the middle of the bucket that contains the percentile,
+     * but never more than the largest recorded value. The 100th percentile is the largest recorded value.
+     *
+     * @param percentile percentile between 0 and 1 (e.g. 0.99)
+     * @return estimated percentile or zero if no value has been recorded
+     */
+    public Duration getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1");
+        }
+
+        long total = getCount();
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        if (rank >= total) {
+            return getMax();
+        }
+
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank) {
+                long lower = getLowerBound(bucket);
+                long estimate = lower + (getLowerBound(bucket + 1) - lower) / 2;
+                return Duration.ofNanos(Math.min(estimate, max.get()));
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @param value non-negative value
+     * @return index of the bucket that counts the value
+     */
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @param bucket bucket index
+     * @return smallest value counted in the bucket
+     */
+    private static long getLowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,44 @@
+package com.exaroton.api.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request metrics that aggregate the samples per endpoint template in {@link Histogram}s and counters. Because the
+ * endpoints are templates, the number of entries is bounded by the number of API endpoints, not by the number of
+ * servers or files.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class HistogramRequestMetrics implements RequestMetrics {
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(@NotNull RequestSample sample) {
+        EndpointMetrics metrics = endpoints.get(sample.getEndpoint());
+        if (metrics == null) {
+            metrics = endpoints.computeIfAbsent(sample.getEndpoint(), EndpointMetrics::new);
+        }
+        metrics.record(sample);
+    }
+
+    /**
+     * @param endpoint endpoint template (e.g. servers/{id}/)
+     * @return metrics of the endpoint or null if no request to it has completed
+     */
+    public @Nullable EndpointMetrics getEndpoint(@NotNull String endpoint) {
+        return endpoints.get(endpoint);
+    }
+
+    /**
+     * @return metrics of all endpoints with completed requests
+     */
+    public Collection<EndpointMetrics> getEndpoints() {
+        return Collections.unmodifiableCollection(endpoints.values());
+    }
+}
@@ -0,0 +1,27 @@
+package com.exaroton.api.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Receives a {@link RequestSample} for each API request once it has completed. Implementations are called from the
+ * threads that complete requests, so they should be fast and thread-safe.
+ * <p>
+ * If a client uses {@link #NOOP} (default), requests are not measured unless a flight recording enabled the
+ * com.exaroton.api.Request event. {@link HistogramRequestMetrics} aggregates the samples per endpoint.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+@FunctionalInterface
+public interface RequestMetrics {
+    /**
+     * Metrics that ignore all samples
+     */
+    RequestMetrics NOOP = sample -> {};
+
+    /**
+     * Record a completed request
+     *
+     * @param sample measurements of the request
+     */
+    void record(@NotNull RequestSample sample);
+}
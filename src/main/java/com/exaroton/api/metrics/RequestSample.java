@@ -0,0 +1,202 @@
+package com.exaroton.api.metrics;
+
+import com.exaroton.api.http.RequestClass;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Measurements of a completed API request including all of its attempts. The request is identified by its endpoint
+ * template (e.g. servers/{id}/files/data/{path}) instead of the path, so samples of the same endpoint can be
+ * aggregated.
+ * <p>
+ * The phases of a request are:
+ * <ul>
+ *     <li>queue time: waiting for a slot of the request scheduler and a permit of the rate limiter</li>
+ *     <li>time to first byte: sending the request until the response headers arrived. The transport doesn't report
+ *     when a connection has been established, so this includes opening a connection if none could be reused.</li>
+ *     <li>decode time: reading and decoding the JSON response. The response is decoded while it is received, so this
+ *     includes waiting for the rest of the body.</li>
+ *     <li>initialize time: initializing the decoded objects with the client</li>
+ * </ul>
+ * If a request was retried, the queue time is the sum of all attempts and the time to first byte and status code
+ * belong to the last response. If a request was hedged, only the attempt that completed the request is measured and
+ * the other attempts are only counted as hedges. Responses that are not decoded as JSON (e.g.
+ * file downloads) have no decode and initialize time.
+ */
+@ApiStatus.AvailableSince("2.5.0")
+public final class RequestSample {
+    private final String endpoint;
+    private final String method;
+    private final RequestClass requestClass;
+    private final int statusCode;
+    private final int attempts;
+    private final int hedges;
+    private final long queueNanos;
+    private final long timeToFirstByteNanos;
+    private final long decodeNanos;
+    private final long initializeNanos;
+    private final long durationNanos;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final Throwable error;
+
+    /**
+     * @param endpoint             endpoint template
+     * @param method               request method
+     * @param requestClass         scheduling class of the request
+     * @param statusCode           status code of the last response or 0 if no response was received
+     * @param attempts             number of attempts that received a response
+     * @param hedges               number of hedged attempts sent in addition to the first attempt
+     * @param queueNanos           queue time in nanoseconds
+     * @param timeToFirstByteNanos time to first byte in nanoseconds
+     * @param decodeNanos          decode time in nanoseconds
+     * @param initializeNanos      initialize time in nanoseconds
+     * @param durationNanos        total duration in nanoseconds
+     * @param requestBytes         number of request body bytes sent
+     * @param responseBytes        number of response body bytes received
+     * @param error                error the request failed with or null
+     */
+    @ApiStatus.Internal
+    public RequestSample(
+            @NotNull String endpoint,
+            @NotNull String method,
+            @NotNull RequestClass requestClass,
+            int statusCode,
+            int attempts,
+            int hedges,
+            long queueNanos,
+            long timeToFirstByteNanos,
+            long decodeNanos,
+            long initializeNanos,
+            long durationNanos,
+            long requestBytes,
+            long responseBytes,
+            @Nullable Throwable error
+    ) {
+        this.endpoint = Objects.requireNonNull(endpoint);
+        this.method = Objects.requireNonNull(method);
+        this.requestClass = Objects.requireNonNull(requestClass);
+        this.statusCode = statusCode;
+        this.attempts = attempts;
+        this.hedges = hedges;
+        this.queueNanos = queueNanos;
+        this.timeToFirstByteNanos = timeToFirstByteNanos;
+        this.decodeNanos = decodeNanos;
+        this.initializeNanos = initializeNanos;
+        this.durationNanos = durationNanos;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.error = error;
+    }
+
+    /**
+     * @return endpoint template (e.g. servers/{id}/)
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return request method
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return scheduling class of the request
+     */
+    public RequestClass getRequestClass() {
+        return requestClass;
+    }
+
+    /**
+     * @return HTTP status code of the last response or 0 if no response was received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return number of attempts that received a response
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return number of hedged attempts sent in addition to the first attempt. Hedged attempts are only included in
+     * the other measurements if they completed the request.
+     */
+    public int getHedges() {
+        return hedges;
+    }
+
+    /**
+     * @return time spent waiting for the request scheduler and rate limiter in nanoseconds
+     */
+    public long getQueueNanos() {
+        return queueNanos;
+    }
+
+    /**
+     * @return time from sending the request until the response headers arrived in nanoseconds
+     */
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    /**
+     * @return time spent reading and decoding the JSON response in nanoseconds
+     */
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    /**
+     * @return time spent initializing the decoded objects in nanoseconds
+     */
+    public long getInitializeNanos() {
+        return initializeNanos;
+    }
+
+    /**
+     * @return time from starting the request until it completed in nanoseconds
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return time from starting the request until it completed
+     */
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    /**
+     * @return number of request body bytes sent by all attempts
+     */
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    /**
+     * @return number of response body bytes received before the request completed. Compressed responses are counted
+     * before they are decoded. Bodies that are returned as a stream are only counted until the stream is returned.
+     */
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    /**
+     * @return error the request failed with or null if it succeeded
+     */
+    public @Nullable Throwable getError() {
+        return error;
+    }
+}
@@ -3,9 +3,12 @@ package com.exaroton.api.request.account;
 import com.exaroton.api.APIRequest;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.account.Account;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.reflect.TypeToken;
 
 public class GetAccountRequest extends APIRequest<Account> {
+    private static final TypeToken<APIResponse<Account>> TYPE = ResponseTypes.of(Account.class);
+
     @Override
     protected String getEndpoint() {
         return "account/";
@@ -13,6 +16,11 @@ public class GetAccountRequest extends APIRequest<Account> {
 
     @Override
     protected TypeToken<APIResponse<Account>> getType() {
-        return new TypeToken<APIResponse<Account>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -13,6 +13,14 @@ public abstract class CreditPoolRequest<T> extends APIRequest<T> {
         this.poolId = ParameterValidator.requireValidId(id);
     }
 
+    @Override
+    protected String getParameter(String name) {
+        if ("id".equals(name)) {
+            return this.poolId;
+        }
+        return super.getParameter(name);
+    }
+
     @Override
     protected HashMap<String, String> getData() {
         HashMap<String, String> map = super.getData();
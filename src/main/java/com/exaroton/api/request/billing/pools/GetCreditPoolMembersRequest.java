@@ -2,12 +2,15 @@ package com.exaroton.api.request.billing.pools;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.billing.pools.CreditPoolMember;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 
 public class GetCreditPoolMembersRequest extends CreditPoolRequest<List<CreditPoolMember>> {
+    private static final TypeToken<APIResponse<List<CreditPoolMember>>> TYPE = ResponseTypes.listOf(CreditPoolMember.class);
+
     public GetCreditPoolMembersRequest(@NotNull String id) {
         super(id);
     }
@@ -19,6 +22,11 @@ public class GetCreditPoolMembersRequest extends CreditPoolRequest<List<CreditPo
 
     @Override
     protected TypeToken<APIResponse<List<CreditPoolMember>>> getType() {
-        return new TypeToken<APIResponse<List<CreditPoolMember>>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
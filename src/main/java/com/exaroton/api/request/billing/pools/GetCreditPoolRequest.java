@@ -2,10 +2,13 @@ package com.exaroton.api.request.billing.pools;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class GetCreditPoolRequest extends CreditPoolRequest<CreditPool> {
+    private static final TypeToken<APIResponse<CreditPool>> TYPE = ResponseTypes.of(CreditPool.class);
+
     public GetCreditPoolRequest(@NotNull String id) {
         super(id);
     }
@@ -17,6 +20,11 @@ public class GetCreditPoolRequest extends CreditPoolRequest<CreditPool> {
 
     @Override
     protected TypeToken<APIResponse<CreditPool>> getType() {
-        return new TypeToken<APIResponse<CreditPool>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -2,12 +2,15 @@ package com.exaroton.api.request.billing.pools;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.server.Server;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.List;
 
 public class GetCreditPoolServersRequest extends CreditPoolRequest<List<Server>> {
+    private static final TypeToken<APIResponse<List<Server>>> TYPE = ResponseTypes.listOf(Server.class);
+
     public GetCreditPoolServersRequest(@NotNull String id) {
         super(id);
     }
@@ -19,6 +22,11 @@ public class GetCreditPoolServersRequest extends CreditPoolRequest<List<Server>>
 
     @Override
     protected TypeToken<APIResponse<List<Server>>> getType() {
-        return new TypeToken<APIResponse<List<Server>>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
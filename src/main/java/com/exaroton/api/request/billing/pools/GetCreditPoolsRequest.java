@@ -3,11 +3,14 @@ package com.exaroton.api.request.billing.pools;
 import com.exaroton.api.APIRequest;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.reflect.TypeToken;
 
 import java.util.List;
 
 public class GetCreditPoolsRequest extends APIRequest<List<CreditPool>> {
+    private static final TypeToken<APIResponse<List<CreditPool>>> TYPE = ResponseTypes.listOf(CreditPool.class);
+
     @Override
     protected String getEndpoint() {
         return "billing/pools/";
@@ -15,6 +18,11 @@ public class GetCreditPoolsRequest extends APIRequest<List<CreditPool>> {
 
     @Override
     protected TypeToken<APIResponse<List<CreditPool>>> getType() {
-        return new TypeToken<APIResponse<List<CreditPool>>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
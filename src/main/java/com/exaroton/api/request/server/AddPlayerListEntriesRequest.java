@@ -3,6 +3,7 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.util.ParameterValidator;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
@@ -10,10 +11,10 @@ import org.jetbrains.annotations.NotNull;
 import java.net.http.HttpRequest;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 
 public class AddPlayerListEntriesRequest extends ServerListRequest<List<String>> {
+    private static final TypeToken<APIResponse<List<String>>> TYPE = ResponseTypes.listOf(String.class);
 
     private final List<String> entries;
 
@@ -35,7 +36,7 @@ public class AddPlayerListEntriesRequest extends ServerListRequest<List<String>>
 
     @Override
     protected TypeToken<APIResponse<List<String>>> getType() {
-        return new TypeToken<APIResponse<List<String>>>(){};
+        return TYPE;
     }
 
     @Override
@@ -45,8 +46,17 @@ public class AddPlayerListEntriesRequest extends ServerListRequest<List<String>>
 
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        HashMap<String, List<String>> body = new HashMap<>();
-        body.put("entries", this.entries);
-        return this.jsonBodyPublisher(gson, builder, body);
+        return this.jsonBodyPublisher(gson, builder, out -> {
+            out.beginObject().name("entries").beginArray();
+            for (String entry : this.entries) {
+                out.value(entry);
+            }
+            out.endArray().endObject();
+        });
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -3,14 +3,16 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.util.ParameterValidator;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.http.HttpRequest;
-import java.util.HashMap;
 
 public class ExecuteCommandRequest extends ServerRequest<Void> {
+    private static final TypeToken<APIResponse<Void>> TYPE = ResponseTypes.of(Void.class);
+
     private final String command;
 
     public ExecuteCommandRequest(
@@ -35,13 +37,13 @@ public class ExecuteCommandRequest extends ServerRequest<Void> {
 
     @Override
     protected TypeToken<APIResponse<Void>> getType() {
-        return new TypeToken<APIResponse<Void>>() {};
+        return TYPE;
     }
 
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        HashMap<String, String> body = new HashMap<>();
-        body.put("command", this.command);
-        return this.jsonBodyPublisher(gson, builder, body);
+        return this.jsonBodyPublisher(gson, builder, out -> out.beginObject()
+                .name("command").value(this.command)
+                .endObject());
     }
 }
@@ -2,14 +2,16 @@ package com.exaroton.api.request.server;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.http.HttpRequest;
-import java.util.HashMap;
 
 public class ExtendServerStopTimeRequest extends ServerRequest<Void> {
+    private static final TypeToken<APIResponse<Void>> TYPE = ResponseTypes.of(Void.class);
+
     private final int time;
 
     public ExtendServerStopTimeRequest(
@@ -34,13 +36,13 @@ public class ExtendServerStopTimeRequest extends ServerRequest<Void> {
 
     @Override
     protected TypeToken<APIResponse<Void>> getType() {
-        return new TypeToken<APIResponse<Void>>() {};
+        return TYPE;
     }
 
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        HashMap<String, Integer> body = new HashMap<>();
-        body.put("time", this.time);
-        return this.jsonBodyPublisher(gson, builder, body);
+        return this.jsonBodyPublisher(gson, builder, out -> out.beginObject()
+                .name("time").value(this.time)
+                .endObject());
     }
 }
@@ -2,6 +2,7 @@ package com.exaroton.api.request.server;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
@@ -9,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 import java.util.List;
 
 public class GetPlayerListEntriesRequest extends ServerListRequest<List<String>> {
+    private static final TypeToken<APIResponse<List<String>>> TYPE = ResponseTypes.listOf(String.class);
 
     public GetPlayerListEntriesRequest(
             @NotNull ExarotonClient client,
@@ -26,6 +28,11 @@ public class GetPlayerListEntriesRequest extends ServerListRequest<List<String>>
 
     @Override
     protected TypeToken<APIResponse<List<String>>> getType() {
-        return new TypeToken<APIResponse<List<String>>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -2,12 +2,15 @@ package com.exaroton.api.request.server;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RequestClass;
 import com.exaroton.api.server.ServerLog;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class GetServerLogsRequest extends ServerRequest<ServerLog> {
+    private static final TypeToken<APIResponse<ServerLog>> TYPE = ResponseTypes.of(ServerLog.class);
 
     public GetServerLogsRequest(@NotNull ExarotonClient client, @NotNull Gson gson, @NotNull String id) {
         super(client, gson, id);
@@ -20,6 +23,16 @@ public class GetServerLogsRequest extends ServerRequest<ServerLog> {
 
     @Override
     protected TypeToken<APIResponse<ServerLog>> getType() {
-        return new TypeToken<APIResponse<ServerLog>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected RequestClass getRequestClass() {
+        return RequestClass.BULK;
     }
 }
@@ -3,11 +3,13 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.ServerMOTDInfo;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class GetServerMOTDRequest extends ServerRequest<ServerMOTDInfo> {
+    private static final TypeToken<APIResponse<ServerMOTDInfo>> TYPE = ResponseTypes.of(ServerMOTDInfo.class);
 
     public GetServerMOTDRequest(@NotNull ExarotonClient client, @NotNull Gson gson, @NotNull String id) {
         super(client, gson, id);
@@ -20,6 +22,11 @@ public class GetServerMOTDRequest extends ServerRequest<ServerMOTDInfo> {
 
     @Override
     protected TypeToken<APIResponse<ServerMOTDInfo>> getType() {
-        return new TypeToken<APIResponse<ServerMOTDInfo>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -3,11 +3,13 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.ServerRAMInfo;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class GetServerRAMRequest extends ServerRequest<ServerRAMInfo> {
+    private static final TypeToken<APIResponse<ServerRAMInfo>> TYPE = ResponseTypes.of(ServerRAMInfo.class);
 
     public GetServerRAMRequest(@NotNull ExarotonClient client, @NotNull Gson gson, @NotNull String id) {
         super(client, gson, id);
@@ -20,6 +22,11 @@ public class GetServerRAMRequest extends ServerRequest<ServerRAMInfo> {
 
     @Override
     protected TypeToken<APIResponse<ServerRAMInfo>> getType() {
-        return new TypeToken<APIResponse<ServerRAMInfo>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -3,11 +3,13 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.Server;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class GetServerRequest extends ServerRequest<Server> {
+    private static final TypeToken<APIResponse<Server>> TYPE = ResponseTypes.of(Server.class);
 
     public GetServerRequest(@NotNull ExarotonClient client, @NotNull Gson gson, @NotNull String id) {
         super(client, gson, id);
@@ -20,6 +22,11 @@ public class GetServerRequest extends ServerRequest<Server> {
 
     @Override
     protected TypeToken<APIResponse<Server>> getType() {
-        return new TypeToken<APIResponse<Server>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -3,11 +3,13 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIRequest;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.server.Server;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.reflect.TypeToken;
 
 import java.util.List;
 
 public class GetServersRequest extends APIRequest<List<Server>> {
+    private static final TypeToken<APIResponse<List<Server>>> TYPE = ResponseTypes.listOf(Server.class);
 
     public GetServersRequest() {
         super();
@@ -20,6 +22,11 @@ public class GetServersRequest extends APIRequest<List<Server>> {
 
     @Override
     protected TypeToken<APIResponse<List<Server>>> getType() {
-        return new TypeToken<APIResponse<List<Server>>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
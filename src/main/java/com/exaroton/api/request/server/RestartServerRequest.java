@@ -2,11 +2,13 @@ package com.exaroton.api.request.server;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class RestartServerRequest extends ServerRequest<Void> {
+    private static final TypeToken<APIResponse<Void>> TYPE = ResponseTypes.of(Void.class);
 
     public RestartServerRequest(@NotNull ExarotonClient client, @NotNull Gson gson, @NotNull String id) {
         super(client, gson, id);
@@ -19,6 +21,6 @@ public class RestartServerRequest extends ServerRequest<Void> {
 
     @Override
     protected TypeToken<APIResponse<Void>> getType() {
-        return new TypeToken<APIResponse<Void>>(){};
+        return TYPE;
     }
 }
@@ -20,6 +20,14 @@ public abstract class ServerListRequest<Datatype> extends ServerRequest<Datatype
         this.list = ParameterValidator.requireNonEmpty(list, "list");
     }
 
+    @Override
+    protected String getParameter(String name) {
+        if ("list".equals(name)) {
+            return this.list;
+        }
+        return super.getParameter(name);
+    }
+
     @Override
     protected HashMap<String, String> getData() {
         HashMap<String, String> map = super.getData();
@@ -17,6 +17,14 @@ public abstract class ServerRequest<Datatype> extends APIRequest<Datatype> {
         this.serverId = ParameterValidator.requireValidId(serverId);
     }
 
+    @Override
+    protected String getParameter(String name) {
+        if ("id".equals(name)) {
+            return this.serverId;
+        }
+        return super.getParameter(name);
+    }
+
     @Override
     protected HashMap<String, String> getData() {
         HashMap<String, String> map = super.getData();
@@ -3,14 +3,16 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.ServerMOTDInfo;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.http.HttpRequest;
-import java.util.HashMap;
 
 public class SetServerMOTDRequest extends ServerRequest<ServerMOTDInfo> {
+    private static final TypeToken<APIResponse<ServerMOTDInfo>> TYPE = ResponseTypes.of(ServerMOTDInfo.class);
+
     private final String motd;
 
     public SetServerMOTDRequest(
@@ -35,13 +37,18 @@ public class SetServerMOTDRequest extends ServerRequest<ServerMOTDInfo> {
 
     @Override
     protected TypeToken<APIResponse<ServerMOTDInfo>> getType() {
-        return new TypeToken<APIResponse<ServerMOTDInfo>>(){};
+        return TYPE;
     }
 
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        HashMap<String, String> body = new HashMap<>();
-        body.put("motd", this.motd);
-        return jsonBodyPublisher(gson, builder, body);
+        return jsonBodyPublisher(gson, builder, out -> out.beginObject()
+                .name("motd").value(this.motd)
+                .endObject());
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -4,14 +4,16 @@ import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.util.ParameterValidator;
 import com.exaroton.api.server.ServerRAMInfo;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.http.HttpRequest;
-import java.util.HashMap;
 
 public class SetServerRAMRequest extends ServerRequest<ServerRAMInfo> {
+    private static final TypeToken<APIResponse<ServerRAMInfo>> TYPE = ResponseTypes.of(ServerRAMInfo.class);
+
     private final int ram;
 
     public SetServerRAMRequest(
@@ -36,13 +38,18 @@ public class SetServerRAMRequest extends ServerRequest<ServerRAMInfo> {
 
     @Override
     protected TypeToken<APIResponse<ServerRAMInfo>> getType() {
-        return new TypeToken<APIResponse<ServerRAMInfo>>(){};
+        return TYPE;
     }
 
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        HashMap<String, Integer> body = new HashMap<>();
-        body.put("ram", this.ram);
-        return jsonBodyPublisher(gson, builder, body);
+        return jsonBodyPublisher(gson, builder, out -> out.beginObject()
+                .name("ram").value(this.ram)
+                .endObject());
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -3,11 +3,13 @@ package com.exaroton.api.request.server;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.MclogsData;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class ShareServerLogsRequest extends ServerRequest<MclogsData> {
+    private static final TypeToken<APIResponse<MclogsData>> TYPE = ResponseTypes.of(MclogsData.class);
 
     public ShareServerLogsRequest(@NotNull ExarotonClient client, @NotNull Gson gson, @NotNull String id) {
         super(client, gson, id);
@@ -20,6 +22,6 @@ public class ShareServerLogsRequest extends ServerRequest<MclogsData> {
 
     @Override
     protected TypeToken<APIResponse<MclogsData>> getType() {
-        return new TypeToken<APIResponse<MclogsData>>(){};
+        return TYPE;
     }
 }
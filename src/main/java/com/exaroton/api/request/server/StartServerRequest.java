@@ -2,14 +2,16 @@ package com.exaroton.api.request.server;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 import java.net.http.HttpRequest;
-import java.util.HashMap;
 
 public class StartServerRequest extends ServerRequest<Void> {
+    private static final TypeToken<APIResponse<Void>> TYPE = ResponseTypes.of(Void.class);
+
     private final boolean useOwnCredits;
 
     public StartServerRequest(
@@ -34,13 +36,13 @@ public class StartServerRequest extends ServerRequest<Void> {
 
     @Override
     protected TypeToken<APIResponse<Void>> getType() {
-        return new TypeToken<APIResponse<Void>>(){};
+        return TYPE;
     }
 
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        HashMap<String, Boolean> body = new HashMap<>();
-        body.put("useOwnCredits", this.useOwnCredits);
-        return jsonBodyPublisher(gson, builder, body);
+        return jsonBodyPublisher(gson, builder, out -> out.beginObject()
+                .name("useOwnCredits").value(this.useOwnCredits)
+                .endObject());
     }
 }
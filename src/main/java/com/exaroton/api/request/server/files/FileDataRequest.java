@@ -2,11 +2,14 @@ package com.exaroton.api.request.server.files;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class FileDataRequest extends FileRequest<Void> {
+    private static final TypeToken<APIResponse<Void>> TYPE = ResponseTypes.of(Void.class);
+
     public FileDataRequest(
             @NotNull ExarotonClient client,
             @NotNull Gson gson,
@@ -22,6 +25,6 @@ public class FileDataRequest extends FileRequest<Void> {
 
     @Override
     protected TypeToken<APIResponse<Void>> getType() {
-        return new TypeToken<APIResponse<Void>>(){};
+        return TYPE;
     }
 }
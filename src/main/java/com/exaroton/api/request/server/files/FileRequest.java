@@ -19,6 +19,18 @@ public abstract class FileRequest<T> extends APIRequest<T> {
         this.path = Objects.requireNonNull(path, "path can not be null");
     }
 
+    @Override
+    protected String getParameter(String name) {
+        switch (name) {
+            case "server":
+                return this.serverId;
+            case "path":
+                return this.path;
+            default:
+                return super.getParameter(name);
+        }
+    }
+
     @Override
     protected HashMap<String, String> getData() {
         HashMap<String, String> map = super.getData();
@@ -3,6 +3,7 @@ package com.exaroton.api.request.server.files;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.config.ConfigOption;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
@@ -10,6 +11,8 @@ import org.jetbrains.annotations.NotNull;
 import java.util.List;
 
 public class GetConfigOptionsRequest extends FileRequest<List<ConfigOption<?>>> {
+    private static final TypeToken<APIResponse<List<ConfigOption<?>>>> TYPE =
+            ResponseTypes.ofType(TypeToken.getParameterized(List.class, ConfigOption.class).getType());
 
     public GetConfigOptionsRequest(
             @NotNull ExarotonClient client,
@@ -26,6 +29,11 @@ public class GetConfigOptionsRequest extends FileRequest<List<ConfigOption<?>>>
 
     @Override
     protected TypeToken<APIResponse<List<ConfigOption<?>>>> getType() {
-        return new TypeToken<APIResponse<List<ConfigOption<?>>>>(){};
+        return TYPE;
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
@@ -1,6 +1,7 @@
 package com.exaroton.api.request.server.files;
 
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RequestClass;
 import com.exaroton.api.util.ParameterValidator;
 import com.google.gson.Gson;
 import org.jetbrains.annotations.NotNull;
@@ -26,4 +27,14 @@ public class GetFileDataRequest extends FileDataRequest {
         map.put("Response-Type", this.responseType);
         return map;
     }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
+
+    @Override
+    protected RequestClass getRequestClass() {
+        return RequestClass.BULK;
+    }
 }
@@ -3,11 +3,14 @@ package com.exaroton.api.request.server.files;
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.server.ServerFile;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
 
 public class GetFileInfoRequest extends FileRequest<ServerFile> {
+    private static final TypeToken<APIResponse<ServerFile>> TYPE = ResponseTypes.of(ServerFile.class);
+
     public GetFileInfoRequest(
             @NotNull ExarotonClient client,
             @NotNull Gson gson,
@@ -19,11 +22,16 @@ public class GetFileInfoRequest extends FileRequest<ServerFile> {
 
     @Override
     protected TypeToken<APIResponse<ServerFile>> getType() {
-        return new TypeToken<APIResponse<ServerFile>>(){};
+        return TYPE;
     }
 
     @Override
     protected String getEndpoint() {
         return "servers/{server}/files/info/{path}";
     }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
+    }
 }
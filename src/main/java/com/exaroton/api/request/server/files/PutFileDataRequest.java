@@ -1,6 +1,7 @@
 package com.exaroton.api.request.server.files;
 
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RequestClass;
 import com.google.gson.Gson;
 import org.jetbrains.annotations.NotNull;
 
@@ -13,6 +14,7 @@ import java.util.function.Supplier;
 
 public class PutFileDataRequest extends FileDataRequest {
     protected final @NotNull Supplier<@NotNull InputStream> inputStream;
+    private final boolean replayable;
 
     public PutFileDataRequest(
             @NotNull ExarotonClient client,
@@ -20,9 +22,30 @@ public class PutFileDataRequest extends FileDataRequest {
             @NotNull String serverId,
             @NotNull String path,
             @NotNull Supplier<@NotNull InputStream> stream
+    ) {
+        this(client, gson, serverId, path, stream, false);
+    }
+
+    /**
+     * @param client     exaroton client
+     * @param gson       gson instance
+     * @param serverId   server id
+     * @param path       file path
+     * @param stream     supplier for the file content
+     * @param replayable whether each call of the supplier returns a new stream with the full content, which allows
+     *                   sending the request again
+     */
+    public PutFileDataRequest(
+            @NotNull ExarotonClient client,
+            @NotNull Gson gson,
+            @NotNull String serverId,
+            @NotNull String path,
+            @NotNull Supplier<@NotNull InputStream> stream,
+            boolean replayable
     ) {
         super(client, gson, serverId, path);
         this.inputStream = Objects.requireNonNull(stream);
+        this.replayable = replayable;
     }
 
     public PutFileDataRequest(
@@ -32,7 +55,7 @@ public class PutFileDataRequest extends FileDataRequest {
             @NotNull String path,
             String data
     ) {
-        this(client, gson, serverId, path, () -> new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+        this(client, gson, serverId, path, () -> new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), true);
     }
 
     @Override
@@ -40,6 +63,16 @@ public class PutFileDataRequest extends FileDataRequest {
         return "PUT";
     }
 
+    @Override
+    protected boolean isBodyReplayable() {
+        return replayable;
+    }
+
+    @Override
+    protected RequestClass getRequestClass() {
+        return RequestClass.BULK;
+    }
+
     @Override
     protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
         builder.header("Content-Type", "application/octet-stream");
@@ -2,8 +2,10 @@ package com.exaroton.api.request.server.files;
 
 import com.exaroton.api.APIResponse;
 import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.json.JsonCodec;
 import com.exaroton.api.util.ParameterValidator;
 import com.exaroton.api.server.config.ConfigOption;
+import com.exaroton.api.util.ResponseTypes;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 import org.jetbrains.annotations.NotNull;
@@ -13,6 +15,9 @@ import java.util.List;
 import java.util.Map;
 
 public class UpdateConfigOptionsRequest extends FileRequest<List<ConfigOption<?>>> {
+    private static final TypeToken<APIResponse<List<ConfigOption<?>>>> TYPE =
+            ResponseTypes.ofType(TypeToken.getParameterized(List.class, ConfigOption.class).getType());
+
     private final Map<String, Object> options;
 
     public UpdateConfigOptionsRequest(
@@ -33,7 +38,7 @@ public class UpdateConfigOptionsRequest extends FileRequest<List<ConfigOption<?>
 
     @Override
     protected TypeToken<APIResponse<List<ConfigOption<?>>>> getType() {
-        return new TypeToken<APIResponse<List<ConfigOption<?>>>>(){};
+        return TYPE;
     }
 
     @Override
@@ -42,7 +47,12 @@ public class UpdateConfigOptionsRequest extends FileRequest<List<ConfigOption<?>
     }
 
     @Override
-    protected HttpRequest.BodyPublisher getBodyPublisher(Gson gson, HttpRequest.Builder builder) {
-        return jsonBodyPublisher(gson, builder, this.options);
+    protected HttpRequest.BodyPublisher getBodyPublisher(JsonCodec codec, HttpRequest.Builder builder) {
+        return jsonBodyPublisher(codec, builder, this.options);
+    }
+
+    @Override
+    protected boolean isIdempotent() {
+        return true;
     }
 }
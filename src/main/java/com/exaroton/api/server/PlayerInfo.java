@@ -1,5 +1,13 @@
 package com.exaroton.api.server;
 
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
 import java.util.Set;
 
 @SuppressWarnings("unused")
@@ -42,4 +50,60 @@ public final class PlayerInfo {
     public Set<String> getList() {
         return list;
     }
+
+    /**
+     * @return streaming type adapter for player information
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<PlayerInfo> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link PlayerInfo}
+     */
+    private static final class Adapter extends TypeAdapter<PlayerInfo> {
+        @Override
+        public void write(JsonWriter out, PlayerInfo value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("max").value(value.max);
+            out.name("count").value(value.count);
+            out.name("list");
+            JsonReaders.writeStrings(out, value.list);
+            out.endObject();
+        }
+
+        @Override
+        public PlayerInfo read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            PlayerInfo info = new PlayerInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "max":
+                        info.max = JsonReaders.nextInt(in, info.max);
+                        break;
+                    case "count":
+                        info.count = JsonReaders.nextInt(in, info.count);
+                        break;
+                    case "list":
+                        info.list = JsonReaders.nextStringSet(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return info;
+        }
+    }
 }
@@ -3,11 +3,16 @@ package com.exaroton.api.server;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.util.Initializable;
 import com.exaroton.api.request.server.*;
+import com.exaroton.api.util.JsonReaders;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.stream.*;
 import com.exaroton.api.ws.subscriber.*;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -98,6 +103,13 @@ public final class Server implements Initializable {
      */
     private transient Gson gson;
 
+    /**
+     * Create an empty server object for the type adapter. The client and gson instance are set by
+     * {@link #initialize(ExarotonClient, Gson)}.
+     */
+    private Server() {
+    }
+
     /**
      * Create a new server object
      *
@@ -682,4 +694,93 @@ public final class Server implements Initializable {
 
         return this.webSocket = client.connectToWebSocket(this, "servers/" + this.id + "/websocket");
     }
+
+    /**
+     * @return streaming type adapter for servers
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<Server> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link Server}. Servers are decoded for every status message of a websocket, so they
+     * are read field by field instead of with reflection. Decoded servers still have to be initialized.
+     */
+    private static final class Adapter extends TypeAdapter<Server> {
+        private final TypeAdapter<PlayerInfo> players = PlayerInfo.typeAdapter();
+        private final TypeAdapter<ServerSoftware> software = ServerSoftware.typeAdapter();
+
+        @Override
+        public void write(JsonWriter out, Server value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("id").value(value.id);
+            out.name("name").value(value.name);
+            out.name("address").value(value.address);
+            out.name("motd").value(value.motd);
+            out.name("status").value(value.status);
+            out.name("players");
+            players.write(out, value.players);
+            out.name("host").value(value.host);
+            out.name("port").value(value.port);
+            out.name("software");
+            software.write(out, value.software);
+            out.name("shared").value(value.shared);
+            out.endObject();
+        }
+
+        @Override
+        public Server read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Server server = new Server();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        server.id = JsonReaders.nextString(in);
+                        break;
+                    case "name":
+                        server.name = JsonReaders.nextString(in);
+                        break;
+                    case "address":
+                        server.address = JsonReaders.nextString(in);
+                        break;
+                    case "motd":
+                        server.motd = JsonReaders.nextString(in);
+                        break;
+                    case "status":
+                        server.status = JsonReaders.nextInt(in, server.status);
+                        break;
+                    case "players":
+                        server.players = players.read(in);
+                        break;
+                    case "host":
+                        server.host = JsonReaders.nextString(in);
+                        break;
+                    case "port":
+                        server.port = JsonReaders.nextInteger(in);
+                        break;
+                    case "software":
+                        server.software = software.read(in);
+                        break;
+                    case "shared":
+                        server.shared = JsonReaders.nextBoolean(in, server.shared);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return server;
+        }
+    }
 }
@@ -3,7 +3,12 @@ package com.exaroton.api.server;
 import com.exaroton.api.ExarotonClient;
 import com.exaroton.api.request.server.files.*;
 import com.exaroton.api.server.config.ServerConfig;
+import com.exaroton.api.util.JsonReaders;
 import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -13,6 +18,7 @@ import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -48,6 +54,16 @@ public final class ServerFile {
 
     private Collection<ServerFile> children = List.of();
 
+    /**
+     * Create an empty file object for the type adapter. Decoded files are only used to update the file
+     * objects created by {@link Server#getFile(String)}.
+     */
+    private ServerFile() {
+        this.client = null;
+        this.gson = null;
+        this.server = null;
+    }
+
     @ApiStatus.Internal
     public ServerFile(
             @NotNull ExarotonClient client,
@@ -290,7 +306,30 @@ public final class ServerFile {
      * @see #upload(InputStream)
      */
     public CompletableFuture<Void> upload(Supplier<InputStream> stream) throws IOException {
-        return client.request(new PutFileDataRequest(this.client, this.gson, this.server.getId(), this.path, stream));
+        return upload(stream, false);
+    }
+
+    /**
+     * Write an input stream to this file. If each call of the supplier returns a new stream with the full content,
+     * the upload can be retried after transient errors.
+     *
+     * @param stream     input stream supplier
+     * @param replayable whether each call of the supplier returns a new stream with the full content
+     * @return future for upload completion
+     * @throws IOException if the API returns an error
+     * @see #upload(Supplier)
+     * @see com.exaroton.api.http.RetryPolicy
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<Void> upload(Supplier<InputStream> stream, boolean replayable) throws IOException {
+        return client.request(new PutFileDataRequest(
+                this.client,
+                this.gson,
+                this.server.getId(),
+                this.path,
+                stream,
+                replayable
+        ));
     }
 
     /**
@@ -342,4 +381,111 @@ public final class ServerFile {
         this.children = file.children;
         return this;
     }
+
+    /**
+     * @return streaming type adapter for files
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<ServerFile> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link ServerFile}. Children of directories are read recursively.
+     */
+    private static final class Adapter extends TypeAdapter<ServerFile> {
+        @Override
+        public void write(JsonWriter out, ServerFile value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("path").value(value.path);
+            out.name("name").value(value.name);
+            out.name("isTextFile").value(value.isTextFile);
+            out.name("isConfigFile").value(value.isConfigFile);
+            out.name("isDirectory").value(value.isDirectory);
+            out.name("isLog").value(value.isLog);
+            out.name("isReadable").value(value.isReadable);
+            out.name("isWritable").value(value.isWritable);
+            out.name("size").value(value.size);
+            out.name("children");
+            if (value.children == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (ServerFile child : value.children) {
+                    write(out, child);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ServerFile read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            ServerFile file = new ServerFile();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "path":
+                        file.path = JsonReaders.nextString(in);
+                        break;
+                    case "name":
+                        file.name = JsonReaders.nextString(in);
+                        break;
+                    case "isTextFile":
+                        file.isTextFile = JsonReaders.nextBoolean(in, file.isTextFile);
+                        break;
+                    case "isConfigFile":
+                        file.isConfigFile = JsonReaders.nextBoolean(in, file.isConfigFile);
+                        break;
+                    case "isDirectory":
+                        file.isDirectory = JsonReaders.nextBoolean(in, file.isDirectory);
+                        break;
+                    case "isLog":
+                        file.isLog = JsonReaders.nextBoolean(in, file.isLog);
+                        break;
+                    case "isReadable":
+                        file.isReadable = JsonReaders.nextBoolean(in, file.isReadable);
+                        break;
+                    case "isWritable":
+                        file.isWritable = JsonReaders.nextBoolean(in, file.isWritable);
+                        break;
+                    case "size":
+                        file.size = JsonReaders.nextInt(in, file.size);
+                        break;
+                    case "children":
+                        file.children = readChildren(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return file;
+        }
+
+        private Collection<ServerFile> readChildren(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            Collection<ServerFile> children = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext()) {
+                children.add(read(in));
+            }
+            in.endArray();
+            return children;
+        }
+    }
 }
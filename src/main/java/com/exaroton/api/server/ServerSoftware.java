@@ -1,5 +1,14 @@
 package com.exaroton.api.server;
 
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public final class ServerSoftware {
     /**
@@ -37,4 +46,59 @@ public final class ServerSoftware {
     public String getVersion() {
         return version;
     }
+
+    /**
+     * @return streaming type adapter for server software
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<ServerSoftware> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link ServerSoftware}
+     */
+    private static final class Adapter extends TypeAdapter<ServerSoftware> {
+        @Override
+        public void write(JsonWriter out, ServerSoftware value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("id").value(value.id);
+            out.name("name").value(value.name);
+            out.name("version").value(value.version);
+            out.endObject();
+        }
+
+        @Override
+        public ServerSoftware read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            ServerSoftware software = new ServerSoftware();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        software.id = JsonReaders.nextString(in);
+                        break;
+                    case "name":
+                        software.name = JsonReaders.nextString(in);
+                        break;
+                    case "version":
+                        software.version = JsonReaders.nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return software;
+        }
+    }
 }
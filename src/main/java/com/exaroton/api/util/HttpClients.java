@@ -0,0 +1,28 @@
+package com.exaroton.api.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Shuts down HTTP clients. {@link HttpClient} can only be shut down on Java 21 and newer, which the multi-release JAR
+ * contains a version of this class for. On older versions the selector thread of a client stops once the client is
+ * no longer reachable.
+ */
+public final class HttpClients {
+    private HttpClients() {
+    }
+
+    /**
+     * Shut down an HTTP client and wait until its requests completed. Requests that are still running after the
+     * timeout are aborted.
+     *
+     * @param client  HTTP client
+     * @param timeout maximum time to wait for running requests
+     * @return false if the client was still running after the timeout
+     */
+    public static boolean shutdown(@NotNull HttpClient client, @NotNull Duration timeout) {
+        return true;
+    }
+}
@@ -0,0 +1,239 @@
+package com.exaroton.api.util;
+
+import com.exaroton.api.json.JsonCodec;
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.http.HttpRequest;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Creates body publishers for JSON request bodies. The JSON is encoded as UTF-8 straight into a reusable per-thread
+ * byte buffer, so no intermediate String or char[] copy of the body is created. The published body has a known
+ * content length and can be sent multiple times.
+ */
+public final class JsonBodyPublisher {
+    /**
+     * initial size of the per-thread buffer
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * buffers that grew larger than this are not kept after the body has been written
+     */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<Utf8Writer> WRITERS = ThreadLocal.withInitial(Utf8Writer::new);
+
+    private JsonBodyPublisher() {
+    }
+
+    /**
+     * Serialize an object to a JSON body
+     *
+     * @param gson gson instance
+     * @param body object to serialize
+     * @return body publisher
+     * @throws JsonIOException if the body can't be serialized
+     */
+    public static HttpRequest.BodyPublisher of(@NotNull Gson gson, Object body) {
+        return of(gson, out -> {
+            if (body == null) {
+                out.nullValue();
+            } else {
+                gson.toJson(body, body.getClass(), out);
+            }
+        });
+    }
+
+    /**
+     * Serialize an object to a JSON body using a codec
+     *
+     * @param codec JSON codec
+     * @param body  object to serialize
+     * @return body publisher
+     * @throws JsonIOException if the body can't be serialized
+     */
+    public static HttpRequest.BodyPublisher of(@NotNull JsonCodec codec, Object body) {
+        Objects.requireNonNull(codec);
+
+        Utf8Writer writer = acquire();
+        try {
+            codec.encode(body, body == null ? Object.class : body.getClass(), writer);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } finally {
+            writer.inUse = false;
+        }
+
+        return HttpRequest.BodyPublishers.ofByteArray(writer.toByteArray());
+    }
+
+    /**
+     * Write a JSON body using a JsonWriter
+     *
+     * @param gson gson instance used to configure the JsonWriter
+     * @param body writes the JSON value
+     * @return body publisher
+     * @throws JsonIOException if the body can't be serialized
+     */
+    public static HttpRequest.BodyPublisher of(@NotNull Gson gson, @NotNull BodyWriter body) {
+        Objects.requireNonNull(gson);
+        Objects.requireNonNull(body);
+
+        Utf8Writer writer = acquire();
+        try (JsonWriter out = gson.newJsonWriter(writer)) {
+            body.write(out);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } finally {
+            writer.inUse = false;
+        }
+
+        return HttpRequest.BodyPublishers.ofByteArray(writer.toByteArray());
+    }
+
+    /**
+     * @return empty writer of the current thread that is marked as in use
+     */
+    private static Utf8Writer acquire() {
+        Utf8Writer writer = WRITERS.get();
+        if (writer.inUse) {
+            // this only happens if a body writer creates another body
+            writer = new Utf8Writer();
+        }
+
+        writer.reset();
+        writer.inUse = true;
+        return writer;
+    }
+
+    /**
+     * Writes a JSON value
+     */
+    @FunctionalInterface
+    public interface BodyWriter {
+        /**
+         * Write the JSON value of the body
+         *
+         * @param out JSON writer
+         * @throws IOException if the value can't be written
+         */
+        void write(JsonWriter out) throws IOException;
+    }
+
+    /**
+     * Writer that encodes characters as UTF-8 into a growable byte array
+     */
+    private static final class Utf8Writer extends Writer {
+        private byte[] buffer = new byte[INITIAL_CAPACITY];
+        private int count = 0;
+        private boolean inUse = false;
+
+        /**
+         * a high surrogate that was written without the matching low surrogate yet
+         */
+        private char highSurrogate = 0;
+
+        @Override
+        public void write(int c) {
+            writeChar((char) c);
+        }
+
+        @Override
+        public void write(@NotNull char[] chars, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                writeChar(chars[i]);
+            }
+        }
+
+        @Override
+        public void write(@NotNull String string, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                writeChar(string.charAt(i));
+            }
+        }
+
+        private void writeChar(char c) {
+            ensureCapacity(4);
+
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    buffer[count++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                    return;
+                }
+                // unpaired surrogate, encode it like String#getBytes does
+                buffer[count++] = '?';
+                ensureCapacity(4);
+            }
+
+            if (c < 0x80) {
+                buffer[count++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[count++] = (byte) (0xC0 | (c >> 6));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                buffer[count++] = '?';
+            } else {
+                buffer[count++] = (byte) (0xE0 | (c >> 12));
+                buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            if (count + additional > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, count + additional));
+            }
+        }
+
+        /**
+         * Discard everything that has been written
+         */
+        private void reset() {
+            count = 0;
+            highSurrogate = 0;
+        }
+
+        /**
+         * Copy the written bytes and reset the writer
+         *
+         * @return written bytes
+         */
+        private byte[] toByteArray() {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                ensureCapacity(1);
+                buffer[count++] = '?';
+            }
+
+            byte[] bytes = Arrays.copyOf(buffer, count);
+            reset();
+            if (buffer.length > MAX_RETAINED_CAPACITY) {
+                buffer = new byte[INITIAL_CAPACITY];
+            }
+            return bytes;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.exaroton.api.util;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Helpers for hand-written type adapters. Values are read like Gson's built-in adapters read them: null leaves
+ * primitive fields at their previous value, numbers may be quoted and booleans may be strings.
+ */
+public final class JsonReaders {
+    private JsonReaders() {
+    }
+
+    /**
+     * @param in reader
+     * @return next string or null
+     * @throws IOException if reading failed
+     */
+    public static @Nullable String nextString(@NotNull JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    /**
+     * @param in       reader
+     * @param fallback value to return if the next value is null
+     * @return next boolean
+     * @throws IOException if reading failed
+     */
+    public static boolean nextBoolean(@NotNull JsonReader in, boolean fallback) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return fallback;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    /**
+     * @param in       reader
+     * @param fallback value to return if the next value is null
+     * @return next int
+     * @throws IOException if reading failed
+     */
+    public static int nextInt(@NotNull JsonReader in, int fallback) throws IOException {
+        Integer value = nextInteger(in);
+        return value == null ? fallback : value;
+    }
+
+    /**
+     * @param in reader
+     * @return next int or null
+     * @throws IOException if reading failed
+     */
+    public static @Nullable Integer nextInteger(@NotNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * @param in       reader
+     * @param fallback value to return if the next value is null
+     * @return next long
+     * @throws IOException if reading failed
+     */
+    public static long nextLong(@NotNull JsonReader in, long fallback) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return fallback;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * @param in       reader
+     * @param fallback value to return if the next value is null
+     * @return next double
+     * @throws IOException if reading failed
+     */
+    public static double nextDouble(@NotNull JsonReader in, double fallback) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return fallback;
+        }
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * @param in reader
+     * @return next array of strings or null
+     * @throws IOException if reading failed
+     */
+    public static @Nullable Set<String> nextStringSet(@NotNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        Set<String> set = new LinkedHashSet<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            set.add(nextString(in));
+        }
+        in.endArray();
+        return set;
+    }
+
+    /**
+     * Write an array of strings
+     *
+     * @param out    writer
+     * @param values strings or null
+     * @throws IOException if writing failed
+     */
+    public static void writeStrings(@NotNull JsonWriter out, @Nullable Collection<String> values) throws IOException {
+        if (values == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginArray();
+        for (String value : values) {
+            out.value(value);
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,76 @@
+package com.exaroton.api.util;
+
+import com.exaroton.api.APIResponse;
+import com.exaroton.api.APIResponseTypeAdapter;
+import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.billing.pools.CreditPoolMember;
+import com.exaroton.api.server.PlayerInfo;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerFile;
+import com.exaroton.api.server.ServerSoftware;
+import com.exaroton.api.ws.data.StatsData;
+import com.exaroton.api.ws.data.StreamData;
+import com.exaroton.api.ws.data.StreamDataTypeAdapter;
+import com.exaroton.api.ws.data.TickData;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Provides the hand-written streaming adapters of the model classes that are decoded most often, the API response
+ * envelope and websocket messages, so they are not bound with reflection. Other model classes still use Gson's
+ * reflective adapter and are registered for reflection in the native-image metadata of this library.
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+    private static final Map<Class<?>, Supplier<TypeAdapter<?>>> ADAPTERS = Map.of(
+            Server.class, Server::typeAdapter,
+            ServerFile.class, ServerFile::typeAdapter,
+            PlayerInfo.class, PlayerInfo::typeAdapter,
+            ServerSoftware.class, ServerSoftware::typeAdapter,
+            CreditPool.class, CreditPool::typeAdapter,
+            CreditPoolMember.class, CreditPoolMember::typeAdapter,
+            StatsData.class, StatsData::typeAdapter,
+            TickData.class, TickData::typeAdapter
+    );
+
+    /**
+     * The casts are safe: the adapter is chosen by the raw type of the requested type, so it reads and writes
+     * exactly that class, and the generic adapters are created for the type argument of the requested type.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == APIResponse.class) {
+            return (TypeAdapter<T>) new APIResponseTypeAdapter<>(gson.getAdapter(getTypeArgument(type)));
+        }
+        if (rawType == StreamData.class) {
+            return (TypeAdapter<T>) new StreamDataTypeAdapter<>(gson, gson.getAdapter(getTypeArgument(type)));
+        }
+
+        Supplier<TypeAdapter<?>> adapter = ADAPTERS.get(type.getRawType());
+        if (adapter == null) {
+            return null;
+        }
+
+        return (TypeAdapter<T>) adapter.get();
+    }
+
+    /**
+     * @param type generic type with a single type argument
+     * @return type token of the type argument or Object if the type is raw
+     */
+    private static TypeToken<?> getTypeArgument(TypeToken<?> type) {
+        Type generic = type.getType();
+        if (generic instanceof ParameterizedType) {
+            return TypeToken.get(((ParameterizedType) generic).getActualTypeArguments()[0]);
+        }
+        return TypeToken.get(Object.class);
+    }
+}
@@ -0,0 +1,48 @@
+package com.exaroton.api.util;
+
+import com.exaroton.api.APIResponse;
+import com.google.gson.reflect.TypeToken;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Creates the response type tokens of API requests. The tokens are built from their type arguments instead of
+ * anonymous TypeToken subclasses, so resolving them doesn't need the generic signature of a class at runtime (which
+ * is not available in a native image without reflection metadata).
+ */
+public final class ResponseTypes {
+    private ResponseTypes() {
+    }
+
+    /**
+     * @param data type of the response data
+     * @param <T>  type of the response data
+     * @return type token of an API response with this data type
+     */
+    public static <T> TypeToken<APIResponse<T>> of(@NotNull Class<T> data) {
+        return ofType(data);
+    }
+
+    /**
+     * @param element type of the elements of the response data
+     * @param <T>     type of the elements of the response data
+     * @return type token of an API response whose data is a list of this element type
+     */
+    public static <T> TypeToken<APIResponse<List<T>>> listOf(@NotNull Class<T> element) {
+        return ofType(TypeToken.getParameterized(List.class, element).getType());
+    }
+
+    /**
+     * Create a type token for an arbitrary data type. The caller is responsible for matching the type argument.
+     *
+     * @param data type of the response data
+     * @param <T>  type of the response data
+     * @return type token of an API response with this data type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> TypeToken<APIResponse<T>> ofType(@NotNull Type data) {
+        return (TypeToken<APIResponse<T>>) TypeToken.getParameterized(APIResponse.class, data);
+    }
+}
@@ -0,0 +1,38 @@
+package com.exaroton.api.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates executors that run each task on its own thread. On Java 21 and newer the multi-release JAR contains a
+ * version of this class that uses virtual threads, this version uses a cached pool of daemon threads.
+ */
+public final class TaskExecutors {
+    private TaskExecutors() {
+    }
+
+    /**
+     * Create an executor that starts a new thread for each task unless an idle thread is available
+     *
+     * @param prefix prefix of the thread names
+     * @return new executor
+     */
+    public static ExecutorService newTaskExecutor(@NotNull String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return whether the executors of this class use virtual threads
+     */
+    public static boolean usesVirtualThreads() {
+        return false;
+    }
+}
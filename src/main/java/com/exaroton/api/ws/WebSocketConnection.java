@@ -1,5 +1,12 @@
 package com.exaroton.api.ws;
 
+import com.exaroton.api.http.HttpTransport;
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.json.WebSocketFrame;
+import com.exaroton.api.jfr.FlightRecorderEvents;
+import com.exaroton.api.jfr.WebSocketMessageEvent;
+import com.exaroton.api.jfr.WebSocketReconnectEvent;
 import com.exaroton.api.server.Server;
 import com.exaroton.api.server.ServerStatus;
 import com.exaroton.api.ws.stream.ConsoleStream;
@@ -8,7 +15,6 @@ import com.exaroton.api.ws.stream.Stream;
 import com.exaroton.api.ws.stream.StreamType;
 import com.exaroton.api.ws.subscriber.ServerStatusSubscriber;
 import com.google.gson.Gson;
-import com.google.gson.JsonParser;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -17,7 +23,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.WebSocket;
 import java.util.*;
 import java.util.concurrent.*;
@@ -29,9 +34,11 @@ public final class WebSocketConnection implements WebSocket.Listener {
     private final Logger logger = LoggerFactory.getLogger("java-exaroton-api");
 
     @NotNull
-    private final HttpClient http;
+    private final HttpTransport transport;
     @NotNull
     private final Gson gson;
+    @NotNull
+    private final JsonCodec codec;
 
     @NotNull
     private final URI uri;
@@ -39,10 +46,34 @@ public final class WebSocketConnection implements WebSocket.Listener {
     @Nullable
     private WebSocket client;
 
-    private Timer reconnectTimer;
+    /**
+     * scheduler for reconnect attempts or null if this connection creates its own scheduler when it reconnects
+     */
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * scheduler created by this connection for the current reconnect attempts
+     */
+    private ScheduledExecutorService reconnectScheduler;
+
+    /**
+     * task that repeats reconnect attempts until the connection is open again
+     */
+    private Future<?> reconnectTask;
 
     private boolean autoReconnect = true;
 
+    /**
+     * whether {@link #close()} was called. Closed connections never reconnect.
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * completes once the connection has been closed
+     */
+    private final CompletableFuture<Void> closeFuture = new CompletableFuture<>();
+
     /**
      * messages to send once the connection becomes ready
      */
@@ -60,8 +91,12 @@ public final class WebSocketConnection implements WebSocket.Listener {
      */
     private final Map<Class<? extends Stream<?>>, Stream<?>> streams = new HashMap<>();
 
+    /**
+     * headers sent when connecting
+     */
     @NotNull
-    private final String apiToken;
+    private final Map<String, String> headers;
+
     /**
      * exaroton server
      */
@@ -71,28 +106,87 @@ public final class WebSocketConnection implements WebSocket.Listener {
      * To obtain a websocket connection use {@link Server#addStatusSubscriber(ServerStatusSubscriber)} and
      * {@link Server#getWebSocket()}
      *
-     * @param http     http client
-     * @param gson     gson instance
-     * @param uri      websocket uri
-     * @param apiToken exaroton api token
-     * @param server   exaroton server
+     * @param transport http transport
+     * @param gson      gson instance
+     * @param uri       websocket uri
+     * @param headers   headers sent when connecting
+     * @param server    exaroton server
      */
     @ApiStatus.Internal
     public WebSocketConnection(
-            @NotNull HttpClient http,
+            @NotNull HttpTransport transport,
             @NotNull Gson gson,
             @NotNull URI uri,
-            @NotNull String apiToken,
+            @NotNull Map<String, String> headers,
             @NotNull Server server
     ) {
-        this.http = http;
+        this(transport, gson, new GsonCodec(gson), uri, headers, server, null);
+    }
+
+    /**
+     * To obtain a websocket connection use {@link Server#addStatusSubscriber(ServerStatusSubscriber)} and
+     * {@link Server#getWebSocket()}
+     *
+     * @param transport http transport
+     * @param gson      gson instance
+     * @param codec     JSON codec used to decode and encode messages
+     * @param uri       websocket uri
+     * @param headers   headers sent when connecting
+     * @param server    exaroton server
+     */
+    @ApiStatus.Internal
+    public WebSocketConnection(
+            @NotNull HttpTransport transport,
+            @NotNull Gson gson,
+            @NotNull JsonCodec codec,
+            @NotNull URI uri,
+            @NotNull Map<String, String> headers,
+            @NotNull Server server
+    ) {
+        this(transport, gson, codec, uri, headers, server, null);
+    }
+
+    /**
+     * To obtain a websocket connection use {@link Server#addStatusSubscriber(ServerStatusSubscriber)} and
+     * {@link Server#getWebSocket()}
+     *
+     * @param transport http transport
+     * @param gson      gson instance
+     * @param codec     JSON codec used to decode and encode messages
+     * @param uri       websocket uri
+     * @param headers   headers sent when connecting
+     * @param server    exaroton server
+     * @param scheduler scheduler for reconnect attempts or null to create a scheduler for each disconnect
+     */
+    @ApiStatus.Internal
+    @ApiStatus.AvailableSince("2.5.0")
+    public WebSocketConnection(
+            @NotNull HttpTransport transport,
+            @NotNull Gson gson,
+            @NotNull JsonCodec codec,
+            @NotNull URI uri,
+            @NotNull Map<String, String> headers,
+            @NotNull Server server,
+            @Nullable ScheduledExecutorService scheduler
+    ) {
+        this.scheduler = scheduler;
+        this.transport = Objects.requireNonNull(transport);
         this.gson = Objects.requireNonNull(gson);
-        this.uri = uri;
-        this.apiToken = apiToken;
+        this.codec = Objects.requireNonNull(codec);
+        this.uri = Objects.requireNonNull(uri);
+        this.headers = Objects.requireNonNull(headers);
         this.server = Objects.requireNonNull(server);
         this.streams.put(ServerStatusStream.class, new ServerStatusStream(this, this.gson).setServer(server));
 
-        connect();
+        connect(false);
+    }
+
+    /**
+     * @return JSON codec used to decode and encode messages
+     */
+    @ApiStatus.Internal
+    public @NotNull JsonCodec getJsonCodec() {
+        return codec;
     }
 
     /**
@@ -227,21 +321,53 @@ public final class WebSocketConnection implements WebSocket.Listener {
         return created;
     }
 
-    private void connect() {
-        http.newWebSocketBuilder()
-                .header("Authorization", "Bearer " + apiToken)
-                .buildAsync(Objects.requireNonNull(uri), this)
+    /**
+     * Open the websocket connection
+     *
+     * @param reconnect whether this is an attempt to reconnect
+     */
+    private void connect(boolean reconnect) {
+        WebSocketReconnectEvent event = null;
+        if (reconnect && FlightRecorderEvents.isWebSocketReconnectEnabled()) {
+            event = new WebSocketReconnectEvent();
+            event.begin();
+        }
+
+        WebSocketReconnectEvent reconnectEvent = event;
+        transport.connectWebSocket(uri, headers, this)
                 .thenAccept(ws -> {
                     this.logger.debug("Connected to {}", uri);
                     this.client = ws;
+                    if (closed) {
+                        // closed while connecting
+                        ws.sendClose(WebSocket.NORMAL_CLOSURE, "unsubscribe");
+                    }
+                    if (reconnectEvent != null) {
+                        commit(reconnectEvent, null);
+                    }
                 })
                 .exceptionally(t -> {
+                    if (reconnectEvent != null) {
+                        commit(reconnectEvent, t instanceof CompletionException && t.getCause() != null
+                                ? t.getCause() : t);
+                    }
                     logger.error("Websocket connection failed", t);
                     scheduleReconnect();
                     return null;
                 });
     }
 
+    private void commit(WebSocketReconnectEvent event, @Nullable Throwable error) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.server = server.getId();
+            event.uri = uri.toString();
+            event.success = error == null;
+            event.error = error == null ? null : error.getClass().getName();
+            event.commit();
+        }
+    }
+
     /**
      * Add a subscriber to a stream
      * @param clazz stream class
@@ -310,9 +436,7 @@ public final class WebSocketConnection implements WebSocket.Listener {
         webSocket.request(1);
 
         logger.debug("Websocket connection opened to {}", uri);
-        if (this.reconnectTimer != null) {
-            this.reconnectTimer.cancel();
-        }
+        cancelReconnect();
     }
 
     @ApiStatus.Internal
@@ -320,9 +444,17 @@ public final class WebSocketConnection implements WebSocket.Listener {
     public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
         webSocket.request(1);
 
-        var message = JsonParser.parseString(data.toString())
-                .getAsJsonObject();
-        var type = message.get("type").getAsString();
+        WebSocketMessageEvent event = null;
+        long start = 0;
+        if (FlightRecorderEvents.isWebSocketMessageEnabled()) {
+            event = new WebSocketMessageEvent();
+            event.begin();
+            start = System.nanoTime();
+        }
+
+        WebSocketFrame message = codec.decodeFrame(data.toString());
+        String type = message.getType();
+        long decoded = event == null ? 0 : System.nanoTime();
         switch (type) {
             case "connected":
             case "keep-alive":
@@ -344,13 +476,26 @@ public final class WebSocketConnection implements WebSocket.Listener {
                 break;
 
             default:
-                final StreamType name = StreamType.get(message.get("stream").getAsString());
+                final StreamType name = StreamType.get(message.getStream());
                 final Stream<?> stream = getStream(name.getStreamClass());
                 if (stream != null) {
                     stream.onMessage(type, message);
                 }
         }
 
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.server = server.getId();
+                event.stream = message.getStream();
+                event.messageType = type;
+                event.length = data.length();
+                event.decodeTime = decoded - start;
+                event.fanOutTime = System.nanoTime() - decoded;
+                event.commit();
+            }
+        }
+
         return null;
     }
 
@@ -385,16 +530,41 @@ public final class WebSocketConnection implements WebSocket.Listener {
      * This method is called when the connection is closed. It automatically starts a reconnect timer
      * if autoReconnect is enabled.
      */
-    private void scheduleReconnect() {
-        if (this.shouldAutoReconnect()) {
-            reconnectTimer = new Timer();
-            logger.debug("Reconnecting in 5s");
-            reconnectTimer.schedule(new TimerTask() {
-                @Override
-                public void run() {
-                    connect();
-                }
-            }, 5000, 5000);
+    private synchronized void scheduleReconnect() {
+        if (!this.shouldAutoReconnect() || this.closed || this.reconnectTask != null) {
+            return;
+        }
+
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler == null) {
+            scheduler = this.reconnectScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "exaroton-api-reconnect");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        logger.debug("Reconnecting in 5s");
+        try {
+            reconnectTask = scheduler.scheduleWithFixedDelay(() -> connect(true), 5, 5, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // the scheduler of the client has been shut down
+            logger.debug("Not reconnecting to {}, the client is closed", uri);
+        }
+    }
+
+    /**
+     * Stop the reconnect attempts and the scheduler created for them
+     */
+    private synchronized void cancelReconnect() {
+        if (this.reconnectTask != null) {
+            this.reconnectTask.cancel(false);
+            this.reconnectTask = null;
+        }
+
+        if (this.reconnectScheduler != null) {
+            this.reconnectScheduler.shutdownNow();
+            this.reconnectScheduler = null;
         }
     }
 
@@ -411,6 +581,10 @@ public final class WebSocketConnection implements WebSocket.Listener {
      */
     @ApiStatus.Internal
     public CompletableFuture<Void> sendWhenReady(String data) {
+        if (this.closed) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Websocket connection is closed"));
+        }
+
         if (this.client == null || !this.ready) {
             synchronized (this.messages) {
                 this.messages.add(data);
@@ -421,16 +595,56 @@ public final class WebSocketConnection implements WebSocket.Listener {
     }
 
     /**
-     * close websocket connection. This should be called automatically when there are no remaining subscribers
+     * @return number of messages that are waiting for the connection to become ready
+     */
+    @ApiStatus.Internal
+    @ApiStatus.AvailableSince("2.5.0")
+    public int getPendingMessages() {
+        synchronized (this.messages) {
+            return this.messages.size();
+        }
+    }
+
+    /**
+     * @return whether this connection has been closed
+     */
+    @ApiStatus.AvailableSince("2.5.0")
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * @return future that completes once this connection has been closed
+     */
+    @ApiStatus.Internal
+    @ApiStatus.AvailableSince("2.5.0")
+    public CompletableFuture<Void> whenClosed() {
+        return closeFuture;
+    }
+
+    /**
+     * close websocket connection. This should be called automatically when there are no remaining subscribers.
+     * A closed connection doesn't reconnect, and messages that were waiting for the connection to become ready are
+     * dropped.
      */
     @ApiStatus.Internal
     public void close() {
-        if (this.reconnectTimer != null) {
-            this.reconnectTimer.cancel();
+        this.closed = true;
+        cancelReconnect();
+
+        synchronized (this.messages) {
+            if (!this.messages.isEmpty()) {
+                logger.debug("Dropping {} unsent messages to {}", this.messages.size(), uri);
+                this.messages.clear();
+            }
+        }
+        if (!this.ready) {
+            this.readyFuture.completeExceptionally(new IllegalStateException("Websocket connection is closed"));
         }
 
         if (this.client != null) {
             this.client.sendClose(WebSocket.NORMAL_CLOSURE, "unsubscribe");
         }
+        this.closeFuture.complete(null);
     }
 }
@@ -1,5 +1,13 @@
 package com.exaroton.api.ws.data;
 
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public final class MemoryUsage {
     private double percent;
@@ -20,4 +28,54 @@ public final class MemoryUsage {
     public long getUsage() {
         return usage;
     }
+
+    /**
+     * @return streaming type adapter for the memory usage of {@link StatsData}
+     */
+    static TypeAdapter<MemoryUsage> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link MemoryUsage}
+     */
+    private static final class Adapter extends TypeAdapter<MemoryUsage> {
+        @Override
+        public void write(JsonWriter out, MemoryUsage value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("percent").value(value.percent);
+            out.name("usage").value(value.usage);
+            out.endObject();
+        }
+
+        @Override
+        public MemoryUsage read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            MemoryUsage memory = new MemoryUsage();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "percent":
+                        memory.percent = JsonReaders.nextDouble(in, memory.percent);
+                        break;
+                    case "usage":
+                        memory.usage = JsonReaders.nextLong(in, memory.usage);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return memory;
+        }
+    }
 }
@@ -1,5 +1,13 @@
 package com.exaroton.api.ws.data;
 
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public final class StatsData {
     private MemoryUsage memory;
@@ -11,4 +19,52 @@ public final class StatsData {
     public MemoryUsage getMemory() {
         return memory;
     }
+
+    /**
+     * @return streaming type adapter for stats
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<StatsData> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link StatsData}
+     */
+    private static final class Adapter extends TypeAdapter<StatsData> {
+        private final TypeAdapter<MemoryUsage> memory = MemoryUsage.typeAdapter();
+
+        @Override
+        public void write(JsonWriter out, StatsData value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("memory");
+            memory.write(out, value.memory);
+            out.endObject();
+        }
+
+        @Override
+        public StatsData read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            StatsData stats = new StatsData();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("memory")) {
+                    stats.memory = memory.read(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return stats;
+        }
+    }
 }
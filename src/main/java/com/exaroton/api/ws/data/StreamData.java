@@ -9,17 +9,17 @@ public final class StreamData<Datatype> {
     /**
      * stream name
      */
-    private final String stream;
+    final String stream;
 
     /**
      * message type
      */
-    private final String type;
+    final String type;
 
     /**
      * data
      */
-    private final Datatype data;
+    final Datatype data;
 
     public StreamData(String stream, String type, Datatype data) {
         this.stream = stream;
@@ -0,0 +1,93 @@
+package com.exaroton.api.ws.data;
+
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Streaming type adapter for {@link StreamData}. The data is written with the adapter of its runtime type, like
+ * Gson's reflective adapter does for type variables.
+ *
+ * @param <T> data type
+ */
+@ApiStatus.Internal
+public final class StreamDataTypeAdapter<T> extends TypeAdapter<StreamData<T>> {
+    private final Gson gson;
+    private final TypeAdapter<T> data;
+
+    /**
+     * @param gson gson instance used to look up the adapter of the data
+     * @param data adapter of the declared data type
+     */
+    public StreamDataTypeAdapter(@NotNull Gson gson, @NotNull TypeAdapter<T> data) {
+        this.gson = Objects.requireNonNull(gson);
+        this.data = Objects.requireNonNull(data);
+    }
+
+    @Override
+    public void write(JsonWriter out, StreamData<T> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("stream").value(value.stream);
+        out.name("type").value(value.type);
+        if (value.data != null) {
+            out.name("data");
+            writeData(out, value.data);
+        }
+        out.endObject();
+    }
+
+    /**
+     * @param out  writer
+     * @param data non-null data
+     * @param <D>  runtime type of the data
+     * @throws IOException if writing failed
+     */
+    private <D> void writeData(JsonWriter out, D data) throws IOException {
+        @SuppressWarnings("unchecked")
+        Class<D> type = (Class<D>) data.getClass();
+        gson.getAdapter(type).write(out, data);
+    }
+
+    @Override
+    public StreamData<T> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String stream = null;
+        String type = null;
+        T value = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "stream":
+                    stream = JsonReaders.nextString(in);
+                    break;
+                case "type":
+                    type = JsonReaders.nextString(in);
+                    break;
+                case "data":
+                    value = data.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new StreamData<>(stream, type, value);
+    }
+}
@@ -1,5 +1,14 @@
 package com.exaroton.api.ws.data;
 
+import com.exaroton.api.util.JsonReaders;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+
 @SuppressWarnings("unused")
 public final class TickData {
     private double averageTickTime;
@@ -21,4 +30,49 @@ public final class TickData {
         if (this.averageTickTime < 50) return 20;
         return 1000 / this.averageTickTime;
     }
+
+    /**
+     * @return streaming type adapter for tick data
+     */
+    @ApiStatus.Internal
+    public static TypeAdapter<TickData> typeAdapter() {
+        return new Adapter();
+    }
+
+    /**
+     * Streaming type adapter for {@link TickData}
+     */
+    private static final class Adapter extends TypeAdapter<TickData> {
+        @Override
+        public void write(JsonWriter out, TickData value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+
+            out.beginObject();
+            out.name("averageTickTime").value(value.averageTickTime);
+            out.endObject();
+        }
+
+        @Override
+        public TickData read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+
+            TickData tick = new TickData();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("averageTickTime")) {
+                    tick.averageTickTime = JsonReaders.nextDouble(in, tick.averageTickTime);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return tick;
+        }
+    }
 }
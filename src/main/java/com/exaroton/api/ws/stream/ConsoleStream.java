@@ -1,9 +1,9 @@
 package com.exaroton.api.ws.stream;
 
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.subscriber.ConsoleSubscriber;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -26,10 +26,10 @@ public final class ConsoleStream extends Stream<ConsoleSubscriber> {
     }
 
     @Override
-    protected void onDataMessage(String type, JsonObject message) {
+    protected void onDataMessage(String type, WebSocketFrame message) {
         switch (type) {
             case "line":
-                String line = message.get("data").getAsString();
+                String line = message.getData(String.class);
                 for (ConsoleSubscriber subscriber : getSubscribers()) {
                     subscriber.handleLine(line);
                 }
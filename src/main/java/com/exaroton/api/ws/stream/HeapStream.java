@@ -1,10 +1,10 @@
 package com.exaroton.api.ws.stream;
 
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.data.HeapUsage;
 import com.exaroton.api.ws.subscriber.HeapSubscriber;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -15,10 +15,10 @@ public final class HeapStream extends Stream<HeapSubscriber> {
     }
 
     @Override
-    protected void onDataMessage(String type, JsonObject message) {
+    protected void onDataMessage(String type, WebSocketFrame message) {
         switch (type) {
             case "heap":
-                HeapUsage usage = gson.fromJson(message.get("data"), HeapUsage.class);
+                HeapUsage usage = message.getData(HeapUsage.class);
 
                 for (HeapSubscriber subscriber : getSubscribers()) {
                     subscriber.handleHeapUsage(usage);
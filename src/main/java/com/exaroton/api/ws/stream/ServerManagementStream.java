@@ -1,6 +1,7 @@
 package com.exaroton.api.ws.stream;
 
 import com.exaroton.api.server.ServerStatus;
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.subscriber.ManagementNotificationSubscriber;
 import com.google.gson.Gson;
@@ -28,8 +29,8 @@ public final class ServerManagementStream extends Stream<ManagementNotificationS
     }
 
     @Override
-    protected void onDataMessage(String type, JsonObject message) {
-        var data = message.getAsJsonObject("data");
+    protected void onDataMessage(String type, WebSocketFrame message) {
+        JsonObject data = message.getData(JsonObject.class);
         switch (type) {
             case "notification":
                 for (ManagementNotificationSubscriber subscriber : getSubscribers()) {
@@ -65,22 +66,12 @@ public final class ServerManagementStream extends Stream<ManagementNotificationS
             var future = new CompletableFuture<JsonElement>();
             var id = UUID.randomUUID();
             waitingForResponse.put(id, future);
-            var item = new Request(id, method, params);
+            var item = new JsonObject();
+            item.addProperty("id", id.toString());
+            item.addProperty("method", method);
+            item.add("params", params);
             this.sendWhenStarted(messageData("request", item));
             return future;
         });
     }
-
-    @SuppressWarnings({"FieldCanBeLocal", "unused"})
-    private static final class Request {
-        private final UUID id;
-        private final String method;
-        private final JsonElement params;
-
-        public Request(UUID id, String method, JsonElement params) {
-            this.id = id;
-            this.method = method;
-            this.params = params;
-        }
-    }
 }
@@ -1,10 +1,10 @@
 package com.exaroton.api.ws.stream;
 
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.server.Server;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.subscriber.ServerStatusSubscriber;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -24,11 +24,11 @@ public final class ServerStatusStream extends Stream<ServerStatusSubscriber> {
     }
 
     @Override
-    protected void onDataMessage(String type, JsonObject message) {
+    protected void onDataMessage(String type, WebSocketFrame message) {
         switch (type) {
             case "status":
                 Server oldServer = new Server(server.getClient(), gson, server.getId()).setFromObject(server);
-                this.server.setFromObject(gson.fromJson(message.get("data"), Server.class));
+                this.server.setFromObject(message.getData(Server.class));
 
                 ws.autoStartStop();
 
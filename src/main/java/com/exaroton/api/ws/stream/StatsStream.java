@@ -1,10 +1,10 @@
 package com.exaroton.api.ws.stream;
 
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.data.StatsData;
 import com.exaroton.api.ws.subscriber.StatsSubscriber;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -15,10 +15,10 @@ public final class StatsStream extends Stream<StatsSubscriber> {
     }
 
     @Override
-    protected void onDataMessage(String type, JsonObject message) {
+    protected void onDataMessage(String type, WebSocketFrame message) {
         switch (type) {
             case "stats":
-                StatsData stats = gson.fromJson(message.get("data"), StatsData.class);
+                StatsData stats = message.getData(StatsData.class);
 
                 for (StatsSubscriber subscriber : getSubscribers()) {
                     subscriber.handleStats(stats);
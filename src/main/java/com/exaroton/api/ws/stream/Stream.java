@@ -1,10 +1,11 @@
 package com.exaroton.api.ws.stream;
 
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.server.ServerStatus;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.data.StreamData;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -45,9 +46,15 @@ public abstract class Stream<T> {
      */
     protected final Gson gson;
 
+    /**
+     * JSON codec used to encode the messages of this stream
+     */
+    protected final JsonCodec codec;
+
     public Stream(@NotNull WebSocketConnection ws, @NotNull Gson gson) {
         this.ws = Objects.requireNonNull(ws);
         this.gson = Objects.requireNonNull(gson);
+        this.codec = ws.getJsonCodec();
     }
 
     /**
@@ -92,7 +99,7 @@ public abstract class Stream<T> {
     }
 
     private CompletableFuture<Void> send(StreamData<?> data) {
-        return ws.sendWhenReady(gson.toJson(data));
+        return ws.sendWhenReady(codec.encode(data, data.getClass()));
     }
 
     protected <MessageDataType> StreamData<MessageDataType> messageData(String type, MessageDataType data) {
@@ -102,9 +109,9 @@ public abstract class Stream<T> {
     /**
      * Handle a message of this stream
      * @param type message type
-     * @param message message data
+     * @param message received message
      */
-    public void onMessage(String type, JsonObject message) {
+    public void onMessage(String type, WebSocketFrame message) {
         switch (type) {
             case "started":
                 this.started = true;
@@ -190,7 +197,7 @@ public abstract class Stream<T> {
         }
     }
 
-    protected abstract void onDataMessage(String type, JsonObject message);
+    protected abstract void onDataMessage(String type, WebSocketFrame message);
 
     protected CompletableFuture<Boolean> shouldBeStarted() {
         if (!this.shouldStart) {
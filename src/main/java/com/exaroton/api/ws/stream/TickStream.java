@@ -1,10 +1,10 @@
 package com.exaroton.api.ws.stream;
 
+import com.exaroton.api.json.WebSocketFrame;
 import com.exaroton.api.ws.WebSocketConnection;
 import com.exaroton.api.ws.data.TickData;
 import com.exaroton.api.ws.subscriber.TickSubscriber;
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -15,10 +15,10 @@ public final class TickStream extends Stream<TickSubscriber> {
     }
 
     @Override
-    protected void onDataMessage(String type, JsonObject message) {
+    protected void onDataMessage(String type, WebSocketFrame message) {
         switch (type) {
             case "tick":
-                TickData tick = gson.fromJson(message.get("data"), TickData.class);
+                TickData tick = message.getData(TickData.class);
 
                 for (TickSubscriber subscriber : getSubscribers()) {
                     subscriber.handleTickData(tick);
@@ -0,0 +1,37 @@
+package com.exaroton.api.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Shuts down HTTP clients. This is the Java 21 version of this class, which stops the selector thread and closes the
+ * connections of the client.
+ */
+public final class HttpClients {
+    private HttpClients() {
+    }
+
+    /**
+     * Shut down an HTTP client and wait until its requests completed. Requests that are still running after the
+     * timeout are aborted.
+     *
+     * @param client  HTTP client
+     * @param timeout maximum time to wait for running requests
+     * @return false if the client was still running after the timeout
+     */
+    public static boolean shutdown(@NotNull HttpClient client, @NotNull Duration timeout) {
+        client.shutdown();
+        try {
+            if (client.awaitTermination(timeout)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        client.shutdownNow();
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package com.exaroton.api.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors that run each task on its own thread. This is the Java 21 version of this class, which uses
+ * virtual threads, so blocking tasks (e.g. decoding a response while it is received) don't occupy platform threads.
+ */
+public final class TaskExecutors {
+    private TaskExecutors() {
+    }
+
+    /**
+     * Create an executor that starts a new virtual thread for each task
+     *
+     * @param prefix prefix of the thread names
+     * @return new executor
+     */
+    public static ExecutorService newTaskExecutor(@NotNull String prefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+    }
+
+    /**
+     * @return whether the executors of this class use virtual threads
+     */
+    public static boolean usesVirtualThreads() {
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+import com.exaroton.api.APIRequest;
+import com.exaroton.api.APIResponse;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.request.server.files.GetFileDataRequest;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpRequest;
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class APIRequestTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+
+    private static HttpRequest build(APIRequest<?> request) throws Exception {
+        URL baseUrl = URI.create("https://api.exaroton.com/v1/").toURL();
+        return request.build(new GsonCodec(new Gson()), HttpRequest.newBuilder(), baseUrl);
+    }
+
+    @Test
+    void testDefaultHeaders() throws Exception {
+        HttpRequest request = build(new HeaderRequest());
+        assertEquals("application/json", request.headers().firstValue("Response-Type").orElseThrow());
+        assertEquals("hello", request.headers().firstValue("X-Custom").orElseThrow());
+    }
+
+    @Test
+    void testOverriddenHeaders() throws Exception {
+        var client = new ExarotonClient("example-api-token");
+        HttpRequest request = build(new GetFileDataRequest(client, new Gson(), SERVER_ID, "a.txt", "text/plain"));
+        assertEquals("text/plain", request.headers().firstValue("Response-Type").orElseThrow());
+
+        // each call returns a new map
+        assertEquals("application/json", build(new HeaderRequest()).headers().firstValue("Response-Type")
+                .orElseThrow());
+    }
+
+    /**
+     * Request that adds a header to the map returned by the default implementation
+     */
+    private static final class HeaderRequest extends APIRequest<Void> {
+        @Override
+        protected String getEndpoint() {
+            return "account/";
+        }
+
+        @Override
+        protected TypeToken<APIResponse<Void>> getType() {
+            return new TypeToken<>() {};
+        }
+
+        @Override
+        protected HashMap<String, String> getHeaders() {
+            HashMap<String, String> map = super.getHeaders();
+            map.put("X-Custom", "hello");
+            return map;
+        }
+    }
+}
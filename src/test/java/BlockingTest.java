@@ -0,0 +1,94 @@
+import com.exaroton.api.APIException;
+import com.exaroton.api.blocking.BlockingExarotonClient;
+import com.exaroton.api.blocking.BlockingServer;
+import com.exaroton.api.server.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockingTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\",\"motd\":\"hello\",\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LocalAPIServer api;
+    private BlockingExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("servers/" + SERVER_ID + "/", SERVER)
+                .respond("servers/" + SERVER_ID + "/playerlists/", "[\"whitelist\",\"ops\"]")
+                .on("servers/" + SERVER_ID + "/options/ram/", exchange -> {
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success("{\"ram\":4}"));
+                })
+                .on("account/", exchange -> LocalAPIServer.send(exchange, 401, LocalAPIServer.error("Invalid token")));
+        client = new BlockingExarotonClient(api.client());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    @Test
+    void testFetch() throws IOException, APIException {
+        BlockingServer server = client.getServer(SERVER_ID);
+        Server fetched = server.fetch();
+        assertSame(server.getServer(), fetched);
+        assertEquals("example", fetched.getName());
+        assertEquals(List.of("whitelist", "ops"), server.getPlayerLists());
+    }
+
+    @Test
+    void testAPIException() {
+        APIException exception = assertThrows(APIException.class, () -> client.getAccount());
+        assertEquals("Invalid token", exception.getMessage());
+    }
+
+    @Test
+    void testInterrupt() throws InterruptedException {
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                client.getServer(SERVER_ID).getRAM();
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        thread.start();
+        thread.interrupt();
+        thread.join(5000);
+
+        assertFalse(thread.isAlive());
+        assertInstanceOf(InterruptedIOException.class, error.get());
+    }
+
+    @Test
+    void testTaskExecutor() throws Exception {
+        ExecutorService executor = BlockingExarotonClient.newTaskExecutor();
+        try {
+            Future<Server> future = executor.submit(() -> client.getServer(SERVER_ID).fetch());
+            assertEquals("example", future.get(5, TimeUnit.SECONDS).getName());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
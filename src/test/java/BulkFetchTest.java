@@ -0,0 +1,129 @@
+import com.exaroton.api.APIException;
+import com.exaroton.api.BulkResult;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.server.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkFetchTest {
+    private static final int SERVERS = 20;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LocalAPIServer api;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer();
+        for (int i = 0; i < SERVERS; i++) {
+            String id = id(i);
+            boolean missing = i % 5 == 4;
+            api.on("servers/" + id + "/", exchange -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                if (missing) {
+                    LocalAPIServer.send(exchange, 404, LocalAPIServer.error("Server not found"));
+                } else {
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success(server(id)));
+                }
+            });
+        }
+        api.on("servers/slowslowslowslow/", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LocalAPIServer.send(exchange, 200, LocalAPIServer.success(server("slowslowslowslow")));
+        });
+        client = api.clientBuilder().setRequestCoalescing(false).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private static String id(int i) {
+        return String.format("server%010d", i);
+    }
+
+    private static String server(String id) {
+        return "{\"id\":\"" + id + "\",\"name\":\"" + id + "\",\"address\":\"example.exaroton.me\",\"motd\":\"hello\","
+                + "\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+    }
+
+    @Test
+    void testFetchServers() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < SERVERS; i++) {
+            ids.add(id(i));
+        }
+        List<BulkResult<String, Server>> streamed = new CopyOnWriteArrayList<>();
+
+        List<BulkResult<String, Server>> results = client.fetchServers(ids, 3, streamed::add).join();
+
+        assertEquals(SERVERS, results.size());
+        assertEquals(SERVERS, streamed.size());
+        assertTrue(maxActive.get() <= 3, "max active " + maxActive.get());
+        for (int i = 0; i < SERVERS; i++) {
+            BulkResult<String, Server> result = results.get(i);
+            assertEquals(id(i), result.getKey());
+            if (i % 5 == 4) {
+                assertFalse(result.isSuccess());
+                assertNull(result.getValue());
+                assertInstanceOf(APIException.class, result.getError());
+            } else {
+                assertTrue(result.isSuccess());
+                assertEquals(id(i), result.getValue().getName());
+            }
+        }
+    }
+
+    @Test
+    void testInvalidId() {
+        List<BulkResult<String, Server>> results = client.fetchServers(List.of("invalid", id(0)), 1).join();
+
+        assertInstanceOf(IllegalArgumentException.class, results.get(0).getError());
+        assertTrue(results.get(1).isSuccess());
+    }
+
+    @Test
+    void testEmpty() {
+        assertTrue(client.fetchServers(List.of(), 1).join().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> client.fetchServers(List.of(id(0)), 0));
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        CompletableFuture<List<BulkResult<String, Server>>> future =
+                client.fetchServers(List.of("slowslowslowslow", id(0), id(1)), 1);
+        Thread.sleep(100);
+        future.cancel(true);
+        release.countDown();
+        Thread.sleep(100);
+
+        assertEquals(1, api.getRequestCount("servers/slowslowslowslow/"));
+        assertEquals(0, api.getRequestCount("servers/" + id(0) + "/"));
+    }
+}
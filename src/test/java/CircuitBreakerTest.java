@@ -0,0 +1,146 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.CircuitBreaker;
+import com.exaroton.api.http.CircuitBreakerOpenException;
+import com.exaroton.api.http.RetryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+
+    private final AtomicInteger status = new AtomicInteger(503);
+    private LocalAPIServer api;
+    private CircuitBreaker breaker;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer().on("account/", exchange -> {
+            int code = status.get();
+            LocalAPIServer.send(exchange, code, code == 200 ? LocalAPIServer.success(ACCOUNT) : LocalAPIServer.error("Unavailable"));
+        });
+        breaker = new CircuitBreaker()
+                .setWindowSize(10)
+                .setMinimumCalls(4)
+                .setOpenDuration(Duration.ofMillis(200))
+                .setHalfOpenCalls(2);
+        client = api.clientBuilder().setCircuitBreaker(breaker).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    private void trip() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(CompletionException.class, () -> client.getAccount().join());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testOpensAfterFailures() throws IOException {
+        trip();
+
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertInstanceOf(CircuitBreakerOpenException.class, rootCause(e));
+        assertEquals(4, api.getRequestCount("account/"));
+        assertTrue(breaker.getRemainingOpenDuration().compareTo(Duration.ZERO) > 0);
+    }
+
+    @Test
+    void testClientErrorsAreNotFailures() throws IOException {
+        status.set(404);
+        for (int i = 0; i < 6; i++) {
+            assertThrows(CompletionException.class, () -> client.getAccount().join());
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0.0, breaker.getFailureRate());
+    }
+
+    @Test
+    void testClosesAfterSuccessfulProbes() throws IOException, InterruptedException {
+        List<CircuitBreaker.State> transitions = new CopyOnWriteArrayList<>();
+        breaker.addStateListener(transitions::add);
+        trip();
+        status.set(200);
+        Thread.sleep(250);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(List.of(CircuitBreaker.State.OPEN, CircuitBreaker.State.HALF_OPEN, CircuitBreaker.State.CLOSED),
+                transitions);
+    }
+
+    @Test
+    void testReopensAfterFailedProbe() throws IOException, InterruptedException {
+        trip();
+        Thread.sleep(250);
+
+        assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(5, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testLimitsProbes() throws InterruptedException {
+        breaker.setMinimumCalls(1);
+        breaker.tryAcquire().onFailure(Duration.ZERO);
+        Thread.sleep(250);
+
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(breaker.tryAcquire());
+
+        second.release();
+        assertNotNull(breaker.tryAcquire());
+    }
+
+    @Test
+    void testOpensAfterSlowCalls() {
+        breaker.setSlowCallDuration(Duration.ofMillis(100)).setSlowCallRateThreshold(0.5);
+        for (int i = 0; i < 4; i++) {
+            breaker.tryAcquire().onSuccess(Duration.ofMillis(i < 2 ? 10 : 150));
+        }
+
+        assertEquals(0.5, breaker.getSlowCallRate());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testOpenBreakerIsNotRetried() throws IOException {
+        client = api.clientBuilder()
+                .setCircuitBreaker(breaker)
+                .setRetryPolicy(new RetryPolicy().setInitialBackoff(Duration.ofMillis(1)))
+                .build();
+        breaker.setMinimumCalls(1);
+
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertInstanceOf(CircuitBreakerOpenException.class, rootCause(e));
+        assertEquals(1, api.getRequestCount("account/"));
+    }
+}
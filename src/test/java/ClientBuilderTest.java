@@ -0,0 +1,174 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.account.Account;
+import com.exaroton.api.http.HttpClientTransport;
+import com.exaroton.api.http.HttpTransport;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientBuilderTest {
+    private LocalAPIServer api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("account/", "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}");
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testLocalStandIn() throws IOException {
+        var executor = Executors.newFixedThreadPool(4);
+        Account account = api.clientBuilder()
+                .setUserAgent("java-exaroton-api-tests")
+                .setConnectTimeout(Duration.ofSeconds(5))
+                .setHttpVersion(HttpClient.Version.HTTP_1_1)
+                .setExecutor(executor)
+                .build()
+                .getAccount()
+                .join();
+        executor.shutdown();
+
+        assertEquals("example", account.getName());
+        assertEquals(1, api.getRequestCount("account/"));
+        var exchange = api.getExchanges().get(0);
+        assertEquals("Bearer local-test-token", exchange.getRequestHeaders().getFirst("Authorization"));
+        assertEquals("java-exaroton-api-tests", exchange.getRequestHeaders().getFirst("User-Agent"));
+    }
+
+    @Test
+    void testBoundedExecutor() throws IOException, InterruptedException {
+        // the body arrives in two parts, so decoding blocks until the HTTP client delivers the second one
+        byte[] body = LocalAPIServer.success("{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        api.on("servers/tgkm731xO7GiHt76/", exchange -> {
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body, 0, 10);
+                out.flush();
+                Thread.sleep(100);
+                out.write(body, 10, body.length - 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        var executor = Executors.newFixedThreadPool(1);
+        try {
+            ExarotonClient client = api.clientBuilder().setExecutor(executor).build();
+            List<CompletableFuture<?>> requests = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                requests.add(client.getServer("tgkm731xO7GiHt76").fetch());
+            }
+            assertDoesNotThrow(() -> CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new))
+                    .get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testSharedHttpClient() throws IOException {
+        var httpClient = HttpClient.newHttpClient();
+        var first = api.clientBuilder().setHttpClient(httpClient).build();
+        var second = api.clientBuilder().setHttpClient(httpClient).setAPIToken("other-token").build();
+
+        first.getAccount().join();
+        second.getAccount().join();
+
+        assertSame(httpClient, ((HttpClientTransport) first.getTransport()).getHttpClient());
+        assertSame(httpClient, ((HttpClientTransport) second.getTransport()).getHttpClient());
+        assertEquals(2, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testCustomTransport() throws IOException {
+        var delegate = new HttpClientTransport(HttpClient.newHttpClient());
+        var requests = new AtomicInteger();
+        var transport = new HttpTransport() {
+            @Override
+            public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+                    @NotNull HttpRequest request,
+                    @NotNull HttpResponse.BodyHandler<T> bodyHandler
+            ) {
+                requests.incrementAndGet();
+                return delegate.sendAsync(request, bodyHandler);
+            }
+
+            @Override
+            public CompletableFuture<WebSocket> connectWebSocket(
+                    @NotNull URI uri,
+                    @NotNull Map<String, String> headers,
+                    @NotNull WebSocket.Listener listener
+            ) {
+                return delegate.connectWebSocket(uri, headers, listener);
+            }
+        };
+
+        var client = api.clientBuilder().setTransport(transport).build();
+        client.getAccount().join();
+
+        assertSame(transport, client.getTransport());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void testLazyConstruction() throws IOException {
+        long selectors = countSelectorThreads();
+        var client = api.client();
+        client.getServer("tgkm731xO7GiHt76");
+
+        // the HTTP client (and its selector thread) is only created for the first request
+        assertTrue(countSelectorThreads() <= selectors);
+        client.getAccount().join();
+        assertSame(client.getTransport(), client.getTransport());
+        assertSame(client.getExecutor(), client.getExecutor());
+
+        // clients without a custom codec share one immutable codec and Gson instance
+        assertSame(client.getJsonCodec(), new ExarotonClient("other-token").getJsonCodec());
+    }
+
+    private static long countSelectorThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().endsWith("SelectorManager"))
+                .count();
+    }
+
+    @Test
+    void testMissingToken() {
+        assertThrows(IllegalStateException.class, () -> ExarotonClient.builder().build());
+    }
+
+    @Test
+    void testInvalidOptions() {
+        var builder = ExarotonClient.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.setHost(""));
+        assertThrows(IllegalArgumentException.class, () -> builder.setPort(70000));
+        assertThrows(IllegalArgumentException.class, () -> builder.setConnectTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.setUserAgent(""));
+    }
+}
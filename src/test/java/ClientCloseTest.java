@@ -0,0 +1,246 @@
+import com.exaroton.api.CloseResult;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.ExarotonClientPool;
+import com.exaroton.api.http.HttpTransport;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.ws.WebSocketConnection;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientCloseTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LocalAPIServer api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("account/", ACCOUNT)
+                .on("servers/" + SERVER_ID + "/", exchange -> {
+                    await();
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success("{\"id\":\"" + SERVER_ID + "\"}"));
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testDrainRequests() throws IOException {
+        ExarotonClient client = api.client();
+        CompletableFuture<Server> server = client.getServer(SERVER_ID).fetch();
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+        CloseResult result = client.close(Duration.ofSeconds(5));
+        assertTrue(result.isClean(), result.toString());
+        assertTrue(result.isTerminated());
+        assertEquals(0, result.getAbortedRequests());
+        assertEquals(SERVER_ID, server.join().getId());
+    }
+
+    @Test
+    void testAbortOutstandingRequests() throws IOException {
+        ExarotonClient client = api.client();
+        CompletableFuture<Server> server = client.getServer(SERVER_ID).fetch();
+
+        CloseResult result = client.close(Duration.ofMillis(100));
+        assertFalse(result.isClean());
+        assertEquals(1, result.getAbortedRequests());
+        assertTrue(server.isCompletedExceptionally());
+    }
+
+    @Test
+    void testRejectRequestsAfterClose() throws IOException {
+        ExarotonClient client = api.client();
+        client.getAccount().join();
+        client.close();
+
+        assertTrue(client.isClosed());
+        assertThrows(IllegalStateException.class, client::getAccount);
+        assertThrows(IllegalStateException.class, () -> client.warmUp(1));
+        assertTrue(((ExecutorService) client.getExecutor()).isTerminated());
+
+        // closing again has nothing left to do
+        assertTrue(client.close(Duration.ZERO).isClean());
+    }
+
+    @Test
+    void testKeepCustomExecutor() throws IOException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            ExarotonClient client = api.clientBuilder().setExecutor(executor).build();
+            client.getAccount().join();
+            assertTrue(client.close(Duration.ofSeconds(1)).isTerminated());
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCloseWebSockets() {
+        StubWebSocket webSocket = new StubWebSocket();
+        ExarotonClient client = api.clientBuilder().setTransport(new WebSocketTransport(webSocket)).build();
+        Server server = client.getServer(SERVER_ID);
+        server.addStatusSubscriber((oldServer, newServer) -> {});
+        WebSocketConnection connection = server.getWebSocket().orElseThrow();
+
+        // the connection never becomes ready, so this message can't be sent
+        CompletableFuture<Void> sent = connection.sendWhenReady("{\"stream\":\"console\",\"type\":\"start\"}");
+        assertEquals(1, connection.getPendingMessages());
+
+        CloseResult result = client.close(Duration.ofMillis(100));
+        assertEquals(1, result.getClosedWebSockets());
+        assertEquals(1, result.getDroppedMessages());
+        assertTrue(connection.isClosed());
+        assertTrue(sent.isCompletedExceptionally());
+        assertTrue(server.getWebSocket().isEmpty());
+        assertEquals(1, webSocket.closes.get());
+
+        // the server closing the connection doesn't schedule a reconnect
+        connection.onClose(webSocket, WebSocket.NORMAL_CLOSURE, "unsubscribe");
+        assertThrows(IllegalStateException.class, () -> client.connectToWebSocket(server, "servers/" + SERVER_ID
+                + "/websocket"));
+    }
+
+    @Test
+    void testUnsubscribedWebSocketsAreReleased() {
+        StubWebSocket webSocket = new StubWebSocket();
+        ExarotonClient client = api.clientBuilder().setTransport(new WebSocketTransport(webSocket)).build();
+        Server server = client.getServer(SERVER_ID);
+        server.addStatusSubscriber((oldServer, newServer) -> {});
+        server.unsubscribe();
+
+        assertEquals(0, client.close(Duration.ofSeconds(1)).getClosedWebSockets());
+        assertEquals(1, webSocket.closes.get());
+    }
+
+    @Test
+    void testClosePool() throws IOException {
+        ExarotonClientPool pool = api.clientBuilder().buildPool();
+        ExarotonClient client = pool.getClient("token-a");
+        client.getAccount().join();
+        CompletableFuture<Server> server = client.getServer(SERVER_ID).fetch();
+        CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+        CloseResult result = pool.close(Duration.ofSeconds(5));
+        assertTrue(result.isClean(), result.toString());
+        assertEquals(SERVER_ID, server.join().getId());
+        assertTrue(client.isClosed());
+        assertEquals(0, pool.size());
+        assertThrows(IllegalStateException.class, () -> pool.getClient("token-b").getAccount());
+    }
+
+    /**
+     * Transport that connects websockets without a server
+     */
+    private static final class WebSocketTransport implements HttpTransport {
+        private final WebSocket webSocket;
+
+        private WebSocketTransport(WebSocket webSocket) {
+            this.webSocket = webSocket;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+                @NotNull HttpRequest request,
+                @NotNull HttpResponse.BodyHandler<T> bodyHandler
+        ) {
+            return CompletableFuture.failedFuture(new IOException("Not connected"));
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> connectWebSocket(
+                @NotNull URI uri,
+                @NotNull Map<String, String> headers,
+                @NotNull WebSocket.Listener listener
+        ) {
+            return CompletableFuture.completedFuture(webSocket);
+        }
+    }
+
+    private static final class StubWebSocket implements WebSocket {
+        private final AtomicInteger closes = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendBinary(ByteBuffer data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPing(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPong(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+            closes.incrementAndGet();
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public String getSubprotocol() {
+            return "";
+        }
+
+        @Override
+        public boolean isOutputClosed() {
+            return false;
+        }
+
+        @Override
+        public boolean isInputClosed() {
+            return false;
+        }
+
+        @Override
+        public void abort() {
+        }
+    }
+}
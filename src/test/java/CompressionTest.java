@@ -0,0 +1,110 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.request.account.GetAccountRequest;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+    private static final String LOG = "[12:00:00] [Server thread/INFO]: Done (1.234s)! For help, type \"help\"\n".repeat(50000);
+
+    private final List<String> acceptEncodings = new CopyOnWriteArrayList<>();
+    private LocalAPIServer api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on("account/", exchange -> sendCompressed(exchange, LocalAPIServer.success(ACCOUNT)))
+                .on("servers/" + SERVER_ID + "/files/data/logs/latest.log", exchange -> sendCompressed(exchange, LOG));
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    /**
+     * Send a response compressed with the first encoding accepted by the request in small chunks
+     */
+    private void sendCompressed(HttpExchange exchange, String body) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        acceptEncodings.add(String.valueOf(accept));
+        String encoding = accept == null ? "identity" : accept.split(",")[0].trim();
+        if (!encoding.equals("identity")) {
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(200, 0);
+
+        try (OutputStream out = exchange.getResponseBody();
+             OutputStream encoded = encoding.equals("gzip") ? new GZIPOutputStream(out, 512)
+                     : encoding.equals("deflate") ? new DeflaterOutputStream(out) : out) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < bytes.length; i += 4096) {
+                encoded.write(bytes, i, Math.min(4096, bytes.length - i));
+                encoded.flush();
+            }
+        }
+    }
+
+    @Test
+    void testCompressedResponse() throws IOException {
+        ExarotonClient client = api.client();
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(List.of("gzip, deflate"), acceptEncodings);
+    }
+
+    @Test
+    void testCompressedDownloadStream() throws IOException {
+        ExarotonClient client = api.client();
+        try (InputStream stream = client.getServer(SERVER_ID).getFile("logs/latest.log").downloadStream().join()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            stream.transferTo(out);
+            assertEquals(LOG, out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testCompressedContent() throws IOException {
+        ExarotonClient client = api.client();
+        assertEquals(LOG, client.getServer(SERVER_ID).getFile("logs/latest.log").getContent().join());
+    }
+
+    @Test
+    void testCustomBodyHandler() throws IOException {
+        ExarotonClient client = api.client();
+        CompletableFuture<HttpHeaders> headers = new CompletableFuture<>();
+        String body = client.request(new GetAccountRequest(), responseInfo -> {
+            headers.complete(responseInfo.headers());
+            return HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        }).join();
+
+        assertEquals(LocalAPIServer.success(ACCOUNT), body);
+        assertEquals(List.of("gzip, deflate"), acceptEncodings);
+        assertTrue(headers.join().firstValue("Content-Encoding").isEmpty());
+        assertTrue(headers.join().firstValue("Content-Length").isEmpty());
+    }
+
+    @Test
+    void testCompressionDisabled() throws IOException {
+        ExarotonClient client = api.clientBuilder().setCompression(false).build();
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(List.of("null"), acceptEncodings);
+    }
+}
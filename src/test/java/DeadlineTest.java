@@ -0,0 +1,205 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.request.account.GetAccountRequest;
+import com.exaroton.api.request.server.GetServerRequest;
+import com.exaroton.api.request.server.files.GetFileDataRequest;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+    private static final String FILE = "servers/" + SERVER_ID + "/files/data/large.bin";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CompletableFuture<IOException> writeError = new CompletableFuture<>();
+    private LocalAPIServer api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on("account/", exchange -> {
+                    await();
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+                })
+                .on(FILE, this::sendLargeFile)
+                .on("servers/" + SERVER_ID + "/", exchange -> {
+                    await();
+                    sendLargeFile(exchange);
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Send the first chunk of a file immediately and the rest once the test releases the server
+     */
+    private void sendLargeFile(HttpExchange exchange) throws IOException {
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        byte[] chunk = new byte[64 * 1024];
+        try {
+            out.write(chunk);
+            out.flush();
+            await();
+            for (int i = 0; i < 1024; i++) {
+                out.write(chunk);
+                out.flush();
+            }
+            out.close();
+            writeError.complete(null);
+        } catch (IOException e) {
+            writeError.complete(e);
+        }
+    }
+
+    private static Throwable rootCause(Throwable throwable) {
+        while (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        return throwable;
+    }
+
+    @Test
+    void testClientDeadline() {
+        ExarotonClient client = api.clientBuilder().setDeadline(Duration.ofMillis(200)).build();
+        long start = System.nanoTime();
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+
+        assertInstanceOf(HttpTimeoutException.class, rootCause(e));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+    }
+
+    @Test
+    void testPerCallDeadline() throws IOException {
+        ExarotonClient client = api.client();
+        var future = client.request(new GetAccountRequest(), Duration.ofMillis(200));
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+
+        assertInstanceOf(HttpTimeoutException.class, rootCause(e));
+    }
+
+    @Test
+    void testRequestTimeout() {
+        ExarotonClient client = api.clientBuilder().setRequestTimeout(Duration.ofMillis(200)).build();
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+
+        assertInstanceOf(HttpTimeoutException.class, rootCause(e));
+    }
+
+    @Test
+    void testDeadlineAbortsStreamingBody() throws IOException {
+        ExarotonClient client = api.client();
+        var request = new GetFileDataRequest(client, new Gson(), SERVER_ID, "large.bin", "octet-stream");
+        InputStream stream = client.request(request, HttpResponse.BodyHandlers.ofInputStream(), Duration.ofMillis(300))
+                .join();
+
+        assertEquals(64 * 1024, stream.readNBytes(64 * 1024).length);
+        assertThrows(IOException.class, () -> stream.readNBytes(1024 * 1024));
+        release.countDown();
+        assertNotNull(writeError.join(), "server should fail to write after the client aborted");
+    }
+
+    @Test
+    void testCancelAbortsDownload() throws IOException {
+        ExarotonClient client = api.client();
+        InputStream stream = client.getServer(SERVER_ID).getFile("large.bin").downloadStream().join();
+        assertEquals(64 * 1024, stream.readNBytes(64 * 1024).length);
+
+        stream.close();
+        release.countDown();
+        assertNotNull(writeError.join(), "server should fail to write after the client closed the stream");
+    }
+
+    @Test
+    void testCancelBeforeResponse() throws IOException {
+        ExarotonClient client = api.client();
+        var request = new GetServerRequest(client, new Gson(), SERVER_ID);
+        var future = client.request(request, HttpResponse.BodyHandlers.ofString());
+        awaitRequest();
+        future.cancel(true);
+        release.countDown();
+
+        assertTrue(future.isCancelled());
+        assertNotNull(writeError.join(), "server should fail to write after the client cancelled the request");
+    }
+
+    @Test
+    void testCancelDataRequestBeforeResponse() throws IOException {
+        ExarotonClient client = api.client();
+        var future = client.getServer(SERVER_ID).fetch();
+        awaitRequest();
+        future.cancel(true);
+        release.countDown();
+
+        assertNotNull(writeError.join(), "server should fail to write after the client cancelled the request");
+        assertEquals(0, client.close(Duration.ZERO).getAbortedRequests());
+    }
+
+    @Test
+    void testCancelCoalescedRequestBeforeResponse() throws IOException {
+        ExarotonClient client = api.clientBuilder().setRequestCoalescing(true).build();
+        var first = client.getServer(SERVER_ID).fetch();
+        var second = client.getServer(SERVER_ID).fetch();
+        awaitRequest();
+        first.cancel(true);
+        second.cancel(true);
+        release.countDown();
+
+        assertNotNull(writeError.join(), "server should fail to write after all callers cancelled the request");
+        assertEquals(0, client.close(Duration.ZERO).getAbortedRequests());
+    }
+
+    /**
+     * Wait until the server received a request, so cancelling it aborts an exchange that is in progress
+     */
+    private void awaitRequest() {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (api.getExchanges().isEmpty() && System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+        assertFalse(api.getExchanges().isEmpty(), "server should have received the request");
+    }
+
+    @Test
+    void testOrTimeoutAbortsRequest() throws IOException {
+        ExarotonClient client = api.client();
+        var request = new GetFileDataRequest(client, new Gson(), SERVER_ID, "large.bin", "octet-stream");
+        var future = client.request(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(bytes -> bytes.length)
+                .orTimeout(300, TimeUnit.MILLISECONDS);
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(TimeoutException.class, rootCause(e));
+        release.countDown();
+        assertNotNull(writeError.join(), "server should fail to write after the client aborted");
+    }
+}
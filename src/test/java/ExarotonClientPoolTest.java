@@ -0,0 +1,115 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.ExarotonClientPool;
+import com.exaroton.api.ResponseCache;
+import com.exaroton.api.http.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExarotonClientPoolTest {
+    private static final Map<String, String> ACCOUNTS = Map.of(
+            "Bearer token-a", "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"a\",\"email\":\"a@example.com\",\"verified\":true,\"credits\":1}",
+            "Bearer token-b", "{\"id\":\"tgkm731xO7GiHt77\",\"name\":\"b\",\"email\":\"b@example.com\",\"verified\":true,\"credits\":2}"
+    );
+
+    private final List<String> tokens = new CopyOnWriteArrayList<>();
+    private LocalAPIServer api;
+    private ExarotonClientPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer().on("account/", exchange -> {
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            tokens.add(authorization);
+            LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNTS.get(authorization)));
+        });
+        pool = api.clientBuilder().buildPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testClientsUseTheirToken() throws IOException {
+        assertEquals("a", pool.getClient("token-a").getAccount().join().getName());
+        assertEquals("b", pool.getClient("token-b").getAccount().join().getName());
+        assertEquals(List.of("Bearer token-a", "Bearer token-b"), tokens);
+    }
+
+    @Test
+    void testClientsShareResources() {
+        ExarotonClient a = pool.getClient("token-a");
+        ExarotonClient b = pool.getClient("token-b");
+
+        assertSame(a, pool.getClient("token-a"));
+        assertNotSame(a, b);
+        assertSame(a.getTransport(), b.getTransport());
+        assertSame(a.getExecutor(), b.getExecutor());
+        assertSame(pool.getRequestScheduler(), a.getRequestScheduler());
+        assertSame(pool.getRequestScheduler(), b.getRequestScheduler());
+        assertEquals(2, pool.size());
+
+        assertTrue(pool.removeClient("token-a"));
+        assertEquals(1, pool.size());
+        assertNotSame(a, pool.getClient("token-a"));
+    }
+
+    @Test
+    void testClientsHaveTheirOwnRateLimiter() throws IOException {
+        ExarotonClientPool pool = api.clientBuilder().setRateLimit(100, 10).buildPool();
+        ExarotonClient a = pool.getClient("token-a");
+        ExarotonClient b = pool.getClient("token-b");
+        assertNotNull(a.getRateLimiter());
+        assertNotNull(b.getRateLimiter());
+        assertNotSame(a.getRateLimiter(), b.getRateLimiter());
+
+        // a rate limited tenant doesn't pause the others
+        a.getRateLimiter().pause(Duration.ofSeconds(10));
+        var account = b.getAccount();
+        assertEquals("b", assertDoesNotThrow(() -> account.get(5, TimeUnit.SECONDS)).getName());
+        assertFalse(a.getAccount().isDone());
+        pool.close(Duration.ZERO);
+    }
+
+    @Test
+    void testRateLimiterIsNotShared() {
+        var builder = api.clientBuilder().setRateLimiter(new RateLimiter(100, 10));
+        assertThrows(IllegalStateException.class, builder::buildPool);
+    }
+
+    @Test
+    void testResponseCacheIsKeyedByToken() throws IOException {
+        ResponseCache cache = new ResponseCache();
+        ExarotonClientPool pool = api.clientBuilder().setResponseCache(cache).buildPool();
+        ExarotonClient a = pool.getClient("token-a");
+        ExarotonClient b = pool.getClient("token-b");
+        assertSame(cache, a.getResponseCache());
+        assertSame(cache, b.getResponseCache());
+
+        assertEquals("a", a.getAccount().join().getName());
+        assertEquals("b", b.getAccount().join().getName());
+        assertEquals("a", a.getAccount().join().getName());
+        assertEquals("b", b.getAccount().join().getName());
+        assertEquals(List.of("Bearer token-a", "Bearer token-b"), tokens);
+        pool.close(Duration.ZERO);
+    }
+
+    @Test
+    void testBuilderIsNotModified() {
+        assertNull(api.clientBuilder().build().getRequestScheduler());
+        var builder = api.clientBuilder();
+        builder.buildPool();
+        assertNull(builder.build().getRequestScheduler());
+    }
+}
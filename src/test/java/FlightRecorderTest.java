@@ -0,0 +1,202 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.HttpTransport;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.ws.WebSocketConnection;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\",\"motd\":\"hello\",\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+
+    private LocalAPIServer api;
+    private Recording recording;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("servers/" + SERVER_ID + "/", SERVER)
+                .on("account/", exchange -> LocalAPIServer.send(exchange, 401, LocalAPIServer.error("Invalid token")));
+        recording = new Recording();
+        recording.enable("com.exaroton.api.Request");
+        recording.enable("com.exaroton.api.WebSocketMessage");
+        recording.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        recording.close();
+        api.close();
+    }
+
+    private List<RecordedEvent> stop(String name) throws IOException {
+        recording.stop();
+        Path file = Files.createTempFile("exaroton-api", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals(name))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testRequestEvents() throws IOException {
+        ExarotonClient client = api.client();
+        client.getServer(SERVER_ID).fetch().join();
+        assertThrows(CompletionException.class, () -> client.getAccount().join());
+
+        List<RecordedEvent> events = stop("com.exaroton.api.Request");
+        assertEquals(2, events.size());
+
+        RecordedEvent server = events.stream()
+                .filter(event -> event.getString("endpoint").equals("servers/{id}/"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("GET", server.getString("method"));
+        assertEquals(200, server.getInt("statusCode"));
+        assertEquals(1, server.getInt("attempts"));
+        assertTrue(server.getLong("responseBytes") > 0);
+        assertNull(server.getString("error"));
+        assertFalse(server.getDuration().isNegative());
+
+        RecordedEvent account = events.stream()
+                .filter(event -> event.getString("endpoint").equals("account/"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(401, account.getInt("statusCode"));
+        assertEquals("com.exaroton.api.APIException", account.getString("error"));
+    }
+
+    @Test
+    void testWebSocketMessageEvents() throws IOException {
+        ExarotonClient client = api.clientBuilder().setTransport(new WebSocketTransport()).build();
+        Server server = client.getServer(SERVER_ID);
+        WebSocketConnection connection = client.connectToWebSocket(server, "servers/" + SERVER_ID + "/websocket");
+        connection.setAutoReconnect(false);
+
+        connection.onText(StubWebSocket.INSTANCE, "{\"type\":\"connected\"}", true);
+        connection.onText(StubWebSocket.INSTANCE, "{\"type\":\"status\",\"stream\":\"status\",\"data\":" + SERVER + "}",
+                true);
+
+        List<RecordedEvent> events = stop("com.exaroton.api.WebSocketMessage");
+        assertEquals(2, events.size());
+
+        RecordedEvent connected = events.get(0);
+        assertEquals(SERVER_ID, connected.getString("server"));
+        assertNull(connected.getString("stream"));
+        assertEquals("connected", connected.getString("messageType"));
+
+        RecordedEvent status = events.get(1);
+        assertEquals("status", status.getString("stream"));
+        assertEquals("status", status.getString("messageType"));
+        assertTrue(status.getLong("length") > SERVER.length());
+        assertTrue(status.getDuration("decodeTime").toNanos() > 0);
+        assertTrue(status.getDuration("fanOutTime").toNanos() > 0);
+        assertEquals("example", server.getName());
+    }
+
+    @Test
+    void testDisabledEvents() throws IOException {
+        recording.disable("com.exaroton.api.Request");
+        api.client().getServer(SERVER_ID).fetch().join();
+        assertTrue(stop("com.exaroton.api.Request").isEmpty());
+    }
+
+    /**
+     * Transport that connects websockets without a server
+     */
+    private static final class WebSocketTransport implements HttpTransport {
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+                @NotNull HttpRequest request,
+                @NotNull HttpResponse.BodyHandler<T> bodyHandler
+        ) {
+            return CompletableFuture.failedFuture(new IOException("Not connected"));
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> connectWebSocket(
+                @NotNull URI uri,
+                @NotNull Map<String, String> headers,
+                @NotNull WebSocket.Listener listener
+        ) {
+            return CompletableFuture.completedFuture(StubWebSocket.INSTANCE);
+        }
+    }
+
+    private static final class StubWebSocket implements WebSocket {
+        private static final StubWebSocket INSTANCE = new StubWebSocket();
+
+        @Override
+        public CompletableFuture<WebSocket> sendText(CharSequence data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendBinary(ByteBuffer data, boolean last) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPing(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendPong(ByteBuffer message) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> sendClose(int statusCode, String reason) {
+            return CompletableFuture.completedFuture(this);
+        }
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public String getSubprotocol() {
+            return "";
+        }
+
+        @Override
+        public boolean isOutputClosed() {
+            return false;
+        }
+
+        @Override
+        public boolean isInputClosed() {
+            return false;
+        }
+
+        @Override
+        public void abort() {
+        }
+    }
+}
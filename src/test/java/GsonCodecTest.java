@@ -0,0 +1,26 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GsonCodecTest extends JsonCodecConformanceTest {
+    private final JsonCodec codec = ExarotonClient.builder().setAPIToken("example-token").build().getJsonCodec();
+
+    @Override
+    protected JsonCodec codec() {
+        return codec;
+    }
+
+    @Test
+    void testDefaultCodec() {
+        assertInstanceOf(GsonCodec.class, codec);
+    }
+
+    @Test
+    void testFrameRequiresObject() {
+        assertThrows(RuntimeException.class, () -> codec.decodeFrame("[]"));
+        assertThrows(RuntimeException.class, () -> codec.decodeFrame("{\"stream\":\"status\"}").getType());
+    }
+}
@@ -0,0 +1,169 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.HedgingPolicy;
+import com.exaroton.api.metrics.RequestSample;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HedgingTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\",\"motd\":\"hello\",\"status\":1,\"host\":null,\"port\":null,\"players\":{\"max\":20,\"count\":0,\"list\":[]},\"software\":null,\"shared\":false}";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger requests = new AtomicInteger();
+    private LocalAPIServer api;
+    private HedgingPolicy policy;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on("servers/" + SERVER_ID + "/", exchange -> {
+                    if (requests.incrementAndGet() == 1) {
+                        await();
+                    }
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success(SERVER));
+                })
+                .on("servers/" + SERVER_ID + "/options/motd/", exchange -> {
+                    if (requests.incrementAndGet() == 1) {
+                        await();
+                    }
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success("{\"motd\":\"hello\"}"));
+                })
+                .on("servers/" + SERVER_ID + "/files/data/backup.zip", exchange -> {
+                    if (requests.incrementAndGet() == 1) {
+                        await();
+                    }
+                    LocalAPIServer.send(exchange, 200, "backup");
+                })
+                .on("account/", exchange -> {
+                    if (requests.incrementAndGet() > 1) {
+                        LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+                        return;
+                    }
+
+                    // the first attempt receives its headers and part of its body, but never completes
+                    exchange.sendResponseHeaders(200, 0);
+                    OutputStream out = exchange.getResponseBody();
+                    out.write(" ".repeat(4096).getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                    await();
+                });
+        policy = new HedgingPolicy().setInitialDelay(Duration.ofMillis(50));
+        client = api.clientBuilder().setHedgingPolicy(policy).setRequestCoalescing(false).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testSlowRequestIsHedged() throws IOException {
+        long start = System.nanoTime();
+        var server = client.getServer(SERVER_ID).fetch().join();
+
+        assertEquals("example", server.getName());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5000);
+        assertEquals(2, requests.get());
+        assertEquals(1, policy.getHedgeCount());
+    }
+
+    @Test
+    void testOnlyWinningAttemptIsMeasured() throws IOException {
+        List<RequestSample> samples = new CopyOnWriteArrayList<>();
+        ExarotonClient client = api.clientBuilder()
+                .setHedgingPolicy(policy)
+                .setRequestMetrics(samples::add)
+                .build();
+
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(2, requests.get());
+        assertEquals(1, samples.size());
+        RequestSample sample = samples.get(0);
+        assertEquals(200, sample.getStatusCode());
+        assertEquals(1, sample.getAttempts());
+        assertEquals(1, sample.getHedges());
+        assertEquals(LocalAPIServer.success(ACCOUNT).length(), sample.getResponseBytes());
+    }
+
+    @Test
+    void testFastRequestIsNotHedged() throws IOException, InterruptedException {
+        release.countDown();
+        client.getServer(SERVER_ID).fetch().join();
+        Thread.sleep(100);
+
+        assertEquals(1, requests.get());
+        assertEquals(0, policy.getHedgeCount());
+    }
+
+    @Test
+    void testBudgetLimitsHedges() throws IOException {
+        policy.setBudget(0, 1);
+        assertTrue(policy.tryAcquireHedge());
+
+        var future = client.getServer(SERVER_ID).fetch();
+        assertThrows(Exception.class, () -> future.get(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, requests.get());
+
+        release.countDown();
+        assertEquals("example", future.join().getName());
+    }
+
+    @Test
+    void testWritesAreNotHedged() throws IOException {
+        var future = client.getServer(SERVER_ID).setMotd("hello");
+        assertThrows(Exception.class, () -> future.get(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, requests.get());
+
+        release.countDown();
+        future.join();
+    }
+
+    @Test
+    void testDownloadsAreNotHedged() throws IOException {
+        var future = client.getServer(SERVER_ID).getFile("backup.zip").getContent();
+        assertThrows(Exception.class, () -> future.get(300, TimeUnit.MILLISECONDS));
+        assertEquals(1, requests.get());
+        assertEquals(0, policy.getHedgeCount());
+
+        release.countDown();
+        assertEquals("backup", future.join());
+    }
+
+    @Test
+    void testPercentileDelay() {
+        policy.setMinSamples(20).setMinDelay(Duration.ZERO);
+        for (int i = 1; i <= 20; i++) {
+            policy.recordLatency("servers/{id}/", Duration.ofMillis(i));
+        }
+
+        assertEquals(Duration.ofMillis(19), policy.getDelay("servers/{id}/"));
+        assertEquals(Duration.ofMillis(50), policy.getDelay("account/"));
+
+        policy.setMinDelay(Duration.ofMillis(30));
+        assertEquals(Duration.ofMillis(30), policy.getDelay("servers/{id}/"));
+    }
+}
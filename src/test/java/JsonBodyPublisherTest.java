@@ -0,0 +1,96 @@
+import com.exaroton.api.util.JsonBodyPublisher;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonBodyPublisherTest {
+    private final Gson gson = new Gson();
+
+    @Test
+    void testObjectBody() {
+        Map<String, Object> body = Map.of("entries", List.of("Steve", "Alex"));
+        assertBody(gson.toJson(body), JsonBodyPublisher.of(gson, body));
+    }
+
+    @Test
+    void testWriterBody() {
+        var publisher = JsonBodyPublisher.of(gson, out -> out.beginObject()
+                .name("command").value("say <hello> w\u00f6rld \ud83d\ude00")
+                .endObject());
+        assertBody(gson.toJson(Map.of("command", "say <hello> w\u00f6rld \ud83d\ude00")), publisher);
+    }
+
+    @Test
+    void testNullBody() {
+        assertBody("null", JsonBodyPublisher.of(gson, (Object) null));
+    }
+
+    @Test
+    void testLargeBody() {
+        var entries = new String[100_000];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = "player-\u00e4-" + i;
+        }
+        assertBody(gson.toJson(Map.of("entries", entries)), JsonBodyPublisher.of(gson, Map.of("entries", entries)));
+
+        // the buffer is reused for the next body
+        assertBody("{\"ram\":4}", JsonBodyPublisher.of(gson, out -> out.beginObject().name("ram").value(4).endObject()));
+    }
+
+    @Test
+    void testBodyCanBeSentTwice() {
+        var publisher = JsonBodyPublisher.of(gson, Map.of("motd", "hello"));
+        assertBody("{\"motd\":\"hello\"}", publisher);
+        assertBody("{\"motd\":\"hello\"}", publisher);
+    }
+
+    @Test
+    void testIncompleteBody() {
+        assertThrows(RuntimeException.class, () -> JsonBodyPublisher.of(gson, out -> out.beginObject()));
+        assertBody("true", JsonBodyPublisher.of(gson, out -> out.value(true)));
+    }
+
+    private void assertBody(String expected, HttpRequest.BodyPublisher publisher) {
+        byte[] expectedBytes = expected.getBytes(StandardCharsets.UTF_8);
+        assertEquals(expectedBytes.length, publisher.contentLength());
+
+        var output = new ByteArrayOutputStream();
+        var done = new CompletableFuture<Void>();
+        publisher.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                output.writeBytes(bytes);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        done.join();
+
+        assertEquals(expected, output.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,226 @@
+import com.exaroton.api.APIResponse;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.json.WebSocketFrame;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerStatus;
+import com.exaroton.api.server.config.ConfigOption;
+import com.exaroton.api.ws.data.StatsData;
+import com.exaroton.api.ws.data.StreamData;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour that every {@link JsonCodec} must provide for the client to work. Implementations are tested by extending
+ * this class.
+ */
+public abstract class JsonCodecConformanceTest {
+    private static final Type SERVERS = new TypeToken<APIResponse<List<Server>>>() {}.getType();
+    private static final Type SERVER_RESPONSE = new TypeToken<APIResponse<Server>>() {}.getType();
+    private static final Type CONFIG_OPTIONS = new TypeToken<APIResponse<List<ConfigOption<?>>>>() {}.getType();
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\","
+            + "\"motd\":\"hello\",\"status\":1,\"host\":\"host.exaroton.me\",\"port\":25565,"
+            + "\"players\":{\"max\":20,\"count\":2,\"list\":[\"Steve\",\"Alex\"]},"
+            + "\"software\":{\"id\":\"zBsBb8TfEm8oJBgJ\",\"name\":\"Vanilla\",\"version\":\"1.21.1\"},\"shared\":true}";
+
+    /**
+     * @return codec under test
+     */
+    protected abstract JsonCodec codec();
+
+    @Test
+    void testDecodeListEnvelope() throws IOException {
+        APIResponse<List<Server>> response = codec().decode(new StringReader(
+                "{\"success\":true,\"error\":null,\"data\":[" + SERVER + "," + SERVER + "]}"), SERVERS);
+        assertNotNull(response);
+        assertTrue(response.isSuccess());
+        assertNull(response.getError());
+        assertEquals(2, response.getData().size());
+
+        Server server = response.getData().get(0);
+        assertEquals("tgkm731xO7GiHt76", server.getId());
+        assertEquals("example", server.getName());
+        assertEquals(ServerStatus.ONLINE, server.getStatus());
+        assertEquals(Integer.valueOf(25565), server.getPort().orElseThrow());
+        assertEquals(Set.of("Steve", "Alex"), server.getPlayerInfo().getList());
+        assertEquals("Vanilla", server.getSoftware().getName());
+    }
+
+    @Test
+    void testDecodeErrorEnvelope() {
+        APIResponse<Server> response = codec().decode("{\"success\":false,\"error\":\"Server not found\",\"data\":null}",
+                SERVER_RESPONSE);
+        assertNotNull(response);
+        assertFalse(response.isSuccess());
+        assertEquals("Server not found", response.getError());
+        assertNull(response.getData());
+    }
+
+    @Test
+    void testUnknownFieldsAndNulls() {
+        APIResponse<Server> response = codec().decode("{\"success\":true,\"unknown\":[1,{\"a\":null}],\"data\":"
+                + "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"status\":0,\"host\":null,\"port\":null,"
+                + "\"software\":null,\"nested\":{\"deep\":[[]]}}}", SERVER_RESPONSE);
+        assertNotNull(response);
+        Server server = response.getData();
+        assertEquals("example", server.getName());
+        assertEquals(ServerStatus.OFFLINE, server.getStatus());
+        assertTrue(server.getHost().isEmpty());
+        assertTrue(server.getPort().isEmpty());
+        assertNull(server.getSoftware());
+    }
+
+    @Test
+    void testUnicode() {
+        APIResponse<Server> response = codec().decode("{\"success\":true,\"data\":{\"id\":\"tgkm731xO7GiHt76\","
+                + "\"name\":\"caf\\u00e9 \\ud83d\\ude00\",\"motd\":\"\u00a7a\u00fcber \ud83c\udf89\"}}", SERVER_RESPONSE);
+        assertNotNull(response);
+        assertEquals("caf\u00e9 \ud83d\ude00", response.getData().getName());
+        assertEquals("\u00a7a\u00fcber \ud83c\udf89", response.getData().getMotd());
+
+        String encoded = codec().encode(List.of("\u00e9\ud83d\ude00\"\\"), List.class);
+        assertEquals(List.of("\u00e9\ud83d\ude00\"\\"), codec().decode(encoded, new TypeToken<List<String>>() {}.getType()));
+    }
+
+    @Test
+    void testDecodeConfigOptions() {
+        APIResponse<List<ConfigOption<?>>> response = codec().decode("{\"success\":true,\"data\":["
+                + "{\"key\":\"max-players\",\"label\":\"Max Players\",\"type\":\"integer\",\"value\":10,\"options\":null},"
+                + "{\"key\":\"pvp\",\"label\":\"PvP\",\"type\":\"boolean\",\"value\":true,\"options\":null}]}",
+                CONFIG_OPTIONS);
+        assertNotNull(response);
+        assertEquals(2, response.getData().size());
+        assertEquals("max-players", response.getData().get(0).getKey());
+        assertEquals(10L, response.getData().get(0).getValue());
+        assertEquals(true, response.getData().get(1).getValue());
+    }
+
+    @Test
+    void testDecodeEmptyInput() throws IOException {
+        assertNull(codec().decode(new StringReader(""), SERVERS));
+    }
+
+    @Test
+    void testEncodeMap() throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("max-players", 20);
+        body.put("motd", "hello \"world\"");
+        body.put("pvp", false);
+        body.put("ops", List.of("Steve", "Alex"));
+
+        StringWriter writer = new StringWriter();
+        codec().encode(body, body.getClass(), writer);
+
+        JsonObject expected = new JsonObject();
+        expected.addProperty("max-players", 20);
+        expected.addProperty("motd", "hello \"world\"");
+        expected.addProperty("pvp", false);
+        JsonArray ops = new JsonArray();
+        ops.add("Steve");
+        ops.add("Alex");
+        expected.add("ops", ops);
+        assertEquals(expected, JsonParser.parseString(writer.toString()));
+    }
+
+    @Test
+    void testEncodeNull() {
+        assertEquals(JsonParser.parseString("null"), JsonParser.parseString(codec().encode(null, Object.class)));
+    }
+
+    @Test
+    void testEncodeStreamData() {
+        JsonObject params = new JsonObject();
+        params.addProperty("player", "Steve");
+        String encoded = codec().encode(new StreamData<>("management", "request", params), StreamData.class);
+
+        JsonObject message = JsonParser.parseString(encoded).getAsJsonObject();
+        assertEquals("management", message.get("stream").getAsString());
+        assertEquals("request", message.get("type").getAsString());
+        assertEquals(params, message.get("data"));
+
+        JsonObject start = JsonParser.parseString(codec().encode(new StreamData<>("console", "start", null),
+                StreamData.class)).getAsJsonObject();
+        assertEquals("start", start.get("type").getAsString());
+        assertTrue(!start.has("data") || start.get("data").isJsonNull());
+    }
+
+    @Test
+    void testJsonElements() {
+        JsonElement element = codec().decode("{\"a\":[1,2.5,\"b\",null,true]}", JsonElement.class);
+        assertEquals(JsonParser.parseString("{\"a\":[1,2.5,\"b\",null,true]}"), element);
+        assertEquals(element, JsonParser.parseString(codec().encode(element, JsonElement.class)));
+    }
+
+    @Test
+    void testStatusFrame() {
+        WebSocketFrame frame = codec().decodeFrame("{\"type\":\"status\",\"stream\":\"status\",\"data\":" + SERVER + "}");
+        assertEquals("status", frame.getType());
+        assertEquals("status", frame.getStream());
+
+        Server server = frame.getData(Server.class);
+        assertNotNull(server);
+        assertEquals("example", server.getName());
+        assertEquals(ServerStatus.ONLINE, server.getStatus());
+    }
+
+    @Test
+    void testConsoleFrame() {
+        WebSocketFrame frame = codec().decodeFrame("{\"stream\":\"console\",\"type\":\"line\","
+                + "\"data\":\"[12:00:00] [Server thread/INFO]: Done \\u00e9\"}");
+        assertEquals("line", frame.getType());
+        assertEquals("console", frame.getStream());
+        assertEquals("[12:00:00] [Server thread/INFO]: Done \u00e9", frame.getData(String.class));
+    }
+
+    @Test
+    void testStatsFrame() {
+        WebSocketFrame frame = codec().decodeFrame("{\"type\":\"stats\",\"stream\":\"stats\","
+                + "\"data\":{\"memory\":{\"percent\":42.5,\"usage\":1073741824}}}");
+        StatsData stats = frame.getData(StatsData.class);
+        assertNotNull(stats);
+        assertEquals(42.5, stats.getMemory().getPercent(), 0.0);
+        assertEquals(1073741824L, stats.getMemory().getUsage());
+    }
+
+    @Test
+    void testManagementFrame() {
+        WebSocketFrame frame = codec().decodeFrame("{\"type\":\"response\",\"stream\":\"management\","
+                + "\"data\":{\"id\":\"2f8a6f5e-4b3c-4d2e-9f1a-0b1c2d3e4f50\",\"data\":[{\"name\":\"Steve\"}]}}");
+        JsonObject data = frame.getData(JsonObject.class);
+        assertNotNull(data);
+        assertEquals("2f8a6f5e-4b3c-4d2e-9f1a-0b1c2d3e4f50", data.get("id").getAsString());
+        assertEquals(JsonParser.parseString("[{\"name\":\"Steve\"}]"), data.get("data"));
+    }
+
+    @Test
+    void testFrameWithoutStreamOrData() {
+        WebSocketFrame frame = codec().decodeFrame("{\"type\":\"ready\"}");
+        assertEquals("ready", frame.getType());
+        assertNull(frame.getStream());
+        assertNull(frame.getData(Server.class));
+
+        WebSocketFrame keepAlive = codec().decodeFrame("{\"type\":\"keep-alive\",\"stream\":null,\"data\":null}");
+        assertNull(keepAlive.getStream());
+        assertNull(keepAlive.getData(String.class));
+    }
+
+    @Test
+    void testMalformedInput() {
+        assertThrows(RuntimeException.class, () -> codec().decodeFrame("{\"type\":"));
+        assertThrows(RuntimeException.class, () -> codec().decode("{\"success\":tru", SERVERS));
+    }
+}
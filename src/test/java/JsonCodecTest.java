@@ -0,0 +1,233 @@
+import com.exaroton.api.APIRequest;
+import com.exaroton.api.APIResponse;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.HttpClientTransport;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.json.WebSocketFrame;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerStatus;
+import com.exaroton.api.ws.WebSocketConnection;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.WebSocket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the client uses the configured codec for requests, responses and websocket messages
+ */
+public class JsonCodecTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\","
+            + "\"motd\":\"hello\",\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final CountingCodec codec = new CountingCodec();
+    private LocalAPIServer api;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("servers/", "[" + SERVER + "," + SERVER.replace("example\",\"address", "other\",\"address")
+                        + "]")
+                .respond("servers/" + SERVER_ID + "/", SERVER)
+                .on("servers/" + SERVER_ID + "/body/", exchange -> {
+                    bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success("null"));
+                });
+        client = api.clientBuilder()
+                .setJsonCodec(codec)
+                .setTransport(new WebSocketTransport())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testGetJsonCodec() {
+        assertSame(codec, client.getJsonCodec());
+        assertThrows(NullPointerException.class, () -> ExarotonClient.builder().setJsonCodec(null));
+    }
+
+    @Test
+    void testDecodeResponse() throws IOException {
+        Server server = client.getServer(SERVER_ID).fetch().join();
+        assertEquals("example", server.getName());
+        assertEquals(1, codec.decoded.get());
+
+        // decoded objects are initialized with the client
+        server.fetch(true).join();
+        assertEquals(2, codec.decoded.get());
+    }
+
+    @Test
+    void testEncodeRequestBody() throws IOException {
+        client.request(new BodyRequest()).join();
+        assertEquals(1, codec.encoded.get());
+        assertEquals(JsonParser.parseString("{\"motd\":\"hello\"}"), JsonParser.parseString(bodies.get(0)));
+    }
+
+    @Test
+    void testRequestList() throws InterruptedException {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        List<Server> servers = new CopyOnWriteArrayList<>();
+        AtomicInteger requested = new AtomicInteger();
+        client.streamServers().subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                requested.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Server item) {
+                servers.add(item);
+                requested.incrementAndGet();
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completion.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                completion.complete(null);
+            }
+        });
+
+        completion.orTimeout(5, TimeUnit.SECONDS).join();
+        assertEquals(List.of("example", "other"), List.of(servers.get(0).getName(), servers.get(1).getName()));
+        assertEquals(3, requested.get());
+        assertEquals(1, codec.decoded.get());
+    }
+
+    @Test
+    void testWebSocketFrames() {
+        Server server = client.getServer(SERVER_ID);
+        WebSocketConnection connection = client.connectToWebSocket(server, "servers/" + SERVER_ID + "/websocket");
+        connection.setAutoReconnect(false);
+        assertSame(codec, connection.getJsonCodec());
+
+        WebSocket webSocket = stubWebSocket();
+        connection.onText(webSocket, "{\"type\":\"connected\"}", true);
+        connection.onText(webSocket, "{\"type\":\"status\",\"stream\":\"status\",\"data\":"
+                + SERVER.replace("\"status\":0", "\"status\":1") + "}", true);
+
+        assertEquals(2, codec.frames.get());
+        assertEquals(ServerStatus.ONLINE, server.getStatus());
+        assertEquals("example", server.getName());
+    }
+
+    private static WebSocket stubWebSocket() {
+        return (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[]{WebSocket.class},
+                (proxy, method, args) -> {
+                    if (method.getReturnType() == CompletableFuture.class) {
+                        return CompletableFuture.completedFuture(proxy);
+                    }
+                    if (method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    return method.getReturnType() == String.class ? "" : null;
+                });
+    }
+
+    /**
+     * Codec that counts its calls and delegates to the default codec
+     */
+    private static final class CountingCodec implements JsonCodec {
+        private final JsonCodec delegate = ExarotonClient.builder().setAPIToken("example-token").build()
+                .getJsonCodec();
+        private final AtomicInteger decoded = new AtomicInteger();
+        private final AtomicInteger encoded = new AtomicInteger();
+        private final AtomicInteger frames = new AtomicInteger();
+
+        @Override
+        public <T> @Nullable T decode(@NotNull Reader reader, @NotNull Type type) throws IOException {
+            decoded.incrementAndGet();
+            return delegate.decode(reader, type);
+        }
+
+        @Override
+        public void encode(@Nullable Object value, @NotNull Type type, @NotNull Writer writer) throws IOException {
+            encoded.incrementAndGet();
+            delegate.encode(value, type, writer);
+        }
+
+        @Override
+        public @NotNull WebSocketFrame decodeFrame(@NotNull String text) {
+            frames.incrementAndGet();
+            return delegate.decodeFrame(text);
+        }
+    }
+
+    /**
+     * Transport that sends requests with an HTTP client and connects websockets without a server
+     */
+    private static final class WebSocketTransport extends HttpClientTransport {
+        private WebSocketTransport() {
+            super(HttpClient.newHttpClient());
+        }
+
+        @Override
+        public CompletableFuture<WebSocket> connectWebSocket(
+                @NotNull URI uri,
+                @NotNull Map<String, String> headers,
+                @NotNull WebSocket.Listener listener
+        ) {
+            return CompletableFuture.completedFuture(stubWebSocket());
+        }
+    }
+
+    private static final class BodyRequest extends APIRequest<Void> {
+        @Override
+        protected String getEndpoint() {
+            return "servers/" + SERVER_ID + "/body/";
+        }
+
+        @Override
+        protected TypeToken<APIResponse<Void>> getType() {
+            return new TypeToken<>() {};
+        }
+
+        @Override
+        protected String getMethod() {
+            return "POST";
+        }
+
+        @Override
+        protected HttpRequest.BodyPublisher getBodyPublisher(JsonCodec codec, HttpRequest.Builder builder) {
+            return jsonBodyPublisher(codec, builder, Map.of("motd", "hello"));
+        }
+    }
+}
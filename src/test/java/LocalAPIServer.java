@@ -0,0 +1,135 @@
+import com.exaroton.api.ExarotonClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the exaroton API used by tests that don't need a real API token
+ */
+public class LocalAPIServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final List<HttpExchange> exchanges = new CopyOnWriteArrayList<>();
+
+    public LocalAPIServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Respond to all requests for a path
+     * @param path request path without the base path (e.g. account/)
+     * @param handler request handler
+     * @return this server
+     */
+    public LocalAPIServer on(String path, Handler handler) {
+        handlers.put("/v1/" + path, handler);
+        return this;
+    }
+
+    /**
+     * Respond with a successful API response
+     * @param path request path without the base path
+     * @param data JSON data
+     * @return this server
+     */
+    public LocalAPIServer respond(String path, String data) {
+        return on(path, exchange -> send(exchange, 200, success(data)));
+    }
+
+    /**
+     * @param path request path without the base path
+     * @return number of requests to this path
+     */
+    public int getRequestCount(String path) {
+        AtomicInteger count = requestCounts.get("/v1/" + path);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return all received requests
+     */
+    public List<HttpExchange> getExchanges() {
+        return exchanges;
+    }
+
+    /**
+     * @return client builder configured to use this server
+     */
+    public ExarotonClient.Builder clientBuilder() {
+        return ExarotonClient.builder()
+                .setAPIToken("local-test-token")
+                .setSecure(false)
+                .setHost(server.getAddress().getHostString())
+                .setPort(server.getAddress().getPort());
+    }
+
+    /**
+     * @return client configured to use this server
+     */
+    public ExarotonClient client() {
+        return clientBuilder().build();
+    }
+
+    public static String success(String data) {
+        return "{\"success\":true,\"error\":null,\"data\":" + data + "}";
+    }
+
+    public static String error(String message) {
+        return "{\"success\":false,\"error\":\"" + message + "\",\"data\":null}";
+    }
+
+    public static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        exchanges.add(exchange);
+        requestCounts.computeIfAbsent(path, x -> new AtomicInteger()).incrementAndGet();
+        Handler handler = handlers.get(path);
+        try {
+            if (handler == null) {
+                send(exchange, 404, error("Not found"));
+            } else {
+                handler.handle(exchange);
+            }
+        } catch (IOException | RuntimeException e) {
+            send(exchange, 500, error(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    public interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+}
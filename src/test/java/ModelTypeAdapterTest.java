@@ -0,0 +1,113 @@
+import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.billing.pools.CreditPoolMember;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerFile;
+import com.exaroton.api.util.ModelTypeAdapterFactory;
+import com.exaroton.api.ws.data.StatsData;
+import com.exaroton.api.ws.data.TickData;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the hand-written adapters decode the same objects as Gson's reflective binding
+ */
+public class ModelTypeAdapterTest {
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\","
+            + "\"motd\":\"hello\",\"status\":1,\"host\":\"host.exaroton.me\",\"port\":25565,"
+            + "\"players\":{\"max\":20,\"count\":2,\"list\":[\"Steve\",\"Alex\"]},"
+            + "\"software\":{\"id\":\"zBsBb8TfEm8oJBgJ\",\"name\":\"Vanilla\",\"version\":\"1.21.1\"},"
+            + "\"shared\":true,\"unknown\":{\"nested\":[1,2,3]}}";
+    private static final String FILE = "{\"path\":\"world\",\"name\":\"world\",\"isTextFile\":false,"
+            + "\"isConfigFile\":false,\"isDirectory\":true,\"isLog\":false,\"isReadable\":true,\"isWritable\":true,"
+            + "\"size\":4096,\"children\":[{\"path\":\"world/level.dat\",\"name\":\"level.dat\",\"isTextFile\":false,"
+            + "\"isConfigFile\":false,\"isDirectory\":false,\"isLog\":false,\"isReadable\":true,\"isWritable\":true,"
+            + "\"size\":1234,\"children\":[]}]}";
+    private static final String POOL = "{\"id\":\"N2t9gWOMpzRL37FI\",\"name\":\"Example Pool\",\"credits\":100.5,"
+            + "\"servers\":2,\"owner\":\"owner\",\"isOwner\":true,\"members\":3,\"ownShare\":0.5,\"ownCredits\":50.25}";
+    private static final String MEMBER = "{\"account\":\"account\",\"name\":\"Member\",\"share\":0.25,"
+            + "\"credits\":25.5,\"isOwner\":false}";
+
+    private final Gson reflective = new Gson();
+    private final Gson streaming = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .create();
+
+    private <T> void assertConforms(String json, Class<T> type) {
+        T expected = reflective.fromJson(json, type);
+        T actual = streaming.fromJson(json, type);
+        assertEquals(reflective.toJsonTree(expected), reflective.toJsonTree(actual));
+    }
+
+    private <T> void assertRoundTrip(String json, Class<T> type) {
+        JsonElement expected = reflective.toJsonTree(reflective.fromJson(json, type));
+        JsonElement written = JsonParser.parseString(streaming.toJson(streaming.fromJson(json, type)));
+        assertEquals(expected, reflective.toJsonTree(reflective.fromJson(written, type)));
+    }
+
+    @Test
+    void testServer() {
+        assertConforms(SERVER, Server.class);
+        assertConforms("{\"id\":\"tgkm731xO7GiHt76\",\"status\":null,\"port\":null,\"players\":null,"
+                + "\"software\":null}", Server.class);
+        assertConforms("{\"status\":\"2\",\"port\":\"25565\",\"shared\":\"true\",\"players\":{\"list\":null}}",
+                Server.class);
+        assertRoundTrip(SERVER, Server.class);
+
+        Server server = streaming.fromJson(SERVER, Server.class);
+        assertEquals("example", server.getName());
+        assertEquals(2, server.getPlayerInfo().getCount());
+        assertEquals("Vanilla", server.getSoftware().getName());
+    }
+
+    @Test
+    void testServerFile() {
+        assertConforms(FILE, ServerFile.class);
+        assertConforms("{\"path\":\"world\",\"children\":null}", ServerFile.class);
+        assertRoundTrip(FILE, ServerFile.class);
+
+        ServerFile file = streaming.fromJson(FILE, ServerFile.class);
+        assertEquals(1, file.getChildren().size());
+        assertEquals("level.dat", file.getChildren().iterator().next().getName());
+    }
+
+    @Test
+    void testCreditPool() {
+        assertConforms(POOL, CreditPool.class);
+        assertConforms("{\"credits\":null,\"isOwner\":null}", CreditPool.class);
+        assertRoundTrip(POOL, CreditPool.class);
+        assertEquals("N2t9gWOMpzRL37FI", streaming.fromJson(POOL, CreditPool.class).getId());
+    }
+
+    @Test
+    void testCreditPoolMember() {
+        assertConforms(MEMBER, CreditPoolMember.class);
+        assertRoundTrip(MEMBER, CreditPoolMember.class);
+    }
+
+    @Test
+    void testStreamData() {
+        assertConforms("{\"memory\":{\"percent\":42.5,\"usage\":2147483648}}", StatsData.class);
+        assertConforms("{\"memory\":null}", StatsData.class);
+        assertRoundTrip("{\"memory\":{\"percent\":42.5,\"usage\":2147483648}}", StatsData.class);
+        assertConforms("{\"averageTickTime\":62.5}", TickData.class);
+        assertRoundTrip("{\"averageTickTime\":62.5}", TickData.class);
+        assertEquals(16.0, streaming.fromJson("{\"averageTickTime\":62.5}", TickData.class).calculateTPS(), 0.0);
+    }
+
+    @Test
+    void testNull() {
+        assertNull(streaming.fromJson("null", Server.class));
+        assertEquals("null", streaming.toJson(null, Server.class));
+    }
+
+    @Test
+    void testInvalidNumber() {
+        assertThrows(JsonSyntaxException.class, () -> streaming.fromJson("{\"status\":\"online\"}", Server.class));
+    }
+}
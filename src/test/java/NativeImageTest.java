@@ -0,0 +1,210 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.billing.pools.CreditPool;
+import com.exaroton.api.json.GsonCodec;
+import com.exaroton.api.json.JsonCodec;
+import com.exaroton.api.json.WebSocketFrame;
+import com.exaroton.api.server.Server;
+import com.exaroton.api.server.ServerFile;
+import com.exaroton.api.server.config.ConfigOption;
+import com.exaroton.api.util.ConfigOptionTypeAdapterFactory;
+import com.exaroton.api.util.ModelTypeAdapterFactory;
+import com.exaroton.api.util.VoidTypeAdapter;
+import com.exaroton.api.ws.data.HeapUsage;
+import com.exaroton.api.ws.data.MemoryUsage;
+import com.exaroton.api.ws.data.StatsData;
+import com.exaroton.api.ws.data.StreamData;
+import com.exaroton.api.ws.data.TickData;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.ReflectionAccessFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke test for native images. The client runs against a local stand-in with a Gson instance that refuses to bind
+ * any class of this library with reflection unless the class is registered in the reflection metadata that ships in
+ * META-INF/native-image.
+ */
+public class NativeImageTest {
+    private static final String METADATA = "META-INF/native-image/com.exaroton/api/reflect-config.json";
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String POOL_ID = "N2t9gWOMpzRL37FI";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\","
+            + "\"motd\":\"hello\",\"status\":1,\"host\":\"host.exaroton.me\",\"port\":25565,"
+            + "\"players\":{\"max\":20,\"count\":1,\"list\":[\"Steve\"]},"
+            + "\"software\":{\"id\":\"zBsBb8TfEm8oJBgJ\",\"name\":\"Vanilla\",\"version\":\"1.21.1\"},\"shared\":false}";
+    private static final String POOL = "{\"id\":\"N2t9gWOMpzRL37FI\",\"name\":\"Example Pool\",\"credits\":100.5,"
+            + "\"servers\":1,\"owner\":\"owner\",\"isOwner\":true,\"members\":1,\"ownShare\":1,\"ownCredits\":100.5}";
+
+    private final Set<String> registered = new HashSet<>();
+    private LocalAPIServer api;
+    private JsonCodec codec;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = NativeImageTest.class.getClassLoader().getResourceAsStream(METADATA)) {
+            assertNotNull(in, "Missing " + METADATA);
+            for (JsonElement entry : JsonParser.parseReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    .getAsJsonArray()) {
+                registered.add(entry.getAsJsonObject().get("name").getAsString());
+            }
+        }
+
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new ConfigOptionTypeAdapterFactory())
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+                .registerTypeAdapter(Void.class, new VoidTypeAdapter())
+                .addReflectionAccessFilter(type -> {
+                    if (!type.getName().startsWith("com.exaroton.")) {
+                        return ReflectionAccessFilter.FilterResult.INDECISIVE;
+                    }
+                    return registered.contains(type.getName())
+                            ? ReflectionAccessFilter.FilterResult.ALLOW
+                            : ReflectionAccessFilter.FilterResult.BLOCK_ALL;
+                })
+                .create();
+        codec = new GsonCodec(gson);
+
+        api = new LocalAPIServer()
+                .respond("account/", "{\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,"
+                        + "\"credits\":42.5}")
+                .respond("servers/", "[" + SERVER + "]")
+                .respond("servers/" + SERVER_ID + "/", SERVER)
+                .respond("servers/" + SERVER_ID + "/logs/", "{\"content\":\"[12:00:00] Done\"}")
+                .respond("servers/" + SERVER_ID + "/logs/share/", "{\"id\":\"abc\",\"url\":\"https://mclo.gs/abc\","
+                        + "\"raw\":\"https://api.mclo.gs/1/raw/abc\"}")
+                .respond("servers/" + SERVER_ID + "/options/ram/", "{\"ram\":4}")
+                .respond("servers/" + SERVER_ID + "/options/motd/", "{\"motd\":\"hello\"}")
+                .respond("servers/" + SERVER_ID + "/playerlists/", "[\"whitelist\",\"ops\"]")
+                .respond("servers/" + SERVER_ID + "/command/", "null")
+                .respond("servers/" + SERVER_ID + "/files/info/world", "{\"path\":\"world\",\"name\":\"world\","
+                        + "\"isTextFile\":false,\"isConfigFile\":false,\"isDirectory\":true,\"isLog\":false,"
+                        + "\"isReadable\":true,\"isWritable\":true,\"size\":0,\"children\":[]}")
+                .respond("servers/" + SERVER_ID + "/files/config/server.properties", "[{\"key\":\"max-players\","
+                        + "\"label\":\"Max Players\",\"type\":\"integer\",\"value\":20,\"options\":null}]")
+                .respond("billing/pools/", "[" + POOL + "]")
+                .respond("billing/pools/" + POOL_ID + "/members/", "[{\"account\":\"account\",\"name\":\"Member\","
+                        + "\"share\":1,\"credits\":100.5,\"isOwner\":true}]");
+        client = api.clientBuilder().setJsonCodec(codec).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testMetadataClassesExist() throws ClassNotFoundException {
+        assertFalse(registered.isEmpty());
+        for (String name : registered) {
+            Class.forName(name, false, NativeImageTest.class.getClassLoader());
+        }
+    }
+
+    @Test
+    void testReflectionIsBlocked() {
+        // sanity check: a class that is neither registered nor has its own adapter can't be decoded
+        assertThrows(JsonIOException.class, () -> codec.decode("{\"percent\":1,\"usage\":2}", MemoryUsage.class));
+    }
+
+    @Test
+    void testRestAPI() throws IOException {
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(1, client.getServers().join().size());
+
+        Server server = client.getServer(SERVER_ID).fetch().join();
+        assertEquals("Vanilla", server.getSoftware().getName());
+        assertEquals("[12:00:00] Done", server.getLog().join().getContent());
+        assertEquals("https://mclo.gs/abc", server.shareLog().join().getUrl());
+        assertEquals(4, server.getRAM().join().getRam());
+        assertEquals("hello", server.fetchMotd().join().getMotd());
+        assertEquals(List.of("whitelist", "ops"), server.getPlayerLists().join());
+        server.executeCommand("say hello").join();
+
+        ServerFile file = server.getFile("world").fetch().join();
+        assertTrue(file.isDirectory());
+        Map<String, ConfigOption<?>> options = server.getFile("server.properties").getConfig().getOptions().join();
+        assertEquals(20L, options.get("max-players").getValue());
+
+        List<CreditPool> pools = client.getCreditPools().join();
+        assertEquals("Example Pool", pools.get(0).getName());
+        assertEquals("Member", pools.get(0).getMemberList().join().get(0).getName());
+    }
+
+    @Test
+    void testStreamedList() {
+        CompletableFuture<Server> first = new CompletableFuture<>();
+        client.streamServers().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(Server item) {
+                first.complete(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                first.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+        assertEquals("example", first.orTimeout(5, TimeUnit.SECONDS).join().getName());
+    }
+
+    @Test
+    void testWebSocketMessages() {
+        Server server = codec.decodeFrame("{\"type\":\"status\",\"stream\":\"status\",\"data\":" + SERVER + "}")
+                .getData(Server.class);
+        assertEquals("example", server.getName());
+        StatsData stats = codec.decodeFrame("{\"type\":\"stats\",\"stream\":\"stats\","
+                + "\"data\":{\"memory\":{\"percent\":42.5,\"usage\":1024}}}").getData(StatsData.class);
+        assertEquals(1024, stats.getMemory().getUsage());
+        TickData tick = codec.decodeFrame("{\"type\":\"tick\",\"stream\":\"tick\",\"data\":{\"averageTickTime\":12.5}}")
+                .getData(TickData.class);
+        assertEquals(12.5, tick.getAverageTickTime(), 0.0);
+        HeapUsage heap = codec.decodeFrame("{\"type\":\"heap\",\"stream\":\"heap\",\"data\":{\"usage\":2048}}")
+                .getData(HeapUsage.class);
+        assertEquals(2048, heap.getUsage());
+        WebSocketFrame line = codec.decodeFrame("{\"type\":\"line\",\"stream\":\"console\",\"data\":\"Done\"}");
+        assertEquals("Done", line.getData(String.class));
+
+        JsonObject params = new JsonObject();
+        params.addProperty("player", "Steve");
+        JsonObject request = new JsonObject();
+        request.addProperty("id", "2f8a6f5e-4b3c-4d2e-9f1a-0b1c2d3e4f50");
+        request.addProperty("method", "players/kick");
+        request.add("params", params);
+        String encoded = codec.encode(new StreamData<>("management", "request", request), StreamData.class);
+        assertEquals(JsonParser.parseString("{\"stream\":\"management\",\"type\":\"request\",\"data\":"
+                + request + "}"), JsonParser.parseString(encoded));
+        assertEquals(JsonParser.parseString("{\"stream\":\"console\",\"type\":\"command\",\"data\":\"say hi\"}"),
+                JsonParser.parseString(codec.encode(new StreamData<>("console", "command", "say hi"),
+                        StreamData.class)));
+    }
+}
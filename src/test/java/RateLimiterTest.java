@@ -0,0 +1,184 @@
+import com.exaroton.api.APIException;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimiterTest {
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+
+    private LocalAPIServer api;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "test-scheduler"));
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "test-executor"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testBurst() {
+        RateLimiter limiter = new RateLimiter(1, 3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.acquire(scheduler, executor).isDone());
+        }
+
+        CompletableFuture<Void> waiting = limiter.acquire(scheduler, executor);
+        assertFalse(waiting.isDone());
+        assertEquals(1, limiter.getQueueLength());
+        assertDoesNotThrow(() -> waiting.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSustainedRate() {
+        RateLimiter limiter = new RateLimiter(20, 1);
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            futures.add(limiter.acquire(scheduler, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertTrue(elapsed.toMillis() >= 450, "10 permits at 20/s took " + elapsed);
+    }
+
+    @Test
+    void testPause() {
+        RateLimiter limiter = new RateLimiter(100, 10);
+        limiter.pause(Duration.ofMillis(300));
+        assertTrue(limiter.isPaused());
+
+        long start = System.nanoTime();
+        limiter.acquire(scheduler, executor).join();
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 250);
+        assertFalse(limiter.isPaused());
+    }
+
+    @Test
+    void testPermitIsHandedOutOnTheGivenExecutor() {
+        RateLimiter limiter = new RateLimiter(20, 1);
+        limiter.acquire(scheduler, executor).join();
+
+        AtomicReference<String> thread = new AtomicReference<>();
+        limiter.acquire(scheduler, executor).thenRun(() -> thread.set(Thread.currentThread().getName())).join();
+        assertEquals("test-executor", thread.get());
+    }
+
+    @Test
+    void testDrainMovesToTheSchedulerOfAnotherRequest() {
+        RateLimiter limiter = new RateLimiter(10, 1);
+        limiter.acquire(scheduler, executor).join();
+
+        ScheduledExecutorService closing = Executors.newSingleThreadScheduledExecutor();
+        CompletableFuture<Void> cancelled = limiter.acquire(closing, executor);
+        CompletableFuture<Void> waiting = limiter.acquire(scheduler, executor);
+
+        // the client of the first request is closed
+        cancelled.cancel(true);
+        closing.shutdownNow();
+
+        assertDoesNotThrow(() -> waiting.get(2, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueueLength());
+    }
+
+    @Test
+    void testSchedulerShutDown() {
+        RateLimiter limiter = new RateLimiter(1, 1);
+        limiter.acquire(scheduler, executor).join();
+        scheduler.shutdownNow();
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> limiter.acquire(scheduler, executor).join());
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertEquals(0, limiter.getQueueLength());
+    }
+
+    @Test
+    void testParseRetryAfter() {
+        assertEquals(Duration.ofSeconds(120), RateLimiter.parseRetryAfter("120"));
+        assertEquals(Duration.ZERO, RateLimiter.parseRetryAfter("Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertNull(RateLimiter.parseRetryAfter("-1"));
+        assertNull(RateLimiter.parseRetryAfter("soon"));
+    }
+
+    @Test
+    void testRetryAfterTooManyRequests() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        api.on("account/", exchange -> {
+            if (requests.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                LocalAPIServer.send(exchange, 429, LocalAPIServer.error("Too many requests"));
+            } else {
+                LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+            }
+        });
+
+        ExarotonClient client = api.clientBuilder().setRateLimit(10, 5).build();
+        long start = System.nanoTime();
+        assertEquals("example", client.getAccount().join().getName());
+
+        assertEquals(2, api.getRequestCount("account/"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 900);
+    }
+
+    @Test
+    void testMaxRetries() throws IOException {
+        api.on("account/", exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            LocalAPIServer.send(exchange, 429, LocalAPIServer.error("Too many requests"));
+        });
+
+        RateLimiter limiter = new RateLimiter(100, 1).setMaxRetries(2);
+        ExarotonClient client = api.clientBuilder().setRateLimiter(limiter).build();
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+
+        assertInstanceOf(APIException.class, e.getCause());
+        assertEquals(429, ((APIException) e.getCause()).getStatusCode());
+        assertEquals(3, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testStreamBodyIsNotRetried() throws IOException {
+        api.on("servers/tgkm731xO7GiHt76/files/data/test.txt", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            LocalAPIServer.send(exchange, 429, LocalAPIServer.error("Too many requests"));
+        });
+
+        ExarotonClient client = api.clientBuilder().setRateLimit(100, 1).build();
+        var stream = new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8));
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> client.getServer("tgkm731xO7GiHt76").getFile("test.txt").upload(stream).join());
+
+        assertEquals(429, ((APIException) e.getCause()).getStatusCode());
+        assertEquals(1, api.getRequestCount("servers/tgkm731xO7GiHt76/files/data/test.txt"));
+    }
+}
@@ -0,0 +1,139 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.account.Account;
+import com.exaroton.api.server.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestCoalescingTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\",\"motd\":\"hello\",\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LocalAPIServer api;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on("account/", exchange -> {
+                    await();
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+                })
+                .on("servers/" + SERVER_ID + "/", exchange -> {
+                    await();
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success(SERVER));
+                })
+                .on("servers/" + SERVER_ID + "/stop/", exchange -> {
+                    await();
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success("null"));
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testConcurrentReadsShareOneRequest() throws IOException {
+        ExarotonClient client = api.clientBuilder().setRequestCoalescing(true).build();
+        List<CompletableFuture<Account>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(client.getAccount());
+        }
+        release.countDown();
+
+        Account first = futures.get(0).join();
+        for (CompletableFuture<Account> future : futures) {
+            assertSame(first, future.join());
+        }
+        assertEquals(1, api.getRequestCount("account/"));
+
+        client.getAccount().join();
+        assertEquals(2, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testServerFetch() throws IOException {
+        ExarotonClient client = api.clientBuilder().setRequestCoalescing(true).build();
+        Server a = client.getServer(SERVER_ID);
+        Server b = client.getServer(SERVER_ID);
+        CompletableFuture<Server> futureA = a.fetch();
+        CompletableFuture<Server> futureB = b.fetch();
+        release.countDown();
+
+        assertEquals("example", futureA.join().getName());
+        assertEquals("example", futureB.join().getName());
+        assertEquals(1, api.getRequestCount("servers/" + SERVER_ID + "/"));
+    }
+
+    @Test
+    void testCancellingOneCallerDoesNotAffectOthers() throws IOException {
+        ExarotonClient client = api.clientBuilder().setRequestCoalescing(true).build();
+        CompletableFuture<Account> first = client.getAccount();
+        CompletableFuture<Account> second = client.getAccount();
+        first.cancel(true);
+        release.countDown();
+
+        assertEquals("example", second.join().getName());
+        assertEquals(1, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testCancellingAllCallersAbortsRequest() throws IOException {
+        ExarotonClient client = api.clientBuilder().setRequestCoalescing(true).build();
+        CompletableFuture<Account> first = client.getAccount();
+        CompletableFuture<Account> second = client.getAccount().thenApply(account -> account);
+        first.cancel(true);
+        second.cancel(true);
+
+        // the aborted request is not shared with new callers
+        CompletableFuture<Account> third = client.getAccount();
+        release.countDown();
+        assertEquals("example", third.join().getName());
+        assertEquals(0, client.close(Duration.ZERO).getAbortedRequests());
+    }
+
+    @Test
+    void testActionsAreNotCoalesced() throws IOException {
+        Server server = api.clientBuilder().setRequestCoalescing(true).build().getServer(SERVER_ID);
+        CompletableFuture<Void> first = server.stop();
+        CompletableFuture<Void> second = server.stop();
+        release.countDown();
+
+        first.join();
+        second.join();
+        assertEquals(2, api.getRequestCount("servers/" + SERVER_ID + "/stop/"));
+    }
+
+    @Test
+    void testDisabledByDefault() throws IOException {
+        ExarotonClient client = api.client();
+        CompletableFuture<Account> first = client.getAccount();
+        CompletableFuture<Account> second = client.getAccount();
+        release.countDown();
+
+        assertNotSame(first.join(), second.join());
+        assertEquals(2, api.getRequestCount("account/"));
+    }
+}
@@ -0,0 +1,123 @@
+import com.exaroton.api.APIException;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RequestClass;
+import com.exaroton.api.metrics.EndpointMetrics;
+import com.exaroton.api.metrics.Histogram;
+import com.exaroton.api.metrics.HistogramRequestMetrics;
+import com.exaroton.api.metrics.RequestMetrics;
+import com.exaroton.api.metrics.RequestSample;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestMetricsTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String SERVER = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"address\":\"example.exaroton.me\",\"motd\":\"hello\",\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+
+    private final HistogramRequestMetrics metrics = new HistogramRequestMetrics();
+    private LocalAPIServer api;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("servers/" + SERVER_ID + "/", SERVER)
+                .respond("servers/" + SERVER_ID + "/command/", "null")
+                .on("account/", exchange -> LocalAPIServer.send(exchange, 401, LocalAPIServer.error("Invalid token")));
+        client = api.clientBuilder().setRequestMetrics(metrics).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testEndpointTemplate() throws IOException {
+        client.getServer(SERVER_ID).fetch().join();
+        client.getServer(SERVER_ID).fetch(true).join();
+
+        assertNull(metrics.getEndpoint("servers/" + SERVER_ID + "/"));
+        EndpointMetrics endpoint = metrics.getEndpoint("servers/{id}/");
+        assertNotNull(endpoint);
+        assertEquals(2, endpoint.getCount());
+        assertEquals(0, endpoint.getErrors());
+        assertEquals(2, endpoint.getStatusCodeCount(200));
+        assertEquals(2, endpoint.getTimeToFirstByte().getCount());
+        assertEquals(2, endpoint.getDecodeTime().getCount());
+        assertEquals(2, endpoint.getInitializeTime().getCount());
+        assertTrue(endpoint.getResponseBytes() > 2 * SERVER.length());
+        assertEquals(0, endpoint.getRequestBytes());
+    }
+
+    @Test
+    void testRequestBytes() throws IOException {
+        client.getServer(SERVER_ID).executeCommand("say hello").join();
+
+        EndpointMetrics endpoint = metrics.getEndpoint("servers/{id}/command/");
+        assertNotNull(endpoint);
+        assertTrue(endpoint.getRequestBytes() > "say hello".length());
+    }
+
+    @Test
+    void testErrorStatus() {
+        var error = assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertInstanceOf(APIException.class, error.getCause());
+
+        EndpointMetrics endpoint = metrics.getEndpoint("account/");
+        assertNotNull(endpoint);
+        assertEquals(1, endpoint.getErrors());
+        assertEquals(1, endpoint.getStatusCodeCount(401));
+        assertEquals(Map.of(401, 1L), endpoint.getStatusCodes());
+    }
+
+    @Test
+    void testCustomMetrics() throws IOException {
+        List<RequestSample> samples = new CopyOnWriteArrayList<>();
+        ExarotonClient client = api.clientBuilder().setRequestMetrics(samples::add).build();
+        client.getServer(SERVER_ID).fetch().join();
+
+        assertEquals(1, samples.size());
+        RequestSample sample = samples.get(0);
+        assertEquals("servers/{id}/", sample.getEndpoint());
+        assertEquals("GET", sample.getMethod());
+        assertEquals(RequestClass.READ, sample.getRequestClass());
+        assertEquals(200, sample.getStatusCode());
+        assertEquals(1, sample.getAttempts());
+        assertNull(sample.getError());
+        assertTrue(sample.getDurationNanos() >= sample.getTimeToFirstByteNanos());
+        assertTrue(sample.getDurationNanos() >= sample.getDecodeNanos() + sample.getInitializeNanos());
+    }
+
+    @Test
+    void testNoMetricsByDefault() {
+        assertSame(RequestMetrics.NOOP, api.client().getRequestMetrics());
+    }
+
+    @Test
+    void testHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(Duration.ZERO, histogram.getPercentile(0.5));
+
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(Duration.ofMillis(i).toNanos());
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(Duration.ofMillis(1000), histogram.getMax());
+        assertEquals(Duration.ofNanos(500_500_000), histogram.getMean());
+        assertEquals(500.0, histogram.getPercentile(0.5).toMillis(), 500 * 0.125);
+        assertEquals(990.0, histogram.getPercentile(0.99).toMillis(), 990 * 0.125);
+        assertEquals(Duration.ofMillis(1000), histogram.getPercentile(1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(1.5));
+    }
+}
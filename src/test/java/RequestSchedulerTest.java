@@ -0,0 +1,175 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RequestClass;
+import com.exaroton.api.http.RequestScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestSchedulerTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String FILES = "servers/" + SERVER_ID + "/files/data/";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LocalAPIServer api;
+    private RequestScheduler scheduler;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on(FILES + "backup.zip", exchange -> {
+                    exchange.sendResponseHeaders(200, 0);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(new byte[1024]);
+                        out.flush();
+                        await();
+                        out.write(new byte[1024]);
+                    }
+                })
+                .respond("servers/" + SERVER_ID + "/start/", "null");
+        scheduler = new RequestScheduler().setConcurrencyLimit(RequestClass.BULK, 1);
+        client = api.clientBuilder().setRequestScheduler(scheduler).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testStrictPriority() {
+        scheduler.setMaxConcurrency(1);
+        RequestScheduler.Slot bulk = scheduler.acquire(RequestClass.BULK).join();
+        CompletableFuture<RequestScheduler.Slot> read = scheduler.acquire(RequestClass.READ);
+        CompletableFuture<RequestScheduler.Slot> control = scheduler.acquire(RequestClass.CONTROL);
+
+        assertFalse(read.isDone());
+        assertFalse(control.isDone());
+        assertEquals(1, scheduler.getQueueLength(RequestClass.READ));
+        assertEquals(1, scheduler.getQueueLength(RequestClass.CONTROL));
+
+        bulk.release();
+        assertTrue(control.isDone());
+        assertFalse(read.isDone());
+
+        control.join().release();
+        assertTrue(read.isDone());
+        assertEquals(1, scheduler.getRunning(RequestClass.READ));
+    }
+
+    @Test
+    void testClassLimit() {
+        RequestScheduler.Slot first = scheduler.acquire(RequestClass.BULK).join();
+        CompletableFuture<RequestScheduler.Slot> second = scheduler.acquire(RequestClass.BULK);
+
+        assertFalse(second.isDone());
+        assertTrue(scheduler.acquire(RequestClass.READ).isDone());
+
+        first.release();
+        first.release();
+        assertTrue(second.isDone());
+        assertEquals(1, scheduler.getRunning(RequestClass.BULK));
+    }
+
+    @Test
+    void testCancelledRequestLeavesQueue() {
+        RequestScheduler.Slot first = scheduler.acquire(RequestClass.BULK).join();
+        CompletableFuture<RequestScheduler.Slot> second = scheduler.acquire(RequestClass.BULK);
+        second.cancel(true);
+
+        assertEquals(0, scheduler.getQueueLength(RequestClass.BULK));
+        first.release();
+        assertEquals(0, scheduler.getRunning(RequestClass.BULK));
+    }
+
+    @Test
+    void testTenantsTakeTurns() {
+        scheduler.setMaxConcurrency(1);
+        RequestScheduler.Slot running = scheduler.acquire(RequestClass.READ, "noisy").join();
+        List<CompletableFuture<RequestScheduler.Slot>> noisy = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            noisy.add(scheduler.acquire(RequestClass.READ, "noisy"));
+        }
+        CompletableFuture<RequestScheduler.Slot> quiet = scheduler.acquire(RequestClass.READ, "quiet");
+        assertEquals(4, scheduler.getQueueLength(RequestClass.READ));
+
+        running.release();
+        assertTrue(noisy.get(0).isDone());
+        noisy.get(0).join().release();
+        assertTrue(quiet.isDone(), "quiet tenant should be served before the remaining requests of the noisy one");
+        assertFalse(noisy.get(1).isDone());
+    }
+
+    @Test
+    void testWaitTime() throws InterruptedException {
+        RequestScheduler.Slot first = scheduler.acquire(RequestClass.BULK).join();
+        CompletableFuture<RequestScheduler.Slot> second = scheduler.acquire(RequestClass.BULK);
+        Thread.sleep(50);
+
+        assertTrue(scheduler.getCurrentWaitTime(RequestClass.BULK).toMillis() >= 50);
+        first.release();
+        second.join().release();
+        assertTrue(scheduler.getAverageWaitTime(RequestClass.BULK).compareTo(Duration.ZERO) > 0);
+        assertEquals(Duration.ZERO, scheduler.getCurrentWaitTime(RequestClass.BULK));
+    }
+
+    @Test
+    void testNoSchedulerByDefault() throws IOException {
+        ExarotonClient client = api.client();
+        assertNull(client.getRequestScheduler());
+
+        // more concurrent downloads than the default limit of a RequestScheduler
+        var file = client.getServer(SERVER_ID).getFile("backup.zip");
+        List<CompletableFuture<InputStream>> downloads = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            downloads.add(file.downloadStream());
+        }
+        for (CompletableFuture<InputStream> download : downloads) {
+            assertDoesNotThrow(() -> download.get(5, TimeUnit.SECONDS));
+        }
+
+        release.countDown();
+        for (CompletableFuture<InputStream> download : downloads) {
+            assertEquals(2048, assertDoesNotThrow(() -> download.join().readAllBytes()).length);
+        }
+    }
+
+    @Test
+    void testControlRequestBypassesBulkQueue() throws IOException {
+        var file = client.getServer(SERVER_ID).getFile("backup.zip");
+        InputStream first = file.downloadStream().join();
+        CompletableFuture<InputStream> second = file.downloadStream();
+
+        assertEquals(1, scheduler.getRunning(RequestClass.BULK));
+        assertEquals(1, scheduler.getQueueLength(RequestClass.BULK));
+        assertDoesNotThrow(() -> client.getServer(SERVER_ID).start().get(5, TimeUnit.SECONDS));
+        assertFalse(second.isDone());
+
+        release.countDown();
+        assertEquals(2048, assertDoesNotThrow(() -> first.readAllBytes()).length);
+        assertEquals(2048, assertDoesNotThrow(() -> second.join().readAllBytes()).length);
+        assertEquals(0, scheduler.getRunning(RequestClass.BULK));
+        assertEquals(0, scheduler.getRunning(RequestClass.CONTROL));
+    }
+}
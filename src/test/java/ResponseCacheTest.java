@@ -0,0 +1,242 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.ResponseCache;
+import com.exaroton.api.account.Account;
+import com.exaroton.api.request.account.GetAccountRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+    private static final String FILES = "servers/" + SERVER_ID + "/files/";
+
+    private final AtomicLong time = new AtomicLong();
+    private LocalAPIServer api;
+    private ResponseCache cache;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .respond("account/", ACCOUNT)
+                .respond(FILES + "info/a.txt", file("a.txt"))
+                .respond(FILES + "info/b.txt", file("b.txt"))
+                .respond(FILES + "data/a.txt", "null");
+        cache = new ResponseCache().setTicker(time::get);
+        client = api.clientBuilder().setResponseCache(cache).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    private void advance(Duration duration) {
+        time.addAndGet(duration.toNanos());
+    }
+
+    private static String file(String name) {
+        return "{\"path\":\"" + name + "\",\"name\":\"" + name + "\",\"isTextFile\":true,\"isConfigFile\":false,"
+                + "\"isDirectory\":false,\"isLog\":false,\"isReadable\":true,\"isWritable\":true,\"size\":5,\"children\":null}";
+    }
+
+    @Test
+    void testCachedResponse() throws IOException {
+        Account first = client.getAccount().join();
+        Account second = client.getAccount().join();
+
+        assertEquals("example", second.getName());
+        assertNotSame(first, second);
+        assertEquals(1, api.getRequestCount("account/"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testTimeToLive() throws IOException {
+        cache.setTimeToLive("account/", Duration.ofSeconds(10));
+        client.getAccount().join();
+        advance(Duration.ofSeconds(9));
+        client.getAccount().join();
+        assertEquals(1, api.getRequestCount("account/"));
+
+        advance(Duration.ofSeconds(1));
+        client.getAccount().join();
+        assertEquals(2, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testUncachedEndpoint() throws IOException {
+        cache.setTimeToLive("account/", Duration.ZERO);
+        client.getAccount().join();
+        client.getAccount().join();
+
+        assertEquals(2, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testConditionalRequest() throws IOException {
+        List<String> validators = new CopyOnWriteArrayList<>();
+        api.on("account/", exchange -> {
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            validators.add(String.valueOf(etag));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(etag)) {
+                LocalAPIServer.send(exchange, 304, "");
+            } else {
+                LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+            }
+        });
+        cache.setTimeToLive("account/", Duration.ofSeconds(10));
+
+        client.getAccount().join();
+        advance(Duration.ofSeconds(10));
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals("example", client.getAccount().join().getName());
+
+        assertEquals(List.of("null", "\"v1\""), validators);
+    }
+
+    @Test
+    void testStaleWhileRevalidate() throws IOException, InterruptedException {
+        cache.setTimeToLive("account/", Duration.ofSeconds(10)).setStaleWhileRevalidate(Duration.ofSeconds(10));
+        client.getAccount().join();
+        advance(Duration.ofSeconds(15));
+
+        assertEquals("example", client.getAccount().join().getName());
+        for (int i = 0; i < 100 && api.getRequestCount("account/") < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testWriteInvalidatesFile() throws IOException {
+        var a = client.getServer(SERVER_ID).getFile("a.txt");
+        var b = client.getServer(SERVER_ID).getFile("b.txt");
+        a.fetch().join();
+        b.fetch().join();
+        a.putContent("hello").join();
+        a.fetch().join();
+        b.fetch().join();
+
+        assertEquals(2, api.getRequestCount(FILES + "info/a.txt"));
+        assertEquals(1, api.getRequestCount(FILES + "info/b.txt"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction() throws IOException {
+        cache.setMaxEntries(1);
+        var a = client.getServer(SERVER_ID).getFile("a.txt");
+        var b = client.getServer(SERVER_ID).getFile("b.txt");
+        a.fetch().join();
+        b.fetch().join();
+        a.fetch().join();
+
+        assertEquals(2, api.getRequestCount(FILES + "info/a.txt"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testErrorsAreNotCached() throws IOException {
+        api.on("account/", exchange -> LocalAPIServer.send(exchange, 500, LocalAPIServer.error("Internal error")));
+
+        assertThrows(Exception.class, () -> client.getAccount().join());
+        assertThrows(Exception.class, () -> client.getAccount().join());
+        assertEquals(2, api.getRequestCount("account/"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testResponsesAreCachedPerToken() throws IOException {
+        api.on("account/", exchange -> {
+            String name = exchange.getRequestHeaders().getFirst("Authorization").substring("Bearer ".length());
+            LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT.replace("example", name)));
+        });
+        ExarotonClient a = api.clientBuilder().setAPIToken("token-a").setResponseCache(cache).build();
+        ExarotonClient b = api.clientBuilder().setAPIToken("token-b").setResponseCache(cache).build();
+
+        assertEquals("token-a", a.getAccount().join().getName());
+        assertEquals("token-b", b.getAccount().join().getName());
+        assertEquals("token-a", a.getAccount().join().getName());
+        a.setAPIToken("token-c");
+        assertEquals("token-c", a.getAccount().join().getName());
+        assertEquals(3, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testRevalidatedCompressedResponse() throws IOException, InterruptedException {
+        api.on("account/", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v" + api.getRequestCount("account/") + "\"");
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = new GZIPOutputStream(exchange.getResponseBody())) {
+                out.write(LocalAPIServer.success(ACCOUNT).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        cache.setTimeToLive("account/", Duration.ofSeconds(10)).setStaleWhileRevalidate(Duration.ofSeconds(10));
+        List<HttpHeaders> headers = new CopyOnWriteArrayList<>();
+        HttpResponse.BodyHandler<String> handler = responseInfo -> {
+            headers.add(responseInfo.headers());
+            return HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        };
+
+        client.request(new GetAccountRequest(), handler).join();
+        advance(Duration.ofSeconds(15));
+        client.request(new GetAccountRequest(), handler).join();
+
+        // wait until requests are answered from the revalidated response, whose body has already been decoded
+        Optional<String> revalidated = Optional.of("\"v2\"");
+        for (int i = 0; i < 100 && !headers.get(headers.size() - 1).firstValue("ETag").equals(revalidated); i++) {
+            Thread.sleep(20);
+            assertTrue(client.request(new GetAccountRequest(), handler).join().contains("example"));
+        }
+        assertEquals(revalidated, headers.get(headers.size() - 1).firstValue("ETag"));
+        assertEquals(2, api.getRequestCount("account/"));
+        for (HttpHeaders header : headers) {
+            assertTrue(header.firstValue("Content-Encoding").isEmpty());
+        }
+    }
+
+    @Test
+    void testInvalidationDuringFill() throws IOException {
+        CountDownLatch release = new CountDownLatch(1);
+        api.on(FILES + "info/a.txt", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            LocalAPIServer.send(exchange, 200, LocalAPIServer.success(file("a.txt")));
+        });
+        var a = client.getServer(SERVER_ID).getFile("a.txt");
+        var fetch = a.fetch();
+        while (api.getRequestCount(FILES + "info/a.txt") == 0) {
+            Thread.onSpinWait();
+        }
+
+        // the response requested before the write is not stored
+        a.putContent("hello").join();
+        release.countDown();
+        fetch.join();
+        a.fetch().join();
+
+        assertEquals(2, api.getRequestCount(FILES + "info/a.txt"));
+    }
+}
@@ -0,0 +1,148 @@
+import com.exaroton.api.APIException;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.http.RetryPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetryPolicyTest {
+    private static final String SERVER_ID = "tgkm731xO7GiHt76";
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+
+    private LocalAPIServer api;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer();
+        client = api.clientBuilder()
+                .setRetryPolicy(new RetryPolicy()
+                        .setMaxAttempts(3)
+                        .setInitialBackoff(Duration.ofMillis(10))
+                        .setMaxBackoff(Duration.ofMillis(50)))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    @Test
+    void testBackoff() {
+        RetryPolicy policy = new RetryPolicy()
+                .setInitialBackoff(Duration.ofMillis(100))
+                .setMaxBackoff(Duration.ofMillis(300));
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.getBackoff(1).compareTo(Duration.ofMillis(100)) <= 0);
+            assertTrue(policy.getBackoff(2).compareTo(Duration.ofMillis(200)) <= 0);
+            assertTrue(policy.getBackoff(10).compareTo(Duration.ofMillis(300)) <= 0);
+            assertFalse(policy.getBackoff(3).isNegative());
+        }
+    }
+
+    @Test
+    void testRetryTransientError() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        api.on("account/", exchange -> {
+            if (requests.incrementAndGet() < 3) {
+                LocalAPIServer.send(exchange, 502, LocalAPIServer.error("Bad gateway"));
+            } else {
+                LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+            }
+        });
+
+        assertEquals("example", client.getAccount().join().getName());
+        assertEquals(3, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testAttemptBudget() {
+        api.on("account/", exchange -> LocalAPIServer.send(exchange, 503, LocalAPIServer.error("Unavailable")));
+
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertEquals(503, ((APIException) e.getCause()).getStatusCode());
+        assertEquals(3, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testNonRetryableStatus() {
+        api.on("account/", exchange -> LocalAPIServer.send(exchange, 500, LocalAPIServer.error("Internal error")));
+
+        assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertEquals(1, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testNonIdempotentRequests() {
+        api.on("servers/" + SERVER_ID + "/command/", exchange -> LocalAPIServer.send(exchange, 502, LocalAPIServer.error("Bad gateway")));
+        api.on("servers/" + SERVER_ID + "/stop/", exchange -> LocalAPIServer.send(exchange, 502, LocalAPIServer.error("Bad gateway")));
+
+        var server = client.getServer(SERVER_ID);
+        assertThrows(CompletionException.class, () -> server.executeCommand("say hello").join());
+        assertThrows(CompletionException.class, () -> server.stop().join());
+
+        assertEquals(1, api.getRequestCount("servers/" + SERVER_ID + "/command/"));
+        assertEquals(1, api.getRequestCount("servers/" + SERVER_ID + "/stop/"));
+    }
+
+    @Test
+    void testReplayableUpload() throws IOException {
+        String path = "servers/" + SERVER_ID + "/files/data/test.txt";
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        api.on(path, exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if (bodies.size() == 1) {
+                LocalAPIServer.send(exchange, 503, LocalAPIServer.error("Unavailable"));
+            } else {
+                LocalAPIServer.send(exchange, 200, LocalAPIServer.success("null"));
+            }
+        });
+
+        var file = client.getServer(SERVER_ID).getFile("test.txt");
+        file.upload(() -> new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)), true).join();
+
+        assertEquals(List.of("content", "content"), bodies);
+    }
+
+    @Test
+    void testStreamUploadIsNotRetried() {
+        String path = "servers/" + SERVER_ID + "/files/data/test.txt";
+        api.on(path, exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            LocalAPIServer.send(exchange, 503, LocalAPIServer.error("Unavailable"));
+        });
+
+        var file = client.getServer(SERVER_ID).getFile("test.txt");
+        var stream = new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8));
+        assertThrows(CompletionException.class, () -> file.upload(stream).join());
+        assertEquals(1, api.getRequestCount(path));
+    }
+
+    @Test
+    void testConnectionRefused() throws IOException {
+        int port;
+        try (LocalAPIServer closed = new LocalAPIServer()) {
+            port = closed.clientBuilder().build().getPort();
+        }
+
+        ExarotonClient client = api.clientBuilder()
+                .setPort(port)
+                .setRetryPolicy(new RetryPolicy().setInitialBackoff(Duration.ofMillis(1)))
+                .build();
+        CompletionException e = assertThrows(CompletionException.class, () -> client.getAccount().join());
+        assertInstanceOf(IOException.class, e.getCause());
+    }
+}
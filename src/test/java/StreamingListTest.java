@@ -0,0 +1,199 @@
+import com.exaroton.api.APIException;
+import com.exaroton.api.APIRequest;
+import com.exaroton.api.APIResponse;
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.server.Server;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingListTest {
+    private static final String POOL_ID = "N2t9gWOMpzRL37FI";
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private LocalAPIServer api;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on("servers/", exchange -> {
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, 0);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        write(out, "{\"success\":true,\"error\":null,\"data\":[" + server(0) + ",");
+                        await();
+                        write(out, server(1) + "," + server(2) + "]}");
+                    }
+                })
+                .respond("billing/pools/" + POOL_ID + "/servers/", "[" + server(3) + "]")
+                .respond("servers/" + id(0) + "/", server(0))
+                .on("billing/pools/" + POOL_ID + "/", exchange ->
+                        LocalAPIServer.send(exchange, 403, LocalAPIServer.error("Forbidden")));
+        client = api.client();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        api.close();
+    }
+
+    private void await() {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(OutputStream out, String data) throws IOException {
+        out.write(data.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String id(int i) {
+        return String.format("server%010d", i);
+    }
+
+    private static String server(int i) {
+        return "{\"id\":\"" + id(i) + "\",\"name\":\"server " + i + "\",\"address\":\"example.exaroton.me\","
+                + "\"motd\":\"hello\",\"status\":0,\"host\":null,\"port\":null,\"shared\":false}";
+    }
+
+    @Test
+    void testElementsBeforeEndOfResponse() throws InterruptedException {
+        RecordingSubscriber<Server> subscriber = new RecordingSubscriber<>();
+        client.streamServers().subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        // the first server is published while the rest of the response is still pending
+        Server first = subscriber.next();
+        assertEquals("server 0", first.getName());
+        assertFalse(subscriber.completion.isDone());
+
+        release.countDown();
+        assertEquals("server 1", subscriber.next().getName());
+        assertEquals("server 2", subscriber.next().getName());
+        subscriber.completion.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    @Test
+    void testDemand() throws InterruptedException {
+        release.countDown();
+        RecordingSubscriber<Server> subscriber = new RecordingSubscriber<>();
+        client.streamServers().subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertEquals("server 0", subscriber.next().getName());
+        assertNull(subscriber.elements.poll(200, TimeUnit.MILLISECONDS));
+
+        subscriber.subscription.request(2);
+        assertEquals("server 1", subscriber.next().getName());
+        assertEquals("server 2", subscriber.next().getName());
+        assertFalse(subscriber.completion.isCompletedExceptionally());
+    }
+
+    @Test
+    void testInitialized() throws Exception {
+        release.countDown();
+        RecordingSubscriber<Server> subscriber = new RecordingSubscriber<>();
+        client.streamServers().subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        // initialized servers can send requests with the client
+        Server server = subscriber.next();
+        server.fetch(true).join();
+        assertEquals(1, api.getRequestCount("servers/" + id(0) + "/"));
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    void testCreditPoolServers() throws InterruptedException {
+        RecordingSubscriber<Server> subscriber = new RecordingSubscriber<>();
+        client.getCreditPool(POOL_ID).streamServerList().subscribe(subscriber);
+        subscriber.subscription.request(10);
+
+        assertEquals("server 3", subscriber.next().getName());
+        subscriber.completion.orTimeout(5, TimeUnit.SECONDS).join();
+    }
+
+    @Test
+    void testError() throws IOException {
+        RecordingSubscriber<Object> subscriber = new RecordingSubscriber<>();
+        client.requestList(new ForbiddenRequest(), Object.class).subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        var error = assertThrows(Exception.class, () -> subscriber.completion.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(APIException.class, error.getCause());
+        assertEquals(403, ((APIException) error.getCause()).getStatusCode());
+    }
+
+    @Test
+    void testInvalidDemand() {
+        RecordingSubscriber<Server> subscriber = new RecordingSubscriber<>();
+        client.streamServers().subscribe(subscriber);
+        subscriber.subscription.request(0);
+
+        var error = assertThrows(Exception.class, () -> subscriber.completion.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(IllegalArgumentException.class, error.getCause());
+    }
+
+    private static final class ForbiddenRequest extends APIRequest<List<Object>> {
+        @Override
+        protected String getEndpoint() {
+            return "billing/pools/" + POOL_ID + "/";
+        }
+
+        @Override
+        protected TypeToken<APIResponse<List<Object>>> getType() {
+            return new TypeToken<>() {};
+        }
+    }
+
+    private static final class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+        private final BlockingQueue<T> elements = new LinkedBlockingQueue<>();
+        private final CompletableFuture<Void> completion = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        private T next() throws InterruptedException {
+            T element = elements.poll(5, TimeUnit.SECONDS);
+            assertNotNull(element);
+            return element;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            elements.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            completion.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completion.complete(null);
+        }
+    }
+}
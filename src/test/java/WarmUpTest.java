@@ -0,0 +1,102 @@
+import com.exaroton.api.ExarotonClient;
+import com.exaroton.api.WarmUpResult;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WarmUpTest {
+    private static final String ACCOUNT = "{\"id\":\"tgkm731xO7GiHt76\",\"name\":\"example\",\"email\":\"example@example.com\",\"verified\":true,\"credits\":42}";
+
+    private final CountDownLatch arrived = new CountDownLatch(3);
+    private LocalAPIServer api;
+    private ExarotonClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        api = new LocalAPIServer()
+                .on("", exchange -> {
+                    awaitOthers();
+                    LocalAPIServer.send(exchange, 404, LocalAPIServer.error("Not found"));
+                })
+                .on("account/", exchange -> {
+                    awaitOthers();
+                    LocalAPIServer.send(exchange, 200, LocalAPIServer.success(ACCOUNT));
+                });
+        client = api.clientBuilder().setHttpVersion(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        api.close();
+    }
+
+    /**
+     * Hold warm-up requests until all of them have arrived, so each of them needs its own connection
+     */
+    private void awaitOthers() {
+        arrived.countDown();
+        try {
+            arrived.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Set<Integer> remotePorts() {
+        return api.getExchanges().stream()
+                .map(HttpExchange::getRemoteAddress)
+                .map(address -> address.getPort())
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    void testWarmUp() throws IOException, InterruptedException {
+        WarmUpResult result = client.warmUp(3).join();
+
+        assertEquals(3, result.getCompletedRequests());
+        assertTrue(result.getErrors().isEmpty());
+        assertNull(result.getAccount());
+        assertFalse(result.getDuration().isNegative());
+        assertEquals(3, remotePorts().size());
+        assertNull(api.getExchanges().get(0).getRequestHeaders().getFirst("Authorization"));
+
+        Thread.sleep(100);
+        client.getAccount().join();
+        assertEquals(3, remotePorts().size(), "request should reuse a warm connection");
+    }
+
+    @Test
+    void testPrefetchAccount() throws IOException {
+        WarmUpResult result = client.warmUp(3, true).join();
+
+        assertEquals(3, result.getCompletedRequests());
+        assertNotNull(result.getAccount());
+        assertEquals("example", result.getAccount().getName());
+        assertEquals(1, api.getRequestCount("account/"));
+    }
+
+    @Test
+    void testFailedWarmUp() throws IOException {
+        api.close();
+        WarmUpResult result = client.warmUp(2, true).join();
+
+        assertEquals(0, result.getCompletedRequests());
+        assertEquals(2, result.getErrors().size());
+        assertNull(result.getAccount());
+    }
+
+    @Test
+    void testInvalidConnections() {
+        assertThrows(IllegalArgumentException.class, () -> client.warmUp(0));
+    }
+}
@@ -0,0 +1,131 @@
+package com.exaroton.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentDecodingTest {
+    private static final byte[] DATA = "[12:00:00] [Server thread/INFO]: Done (1.234s)! For help, type \"help\"\n"
+            .repeat(2000).getBytes(StandardCharsets.UTF_8);
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] data, boolean raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decode data split into chunks of the given size
+     */
+    private static byte[] decode(ContentDecoding.Decoder decoder, byte[] data, int chunkSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < data.length; i += chunkSize) {
+            ByteBuffer chunk = ByteBuffer.wrap(data, i, Math.min(chunkSize, data.length - i)).slice();
+            for (ByteBuffer buffer : decoder.decode(List.of(chunk.asReadOnlyBuffer()))) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                out.write(bytes);
+            }
+        }
+        decoder.finish();
+        decoder.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    void testGzip() throws IOException {
+        byte[] compressed = gzip(DATA);
+        assertTrue(compressed.length < DATA.length / 10);
+        assertArrayEquals(DATA, decode(new ContentDecoding.Decoder(true), compressed, 8192));
+    }
+
+    @Test
+    void testGzipSingleBytes() throws IOException {
+        assertArrayEquals(DATA, decode(new ContentDecoding.Decoder(true), gzip(DATA), 1));
+    }
+
+    @Test
+    void testGzipHeaderWithFileName() throws IOException {
+        byte[] compressed = gzip(DATA);
+        byte[] name = "latest.log\0".getBytes(StandardCharsets.ISO_8859_1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(compressed, 0, 3);
+        out.write(8);
+        out.write(compressed, 4, 6);
+        out.write(name);
+        out.write(compressed, 10, compressed.length - 10);
+
+        assertArrayEquals(DATA, decode(new ContentDecoding.Decoder(true), out.toByteArray(), 3));
+    }
+
+    @Test
+    void testGzipMultipleMembers() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(gzip(DATA));
+        out.write(gzip(DATA));
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(DATA);
+        expected.write(DATA);
+
+        assertArrayEquals(expected.toByteArray(), decode(new ContentDecoding.Decoder(true), out.toByteArray(), 1000));
+    }
+
+    @Test
+    void testZlibDeflate() throws IOException {
+        assertArrayEquals(DATA, decode(new ContentDecoding.Decoder(false), deflate(DATA, false), 1000));
+    }
+
+    @Test
+    void testRawDeflate() throws IOException {
+        assertArrayEquals(DATA, decode(new ContentDecoding.Decoder(false), deflate(DATA, true), 1));
+    }
+
+    @Test
+    void testEmptyBody() throws IOException {
+        assertArrayEquals(new byte[0], decode(new ContentDecoding.Decoder(true), new byte[0], 1));
+    }
+
+    @Test
+    void testTruncatedBody() throws IOException {
+        byte[] compressed = gzip(DATA);
+        byte[] truncated = new byte[compressed.length - 4];
+        System.arraycopy(compressed, 0, truncated, 0, truncated.length);
+
+        assertThrows(EOFException.class, () -> decode(new ContentDecoding.Decoder(true), truncated, 1000));
+    }
+
+    @Test
+    void testCorruptTrailer() throws IOException {
+        byte[] compressed = gzip(DATA);
+        compressed[compressed.length - 8] ^= 1;
+
+        assertThrows(ZipException.class, () -> decode(new ContentDecoding.Decoder(true), compressed, 1000));
+    }
+
+    @Test
+    void testNotGzip() {
+        byte[] data = "{\"success\":true}".getBytes(StandardCharsets.UTF_8);
+        assertThrows(ZipException.class, () -> decode(new ContentDecoding.Decoder(true), data, 1000));
+    }
+}
@@ -0,0 +1,123 @@
+package com.exaroton.api;
+
+import com.exaroton.api.request.server.ServerRequest;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EndpointTemplateTest {
+    @Test
+    void testExpand() {
+        var template = EndpointTemplate.parse("servers/{id}/playerlists/{list}/");
+        assertEquals("servers/tgkm731xO7GiHt76/playerlists/whitelist/", template.expand(new TestRequest(
+                "servers/{id}/playerlists/{list}/")));
+    }
+
+    @Test
+    void testExpandWithoutParameters() {
+        var template = EndpointTemplate.parse("servers/");
+        assertEquals("servers/", template.expand(new TestRequest("servers/")));
+    }
+
+    @Test
+    void testExpandParameterAtEnd() {
+        var template = EndpointTemplate.parse("servers/{id}/files/data/{path}");
+        assertEquals("servers/tgkm731xO7GiHt76/files/data/world/level.dat", template.expand(new TestRequest(
+                "servers/{id}/files/data/{path}")));
+    }
+
+    @Test
+    void testMissingParameter() {
+        var template = EndpointTemplate.parse("servers/{unknown}/");
+        assertThrows(IllegalStateException.class, () -> template.expand(new TestRequest("servers/{unknown}/")));
+    }
+
+    @Test
+    void testUnclosedParameter() {
+        assertThrows(IllegalArgumentException.class, () -> EndpointTemplate.parse("servers/{id/"));
+    }
+
+    @Test
+    void testTemplateIsCached() {
+        var request = new TestRequest("servers/{id}/");
+        assertSame(request.getEndpointTemplate(), new TestRequest("servers/{id}/").getEndpointTemplate());
+        assertEquals("servers/tgkm731xO7GiHt76/", request.getPath());
+    }
+
+    @Test
+    void testChangedEndpointIsParsedAgain() {
+        assertEquals("servers/tgkm731xO7GiHt76/", new TestRequest("servers/{id}/").getPath());
+        assertEquals("servers/tgkm731xO7GiHt76/logs/", new TestRequest("servers/{id}/logs/").getPath());
+    }
+
+    @Test
+    void testDataOfSubclasses() {
+        var request = new LegacyRequest();
+        assertEquals(Map.of("id", "tgkm731xO7GiHt76", "name", "legacy"), request.data());
+        assertEquals("servers/tgkm731xO7GiHt76/legacy/legacy/", request.getPath());
+    }
+
+    private static final class LegacyRequest extends ServerRequest<Void> {
+        private LegacyRequest() {
+            super(ExarotonClient.builder().setAPIToken("token").build(), new Gson(), "tgkm731xO7GiHt76");
+        }
+
+        private Map<String, String> data() {
+            return getData();
+        }
+
+        @Override
+        protected String getEndpoint() {
+            return "servers/{id}/legacy/{name}/";
+        }
+
+        @Override
+        protected HashMap<String, String> getData() {
+            HashMap<String, String> data = super.getData();
+            data.put("name", "legacy");
+            return data;
+        }
+
+        @Override
+        protected TypeToken<APIResponse<Void>> getType() {
+            return null;
+        }
+    }
+
+    private static final class TestRequest extends APIRequest<Void> {
+        private final String endpoint;
+
+        private TestRequest(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        protected String getEndpoint() {
+            return endpoint;
+        }
+
+        @Override
+        protected String getParameter(String name) {
+            switch (name) {
+                case "id":
+                    return "tgkm731xO7GiHt76";
+                case "list":
+                    return "whitelist";
+                case "path":
+                    return "world/level.dat";
+                default:
+                    return super.getParameter(name);
+            }
+        }
+
+        @Override
+        protected TypeToken<APIResponse<Void>> getType() {
+            return null;
+        }
+    }
+}